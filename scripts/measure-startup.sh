@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request (process launch until GET /products returns 200) for the
+# regular jar, the AOT jar and the AOT jar with a CDS archive. Needs Postgres as configured in
+# application.yml. Usage: scripts/measure-startup.sh [runs-per-mode]
+set -euo pipefail
+
+RUNS="${1:-3}"
+PORT=8081
+URL="http://localhost:${PORT}/products?size=1"
+JAR_NAME="priceintel-0.0.1-SNAPSHOT.jar"
+OUT=var/startup
+COMMON_OPTS=(-Dpriceintel.warmup.snapshot-enabled=false)
+
+cd "$(dirname "$0")/.."
+
+measure() {
+  local mode="$1"; shift
+  for run in $(seq 1 "$RUNS"); do
+    local start end
+    start=$(date +%s%N)
+    java "${COMMON_OPTS[@]}" "$@" > "${OUT}/${mode}-${run}.log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "${mode}: application exited, see ${OUT}/${mode}-${run}.log" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    end=$(date +%s%N)
+    echo "${mode} run ${run}: $(( (end - start) / 1000000 )) ms"
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+  done
+}
+
+rm -rf "$OUT" && mkdir -p "$OUT"
+
+./mvnw -B -q clean package -DskipTests
+java -Djarmode=tools -jar "target/${JAR_NAME}" extract --destination "${OUT}/regular"
+measure regular -jar "${OUT}/regular/${JAR_NAME}"
+
+./mvnw -B -q -Pfast-start clean package -DskipTests
+java -Djarmode=tools -jar "target/${JAR_NAME}" extract --destination "${OUT}/aot"
+measure aot -Dspring.aot.enabled=true -jar "${OUT}/aot/${JAR_NAME}"
+
+# Training run: refreshes the context (so the classes it loads are recorded) and exits
+java "${COMMON_OPTS[@]}" -XX:ArchiveClassesAtExit="${OUT}/aot/application.jsa" -Dspring.context.exit=onRefresh \
+  -Dspring.aot.enabled=true -jar "${OUT}/aot/${JAR_NAME}" > "${OUT}/cds-training.log" 2>&1
+measure aot-cds -XX:SharedArchiveFile="${OUT}/aot/application.jsa" -Dspring.aot.enabled=true -jar "${OUT}/aot/${JAR_NAME}"
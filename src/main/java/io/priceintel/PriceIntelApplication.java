@@ -1,11 +1,16 @@
 package io.priceintel;
 
+import io.priceintel.config.PriceIntelRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableScheduling
+@ImportRuntimeHints(PriceIntelRuntimeHints.class)
 public class PriceIntelApplication {
 
 	public static void main(String[] args) {
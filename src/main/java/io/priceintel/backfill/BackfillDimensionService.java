@@ -0,0 +1,36 @@
+package io.priceintel.backfill;
+
+import io.priceintel.event.ProductCreatedEvent;
+import io.priceintel.repository.BackfillJdbcRepository;
+import io.priceintel.repository.BackfillJdbcRepository.CopyWriter;
+import io.priceintel.repository.BackfillJdbcRepository.ResolvedSkuKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Resolves a backfill's products, platforms and SKU locations in a short transaction of its own.
+ * New dimension rows are committed before the import merges its snapshots, so live ingest and
+ * catalog upserts on the same natural keys never wait on the long import transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class BackfillDimensionService {
+
+    private final BackfillJdbcRepository backfillJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // The writer receives the COPY stream for BackfillJdbcRepository.copySkuKeys
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ResolvedSkuKeys resolve(CopyWriter keys) {
+        backfillJdbcRepository.createSkuKeyTable();
+        backfillJdbcRepository.copySkuKeys(keys);
+        ResolvedSkuKeys resolved = backfillJdbcRepository.resolveSkuKeys();
+
+        // Published with this commit: the products exist even if the import itself fails later
+        resolved.createdProducts().forEach(product -> eventPublisher.publishEvent(new ProductCreatedEvent(product)));
+        return resolved;
+    }
+}
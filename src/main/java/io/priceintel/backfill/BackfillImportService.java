@@ -0,0 +1,291 @@
+package io.priceintel.backfill;
+
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.event.BackfillCompletedEvent;
+import io.priceintel.repository.BackfillJdbcRepository;
+import io.priceintel.repository.BackfillJdbcRepository.ResolvedSkuKeys;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Historical backfill from CSV. The file is parsed as a stream and validated row by row; valid
+ * rows go straight into a COPY stream to a staging table, with the (platform, product, city)
+ * tuple replaced by a small integer key. Dimensions are then resolved once per key, in a short
+ * transaction committed on its own ({@link BackfillDimensionService}), and the snapshots merged in
+ * one set-based statement. Staging and merge are one transaction.
+ * <p>
+ * Backfilled snapshots do not trigger alerts or SSE streams; they are history, not live changes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackfillImportService {
+
+    static final List<String> COLUMNS = List.of(
+            "platform_name", "brand_name", "product_name", "pack_size", "city", "product_url",
+            "selling_price", "discount", "availability", "crawl_status", "captured_at");
+
+    private final BackfillJdbcRepository backfillJdbcRepository;
+    private final BackfillDimensionService backfillDimensionService;
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final BackfillProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, BackfillProgress> imports = new LinkedHashMap<>();
+
+    public BackfillProgress start() {
+        BackfillProgress progress = new BackfillProgress(UUID.randomUUID().toString(), properties.getMaxReportedRejections());
+        synchronized (imports) {
+            imports.put(progress.getImportId(), progress);
+            evictFinished();
+        }
+        return progress;
+    }
+
+    public List<BackfillProgress> listImports() {
+        synchronized (imports) {
+            return new ArrayList<>(imports.values());
+        }
+    }
+
+    @Transactional
+    public BackfillProgress importCsv(BackfillProgress progress, InputStream csv) throws IOException {
+        log.info("Backfill {} started", progress.getImportId());
+        try {
+            long watermark = priceSnapshotJdbcRepository.findMaxSnapshotId();
+            backfillJdbcRepository.createStagingTables();
+
+            // STAGING: parse + COPY in one pass
+            Map<SkuKey, KeyState> keys = new HashMap<>();
+            stage(progress, new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 1 << 16), keys);
+            if (progress.getRowsStaged().get() == 0) {
+                throw new IllegalArgumentException("Backfill file contains no valid rows");
+            }
+
+            // RESOLVING: products, platforms and SKU locations, once per distinct key and committed
+            // before the merge so their unique index entries are not held for the rest of the import
+            progress.phase(BackfillPhase.RESOLVING);
+            ResolvedSkuKeys resolved = backfillDimensionService.resolve(out -> writeKeys(out, keys));
+            backfillJdbcRepository.copySkuLocationIds(out -> writeSkuLocationIds(out, resolved.skuLocationIds()));
+            backfillJdbcRepository.analyzeStagingTables();
+            progress.resolved(resolved.skuLocationCount(), resolved.createdProducts().size());
+            log.info("Backfill {}: resolved {} key(s) to {} SKU location(s), {} new product(s)",
+                    progress.getImportId(), keys.size(), progress.getSkuLocations(), resolved.createdProducts().size());
+
+            // MERGING: duplicate suppression + insert as one statement
+            progress.phase(BackfillPhase.MERGING);
+            progress.merged(backfillJdbcRepository.mergeStagedSnapshots());
+
+            eventPublisher.publishEvent(new BackfillCompletedEvent(progress.getImportId(), watermark));
+
+            progress.completed();
+            log.info("Backfill {} completed: staged={}, inserted={}, duplicates={}, rejected={}, {} rows/s",
+                    progress.getImportId(), progress.getRowsStaged().get(), progress.getRowsInserted(),
+                    progress.getDuplicatesSkipped(), progress.getRowsRejected().get(), progress.getRowsPerSecond());
+            return progress;
+        } catch (IOException | RuntimeException e) {
+            progress.failed(e.getMessage());
+            log.error("Backfill {} failed in phase {} after {} staged row(s)",
+                    progress.getImportId(), progress.getPhase(), progress.getRowsStaged().get(), e);
+            throw e;
+        }
+    }
+
+    private void stage(BackfillProgress progress, Reader input, Map<SkuKey, KeyState> keys) throws IOException {
+        BackfillCsvReader reader = new BackfillCsvReader(input);
+        int[] columnIndexes = readHeader(reader.next());
+        // The header may carry extra columns, so the shortest usable row ends at the last one we read
+        int minRecordSize = Arrays.stream(columnIndexes).max().orElse(0) + 1;
+
+        backfillJdbcRepository.copyIntoStaging(out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            StringBuilder line = new StringBuilder(128);
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                long recordNumber = reader.getRecordNumber();
+                try {
+                    stageRow(record, columnIndexes, minRecordSize, recordNumber, keys, line);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    progress.reject(recordNumber, e.getMessage());
+                    continue;
+                }
+                writer.append(line);
+                long staged = progress.getRowsStaged().incrementAndGet();
+                if (staged % properties.getProgressLogInterval() == 0) {
+                    log.info("Backfill {}: staged {} row(s), {} rejected, {} rows/s",
+                            progress.getImportId(), staged, progress.getRowsRejected().get(), progress.getRowsPerSecond());
+                }
+            }
+            writer.flush();
+        });
+    }
+
+    // Validates one record like the live ingest path and renders its staging CSV line
+    private void stageRow(List<String> record, int[] columnIndexes, int minRecordSize, long recordNumber,
+                          Map<SkuKey, KeyState> keys, StringBuilder line) {
+        if (record.size() < minRecordSize) {
+            throw new IllegalArgumentException("expected " + minRecordSize + " columns, found " + record.size());
+        }
+
+        String platformName = required(record, columnIndexes, 0).trim();
+        String brandName = required(record, columnIndexes, 1).trim();
+        String productName = required(record, columnIndexes, 2).trim();
+        String packSize = record.get(columnIndexes[3]).trim();
+        String city = required(record, columnIndexes, 4).trim().toLowerCase(Locale.ROOT);
+        String productUrl = required(record, columnIndexes, 5).trim();
+        BigDecimal sellingPrice = new BigDecimal(required(record, columnIndexes, 6).trim());
+        String discountValue = record.get(columnIndexes[7]).trim();
+        BigDecimal discount = discountValue.isEmpty() ? null : new BigDecimal(discountValue);
+        Availability availability = Availability.valueOf(required(record, columnIndexes, 8).trim().toUpperCase(Locale.ROOT));
+        CrawlStatus crawlStatus = CrawlStatus.valueOf(required(record, columnIndexes, 9).trim().toUpperCase(Locale.ROOT));
+        Instant capturedAt = parseInstant(required(record, columnIndexes, 10).trim());
+
+        if (sellingPrice.signum() < 0) {
+            throw new IllegalArgumentException("selling_price cannot be negative");
+        }
+        if (discount != null && discount.signum() < 0) {
+            throw new IllegalArgumentException("discount cannot be negative");
+        }
+
+        SkuKey skuKey = new SkuKey(platformName, brandName, productName, packSize, city);
+        KeyState key = keys.computeIfAbsent(skuKey, k -> new KeyState(keys.size() + 1));
+        // New SKU locations get the URL of their most recent row
+        if (key.urlCapturedAt == null || capturedAt.isAfter(key.urlCapturedAt)) {
+            key.productUrl = productUrl;
+            key.urlCapturedAt = capturedAt;
+        }
+
+        line.setLength(0);
+        line.append(recordNumber).append(',')
+                .append(key.id).append(',')
+                .append(sellingPrice.toPlainString()).append(',')
+                .append(discount != null ? discount.toPlainString() : "").append(',')
+                .append(availability.name()).append(',')
+                .append(crawlStatus.name()).append(',')
+                .append(capturedAt).append('\n');
+    }
+
+    private int[] readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Backfill file is empty");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] indexes = new int[COLUMNS.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = positions.get(COLUMNS.get(i));
+            if (position == null) {
+                missing.add(COLUMNS.get(i));
+            } else {
+                indexes[i] = position;
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Backfill header is missing columns: {}", missing);
+            throw new IllegalArgumentException("Backfill header is missing columns: " + String.join(", ", missing));
+        }
+        return indexes;
+    }
+
+    private static String required(List<String> record, int[] columnIndexes, int column) {
+        String value = record.get(columnIndexes[column]);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(COLUMNS.get(column) + " is required");
+        }
+        return value;
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).toInstant();
+        }
+    }
+
+    private static void writeKeys(OutputStream out, Map<SkuKey, KeyState> keys) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        for (Map.Entry<SkuKey, KeyState> entry : keys.entrySet()) {
+            SkuKey key = entry.getKey();
+            writer.append(Integer.toString(entry.getValue().id)).append(',')
+                    .append(quote(key.platformName())).append(',')
+                    .append(quote(key.brandName())).append(',')
+                    .append(quote(key.productName())).append(',')
+                    .append(quote(key.packSize())).append(',')
+                    .append(quote(key.city())).append(',')
+                    .append(quote(entry.getValue().productUrl)).append('\n');
+        }
+        writer.flush();
+    }
+
+    private static void writeSkuLocationIds(OutputStream out, Map<Integer, Long> skuLocationIds) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        for (Map.Entry<Integer, Long> entry : skuLocationIds.entrySet()) {
+            writer.append(Integer.toString(entry.getKey())).append(',')
+                    .append(Long.toString(entry.getValue())).append('\n');
+        }
+        writer.flush();
+    }
+
+    // Always quoted, so empty strings stay empty strings instead of becoming NULL
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void evictFinished() {
+        int finished = (int) imports.values().stream().filter(p -> p.getFinishedAt() != null).count();
+        var iterator = imports.values().iterator();
+        while (finished > properties.getRetainedImports() && iterator.hasNext()) {
+            if (iterator.next().getFinishedAt() != null) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    private record SkuKey(String platformName, String brandName, String productName, String packSize, String city) {
+    }
+
+    private static final class KeyState {
+
+        private final int id;
+        private String productUrl;
+        private Instant urlCapturedAt;
+
+        private KeyState(int id) {
+            this.id = id;
+        }
+    }
+}
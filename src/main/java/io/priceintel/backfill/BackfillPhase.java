@@ -0,0 +1,9 @@
+package io.priceintel.backfill;
+
+public enum BackfillPhase {
+    STAGING,
+    RESOLVING,
+    MERGING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,78 @@
+package io.priceintel.backfill;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of one backfill import, updated by the importing thread and read by
+ * GET /internal/backfill.
+ */
+@Getter
+public class BackfillProgress {
+
+    private final String importId;
+    private final Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+    private volatile BackfillPhase phase = BackfillPhase.STAGING;
+    private final AtomicLong rowsStaged = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private volatile long skuLocations;
+    private volatile long productsCreated;
+    private volatile long rowsInserted;
+    private volatile long duplicatesSkipped;
+    private volatile String failure;
+    private final List<String> rejections = new CopyOnWriteArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxReportedRejections;
+
+    BackfillProgress(String importId, int maxReportedRejections) {
+        this.importId = importId;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    // Staged rows per second while staging, end-to-end throughput once finished
+    public long getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsStaged.get() * 1000 / millis;
+    }
+
+    void reject(long recordNumber, String reason) {
+        rowsRejected.incrementAndGet();
+        if (rejections.size() < maxReportedRejections) {
+            rejections.add("record " + recordNumber + ": " + reason);
+        }
+    }
+
+    void phase(BackfillPhase phase) {
+        this.phase = phase;
+    }
+
+    void resolved(long skuLocations, long productsCreated) {
+        this.skuLocations = skuLocations;
+        this.productsCreated = productsCreated;
+    }
+
+    void merged(long rowsInserted) {
+        this.rowsInserted = rowsInserted;
+        this.duplicatesSkipped = rowsStaged.get() - rowsInserted;
+    }
+
+    void completed() {
+        finishedAt = Instant.now();
+        phase = BackfillPhase.COMPLETED;
+    }
+
+    void failed(String reason) {
+        finishedAt = Instant.now();
+        failure = reason;
+        phase = BackfillPhase.FAILED;
+    }
+}
@@ -0,0 +1,20 @@
+package io.priceintel.backfill;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.backfill")
+public class BackfillProperties {
+
+    // Rows between progress log lines
+    private long progressLogInterval = 1_000_000;
+
+    // Rejected rows are counted in full, but only this many are reported with their reason
+    private int maxReportedRejections = 100;
+
+    // Finished imports kept for GET /internal/backfill
+    private int retainedImports = 20;
+}
@@ -0,0 +1,301 @@
+package io.priceintel.basket;
+
+import io.priceintel.dto.BasketIndexRecord;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * One recompute of every configured basket for one day. Latest prices are loaded into
+ * per-city, per-platform arrays indexed by basket item, then a fork/join job splits the work
+ * by city and, for large baskets, by item range.
+ * <p>
+ * Each day is chain-linked to the previous stored day of the same basket, city and platform:
+ * the index moves by the cost ratio of the items priced on both days, so products appearing
+ * or disappearing from a platform change the basket cost but not the index.
+ */
+final class BasketIndexComputation {
+
+    static final BigDecimal BASE_INDEX = BigDecimal.valueOf(100);
+    private static final int ITEM_SPLIT_THRESHOLD = 256;
+
+    private final List<String> basketNames = new ArrayList<>();
+    private final Map<String, Integer> basketIndexes = new HashMap<>();
+    private final Map<Long, Integer> itemIndexes = new HashMap<>();
+    private final long[] productIds;
+    // [basket][item]; 0 when the item is not in the basket
+    private final double[][] quantities;
+    private final int[] itemsTotal;
+    private final Map<String, CityPrices> cities = new TreeMap<>();
+
+    BasketIndexComputation(List<BasketIndexProperties.Basket> baskets) {
+        List<Long> products = new ArrayList<>();
+        for (BasketIndexProperties.Basket basket : baskets) {
+            basketIndexes.put(basket.getName(), basketNames.size());
+            basketNames.add(basket.getName());
+            for (BasketIndexProperties.Item item : basket.getItems()) {
+                itemIndexes.computeIfAbsent(item.getProductId(), id -> {
+                    products.add(id);
+                    return products.size() - 1;
+                });
+            }
+        }
+
+        productIds = products.stream().mapToLong(Long::longValue).toArray();
+        quantities = new double[baskets.size()][productIds.length];
+        itemsTotal = new int[baskets.size()];
+        for (int b = 0; b < baskets.size(); b++) {
+            for (BasketIndexProperties.Item item : baskets.get(b).getItems()) {
+                int i = itemIndexes.get(item.getProductId());
+                if (quantities[b][i] == 0) {
+                    itemsTotal[b]++;
+                }
+                quantities[b][i] += item.getQuantity().doubleValue();
+            }
+        }
+    }
+
+    Long[] getProductIds() {
+        return Arrays.stream(productIds).boxed().toArray(Long[]::new);
+    }
+
+    List<String> getBasketNames() {
+        return basketNames;
+    }
+
+    void addPrice(String city, long platformId, long productId, double price) {
+        Integer item = itemIndexes.get(productId);
+        if (item != null) {
+            cities.computeIfAbsent(city, CityPrices::new).platform(platformId, this).prices[item] = price;
+        }
+    }
+
+    // Must follow addPrice: platforms without current prices have nothing to link
+    void addPrevious(BasketIndexRecord previous) {
+        Integer basket = basketIndexes.get(previous.getBasket());
+        CityPrices city = cities.get(previous.getCity());
+        PlatformPrices platform = city != null ? city.platformsById.get(previous.getPlatformId()) : null;
+        if (basket == null || platform == null) {
+            return;
+        }
+
+        double[] previousPrices = new double[productIds.length];
+        Arrays.fill(previousPrices, Double.NaN);
+        for (int k = 0; k < previous.getProductIds().length; k++) {
+            Integer item = itemIndexes.get(previous.getProductIds()[k]);
+            if (item != null) {
+                previousPrices[item] = previous.getPrices()[k].doubleValue();
+            }
+        }
+        platform.previousPrices[basket] = previousPrices;
+        platform.previousIndex[basket] = previous.getIndexValue().doubleValue();
+    }
+
+    List<BasketIndexRecord> compute(ForkJoinPool pool, LocalDate day) {
+        List<CityPrices> cityList = new ArrayList<>(cities.values());
+        if (cityList.isEmpty()) {
+            return List.of();
+        }
+        return pool.invoke(new CityTask(cityList, 0, cityList.size(), day));
+    }
+
+    private List<BasketIndexRecord> toRecords(CityPrices city, Sums sums, LocalDate day) {
+        List<BasketIndexRecord> records = new ArrayList<>();
+        for (int b = 0; b < basketNames.size(); b++) {
+            for (int p = 0; p < city.platforms.size(); p++) {
+                if (sums.priced[b][p] == 0) {
+                    continue;
+                }
+                PlatformPrices platform = city.platforms.get(p);
+                double previousIndex = platform.previousIndex[b];
+                double index;
+                if (Double.isNaN(previousIndex)) {
+                    index = BASE_INDEX.doubleValue();
+                } else if (sums.linkedPrevious[b][p] > 0) {
+                    index = previousIndex * sums.linkedCurrent[b][p] / sums.linkedPrevious[b][p];
+                } else {
+                    // Nothing priced on both days: carry the index over rather than restart it
+                    index = previousIndex;
+                }
+
+                long[] pricedIds = new long[sums.priced[b][p]];
+                BigDecimal[] prices = new BigDecimal[sums.priced[b][p]];
+                int k = 0;
+                for (int i = 0; i < productIds.length; i++) {
+                    if (quantities[b][i] != 0 && !Double.isNaN(platform.prices[i])) {
+                        pricedIds[k] = productIds[i];
+                        prices[k++] = BigDecimal.valueOf(platform.prices[i]);
+                    }
+                }
+
+                records.add(BasketIndexRecord.builder()
+                        .basket(basketNames.get(b))
+                        .city(city.city)
+                        .platformId(platform.platformId)
+                        .day(day)
+                        .basketCost(BigDecimal.valueOf(sums.cost[b][p]).setScale(2, RoundingMode.HALF_UP))
+                        .itemsPriced(sums.priced[b][p])
+                        .itemsTotal(itemsTotal[b])
+                        .indexValue(BigDecimal.valueOf(index).setScale(4, RoundingMode.HALF_UP))
+                        .productIds(pricedIds)
+                        .prices(prices)
+                        .build());
+            }
+        }
+        return records;
+    }
+
+    private final class CityTask extends RecursiveTask<List<BasketIndexRecord>> {
+
+        private final List<CityPrices> cityList;
+        private final int from;
+        private final int to;
+        private final LocalDate day;
+
+        private CityTask(List<CityPrices> cityList, int from, int to, LocalDate day) {
+            this.cityList = cityList;
+            this.from = from;
+            this.to = to;
+            this.day = day;
+        }
+
+        @Override
+        protected List<BasketIndexRecord> compute() {
+            if (to - from == 1) {
+                CityPrices city = cityList.get(from);
+                return toRecords(city, new ItemTask(city, 0, productIds.length).compute(), day);
+            }
+            int middle = (from + to) >>> 1;
+            CityTask left = new CityTask(cityList, from, middle, day);
+            left.fork();
+            List<BasketIndexRecord> right = new CityTask(cityList, middle, to, day).compute();
+            List<BasketIndexRecord> records = new ArrayList<>(left.join());
+            records.addAll(right);
+            return records;
+        }
+    }
+
+    private final class ItemTask extends RecursiveTask<Sums> {
+
+        private final CityPrices city;
+        private final int from;
+        private final int to;
+
+        private ItemTask(CityPrices city, int from, int to) {
+            this.city = city;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Sums compute() {
+            if (to - from > ITEM_SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ItemTask left = new ItemTask(city, from, middle);
+                left.fork();
+                Sums sums = new ItemTask(city, middle, to).compute();
+                sums.add(left.join());
+                return sums;
+            }
+
+            Sums sums = new Sums(basketNames.size(), city.platforms.size());
+            for (int p = 0; p < city.platforms.size(); p++) {
+                PlatformPrices platform = city.platforms.get(p);
+                for (int i = from; i < to; i++) {
+                    double price = platform.prices[i];
+                    if (Double.isNaN(price)) {
+                        continue;
+                    }
+                    for (int b = 0; b < quantities.length; b++) {
+                        double quantity = quantities[b][i];
+                        if (quantity == 0) {
+                            continue;
+                        }
+                        sums.cost[b][p] += quantity * price;
+                        sums.priced[b][p]++;
+                        double[] previous = platform.previousPrices[b];
+                        if (previous != null && !Double.isNaN(previous[i])) {
+                            sums.linkedCurrent[b][p] += quantity * price;
+                            sums.linkedPrevious[b][p] += quantity * previous[i];
+                        }
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+
+    // Partial basket sums of one city, [basket][platform]
+    private static final class Sums {
+
+        private final double[][] cost;
+        private final double[][] linkedCurrent;
+        private final double[][] linkedPrevious;
+        private final int[][] priced;
+
+        private Sums(int baskets, int platforms) {
+            cost = new double[baskets][platforms];
+            linkedCurrent = new double[baskets][platforms];
+            linkedPrevious = new double[baskets][platforms];
+            priced = new int[baskets][platforms];
+        }
+
+        private void add(Sums other) {
+            for (int b = 0; b < cost.length; b++) {
+                for (int p = 0; p < cost[b].length; p++) {
+                    cost[b][p] += other.cost[b][p];
+                    linkedCurrent[b][p] += other.linkedCurrent[b][p];
+                    linkedPrevious[b][p] += other.linkedPrevious[b][p];
+                    priced[b][p] += other.priced[b][p];
+                }
+            }
+        }
+    }
+
+    private static final class CityPrices {
+
+        private final String city;
+        private final List<PlatformPrices> platforms = new ArrayList<>();
+        private final Map<Long, PlatformPrices> platformsById = new HashMap<>();
+
+        private CityPrices(String city) {
+            this.city = city;
+        }
+
+        private PlatformPrices platform(long platformId, BasketIndexComputation computation) {
+            return platformsById.computeIfAbsent(platformId, id -> {
+                PlatformPrices platform = new PlatformPrices(id, computation.productIds.length, computation.basketNames.size());
+                platforms.add(platform);
+                return platform;
+            });
+        }
+    }
+
+    private static final class PlatformPrices {
+
+        private final long platformId;
+        // [item]; NaN when the platform has no active SKU of the product in the city
+        private final double[] prices;
+        // [basket][item] of the previous stored day; null when there is none
+        private final double[][] previousPrices;
+        private final double[] previousIndex;
+
+        private PlatformPrices(long platformId, int items, int baskets) {
+            this.platformId = platformId;
+            this.prices = new double[items];
+            this.previousPrices = new double[baskets][];
+            this.previousIndex = new double[baskets];
+            Arrays.fill(prices, Double.NaN);
+            Arrays.fill(previousIndex, Double.NaN);
+        }
+    }
+}
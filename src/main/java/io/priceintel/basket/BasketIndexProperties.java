@@ -0,0 +1,44 @@
+package io.priceintel.basket;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.basket-index")
+public class BasketIndexProperties {
+
+    private boolean enabled = true;
+
+    private long recomputeIntervalMs = 300_000;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // One crawl cycle: a recompute that takes longer than this is logged as a warning
+    private long maxComputeMs = 60_000;
+
+    private List<Basket> baskets = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Basket {
+
+        private String name;
+
+        private List<Item> items = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Item {
+
+        private Long productId;
+
+        private BigDecimal quantity = BigDecimal.ONE;
+    }
+}
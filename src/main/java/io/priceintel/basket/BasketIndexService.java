@@ -0,0 +1,133 @@
+package io.priceintel.basket;
+
+import io.priceintel.dto.BasketIndexRecord;
+import io.priceintel.dto.response.BasketIndexResponse;
+import io.priceintel.repository.BasketIndexJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * City price index: the cost of each configured basket of products per city and platform,
+ * recomputed from latest prices every {@code recompute-interval-ms} and stored per UTC day, so
+ * reads are a primary-key range lookup. See {@link BasketIndexComputation} for the method.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BasketIndexService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final BasketIndexProperties properties;
+    private final BasketIndexJdbcRepository basketIndexJdbcRepository;
+
+    // A recompute can take up to max-compute-ms; off the shared scheduler thread, so replica lag
+    // checks and SSE heartbeats never queue behind it. A tick while one is still running is dropped
+    private final ExecutorService recomputeExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            Thread.ofPlatform().name("basket-index-recompute").daemon().factory());
+
+    @Scheduled(fixedDelayString = "${priceintel.basket-index.recompute-interval-ms:300000}")
+    public void scheduleRecompute() {
+        if (!properties.isEnabled() || properties.getBaskets().isEmpty()) {
+            return;
+        }
+
+        try {
+            recomputeExecutor.execute(this::recompute);
+        } catch (RejectedExecutionException e) {
+            log.warn("Basket index recompute skipped: the previous one is still running");
+        }
+    }
+
+    void recompute() {
+        try {
+            if (!basketIndexJdbcRepository.runWithRecomputeLock(this::recomputeToday)) {
+                log.debug("Basket index recompute skipped: another instance holds the lock");
+            }
+        } catch (RuntimeException e) {
+            log.error("Basket index recompute failed", e);
+        }
+    }
+
+    void recomputeToday() {
+        long startTime = System.currentTimeMillis();
+        LocalDate day = LocalDate.now(ZoneOffset.UTC);
+        try {
+            BasketIndexComputation computation = new BasketIndexComputation(properties.getBaskets());
+            AtomicInteger prices = new AtomicInteger();
+            basketIndexJdbcRepository.forEachLatestPrice(computation.getProductIds(), (city, platformId, productId, price) -> {
+                computation.addPrice(city, platformId, productId, price);
+                prices.incrementAndGet();
+            });
+            basketIndexJdbcRepository.findLatestBefore(computation.getBasketNames(), day).forEach(computation::addPrevious);
+            long loadedAt = System.currentTimeMillis();
+
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+            List<BasketIndexRecord> records;
+            try {
+                records = computation.compute(pool, day);
+            } finally {
+                pool.shutdown();
+            }
+            long computedAt = System.currentTimeMillis();
+            int saved = basketIndexJdbcRepository.saveAll(records);
+
+            long duration = System.currentTimeMillis() - startTime;
+            if (duration > properties.getMaxComputeMs()) {
+                log.warn("Basket index recompute for {} took {} ms, longer than the {} ms budget (load {} ms, compute {} ms)",
+                        day, duration, properties.getMaxComputeMs(), loadedAt - startTime, computedAt - loadedAt);
+            } else {
+                log.info("Recomputed basket index for {}: {} price(s) -> {} row(s) in {} ms (load {} ms, compute {} ms)",
+                        day, prices.get(), saved, duration, loadedAt - startTime, computedAt - loadedAt);
+            }
+        } catch (RuntimeException e) {
+            log.error("Basket index recompute for {} failed after {} ms", day, System.currentTimeMillis() - startTime, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recomputeExecutor.shutdown();
+    }
+
+    @Transactional(readOnly = true)
+    public List<BasketIndexResponse> getIndex(String basket, String city, Long platformId, LocalDate from, LocalDate to) {
+        log.debug("Fetching basket index: basket={}, city={}, platformId={}, from={}, to={}", basket, city, platformId, from, to);
+
+        if (properties.getBaskets().stream().noneMatch(b -> b.getName().equals(basket))) {
+            log.warn("Unknown basket requested: {}", basket);
+            throw new IllegalArgumentException("Unknown basket: " + basket);
+        }
+        if (city == null || city.isBlank()) {
+            throw new IllegalArgumentException("City cannot be empty");
+        }
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        return basketIndexJdbcRepository.find(basket, city.trim().toLowerCase(Locale.ROOT), platformId, start, end);
+    }
+}
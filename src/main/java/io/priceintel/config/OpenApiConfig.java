@@ -0,0 +1,59 @@
+package io.priceintel.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+
+/**
+ * API docs are not needed to serve traffic, so the OpenAPI model and springdoc's own beans are
+ * created on first use of /v3/api-docs or /swagger-ui instead of during startup.
+ * Set {@code priceintel.startup.defer-api-docs=false} to initialize them eagerly.
+ */
+@Lazy
+@Configuration
+public class OpenApiConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public OpenAPI priceIntelOpenApi() {
+        return new OpenAPI().info(new Info()
+                .title("PriceIntel API")
+                .description("Price tracking and comparison across e-commerce platforms")
+                .version("v1"));
+    }
+
+    @Bean
+    public static BeanFactoryPostProcessor deferApiDocsInitialization(Environment environment) {
+        return beanFactory -> {
+            if (environment.getProperty("priceintel.startup.defer-api-docs", Boolean.class, true)) {
+                markSpringdocBeansLazy(beanFactory);
+            }
+        };
+    }
+
+    private static void markSpringdocBeansLazy(ConfigurableListableBeanFactory beanFactory) {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (isSpringdocBean(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    // @Bean methods have no bean class of their own; fall back to the declaring configuration
+    private static boolean isSpringdocBean(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        if (className == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
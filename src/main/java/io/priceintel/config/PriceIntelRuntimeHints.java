@@ -0,0 +1,45 @@
+package io.priceintel.config;
+
+import io.priceintel.exception.ApiErrorResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection hints for types Jackson and Hibernate bind at runtime: JPA entities, enums and the
+ * Lombok request/response DTOs. Evaluated once by {@code process-aot}; the packages are scanned at
+ * build time so new DTOs are picked up without touching this class.
+ */
+public class PriceIntelRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> BINDING_PACKAGES = List.of(
+            "io.priceintel.entity",
+            "io.priceintel.enums",
+            "io.priceintel.dto",
+            "io.priceintel.crawler.dto");
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+        if (classLoader != null) {
+            scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        }
+
+        for (String basePackage : BINDING_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+                bindingRegistrar.registerReflectionHints(hints.reflection(), type);
+            }
+        }
+        bindingRegistrar.registerReflectionHints(hints.reflection(), ApiErrorResponse.class);
+    }
+}
@@ -0,0 +1,53 @@
+package io.priceintel.controller;
+
+import io.priceintel.dto.request.CreateAlertRuleRequest;
+import io.priceintel.dto.response.AlertRuleResponse;
+import io.priceintel.service.AlertRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/alerts/rules")
+@Tag(name = "Price Alerts", description = "APIs for registering price alert rules")
+public class AlertRuleController {
+
+    private final AlertRuleService alertRuleService;
+
+    @Operation(
+            summary = "Register a price alert rule",
+            description = "PRICE_BELOW needs skuLocationId and thresholdPrice; BACK_IN_STOCK needs skuLocationId; " +
+                    "PRICE_DROP_PERCENT needs productId, dropPercent and optionally city. Rules fire when an ingested " +
+                    "snapshot crosses the condition and are written to the alert outbox."
+    )
+    @PostMapping
+    public ResponseEntity<AlertRuleResponse> createRule(@RequestBody CreateAlertRuleRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body cannot be null");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(alertRuleService.createRule(request));
+    }
+
+    @Operation(summary = "Get a price alert rule")
+    @GetMapping("/{ruleId}")
+    public AlertRuleResponse getRule(@PathVariable Long ruleId) {
+        return alertRuleService.getRule(ruleId);
+    }
+
+    @Operation(summary = "Deactivate a price alert rule")
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deactivateRule(@PathVariable Long ruleId) {
+        alertRuleService.deactivateRule(ruleId);
+        return ResponseEntity.noContent().build();
+    }
+}
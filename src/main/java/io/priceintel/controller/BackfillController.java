@@ -0,0 +1,65 @@
+package io.priceintel.controller;
+
+import io.priceintel.backfill.BackfillImportService;
+import io.priceintel.backfill.BackfillProgress;
+import io.priceintel.datasource.ConnectionWorkload;
+import io.priceintel.datasource.WorkloadContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/internal/backfill")
+@RequiredArgsConstructor
+@Tag(name = "Backfill", description = "Bulk import of historical prices")
+public class BackfillController {
+
+    private final BackfillImportService backfillImportService;
+
+    @Operation(
+            summary = "Import historical prices from CSV",
+            description = "Streams a CSV file (header: platform_name, brand_name, product_name, pack_size, city, product_url, " +
+                    "selling_price, discount, availability, crawl_status, captured_at) into price_snapshots. " +
+                    "Send Content-Encoding: gzip for compressed files. Invalid rows are skipped and reported; " +
+                    "new products, platforms and SKU locations are committed first, the snapshots as a whole. Progress is visible via GET /internal/backfill while it runs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import completed"),
+            @ApiResponse(responseCode = "400", description = "Missing header columns or no valid rows")
+    })
+    @PostMapping(consumes = {"text/csv", "application/octet-stream"})
+    public BackfillProgress importCsv(HttpServletRequest request) throws IOException {
+        BackfillProgress progress = backfillImportService.start();
+        log.info("Backfill upload received: importId={}, contentLength={}", progress.getImportId(), request.getContentLengthLong());
+
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 1 << 16);
+        }
+        // /internal/** maps to the ingest pool; a bulk import must not take connections from live crawls
+        try (WorkloadContext.Scope ignored = WorkloadContext.open(ConnectionWorkload.BACKGROUND)) {
+            return backfillImportService.importCsv(progress, body);
+        }
+    }
+
+    @Operation(summary = "List running and recent backfill imports")
+    @GetMapping
+    public List<BackfillProgress> listImports() {
+        return backfillImportService.listImports();
+    }
+}
@@ -0,0 +1,46 @@
+package io.priceintel.controller;
+
+import io.priceintel.basket.BasketIndexService;
+import io.priceintel.dto.response.BasketIndexResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/basket-index")
+@Tag(name = "Basket Index", description = "City-level price index of configured product baskets")
+public class BasketIndexController {
+
+    private final BasketIndexService basketIndexService;
+
+    @Operation(
+            summary = "Basket price index",
+            description = "Daily basket cost and chain-linked index (100 on the first priced day) per platform " +
+                    "for one city, ordered by platform and day. Defaults to the last 30 days."
+    )
+    @GetMapping("/{basket}")
+    public List<BasketIndexResponse> getBasketIndex(
+            @PathVariable String basket,
+            @Parameter(description = "City (case-insensitive)", example = "bangalore", required = true)
+            @RequestParam String city,
+            @Parameter(description = "Platform ID; all platforms when omitted", example = "1")
+            @RequestParam(required = false) Long platformId,
+            @Parameter(description = "First UTC day (inclusive)", example = "2026-02-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last UTC day (inclusive)", example = "2026-03-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return basketIndexService.getIndex(basket, city, platformId, from, to);
+    }
+}
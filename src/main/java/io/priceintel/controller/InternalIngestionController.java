@@ -2,10 +2,15 @@ package io.priceintel.controller;
 
 import io.priceintel.crawler.dto.IngestionRequest;
 import io.priceintel.crawler.facade.IngestionFacadeService;
+import io.priceintel.datasource.ReadConsistencyFilter;
+import io.priceintel.datasource.WriteTokenService;
+import io.priceintel.service.SkuLocationService;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,6 +23,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class InternalIngestionController {
 
     private final IngestionFacadeService ingestionFacadeService;
+    private final ObjectProvider<WriteTokenService> writeTokenService;
+    private final SkuLocationService skuLocationService;
 
     @PostMapping("/ingest")
     public ResponseEntity<Map<String, String>> ingest(@RequestBody IngestionRequest request) {
@@ -32,6 +39,21 @@ public class InternalIngestionController {
 
         ingestionFacadeService.ingest(request);
 
+        // Only present with read replicas enabled; lets the client read its own write
+        WriteTokenService tokenService = writeTokenService.getIfAvailable();
+        if (tokenService != null) {
+            return ResponseEntity.ok()
+                    .header(ReadConsistencyFilter.WRITE_TOKEN_HEADER, tokenService.currentWriteToken())
+                    .body(Map.of("message", "Ingestion successful"));
+        }
+
         return ResponseEntity.ok(Map.of("message", "Ingestion successful"));
     }
+
+    @PostMapping("/sku-locations/{skuLocationId}/deactivate")
+    public ResponseEntity<Map<String, String>> deactivateSkuLocation(@PathVariable Long skuLocationId) {
+        log.info("Deactivation request received: skuLocationId={}", skuLocationId);
+        skuLocationService.deactivateSkuLocation(skuLocationId);
+        return ResponseEntity.ok(Map.of("message", "SKU location deactivated"));
+    }
 }
@@ -1,10 +1,22 @@
 package io.priceintel.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.priceintel.dto.BatchLatestPriceItem;
+import io.priceintel.dto.SkuVersion;
+import io.priceintel.dto.request.BatchLatestPriceRequest;
+import io.priceintel.dto.request.SkuComparisonRequest;
 import io.priceintel.dto.response.LatestPriceResponse;
 import io.priceintel.dto.response.PriceHistoryResponse;
+import io.priceintel.dto.response.PriceStatsResponse;
 import io.priceintel.dto.response.SkuComparisonResponse;
 import io.priceintel.enums.ComparisonSortType;
+import io.priceintel.enums.HistoryLayout;
+import io.priceintel.enums.ResponseEncoding;
 import io.priceintel.service.PriceQueryService;
+import io.priceintel.service.PriceResponseCache;
+import io.priceintel.service.PriceSnapshotMapper;
+import io.priceintel.stream.PriceStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,16 +24,29 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,35 +58,59 @@ import java.util.stream.Collectors;
 public class PriceQueryController {
 
     private final PriceQueryService priceQueryService;
+    private final PriceResponseCache priceResponseCache;
+    private final PriceSnapshotMapper priceSnapshotMapper;
+    private final ObjectMapper objectMapper;
+    private final PriceStreamHub priceStreamHub;
 
     @Operation(
             summary = "Get latest price for a SKU",
-            description = "Retrieves the most recent price snapshot for the specified SKU location"
+            description = "Retrieves the most recent price snapshot for the specified SKU location. " +
+                    "Responds in JSON by default, or CBOR/Smile when requested via Accept."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Latest price retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Latest price retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = LatestPriceResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Latest price unchanged since the supplied ETag",
+                    content = @Content(schema = @Schema(hidden = true))),
             @ApiResponse(responseCode = "404", description = "No price snapshot found for the SKU",
                     content = @Content(schema = @Schema(hidden = true)))
     })
     @GetMapping("/{skuId}/latest")
-    public ResponseEntity<LatestPriceResponse> getLatestPrice(
+    public ResponseEntity<byte[]> getLatestPrice(
             @Parameter(description = "SKU location ID", example = "1", required = true)
-            @PathVariable Long skuId
+            @PathVariable Long skuId,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers,
+            @Parameter(hidden = true) WebRequest webRequest
     ) {
-        return ResponseEntity.ok(priceQueryService.getLatestPrice(skuId));
+        ResponseEncoding encoding = ResponseEncoding.negotiate(headers.getAccept());
+        SkuVersion version = priceResponseCache.getVersion(skuId);
+        String eTag = eTagFor(version, encoding);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        byte[] body = priceResponseCache.getOrRender(skuId, version, "latest", encoding,
+                () -> priceQueryService.getLatestPrice(skuId));
+        return encodedWithETag(body, encoding, eTag);
     }
 
     @Operation(
             summary = "Get price history for a SKU",
-            description = "Retrieves price history for the specified SKU location with optional date range and limit"
+            description = "Retrieves price history for the specified SKU location with optional date range and limit. " +
+                    "layout=COLUMNAR returns parallel arrays instead of one object per point. " +
+                    "Responds in JSON by default, or CBOR/Smile when requested via Accept."
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Price history retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Price history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = PriceHistoryResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Price history unchanged since the supplied ETag",
+                    content = @Content(schema = @Schema(hidden = true))),
             @ApiResponse(responseCode = "404", description = "No price history found for the SKU",
                     content = @Content(schema = @Schema(hidden = true)))
     })
     @GetMapping("/{skuId}/history")
-    public ResponseEntity<PriceHistoryResponse> getPriceHistory(
+    public ResponseEntity<byte[]> getPriceHistory(
             @Parameter(description = "SKU location ID", example = "1", required = true)
             @PathVariable Long skuId,
             @Parameter(description = "Start date-time (ISO 8601 format)", example = "2026-02-01T00:00:00Z")
@@ -73,9 +122,128 @@ public class PriceQueryController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             Instant end,
             @Parameter(description = "Maximum number of records to return", example = "100")
-            @RequestParam(required = false) Integer limit
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Response layout: ROWS (one object per point) or COLUMNAR (parallel arrays)",
+                    example = "ROWS")
+            @RequestParam(required = false, defaultValue = "ROWS") HistoryLayout layout,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders headers,
+            @Parameter(hidden = true) WebRequest webRequest
+    ) {
+        ResponseEncoding encoding = ResponseEncoding.negotiate(headers.getAccept());
+        SkuVersion version = priceResponseCache.getVersion(skuId);
+        String eTag = historyETagFor(version, encoding);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        String view = "history:" + layout + ":" + start + ":" + end + ":" + limit;
+        byte[] body = priceResponseCache.getOrRender(skuId, version, view, encoding, () -> {
+            PriceHistoryResponse history = priceQueryService.getHistory(skuId, start, end, limit);
+            return layout == HistoryLayout.COLUMNAR ? priceSnapshotMapper.toColumns(history) : history;
+        });
+        return encodedWithETag(body, encoding, eTag);
+    }
+
+    @Operation(
+            summary = "Get price statistics for a SKU",
+            description = "Min/max/average, p10/p50/p90 percentiles and volatility (standard deviation, coefficient " +
+                    "of variation) over an optional inclusive date range, or the whole history. Merged from per-day " +
+                    "sketches; percentiles are within quantileRankError of their rank (0 when exact)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Price statistics calculated successfully",
+                    content = @Content(schema = @Schema(implementation = PriceStatsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid SKU ID or date range",
+                    content = @Content(schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "404", description = "No price snapshots found for the SKU in the range",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{skuId}/stats")
+    public ResponseEntity<PriceStatsResponse> getPriceStats(
+            @Parameter(description = "SKU location ID", example = "1", required = true)
+            @PathVariable Long skuId,
+            @Parameter(description = "Start date-time (ISO 8601 format)", example = "2026-02-01T00:00:00Z")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant start,
+            @Parameter(description = "End date-time (ISO 8601 format)", example = "2026-02-25T23:59:59Z")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant end
     ) {
-        return ResponseEntity.ok(priceQueryService.getHistory(skuId, start, end, limit));
+        return ResponseEntity.ok(priceQueryService.getStats(skuId, start, end));
+    }
+
+    @Operation(
+            summary = "Get latest prices for many SKUs",
+            description = "Resolves the latest price for up to 50,000 SKU location IDs in one request. " +
+                    "Results are streamed in request order as {\"results\":[...],\"requested\":n,\"found\":m}; " +
+                    "SKUs without a snapshot are returned with found=false."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Latest prices streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Empty, oversized or invalid SKU ID list",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @PostMapping("/latest:batch")
+    public void getLatestPricesBatch(
+            @RequestBody BatchLatestPriceRequest request,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) throws IOException {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body cannot be null");
+        }
+
+        // Validates before the first byte is written so errors still map to a normal 400
+        List<Long> skuIds = request.getSkuIds();
+        priceQueryService.validateBatchSkuIds(skuIds);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            int[] found = {0};
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+
+            priceQueryService.streamLatestPrices(skuIds, chunk -> {
+                try {
+                    for (BatchLatestPriceItem item : chunk) {
+                        generator.writeObject(item);
+                        if (item.isFound()) {
+                            found[0]++;
+                        }
+                    }
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            generator.writeEndArray();
+            generator.writeNumberField("requested", skuIds.size());
+            generator.writeNumberField("found", found[0]);
+            generator.writeEndObject();
+        }
+    }
+
+    @Operation(
+            summary = "Stream price changes for SKUs",
+            description = "Opens a Server-Sent Events stream that pushes a 'price' event (id = snapshot id, data = latest price) " +
+                    "whenever a new, non-duplicate snapshot is recorded for one of the given SKUs. Clients that fall too far " +
+                    "behind receive a 'dropped' event and should reconnect and resync from /latest."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too many SKU IDs",
+                    content = @Content(schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "503", description = "Stream capacity reached on this node",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPriceChanges(
+            @Parameter(description = "Comma-separated list of SKU location IDs to follow", example = "1,2,3", required = true)
+            @RequestParam String skuIds
+    ) {
+        return priceStreamHub.subscribeToSkus(parseSkuIds(skuIds));
     }
 
     @Operation(
@@ -110,12 +278,69 @@ public class PriceQueryController {
                     description = "Sort order for results. Options: PRICE_ASC, PRICE_DESC, LATEST",
                     example = "PRICE_ASC"
             )
-            @RequestParam(required = false, defaultValue = "PRICE_ASC") ComparisonSortType sortType
+            @RequestParam(required = false, defaultValue = "PRICE_ASC") ComparisonSortType sortType,
+
+            @Parameter(
+                    description = "Compare each SKU's price as it stood at this instant (ISO 8601) instead of the latest. " +
+                            "SKUs without a snapshot by then are left out.",
+                    example = "2025-10-20T18:00:00Z"
+            )
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf
     ) {
+        return ResponseEntity.ok(priceQueryService.compareSkus(parseSkuIds(skuIds), inStockOnly, sortType, asOf));
+    }
+
+    @Operation(
+            summary = "Compare a large SKU set",
+            description = "Compares up to 100,000 SKU location IDs sent in the request body. Prices are resolved in chunks " +
+                    "and metrics are computed over the whole set; results are always paginated (default page 0, size 100)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "SKU comparison completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input or insufficient valid SKUs for comparison",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @PostMapping(value = "/compare", consumes = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public ResponseEntity<SkuComparisonResponse> compareLargeSkuSet(@RequestBody SkuComparisonRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body cannot be null");
+        }
+
+        return ResponseEntity.ok(priceQueryService.compareLargeSkuSet(
+                request.getSkuIds(), request.getInStockOnly(), request.getSortType(), request.getPage(), request.getSize()));
+    }
+
+    @Operation(
+            summary = "Compare a large SKU set (packed ids)",
+            description = "Same as the JSON variant, but the body is a packed array of big-endian 64-bit SKU IDs " +
+                    "and the options are passed as query parameters."
+    )
+    @PostMapping(value = "/compare", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<SkuComparisonResponse> compareLargeSkuSetPacked(
+            @RequestBody byte[] body,
+            @RequestParam(required = false, defaultValue = "false") Boolean inStockOnly,
+            @RequestParam(required = false, defaultValue = "PRICE_ASC") ComparisonSortType sortType,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        if (body == null || body.length % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Packed SKU ID body must be a multiple of 8 bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        List<Long> skuIds = new ArrayList<>(body.length / Long.BYTES);
+        while (buffer.hasRemaining()) {
+            skuIds.add(buffer.getLong());
+        }
+
+        return ResponseEntity.ok(priceQueryService.compareLargeSkuSet(skuIds, inStockOnly, sortType, page, size));
+    }
+
+    private List<Long> parseSkuIds(String skuIds) {
         // Parse comma-separated SKU IDs with safety
-        List<Long> skuIdList;
         try {
-            skuIdList = Arrays.stream(skuIds.split(","))
+            return Arrays.stream(skuIds.split(","))
                     .map(String::trim)
                     .filter(s -> !s.isEmpty())
                     .map(Long::parseLong)
@@ -123,8 +348,33 @@ public class PriceQueryController {
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Invalid SKU ID format in skuIds parameter");
         }
+    }
 
+    private String eTagFor(SkuVersion version, ResponseEncoding encoding) {
+        return encoding == ResponseEncoding.JSON
+                ? version.toETag()
+                : version.toETag(encoding.name().toLowerCase());
+    }
+
+    private String historyETagFor(SkuVersion version, ResponseEncoding encoding) {
+        return encoding == ResponseEncoding.JSON
+                ? version.toHistoryETag()
+                : version.toHistoryETag(encoding.name().toLowerCase());
+    }
+
+    // A 304 must carry the same Vary as the 200 it stands for, or caches may reuse it across encodings
+    private ResponseEntity<byte[]> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
 
-        return ResponseEntity.ok(priceQueryService.compareSkus(skuIdList, inStockOnly, sortType));
+    private ResponseEntity<byte[]> encodedWithETag(byte[] body, ResponseEncoding encoding, String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(encoding.getMediaType())
+                .body(body);
     }
 }
@@ -1,8 +1,14 @@
 package io.priceintel.controller;
 
+import io.priceintel.dto.response.CheapestOfferResponse;
+import io.priceintel.dto.response.PriceHistoryMatrixResponse;
+import io.priceintel.dto.response.ProductCityComparisonResponse;
 import io.priceintel.dto.response.SkuComparisonResponse;
 import io.priceintel.enums.ComparisonSortType;
+import io.priceintel.service.CheapestOfferService;
+import io.priceintel.service.PriceHistoryMatrixService;
 import io.priceintel.service.PriceQueryService;
+import io.priceintel.stream.PriceStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,12 +17,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
 
 @RestController
 @RequiredArgsConstructor
@@ -25,6 +36,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductComparisonController {
 
     private final PriceQueryService priceQueryService;
+    private final PriceStreamHub priceStreamHub;
+    private final CheapestOfferService cheapestOfferService;
+    private final PriceHistoryMatrixService priceHistoryMatrixService;
 
     @Operation(
             summary = "Compare product prices across platforms",
@@ -80,9 +94,115 @@ public class ProductComparisonController {
                     description = "Page size for pagination (max 100). Optional.",
                     example = "20"
             )
+            @RequestParam(required = false) Integer size,
+
+            @Parameter(
+                    description = "Compare prices as they stood at this instant (ISO 8601) instead of the latest. " +
+                            "Includes every SKU location that had a snapshot by then, whether or not it is still active.",
+                    example = "2025-10-20T18:00:00Z"
+            )
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf
+    ) {
+        return ResponseEntity.ok(priceQueryService.compareProduct(productId, city, inStockOnly, sortType, page, size, asOf));
+    }
+
+    @Operation(
+            summary = "Compare product prices within each city",
+            description = "Returns one comparison block per city the product is sold in (cheapest, most expensive, " +
+                    "best value, spread and ranked results), ordered by city. Latest prices are fetched once for all " +
+                    "cities. Sorting and pagination apply to the results of each city."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-city comparison completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters or no (in-stock) snapshots for the product",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{productId}/compare/by-city")
+    public ResponseEntity<ProductCityComparisonResponse> compareProductByCity(
+            @Parameter(description = "Product ID to compare prices for", example = "1", required = true)
+            @PathVariable Long productId,
+
+            @Parameter(description = "Include only in-stock items; cities left without any are omitted", example = "false")
+            @RequestParam(required = false, defaultValue = "false") Boolean inStockOnly,
+
+            @Parameter(description = "Sort order within each city. Options: PRICE_ASC, PRICE_DESC, LATEST", example = "PRICE_ASC")
+            @RequestParam(required = false, defaultValue = "PRICE_ASC") ComparisonSortType sortType,
+
+            @Parameter(description = "Page number within each city (0-based). Optional.", example = "0")
+            @RequestParam(required = false) Integer page,
+
+            @Parameter(description = "Page size within each city (max 100). Optional.", example = "5")
             @RequestParam(required = false) Integer size
     ) {
-        return ResponseEntity.ok(priceQueryService.compareProduct(productId, city, inStockOnly, sortType, page, size));
+        return ResponseEntity.ok(priceQueryService.compareProductByCity(productId, inStockOnly, sortType, page, size));
     }
-}
 
+    @Operation(
+            summary = "Aligned price history of a product's SKUs",
+            description = "Price history of every active SKU location of the product (optionally in one city) on a " +
+                    "common time axis: each bucket holds the last price captured in it, empty buckets carry the previous " +
+                    "price forward. Returned as one column per SKU. Both start and end, or neither (last 7 days). " +
+                    "At most 3,000 buckets and 100 SKUs."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History matrix built"),
+            @ApiResponse(responseCode = "400", description = "Invalid bucket or range, or too many buckets or SKUs",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{productId}/history-matrix")
+    public ResponseEntity<PriceHistoryMatrixResponse> getHistoryMatrix(
+            @Parameter(description = "Product ID", example = "1", required = true)
+            @PathVariable Long productId,
+
+            @Parameter(description = "Optional city filter (case-insensitive)", example = "Bangalore")
+            @RequestParam(required = false) String city,
+
+            @Parameter(description = "Bucket size, at least 1m", example = "1h")
+            @RequestParam(required = false, defaultValue = "1h") String bucket,
+
+            @Parameter(description = "Start of the range (ISO 8601); rounded down to a bucket boundary", example = "2026-02-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+
+            @Parameter(description = "End of the range (ISO 8601), exclusive; capped at now", example = "2026-02-08T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end
+    ) {
+        return ResponseEntity.ok(priceHistoryMatrixService.getHistoryMatrix(productId, city, bucket, start, end));
+    }
+
+    @Operation(
+            summary = "Get the cheapest in-stock offer for a product",
+            description = "Returns the cheapest in-stock latest price across platforms for the product, optionally " +
+                    "within one city. Served from an in-memory index kept current on every recorded snapshot."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cheapest offer found"),
+            @ApiResponse(responseCode = "404", description = "No in-stock offer for the product (and city)",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{productId}/cheapest")
+    public ResponseEntity<CheapestOfferResponse> getCheapestOffer(
+            @Parameter(description = "Product ID", example = "1", required = true)
+            @PathVariable Long productId,
+
+            @Parameter(description = "Optional city filter (case-insensitive)", example = "Bangalore")
+            @RequestParam(required = false) String city
+    ) {
+        return ResponseEntity.ok(cheapestOfferService.getCheapestOffer(productId, city));
+    }
+
+    @Operation(
+            summary = "Stream price changes for a product",
+            description = "Opens a Server-Sent Events stream of 'price' events for every SKU location of the product, " +
+                    "optionally limited to one city. SKU locations added after the stream opened are included."
+    )
+    @GetMapping(value = "/{productId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductPriceChanges(
+            @Parameter(description = "Product ID to follow", example = "1", required = true)
+            @PathVariable Long productId,
+
+            @Parameter(description = "Optional city filter (case-insensitive)", example = "Bangalore")
+            @RequestParam(required = false) String city
+    ) {
+        return priceStreamHub.subscribeToProduct(productId, city);
+    }
+}
@@ -1,5 +1,7 @@
 package io.priceintel.controller;
 
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.dto.response.ProductPageResponse;
 import io.priceintel.entity.Product;
 import io.priceintel.exception.ProductNotFoundException;
 import io.priceintel.service.ProductService;
@@ -7,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -19,8 +22,19 @@ public class ProductController {
     private final ProductService productService;
 
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ProductPageResponse getProducts(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size
+    ) {
+        return productService.listProducts(afterId, size);
+    }
+
+    @GetMapping("/search")
+    public List<ProductSummary> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return productService.searchProducts(q, limit);
     }
 
     @GetMapping("/{productId}")
@@ -0,0 +1,86 @@
+package io.priceintel.controller;
+
+import io.priceintel.datasource.ConnectionWorkload;
+import io.priceintel.datasource.WorkloadContext;
+import io.priceintel.dto.SnapshotExportCriteria;
+import io.priceintel.enums.ExportFormat;
+import io.priceintel.service.SnapshotExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/exports")
+@Tag(name = "Export", description = "Bulk exports of price data")
+public class SnapshotExportController {
+
+    private final SnapshotExportService snapshotExportService;
+
+    @Operation(
+            summary = "Export price snapshots",
+            description = "Streams every snapshot captured in [from, to), optionally filtered by city, platform and product, " +
+                    "as CSV (with header) or newline-delimited JSON. Rows are unordered. Runs on the background " +
+                    "connection pool; answers 503 when no export slot is free."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or filters",
+                    content = @Content(schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "503", description = "No connection available for the export",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/snapshots")
+    public void exportSnapshots(
+            @Parameter(description = "Inclusive start (ISO 8601)", example = "2026-02-01T00:00:00Z", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Exclusive end (ISO 8601)", example = "2026-03-01T00:00:00Z", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "City (case-insensitive)", example = "bangalore")
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Platform ID", example = "1")
+            @RequestParam(required = false) Long platformId,
+            @Parameter(description = "Product ID", example = "1")
+            @RequestParam(required = false) Long productId,
+            @Parameter(description = "Output format: CSV or NDJSON", example = "CSV")
+            @RequestParam(required = false, defaultValue = "CSV") ExportFormat format,
+            @Parameter(hidden = true) HttpServletResponse response
+    ) throws IOException {
+        SnapshotExportCriteria criteria = SnapshotExportCriteria.builder()
+                .from(from)
+                .to(to)
+                .city(city != null ? city.trim() : null)
+                .platformId(platformId)
+                .productId(productId)
+                .build();
+        // Validates before the first byte is written so errors still map to a normal 400
+        snapshotExportService.validate(criteria);
+
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("price-snapshots." + format.getFileExtension())
+                .build()
+                .toString());
+
+        // Long-running scans hold a background connection instead of one meant for API reads
+        try (WorkloadContext.Scope ignored = WorkloadContext.open(ConnectionWorkload.BACKGROUND)) {
+            snapshotExportService.export(criteria, format, response.getOutputStream());
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package io.priceintel.crawler.facade;
 
 import io.priceintel.crawler.dto.IngestionRequest;
+import io.priceintel.dto.RecordedSnapshot;
 import io.priceintel.entity.Platform;
-import io.priceintel.entity.PriceSnapshot;
 import io.priceintel.entity.Product;
 import io.priceintel.entity.SkuLocation;
+import io.priceintel.observability.SqlStatementBudget;
+import io.priceintel.observability.SqlStatementScope;
+import io.priceintel.observability.SqlStatementTracker;
 import io.priceintel.service.PlatformService;
 import io.priceintel.service.PriceSnapshotService;
 import io.priceintel.service.ProductService;
@@ -22,10 +25,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class IngestionFacadeService {
 
+    private static final String SQL_BUDGET_KEY = "ingest";
+
     private final ProductService productService;
     private final PlatformService platformService;
     private final SkuLocationService skuLocationService;
     private final PriceSnapshotService priceSnapshotService;
+    private final SqlStatementBudget sqlStatementBudget;
 
     @Transactional
     public void ingest(IngestionRequest request) {
@@ -40,36 +46,45 @@ public class IngestionFacadeService {
 
         checkMissingFields(request);
 
-        Product product = productService.createProduct(
-                request.getBrandName(),
-                request.getProductName(),
-                request.getPackSize()
-        );
-        log.debug("Product resolved: id={}", product.getId());
-
-        Platform platform = platformService.createPlatform(request.getPlatformName());
-        log.debug("Platform resolved: id={}", platform.getId());
-
-        SkuLocation skuLocation = skuLocationService.createOrGetSkuLocation(
-                product.getId(),
-                platform.getId(),
-                request.getCity(),
-                request.getProductUrl()
-        );
-        log.debug("SKU location resolved: id={}", skuLocation.getId());
-
-        PriceSnapshot priceSnapshot = priceSnapshotService.recordPrice(
-                skuLocation.getId(),
-                request.getSellingPrice(),
-                request.getDiscount(),
-                request.getAvailability(),
-                request.getCrawlStatus(),
-                request.getCapturedAt()
-        );
-
-        log.info("Ingestion completed successfully: productId={}, platformId={}, skuLocationId={}, snapshotId={}, sellingPrice={}, availability={}, crawlStatus={}",
-                product.getId(), platform.getId(), skuLocation.getId(), priceSnapshot.getId(),
-                request.getSellingPrice(), request.getAvailability(), request.getCrawlStatus());
+        try (SqlStatementScope sqlScope = SqlStatementTracker.open(SQL_BUDGET_KEY)) {
+            Product product = productService.createProduct(
+                    request.getBrandName(),
+                    request.getProductName(),
+                    request.getPackSize()
+            );
+            log.debug("Product resolved: id={}", product.getId());
+
+            Platform platform = platformService.createPlatform(request.getPlatformName());
+            log.debug("Platform resolved: id={}", platform.getId());
+
+            SkuLocation skuLocation = skuLocationService.createOrGetSkuLocation(
+                    product.getId(),
+                    platform.getId(),
+                    request.getCity(),
+                    request.getProductUrl()
+            );
+            log.debug("SKU location resolved: id={}", skuLocation.getId());
+
+            RecordedSnapshot recordedSnapshot = priceSnapshotService.recordPrice(
+                    skuLocation.getId(),
+                    request.getSellingPrice(),
+                    request.getDiscount(),
+                    request.getAvailability(),
+                    request.getCrawlStatus(),
+                    request.getCapturedAt()
+            );
+
+            if (recordedSnapshot.isQuarantined()) {
+                log.warn("Ingestion quarantined as outlier: productId={}, platformId={}, skuLocationId={}, sellingPrice={}",
+                        product.getId(), platform.getId(), skuLocation.getId(), request.getSellingPrice());
+            } else {
+                log.info("Ingestion completed successfully: productId={}, platformId={}, skuLocationId={}, snapshotId={}, sellingPrice={}, availability={}, crawlStatus={}",
+                        product.getId(), platform.getId(), skuLocation.getId(), recordedSnapshot.getSnapshotId(),
+                        request.getSellingPrice(), request.getAvailability(), request.getCrawlStatus());
+            }
+
+            sqlStatementBudget.check(SQL_BUDGET_KEY, sqlScope.getStats());
+        }
     }
 
     private void checkMissingFields(IngestionRequest request) {
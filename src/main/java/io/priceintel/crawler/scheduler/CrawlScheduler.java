@@ -1,6 +1,8 @@
 package io.priceintel.crawler.scheduler;
 
 import io.priceintel.crawler.job.BlinkitSimulatedCrawlJob;
+import io.priceintel.datasource.ConnectionWorkload;
+import io.priceintel.datasource.WorkloadContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -21,7 +23,7 @@ public class CrawlScheduler {
         boolean success = true;
 
         try {
-            blinkitSimulatedCrawlJob.execute();
+            WorkloadContext.run(ConnectionWorkload.INGEST, blinkitSimulatedCrawlJob::execute);
         } catch (Exception e) {
             success = false;
             log.error("Error executing Blinkit crawl job: {}", e.getMessage(), e);
@@ -0,0 +1,44 @@
+package io.priceintel.datasource;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.datasource.pools")
+public class ConnectionPoolProperties {
+
+    private Pool ingest = new Pool(10, 2000);
+    private Pool query = new Pool(20, 500);
+    private Pool background = new Pool(8, 5000);
+
+    // Requests matching these paths draw from the ingest pool, all others from the query pool
+    private List<String> ingestPathPatterns = new ArrayList<>(List.of("/internal/**"));
+
+    public Pool getPool(ConnectionWorkload workload) {
+        return switch (workload) {
+            case INGEST -> ingest;
+            case QUERY -> query;
+            case BACKGROUND -> background;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Pool {
+        private int maximumPoolSize;
+        // Kept short so an exhausted pool rejects work instead of queueing callers indefinitely
+        private long connectionTimeoutMs;
+
+        Pool(int maximumPoolSize, long connectionTimeoutMs) {
+            this.maximumPoolSize = maximumPoolSize;
+            this.connectionTimeoutMs = connectionTimeoutMs;
+        }
+    }
+}
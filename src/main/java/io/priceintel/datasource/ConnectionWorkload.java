@@ -0,0 +1,7 @@
+package io.priceintel.datasource;
+
+public enum ConnectionWorkload {
+    INGEST,
+    QUERY,
+    BACKGROUND
+}
@@ -0,0 +1,29 @@
+package io.priceintel.datasource;
+
+/**
+ * Parses PostgreSQL WAL positions ("16/B374D848") into comparable longs.
+ */
+public final class LogSequenceNumbers {
+
+    private LogSequenceNumbers() {
+    }
+
+    public static long parse(String lsn) {
+        if (lsn == null || lsn.isBlank()) {
+            throw new IllegalArgumentException("WAL position cannot be empty");
+        }
+
+        int separator = lsn.indexOf('/');
+        if (separator <= 0 || separator == lsn.length() - 1) {
+            throw new IllegalArgumentException("Invalid WAL position: " + lsn);
+        }
+
+        try {
+            long high = Long.parseLong(lsn.substring(0, separator).trim(), 16);
+            long low = Long.parseLong(lsn.substring(separator + 1).trim(), 16);
+            return (high << 32) | low;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid WAL position: " + lsn);
+        }
+    }
+}
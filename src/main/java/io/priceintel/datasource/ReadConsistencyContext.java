@@ -0,0 +1,28 @@
+package io.priceintel.datasource;
+
+/**
+ * Holds the WAL position a read on the current thread must observe. Replicas that have not
+ * replayed up to it are skipped and the read falls back to the primary.
+ */
+public final class ReadConsistencyContext {
+
+    // Forces primary reads when a client sent a token we could not parse
+    public static final long PRIMARY_ONLY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> REQUIRED_LSN = new ThreadLocal<>();
+
+    private ReadConsistencyContext() {
+    }
+
+    public static Long getRequiredLsn() {
+        return REQUIRED_LSN.get();
+    }
+
+    public static void setRequiredLsn(Long lsn) {
+        REQUIRED_LSN.set(lsn);
+    }
+
+    public static void clear() {
+        REQUIRED_LSN.remove();
+    }
+}
@@ -0,0 +1,43 @@
+package io.priceintel.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Slf4j
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+
+    public static final String WRITE_TOKEN_HEADER = "X-Last-Write-Token";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(WRITE_TOKEN_HEADER);
+        if (!StringUtils.hasText(token)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            ReadConsistencyContext.setRequiredLsn(parseToken(token));
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadConsistencyContext.clear();
+        }
+    }
+
+    private long parseToken(String token) {
+        try {
+            return LogSequenceNumbers.parse(token);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unparseable {} header '{}', serving reads from primary", WRITE_TOKEN_HEADER, token);
+            return ReadConsistencyContext.PRIMARY_ONLY;
+        }
+    }
+}
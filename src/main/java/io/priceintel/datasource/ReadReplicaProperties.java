@@ -0,0 +1,30 @@
+package io.priceintel.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.datasource.read-replica")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    // How often each replica's replay position is refreshed
+    private long lagCheckIntervalMs = 1000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
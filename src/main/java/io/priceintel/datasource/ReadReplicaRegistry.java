@@ -0,0 +1,120 @@
+package io.priceintel.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReadReplicaRegistry implements Closeable {
+
+    // A server that is not in recovery (promoted or misconfigured) has its own WAL history, so
+    // its position says nothing about the primary's write tokens
+    private static final String REPLAY_POSITION_SQL =
+            "SELECT pg_is_in_recovery() AS in_recovery, pg_last_wal_replay_lsn()::text AS replayed";
+
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRegistry(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        List<ReplicaPool> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            pools.add(new ReplicaPool("replica-" + i, createPool(i, properties.getReplicas().get(i), meterRegistry)));
+        }
+        this.replicas = List.copyOf(pools);
+        log.info("Configured {} read replica(s)", replicas.size());
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Picks a healthy replica round-robin. When requiredLsn is set, only replicas that have
+     * replayed at least that far qualify; an empty result means the caller must use the primary.
+     */
+    public Optional<ReplicaPool> selectReplica(Long requiredLsn) {
+        int size = replicas.size();
+        if (size == 0) {
+            return Optional.empty();
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy() && (requiredLsn == null || replica.getReplayedLsn() >= requiredLsn)) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${priceintel.datasource.read-replica.lag-check-interval-ms:1000}")
+    public void refreshReplayPositions() {
+        for (ReplicaPool replica : replicas) {
+            try {
+                String position = new JdbcTemplate(replica.getDataSource()).queryForObject(REPLAY_POSITION_SQL,
+                        (rs, rowNum) -> rs.getBoolean("in_recovery") ? rs.getString("replayed") : null);
+                if (position == null) {
+                    if (replica.healthy) {
+                        log.warn("Read replica {} is not a standby, routing reads to primary", replica.getName());
+                    }
+                    replica.healthy = false;
+                    continue;
+                }
+                replica.replayedLsn = LogSequenceNumbers.parse(position);
+                if (!replica.healthy) {
+                    log.info("Read replica {} is healthy again at position={}", replica.getName(), position);
+                }
+                replica.healthy = true;
+            } catch (RuntimeException e) {
+                if (replica.healthy) {
+                    log.warn("Read replica {} failed its replay position check, routing reads to primary: {}",
+                            replica.getName(), e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private HikariDataSource createPool(int index, ReadReplicaProperties.Replica replica, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-" + index);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        if (meterRegistry != null) {
+            dataSource.setMetricRegistry(meterRegistry);
+        }
+        return dataSource;
+    }
+
+    @Getter
+    public static class ReplicaPool {
+        private final String name;
+        private final HikariDataSource dataSource;
+        // Not routed to until the first successful replay position check
+        private volatile long replayedLsn = -1L;
+        private volatile boolean healthy = false;
+
+        ReplicaPool(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
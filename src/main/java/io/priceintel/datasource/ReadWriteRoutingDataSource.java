@@ -0,0 +1,30 @@
+package io.priceintel.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Defers the physical connection until the first statement, by which point the transaction's
+ * read-only flag and the thread's {@link ConnectionWorkload} are known. Read-only transactions go
+ * to the replica router when replicas are configured, everything else to the primary pools.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final WorkloadRoutingDataSource primary;
+
+    public ReadWriteRoutingDataSource(WorkloadRoutingDataSource primary, DataSource readOnlyDataSource) {
+        super(primary);
+        this.primary = primary;
+        if (readOnlyDataSource != null) {
+            setReadOnlyDataSource(readOnlyDataSource);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        primary.close();
+    }
+}
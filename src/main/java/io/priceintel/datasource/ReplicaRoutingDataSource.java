@@ -0,0 +1,37 @@
+package io.priceintel.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves read-only connections from a replica that satisfies the caller's consistency token,
+ * or from the primary when none does.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY_KEY = "primary";
+
+    private final ReadReplicaRegistry registry;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicaRegistry registry) {
+        this.registry = registry;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        registry.getReplicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return registry.selectReplica(ReadConsistencyContext.getRequiredLsn())
+                .map(ReadReplicaRegistry.ReplicaPool::getName)
+                .orElse(PRIMARY_KEY);
+    }
+}
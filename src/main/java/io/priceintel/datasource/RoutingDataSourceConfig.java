@@ -0,0 +1,85 @@
+package io.priceintel.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "priceintel.datasource.read-replica", name = "enabled", havingValue = "true")
+    public ReadReplicaRegistry readReplicaRegistry(ReadReplicaProperties properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReadReplicaRegistry(properties, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ConnectionPoolProperties poolProperties,
+                                 ObjectProvider<ReadReplicaRegistry> readReplicaRegistry,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        Map<ConnectionWorkload, HikariDataSource> pools = new EnumMap<>(ConnectionWorkload.class);
+        for (ConnectionWorkload workload : ConnectionWorkload.values()) {
+            pools.put(workload, createPool(workload, dataSourceProperties, poolProperties.getPool(workload),
+                    meterRegistry.getIfAvailable(), environment));
+        }
+        WorkloadRoutingDataSource primary = new WorkloadRoutingDataSource(pools);
+
+        ReadReplicaRegistry registry = readReplicaRegistry.getIfAvailable();
+        DataSource readOnly = registry != null ? new ReplicaRoutingDataSource(primary, registry) : null;
+
+        return new ReadWriteRoutingDataSource(primary, readOnly);
+    }
+
+    @Bean
+    public WorkloadFilter workloadFilter(ConnectionPoolProperties poolProperties) {
+        return new WorkloadFilter(poolProperties.getIngestPathPatterns());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "priceintel.datasource.read-replica", name = "enabled", havingValue = "true")
+    public WriteTokenService writeTokenService(DataSource dataSource) {
+        return new WriteTokenService(dataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "priceintel.datasource.read-replica", name = "enabled", havingValue = "true")
+    public ReadConsistencyFilter readConsistencyFilter() {
+        return new ReadConsistencyFilter();
+    }
+
+    private HikariDataSource createPool(ConnectionWorkload workload,
+                                        DataSourceProperties dataSourceProperties,
+                                        ConnectionPoolProperties.Pool pool,
+                                        MeterRegistry meterRegistry,
+                                        Environment environment) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // Shared "spring.datasource.hikari.*" tuning first, then the per-workload bulkhead limits
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(workload.name().toLowerCase());
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        if (meterRegistry != null) {
+            // hikaricp.connections.{active,pending,usage,acquire,timeout} tagged pool=<workload>
+            dataSource.setMetricRegistry(meterRegistry);
+        }
+        return dataSource;
+    }
+}
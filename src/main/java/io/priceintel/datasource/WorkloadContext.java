@@ -0,0 +1,56 @@
+package io.priceintel.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Tags the current thread with the workload whose connection pool it should draw from.
+ * Threads without a tag (startup, schedulers) use the background pool.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<ConnectionWorkload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static ConnectionWorkload current() {
+        ConnectionWorkload workload = CURRENT.get();
+        return workload != null ? workload : ConnectionWorkload.BACKGROUND;
+    }
+
+    public static Scope open(ConnectionWorkload workload) {
+        ConnectionWorkload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return new Scope(previous);
+    }
+
+    public static void run(ConnectionWorkload workload, Runnable action) {
+        try (Scope ignored = open(workload)) {
+            action.run();
+        }
+    }
+
+    public static <T> T call(ConnectionWorkload workload, Supplier<T> action) {
+        try (Scope ignored = open(workload)) {
+            return action.get();
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final ConnectionWorkload previous;
+
+        private Scope(ConnectionWorkload previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.priceintel.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+public class WorkloadFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> ingestPathPatterns;
+
+    public WorkloadFilter(List<String> ingestPathPatterns) {
+        this.ingestPathPatterns = List.copyOf(ingestPathPatterns);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionWorkload workload = isIngestPath(request.getRequestURI())
+                ? ConnectionWorkload.INGEST
+                : ConnectionWorkload.QUERY;
+
+        try (WorkloadContext.Scope ignored = WorkloadContext.open(workload)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private boolean isIngestPath(String path) {
+        return ingestPathPatterns.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
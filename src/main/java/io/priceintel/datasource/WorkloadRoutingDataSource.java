@@ -0,0 +1,40 @@
+package io.priceintel.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkheads the primary database: each {@link ConnectionWorkload} has its own pool, so a crawl
+ * burst cannot starve API reads and long scans cannot block ingestion.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<ConnectionWorkload, HikariDataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<ConnectionWorkload, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+
+        setTargetDataSources(new HashMap<>(this.pools));
+        setDefaultTargetDataSource(this.pools.get(ConnectionWorkload.BACKGROUND));
+        afterPropertiesSet();
+    }
+
+    public Map<ConnectionWorkload, HikariDataSource> getPools() {
+        return pools;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,27 @@
+package io.priceintel.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Issues the token a client echoes back in {@link ReadConsistencyFilter#WRITE_TOKEN_HEADER}
+ * to read its own writes: the primary's WAL position after the write committed.
+ */
+@Slf4j
+public class WriteTokenService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WriteTokenService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Must be called outside the writing transaction so the position covers its commit
+    public String currentWriteToken() {
+        String token = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        log.debug("Issued write token={}", token);
+        return token;
+    }
+}
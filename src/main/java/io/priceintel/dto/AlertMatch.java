@@ -0,0 +1,13 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.AlertRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AlertMatch {
+
+    private final long ruleId;
+    private final AlertRuleType ruleType;
+}
@@ -0,0 +1,26 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.AlertRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * The part of an alert rule the in-memory index needs; loaded by projection so startup does
+ * not materialize a million managed entities.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class AlertRuleDefinition {
+
+    private final Long id;
+    private final AlertRuleType ruleType;
+    private final Long skuLocationId;
+    private final Long productId;
+    private final String city;
+    private final BigDecimal thresholdPrice;
+    private final BigDecimal dropPercent;
+}
@@ -0,0 +1,29 @@
+package io.priceintel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One day of a basket's price index for one city and platform. The priced items (product ids
+ * and prices, matched by position) are kept so the next day can be chain-linked to this one.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class BasketIndexRecord {
+
+    private final String basket;
+    private final String city;
+    private final long platformId;
+    private final LocalDate day;
+    private final BigDecimal basketCost;
+    private final int itemsPriced;
+    private final int itemsTotal;
+    private final BigDecimal indexValue;
+    private final long[] productIds;
+    private final BigDecimal[] prices;
+}
@@ -0,0 +1,27 @@
+package io.priceintel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchLatestPriceItem {
+
+    private Long skuId;
+    // false when the SKU does not exist or has no snapshots yet
+    private boolean found;
+    private BigDecimal sellingPrice;
+    private BigDecimal discount;
+    private Availability availability;
+    private Instant capturedAt;
+}
@@ -0,0 +1,27 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Latest known offer of one SKU location, as held by the cheapest-offer index.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class CheapestOffer {
+
+    private final Long skuLocationId;
+    private final Long productId;
+    private final Long platformId;
+    private final String city;
+    private final BigDecimal sellingPrice;
+    private final BigDecimal discount;
+    private final Availability availability;
+    private final Instant capturedAt;
+}
@@ -0,0 +1,24 @@
+package io.priceintel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized price sketch of one SKU for one closed UTC day. {@code maxSnapshotId} is the
+ * newest snapshot the sketch was built from; it guards the write against snapshots that
+ * landed on the day while the sketch was being built.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class DailyPriceSketchRecord {
+
+    private final Long skuLocationId;
+    private final LocalDate day;
+    private final int snapshotCount;
+    private final long maxSnapshotId;
+    private final byte[] sketch;
+}
@@ -0,0 +1,23 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Read-only row of a price snapshot, loaded by JPQL constructor projection so read paths never
+ * materialize managed {@code PriceSnapshot} entities (no persistence-context copies or dirty checks).
+ */
+@Getter
+@AllArgsConstructor
+public class PriceSnapshotView {
+
+    private final Long skuId;
+    private final BigDecimal sellingPrice;
+    private final BigDecimal discount;
+    private final Availability availability;
+    private final Instant capturedAt;
+}
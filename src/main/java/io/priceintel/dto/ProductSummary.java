@@ -0,0 +1,19 @@
+package io.priceintel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Lightweight read model of a product, loaded by JPQL constructor projection.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class ProductSummary {
+
+    private final Long id;
+    private final String brandName;
+    private final String productName;
+    private final String packSize;
+}
@@ -0,0 +1,29 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of recording a crawl: the new snapshot, or the latest one when the crawl was a
+ * duplicate of it. SKU and previous-state fields are only set for an inserted snapshot. A
+ * quarantined crawl has no snapshot id; it was held back as an outlier.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class RecordedSnapshot {
+
+    private final Long snapshotId;
+    private final boolean inserted;
+    private final boolean quarantined;
+    private final Long productId;
+    private final Long platformId;
+    private final String city;
+    // State of the SKU before this snapshot; null for its first snapshot
+    private final BigDecimal previousSellingPrice;
+    private final Availability previousAvailability;
+}
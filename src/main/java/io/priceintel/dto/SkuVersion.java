@@ -0,0 +1,47 @@
+package io.priceintel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class SkuVersion {
+
+    private Long snapshotId;
+    private Instant capturedAt;
+    // Highest snapshot id of the SKU: ids only grow, so this moves on every insert, backfills included
+    private Long historyId;
+
+    // Strong ETag: changes whenever a newer snapshot is accepted for the SKU
+    public String toETag() {
+        return "\"" + snapshotId + "-" + capturedAt.toEpochMilli() + "\"";
+    }
+
+    // Each encoding is a different representation, so it needs its own strong ETag
+    public String toETag(String representation) {
+        return "\"" + snapshotId + "-" + capturedAt.toEpochMilli() + "-" + representation + "\"";
+    }
+
+    // History changes on any insert, not only on a newer latest snapshot
+    public String toHistoryETag() {
+        return "\"h" + historyId + "\"";
+    }
+
+    public String toHistoryETag(String representation) {
+        return "\"h" + historyId + "-" + representation + "\"";
+    }
+
+    public boolean isOlderThan(SkuVersion other) {
+        int byCapturedAt = capturedAt.compareTo(other.capturedAt);
+        return byCapturedAt < 0 || (byCapturedAt == 0 && snapshotId < other.snapshotId);
+    }
+
+    // Same latest snapshot, history advanced by an inserted (possibly older) snapshot
+    public SkuVersion withHistoryId(Long insertedId) {
+        return new SkuVersion(snapshotId, capturedAt, Math.max(historyId, insertedId));
+    }
+}
@@ -0,0 +1,20 @@
+package io.priceintel.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Snapshot export filter: captured_at in [from, to) plus any of city, platform and product.
+ */
+@Getter
+@Builder
+public class SnapshotExportCriteria {
+
+    private final Instant from;
+    private final Instant to;
+    private final String city;
+    private final Long platformId;
+    private final Long productId;
+}
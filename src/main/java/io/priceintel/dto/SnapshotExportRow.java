@@ -0,0 +1,25 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Builder
+public class SnapshotExportRow {
+
+    private final Long snapshotId;
+    private final Long skuLocationId;
+    private final Long productId;
+    private final Long platformId;
+    private final String city;
+    private final BigDecimal sellingPrice;
+    private final BigDecimal discount;
+    private final Availability availability;
+    private final CrawlStatus crawlStatus;
+    private final Instant capturedAt;
+}
@@ -0,0 +1,20 @@
+package io.priceintel.dto;
+
+import io.priceintel.enums.UpsertOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Row returned by a single-statement upsert, with what the statement did to it.
+ */
+@Getter
+@AllArgsConstructor
+public class UpsertResult<T> {
+
+    private final T value;
+    private final UpsertOutcome outcome;
+
+    public boolean isCreated() {
+        return outcome == UpsertOutcome.CREATED;
+    }
+}
@@ -0,0 +1,17 @@
+package io.priceintel.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLatestPriceRequest {
+
+    private List<Long> skuIds;
+}
@@ -0,0 +1,24 @@
+package io.priceintel.dto.request;
+
+import io.priceintel.enums.AlertRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateAlertRuleRequest {
+
+    private String subscriber;
+    private AlertRuleType ruleType;
+    private Long skuLocationId;
+    private Long productId;
+    private String city;
+    private BigDecimal thresholdPrice;
+    private BigDecimal dropPercent;
+}
@@ -0,0 +1,22 @@
+package io.priceintel.dto.request;
+
+import io.priceintel.enums.ComparisonSortType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuComparisonRequest {
+
+    private List<Long> skuIds;
+    private Boolean inStockOnly;
+    private ComparisonSortType sortType;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,30 @@
+package io.priceintel.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.priceintel.enums.AlertRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertRuleResponse {
+
+    private Long id;
+    private String subscriber;
+    private AlertRuleType ruleType;
+    private Long skuLocationId;
+    private Long productId;
+    private String city;
+    private BigDecimal thresholdPrice;
+    private BigDecimal dropPercent;
+    private boolean active;
+    private Instant createdAt;
+}
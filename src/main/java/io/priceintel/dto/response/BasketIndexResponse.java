@@ -0,0 +1,26 @@
+package io.priceintel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketIndexResponse {
+
+    private String basket;
+    private String city;
+    private Long platformId;
+    private LocalDate day;
+    private BigDecimal basketCost;
+    private int itemsPriced;
+    private int itemsTotal;
+    // 100 on the first day the basket was priced for this city and platform
+    private BigDecimal indexValue;
+}
@@ -0,0 +1,27 @@
+package io.priceintel.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CheapestOfferResponse {
+
+    private Long productId;
+    private String city;
+    private Long skuLocationId;
+    private Long platformId;
+    private BigDecimal sellingPrice;
+    private BigDecimal discount;
+    private Instant capturedAt;
+    private int inStockOffers;
+}
@@ -0,0 +1,16 @@
+package io.priceintel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityComparisonResponse {
+
+    private String city;
+    private SkuComparisonResponse comparison;
+}
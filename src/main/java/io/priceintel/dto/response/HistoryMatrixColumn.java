@@ -0,0 +1,24 @@
+package io.priceintel.dto.response;
+
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// One SKU of a history matrix; index i of each list is bucket i, null before the SKU's first snapshot
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryMatrixColumn {
+
+    private Long skuId;
+    private Long platformId;
+    private String city;
+    private List<BigDecimal> sellingPrice;
+    private List<Availability> availability;
+}
@@ -0,0 +1,26 @@
+package io.priceintel.dto.response;
+
+import io.priceintel.enums.Availability;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// Columnar variant of PriceHistoryResponse: index i of every list describes the same price point
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryColumnsResponse {
+
+    private Long skuId;
+    private Integer count;
+    private List<Instant> capturedAt;
+    private List<BigDecimal> sellingPrice;
+    private List<BigDecimal> discount;
+    private List<Availability> availability;
+}
@@ -0,0 +1,27 @@
+package io.priceintel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Price history of a product's SKUs on a common time axis: column j, bucket i is SKU j's price at bucketStart[i]
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryMatrixResponse {
+
+    private Long productId;
+    private String city;
+    private Long bucketSeconds;
+    private Instant start;
+    private Instant end;
+    private Integer bucketCount;
+    private List<Instant> bucketStart;
+    // Ordered by platform, city and SKU id
+    private List<HistoryMatrixColumn> columns;
+}
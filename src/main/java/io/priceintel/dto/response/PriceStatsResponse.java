@@ -23,5 +23,13 @@ public class PriceStatsResponse {
     private Instant lowestSeenAt;
     private Instant highestSeenAt;
     private Integer totalRecords;
+    private BigDecimal p10Price;
+    private BigDecimal p50Price;
+    private BigDecimal p90Price;
+    private BigDecimal priceStdDev;
+    // priceStdDev / averagePrice; null when the average is zero
+    private BigDecimal coefficientOfVariation;
+    // Max deviation of the percentiles' rank from the requested rank (0.013 = 1.3 percentile points); 0 when exact
+    private Double quantileRankError;
 
 }
@@ -0,0 +1,24 @@
+package io.priceintel.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCityComparisonResponse {
+
+    private Long productId;
+    private Integer totalCities;
+    private Integer totalCompared;
+    // Cheapest SKU over all cities
+    private Long cheapestSkuId;
+    private String cheapestCity;
+    // Ordered by city name
+    private List<CityComparisonResponse> cities;
+}
@@ -0,0 +1,21 @@
+package io.priceintel.dto.response;
+
+import io.priceintel.dto.ProductSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageResponse {
+
+    private List<ProductSummary> items;
+    private int size;
+    // Pass as afterId to fetch the next page; null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,76 @@
+package io.priceintel.entity;
+
+import io.priceintel.enums.AlertRuleType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+    name = "alert_rules",
+    indexes = {
+        @Index(name = "idx_alert_rules_active", columnList = "is_active")
+    }
+)
+public class AlertRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "subscriber", nullable = false)
+    private String subscriber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private AlertRuleType ruleType;
+
+    // Set for PRICE_BELOW and BACK_IN_STOCK
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sku_location_id")
+    private SkuLocation skuLocation;
+
+    // Set for PRICE_DROP_PERCENT
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "threshold_price")
+    private BigDecimal thresholdPrice;
+
+    @Column(name = "drop_percent")
+    private BigDecimal dropPercent;
+
+    @Column(name = "is_active", nullable = false)
+    private boolean isActive;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -34,6 +34,7 @@ import lombok.Setter;
     name = "price_snapshots",
     indexes = {
         @Index(name = "idx_sku_location_captured", columnList = "sku_location_id, captured_at DESC"),
+        @Index(name = "idx_sku_location_id", columnList = "sku_location_id, id"),
         @Index(name = "idx_captured_at", columnList = "captured_at")
     }
 )
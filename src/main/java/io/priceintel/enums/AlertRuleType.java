@@ -0,0 +1,10 @@
+package io.priceintel.enums;
+
+public enum AlertRuleType {
+    // SKU price crosses below a threshold
+    PRICE_BELOW,
+    // Any SKU location of a product (optionally in one city) drops by at least a percentage
+    PRICE_DROP_PERCENT,
+    // SKU becomes available again
+    BACK_IN_STOCK
+}
@@ -0,0 +1,8 @@
+package io.priceintel.enums;
+
+public enum AnomalyAction {
+    // Record outliers as usual and only count/log them
+    MONITOR,
+    // Divert outliers to price_snapshot_quarantine instead of price_snapshots
+    QUARANTINE
+}
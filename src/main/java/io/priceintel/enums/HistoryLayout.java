@@ -0,0 +1,6 @@
+package io.priceintel.enums;
+
+public enum HistoryLayout {
+    ROWS,
+    COLUMNAR
+}
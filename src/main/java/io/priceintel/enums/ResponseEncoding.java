@@ -0,0 +1,44 @@
+package io.priceintel.enums;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public enum ResponseEncoding {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ResponseEncoding(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // Binary encodings must be asked for explicitly; wildcards and anything unsupported get JSON
+    public static ResponseEncoding negotiate(List<MediaType> acceptedTypes) {
+        List<MediaType> sorted = new ArrayList<>(acceptedTypes);
+        MimeTypeUtils.sortBySpecificity(sorted);
+
+        for (MediaType accepted : sorted) {
+            if (accepted.isWildcardType() || accepted.isWildcardSubtype()) {
+                if (accepted.includes(MediaType.APPLICATION_JSON)) {
+                    return JSON;
+                }
+                continue;
+            }
+            for (ResponseEncoding encoding : values()) {
+                if (accepted.isCompatibleWith(encoding.mediaType)) {
+                    return encoding;
+                }
+            }
+        }
+        return JSON;
+    }
+}
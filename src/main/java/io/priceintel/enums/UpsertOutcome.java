@@ -0,0 +1,8 @@
+package io.priceintel.enums;
+
+public enum UpsertOutcome {
+    CREATED,
+    REACTIVATED,
+    UPDATED,
+    EXISTING
+}
@@ -0,0 +1,17 @@
+package io.priceintel.event;
+
+import io.priceintel.dto.AlertRuleDefinition;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by AlertRuleService when a rule is created or deactivated, so the in-memory
+ * index follows committed rule changes.
+ */
+@Getter
+@AllArgsConstructor
+public class AlertRuleChangedEvent {
+
+    private final AlertRuleDefinition rule;
+    private final boolean active;
+}
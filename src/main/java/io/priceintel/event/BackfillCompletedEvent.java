@@ -0,0 +1,16 @@
+package io.priceintel.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a backfill import has merged its snapshots. Backfilled rows bypass the per-row
+ * ingest events, so in-memory read models catch up from snapshots with an id above the watermark.
+ */
+@Getter
+@AllArgsConstructor
+public class BackfillCompletedEvent {
+
+    private final String importId;
+    private final long snapshotWatermark;
+}
@@ -0,0 +1,22 @@
+package io.priceintel.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published when an ingested price was diverted to quarantine as an outlier instead of being
+ * recorded as a snapshot.
+ */
+@Getter
+@AllArgsConstructor
+public class PriceQuarantinedEvent {
+
+    private final Long quarantineId;
+    private final Long skuLocationId;
+    private final BigDecimal sellingPrice;
+    private final Instant capturedAt;
+    private final double expectedPrice;
+}
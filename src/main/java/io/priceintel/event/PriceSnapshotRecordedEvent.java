@@ -0,0 +1,35 @@
+package io.priceintel.event;
+
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Published by PriceSnapshotService when a non-duplicate snapshot is stored.
+ * Listeners that must only see committed snapshots use @TransactionalEventListener; plain
+ * @EventListener runs inside the ingest transaction (used to write outbox rows atomically).
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class PriceSnapshotRecordedEvent {
+
+    private final Long snapshotId;
+    private final Long skuLocationId;
+    private final Long productId;
+    private final Long platformId;
+    private final String city;
+    private final BigDecimal sellingPrice;
+    private final BigDecimal discount;
+    private final Availability availability;
+    private final CrawlStatus crawlStatus;
+    private final Instant capturedAt;
+    // State of the SKU before this snapshot; null for its first snapshot
+    private final BigDecimal previousSellingPrice;
+    private final Availability previousAvailability;
+}
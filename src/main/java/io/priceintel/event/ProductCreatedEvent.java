@@ -0,0 +1,15 @@
+package io.priceintel.event;
+
+import io.priceintel.dto.ProductSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ProductService when a new product is inserted.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCreatedEvent {
+
+    private final ProductSummary product;
+}
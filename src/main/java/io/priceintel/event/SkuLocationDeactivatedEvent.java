@@ -0,0 +1,16 @@
+package io.priceintel.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by SkuLocationService when a SKU location is deactivated.
+ */
+@Getter
+@AllArgsConstructor
+public class SkuLocationDeactivatedEvent {
+
+    private final Long skuLocationId;
+    private final Long productId;
+    private final String city;
+}
@@ -0,0 +1,16 @@
+package io.priceintel.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by SkuLocationService when an inactive SKU location is reactivated by a crawl.
+ */
+@Getter
+@AllArgsConstructor
+public class SkuLocationReactivatedEvent {
+
+    private final Long skuLocationId;
+    private final Long productId;
+    private final String city;
+}
@@ -0,0 +1,8 @@
+package io.priceintel.exception;
+
+public class AlertRuleNotFoundException extends RuntimeException {
+
+    public AlertRuleNotFoundException(Long id) {
+        super("Alert rule with id " + id + " does not exist");
+    }
+}
@@ -0,0 +1,10 @@
+package io.priceintel.exception;
+
+public class CheapestOfferNotFoundException extends RuntimeException {
+
+    public CheapestOfferNotFoundException(Long productId, String city) {
+        super(city != null
+                ? "No in-stock offer found for product with id " + productId + " in city " + city
+                : "No in-stock offer found for product with id " + productId);
+    }
+}
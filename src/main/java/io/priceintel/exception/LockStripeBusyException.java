@@ -0,0 +1,8 @@
+package io.priceintel.exception;
+
+public class LockStripeBusyException extends RuntimeException {
+
+    public LockStripeBusyException(Object key) {
+        super("Another update for the same key is still in progress: " + key);
+    }
+}
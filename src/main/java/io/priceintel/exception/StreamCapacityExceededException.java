@@ -0,0 +1,8 @@
+package io.priceintel.exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+
+    public StreamCapacityExceededException(int maxStreams) {
+        super("Maximum number of open price streams reached: " + maxStreams);
+    }
+}
@@ -0,0 +1,57 @@
+package io.priceintel.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records time-to-first-request: JVM start until the first API response (actuator probes excluded)
+ * has been written. Exported as {@code priceintel.startup.time-to-first-request} and logged once,
+ * so cold, AOT and CDS starts can be compared from the same number.
+ */
+@Slf4j
+@Component
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicLong timeToFirstRequestMs = new AtomicLong(-1);
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("priceintel.startup.time-to-first-request", timeToFirstRequestMs,
+                        TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("JVM start until the first API response; -1 until one has been served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (timeToFirstRequestMs.get() < 0) {
+                long elapsed = System.currentTimeMillis() - jvmStartMillis;
+                if (timeToFirstRequestMs.compareAndSet(-1, elapsed)) {
+                    log.info("First request {} {} served {} ms after JVM start",
+                            request.getMethod(), request.getRequestURI(), elapsed);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,31 @@
+package io.priceintel.observability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementBudget {
+
+    private final SqlStatementBudgetProperties properties;
+
+    public int getMaxStatements(String key) {
+        return properties.getBudgets().getOrDefault(key, properties.getDefaultMaxStatements());
+    }
+
+    public boolean check(String key, SqlStatementStats stats) {
+        int maxStatements = getMaxStatements(key);
+
+        if (stats.getStatementCount() > maxStatements) {
+            log.warn("SQL statement budget exceeded for {}: statements={}, budget={}, rows={}, dbTime={}ms",
+                    key, stats.getStatementCount(), maxStatements, stats.getRowCount(), stats.getDbTimeMillis());
+            return false;
+        }
+
+        log.debug("SQL statements for {}: statements={}, budget={}, rows={}, dbTime={}ms",
+                key, stats.getStatementCount(), maxStatements, stats.getRowCount(), stats.getDbTimeMillis());
+        return true;
+    }
+}
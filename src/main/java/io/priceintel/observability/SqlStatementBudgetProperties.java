@@ -0,0 +1,22 @@
+package io.priceintel.observability;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.sql-budget")
+public class SqlStatementBudgetProperties {
+
+    private boolean enabled = true;
+
+    // Applied to any endpoint without an explicit budget
+    private int defaultMaxStatements = 10;
+
+    // Keyed by "<HTTP method> <path pattern>" (e.g. "GET /skus/compare") or by operation name (e.g. "ingest")
+    private Map<String, Integer> budgets = new HashMap<>();
+}
@@ -0,0 +1,119 @@
+package io.priceintel.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource decorator that reports executed statements, fetched/updated rows and
+ * execution time to {@link SqlStatementTracker}. Work is only recorded while a scope is open.
+ */
+public class SqlStatementCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    public SqlStatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    // Keeps the wrapped pool's close() reachable for Spring's inferred destroy method
+    @Override
+    public void close() {
+        if (getTargetDataSource() instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(proxy, target, method, args);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+
+        boolean isExecute = target instanceof Statement && method.getName().startsWith("execute");
+        long start = isExecute ? System.nanoTime() : 0L;
+
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (isExecute && SqlStatementTracker.isActive()) {
+                SqlStatementTracker.recordStatement(System.nanoTime() - start);
+            }
+        }
+
+        if (target instanceof ResultSet) {
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlStatementTracker.recordRows(1);
+            }
+            return result;
+        }
+
+        if (isExecute) {
+            recordUpdatedRows(result);
+        }
+
+        return wrapResult(method, result);
+    }
+
+    private static void recordUpdatedRows(Object result) {
+        if (result instanceof Integer count) {
+            SqlStatementTracker.recordRows(count);
+        } else if (result instanceof Long count) {
+            SqlStatementTracker.recordRows(count);
+        } else if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            SqlStatementTracker.recordRows(total);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrapResult(Method method, Object result) {
+        if (result == null) {
+            return null;
+        }
+        Class<?> returnType = method.getReturnType();
+        if ((Statement.class.isAssignableFrom(returnType) || ResultSet.class.isAssignableFrom(returnType))
+                && returnType.isInterface()) {
+            return wrap((Class<Object>) returnType, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package io.priceintel.observability;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(prefix = "priceintel.sql-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatementCountingDataSource)) {
+            return new SqlStatementCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
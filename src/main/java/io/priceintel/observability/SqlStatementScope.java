@@ -0,0 +1,19 @@
+package io.priceintel.observability;
+
+public class SqlStatementScope implements AutoCloseable {
+
+    private final SqlStatementStats stats;
+
+    SqlStatementScope(SqlStatementStats stats) {
+        this.stats = stats;
+    }
+
+    public SqlStatementStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        SqlStatementTracker.close(stats);
+    }
+}
@@ -0,0 +1,37 @@
+package io.priceintel.observability;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+public class SqlStatementStats {
+
+    private final String label;
+    private long statementCount;
+    private long rowCount;
+    private long dbTimeNanos;
+
+    public SqlStatementStats(String label) {
+        this.label = label;
+    }
+
+    void addStatement(long elapsedNanos) {
+        statementCount++;
+        dbTimeNanos += elapsedNanos;
+    }
+
+    void addRows(long rows) {
+        rowCount += rows;
+    }
+
+    public long getDbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dbTimeNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: statements=%d, rows=%d, dbTime=%dms",
+                label, statementCount, rowCount, getDbTimeMillis());
+    }
+}
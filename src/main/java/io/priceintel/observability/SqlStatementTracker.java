@@ -0,0 +1,65 @@
+package io.priceintel.observability;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Thread-bound accounting of JDBC statements. Every open scope on the current thread receives
+ * the statements executed while it is open, so an ingest scope nested inside an HTTP request
+ * scope is counted in both.
+ */
+public final class SqlStatementTracker {
+
+    // Only set while a scope is open, so threads that never open one carry no entry
+    private static final ThreadLocal<Deque<SqlStatementStats>> ACTIVE_SCOPES = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static SqlStatementScope open(String label) {
+        SqlStatementStats stats = new SqlStatementStats(label);
+        Deque<SqlStatementStats> scopes = ACTIVE_SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            ACTIVE_SCOPES.set(scopes);
+        }
+        scopes.push(stats);
+        return new SqlStatementScope(stats);
+    }
+
+    static void close(SqlStatementStats stats) {
+        Deque<SqlStatementStats> scopes = ACTIVE_SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(stats);
+        if (scopes.isEmpty()) {
+            ACTIVE_SCOPES.remove();
+        }
+    }
+
+    static boolean isActive() {
+        Deque<SqlStatementStats> scopes = ACTIVE_SCOPES.get();
+        return scopes != null && !scopes.isEmpty();
+    }
+
+    static void recordStatement(long elapsedNanos) {
+        Deque<SqlStatementStats> scopes = ACTIVE_SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (SqlStatementStats stats : scopes) {
+            stats.addStatement(elapsedNanos);
+        }
+    }
+
+    static void recordRows(long rows) {
+        Deque<SqlStatementStats> scopes = ACTIVE_SCOPES.get();
+        if (rows <= 0 || scopes == null) {
+            return;
+        }
+        for (SqlStatementStats stats : scopes) {
+            stats.addRows(rows);
+        }
+    }
+}
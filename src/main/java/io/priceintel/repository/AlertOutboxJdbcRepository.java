@@ -0,0 +1,44 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.AlertMatch;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes fired alerts to the alert_outbox table for asynchronous delivery. (rule_id, snapshot_id)
+ * is unique, so a replayed ingest cannot fire the same rule twice for the same snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlertOutboxJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO alert_outbox
+                (rule_id, snapshot_id, sku_location_id, rule_type, triggered_price, previous_price, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (rule_id, snapshot_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertAll(List<AlertMatch> matches, PriceSnapshotRecordedEvent event) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, matches, 500, (ps, match) -> {
+            ps.setLong(1, match.getRuleId());
+            ps.setLong(2, event.getSnapshotId());
+            ps.setLong(3, event.getSkuLocationId());
+            ps.setString(4, match.getRuleType().name());
+            ps.setBigDecimal(5, event.getSellingPrice());
+            ps.setBigDecimal(6, event.getPreviousSellingPrice());
+            ps.setTimestamp(7, now);
+        });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+}
@@ -0,0 +1,28 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.AlertRuleDefinition;
+import io.priceintel.entity.AlertRule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
+
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    @Query("""
+            SELECT new io.priceintel.dto.AlertRuleDefinition(
+                r.id, r.ruleType, s.id, p.id, r.city, r.thresholdPrice, r.dropPercent)
+            FROM AlertRule r
+            LEFT JOIN r.skuLocation s
+            LEFT JOIN r.product p
+            WHERE r.isActive = true
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AlertRuleDefinition> streamActiveDefinitions();
+}
@@ -0,0 +1,297 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based statements behind the historical backfill. Rows are loaded with COPY into
+ * transaction-scoped temp tables, dimensions are resolved once per distinct SKU key and the
+ * snapshots are merged into price_snapshots with a single INSERT ... SELECT over a sequenced copy.
+ * Dimension resolution runs in a short transaction of its own ({@link #createSkuKeyTable()} through
+ * {@link #resolveSkuKeys()}); the staging and merge methods share the import transaction. Either
+ * way the temp tables are dropped on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BackfillJdbcRepository {
+
+    // One row per distinct (platform, product, city) in the import; ids are filled in by the resolve step
+    private static final String CREATE_SKU_KEYS_SQL = """
+            CREATE TEMP TABLE backfill_sku_keys (
+                sku_key         INTEGER PRIMARY KEY,
+                platform_name   TEXT NOT NULL,
+                brand_name      TEXT NOT NULL,
+                product_name    TEXT NOT NULL,
+                pack_size       TEXT NOT NULL,
+                city            TEXT NOT NULL,
+                product_url     TEXT NOT NULL,
+                platform_id     BIGINT,
+                product_id      BIGINT,
+                sku_location_id BIGINT
+            ) ON COMMIT DROP
+            """;
+
+    // The resolved SKU location per key, copied into the import transaction
+    private static final String CREATE_SKU_IDS_SQL = """
+            CREATE TEMP TABLE backfill_skus (
+                sku_key         INTEGER PRIMARY KEY,
+                sku_location_id BIGINT NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE backfill_staging (
+                record_no     BIGINT NOT NULL,
+                sku_key       INTEGER NOT NULL,
+                selling_price NUMERIC NOT NULL,
+                discount      NUMERIC,
+                availability  TEXT NOT NULL,
+                crawl_status  TEXT NOT NULL,
+                captured_at   TIMESTAMPTZ NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING_SQL =
+            "COPY backfill_staging (record_no, sku_key, selling_price, discount, availability, crawl_status, captured_at) "
+                    + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_SKU_KEYS_SQL =
+            "COPY backfill_sku_keys (sku_key, platform_name, brand_name, product_name, pack_size, city, product_url) "
+                    + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_SKU_IDS_SQL =
+            "COPY backfill_skus (sku_key, sku_location_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_PRODUCTS_SQL = """
+            INSERT INTO products (brand_name, product_name, pack_size, created_at)
+            SELECT DISTINCT k.brand_name, k.product_name, k.pack_size, now()
+            FROM backfill_sku_keys k
+            ON CONFLICT (brand_name, product_name, pack_size) DO NOTHING
+            RETURNING id, brand_name, product_name, pack_size
+            """;
+
+    private static final String ASSIGN_PRODUCTS_SQL = """
+            UPDATE backfill_sku_keys k SET product_id = p.id
+            FROM products p
+            WHERE p.brand_name = k.brand_name AND p.product_name = k.product_name AND p.pack_size = k.pack_size
+            """;
+
+    // Platform names match case-insensitively, like PlatformService; no conflict target, so a
+    // unique index on lower(name) is absorbed too and ASSIGN_PLATFORMS_SQL picks up the winner
+    private static final String INSERT_PLATFORMS_SQL = """
+            INSERT INTO platforms (name, created_at)
+            SELECT DISTINCT ON (lower(k.platform_name)) k.platform_name, now()
+            FROM backfill_sku_keys k
+            WHERE NOT EXISTS (SELECT 1 FROM platforms p WHERE lower(p.name) = lower(k.platform_name))
+            ORDER BY lower(k.platform_name), k.platform_name
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String ASSIGN_PLATFORMS_SQL = """
+            UPDATE backfill_sku_keys k SET platform_id = p.id
+            FROM platforms p
+            WHERE lower(p.name) = lower(k.platform_name)
+            """;
+
+    // Existing SKU locations keep their URL and active flag; only missing ones are created
+    private static final String INSERT_SKU_LOCATIONS_SQL = """
+            INSERT INTO sku_locations (product_id, platform_id, city, product_url, is_active, created_at)
+            SELECT DISTINCT ON (k.product_id, k.platform_id, k.city)
+                   k.product_id, k.platform_id, k.city, k.product_url, true, now()
+            FROM backfill_sku_keys k
+            ORDER BY k.product_id, k.platform_id, k.city, k.sku_key DESC
+            ON CONFLICT (product_id, platform_id, city) DO NOTHING
+            """;
+
+    private static final String ASSIGN_SKU_LOCATIONS_SQL = """
+            UPDATE backfill_sku_keys k SET sku_location_id = sl.id
+            FROM sku_locations sl
+            WHERE sl.product_id = k.product_id AND sl.platform_id = k.platform_id AND sl.city = k.city
+            RETURNING k.sku_key, k.sku_location_id
+            """;
+
+    /*
+     * Staged and existing rows sequenced together per SKU (existing rows first on equal captured_at,
+     * which makes re-running the same file a no-op). dup_of_next_stored marks a staged row that an
+     * existing snapshot right after it already covers.
+     */
+    private static final String CREATE_SEQUENCED_SQL = """
+            CREATE TEMP TABLE backfill_sequenced ON COMMIT DROP AS
+            WITH bounds AS (
+                SELECT min(captured_at) - INTERVAL '30 minutes' AS lo,
+                       max(captured_at) + INTERVAL '30 minutes' AS hi
+                FROM backfill_staging
+            ),
+            combined AS (
+                SELECT k.sku_location_id, s.selling_price, s.discount, s.availability, s.crawl_status,
+                       s.captured_at, 1 AS source, s.record_no
+                FROM backfill_staging s
+                JOIN backfill_skus k ON k.sku_key = s.sku_key
+                UNION ALL
+                SELECT ps.sku_location_id, ps.selling_price, ps.discount, ps.availability, ps.crawl_status,
+                       ps.captured_at, 0 AS source, 0 AS record_no
+                FROM price_snapshots ps, bounds b
+                WHERE ps.sku_location_id IN (SELECT sku_location_id FROM backfill_skus)
+                  AND ps.captured_at BETWEEN b.lo AND b.hi
+            )
+            SELECT c.*,
+                   row_number() OVER w AS rn,
+                   coalesce(LEAD(source) OVER w = 0
+                            AND LEAD(selling_price) OVER w = selling_price
+                            AND LEAD(discount) OVER w IS NOT DISTINCT FROM discount
+                            AND LEAD(availability) OVER w = availability
+                            AND LEAD(crawl_status) OVER w = crawl_status
+                            AND LEAD(captured_at) OVER w - captured_at <= INTERVAL '30 minutes', false)
+                       AS dup_of_next_stored
+            FROM combined c
+            WINDOW w AS (PARTITION BY sku_location_id ORDER BY captured_at, source, record_no)
+            """;
+
+    private static final String INDEX_SEQUENCED_SQL =
+            "CREATE INDEX ON backfill_sequenced (sku_location_id, rn); ANALYZE backfill_sequenced";
+
+    /*
+     * A staged row is a duplicate under the same rule as PriceSnapshotService.recordPrice: equal
+     * price, discount, availability and crawl status within 30 minutes of the last kept snapshot.
+     * Dropped rows do not move that anchor, so an unchanged price crawled every 15 minutes keeps a
+     * row about every 45 minutes, as live ingest does. The walk steps through each SKU's rows in
+     * order, carrying the rn of the last kept row (existing rows are always kept); one index probe
+     * per row and step, with as many steps as the longest SKU sequence.
+     */
+    private static final String MERGE_SQL = """
+            WITH RECURSIVE walk AS (
+                SELECT s.sku_location_id, s.rn,
+                       CASE WHEN s.source = 0 OR NOT s.dup_of_next_stored THEN s.rn END AS anchor_rn
+                FROM backfill_sequenced s
+                WHERE s.rn = 1
+                UNION ALL
+                SELECT n.sku_location_id, n.rn,
+                       CASE WHEN n.source = 0
+                                 OR NOT (n.dup_of_next_stored
+                                         OR (w.anchor_rn IS NOT NULL
+                                             AND a.selling_price = n.selling_price
+                                             AND a.discount IS NOT DISTINCT FROM n.discount
+                                             AND a.availability = n.availability
+                                             AND a.crawl_status = n.crawl_status
+                                             AND n.captured_at - a.captured_at <= INTERVAL '30 minutes'))
+                            THEN n.rn
+                            ELSE w.anchor_rn
+                       END
+                FROM walk w
+                JOIN backfill_sequenced n ON n.sku_location_id = w.sku_location_id AND n.rn = w.rn + 1
+                LEFT JOIN backfill_sequenced a ON a.sku_location_id = w.sku_location_id AND a.rn = w.anchor_rn
+            )
+            INSERT INTO price_snapshots (sku_location_id, selling_price, discount, availability, crawl_status, captured_at)
+            SELECT s.sku_location_id, s.selling_price, s.discount, s.availability, s.crawl_status, s.captured_at
+            FROM walk w
+            JOIN backfill_sequenced s ON s.sku_location_id = w.sku_location_id AND s.rn = w.rn
+            WHERE s.source = 1
+              AND w.anchor_rn = w.rn
+            ORDER BY s.sku_location_id, s.captured_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createStagingTables() {
+        jdbcTemplate.execute(CREATE_SKU_IDS_SQL + ";" + CREATE_STAGING_SQL);
+    }
+
+    public void createSkuKeyTable() {
+        jdbcTemplate.execute(CREATE_SKU_KEYS_SQL);
+    }
+
+    /**
+     * Streams snapshot rows into the staging table; the writer receives the COPY stream and
+     * writes CSV rows (record_no, sku_key, selling_price, discount, availability, crawl_status,
+     * captured_at). Returns the number of rows the server accepted.
+     */
+    public long copyIntoStaging(CopyWriter writer) {
+        return copyIn(COPY_STAGING_SQL, writer);
+    }
+
+    /**
+     * CSV rows (sku_key, platform_name, brand_name, product_name, pack_size, city, product_url).
+     */
+    public long copySkuKeys(CopyWriter writer) {
+        return copyIn(COPY_SKU_KEYS_SQL, writer);
+    }
+
+    /**
+     * CSV rows (sku_key, sku_location_id) as returned by {@link #resolveSkuKeys()}.
+     */
+    public long copySkuLocationIds(CopyWriter writer) {
+        return copyIn(COPY_SKU_IDS_SQL, writer);
+    }
+
+    public void analyzeStagingTables() {
+        jdbcTemplate.execute("ANALYZE backfill_skus; ANALYZE backfill_staging");
+    }
+
+    /**
+     * Creates missing products, platforms and SKU locations for every copied key and returns the
+     * SKU location of each key along with the products that were newly created.
+     */
+    public ResolvedSkuKeys resolveSkuKeys() {
+        jdbcTemplate.execute("ANALYZE backfill_sku_keys");
+        List<ProductSummary> created = jdbcTemplate.query(INSERT_PRODUCTS_SQL, (rs, rowNum) -> new ProductSummary(
+                rs.getLong("id"), rs.getString("brand_name"), rs.getString("product_name"), rs.getString("pack_size")));
+        jdbcTemplate.update(ASSIGN_PRODUCTS_SQL);
+        jdbcTemplate.update(INSERT_PLATFORMS_SQL);
+        jdbcTemplate.update(ASSIGN_PLATFORMS_SQL);
+        jdbcTemplate.update(INSERT_SKU_LOCATIONS_SQL);
+
+        Map<Integer, Long> skuLocationIds = new HashMap<>();
+        jdbcTemplate.query(ASSIGN_SKU_LOCATIONS_SQL,
+                (RowCallbackHandler) rs -> skuLocationIds.put(rs.getInt("sku_key"), rs.getLong("sku_location_id")));
+        return new ResolvedSkuKeys(skuLocationIds, created);
+    }
+
+    // Returns the number of snapshots inserted
+    public long mergeStagedSnapshots() {
+        jdbcTemplate.execute(CREATE_SEQUENCED_SQL);
+        jdbcTemplate.execute(INDEX_SEQUENCED_SQL);
+        return jdbcTemplate.update(MERGE_SQL);
+    }
+
+    private long copyIn(String copySql, CopyWriter writer) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), copySql, 1 << 16);
+            try {
+                writer.write(copy);
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return rows != null ? rows : 0L;
+    }
+
+    public record ResolvedSkuKeys(Map<Integer, Long> skuLocationIds, List<ProductSummary> createdProducts) {
+
+        public long skuLocationCount() {
+            return skuLocationIds.values().stream().distinct().count();
+        }
+    }
+
+    @FunctionalInterface
+    public interface CopyWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,180 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.BasketIndexRecord;
+import io.priceintel.dto.response.BasketIndexResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Materialized basket price index in basket_price_index (one row per basket, city, platform
+ * and UTC day) and the latest-price scan it is computed from.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BasketIndexJdbcRepository {
+
+    // A SKU whose latest snapshot is out of stock has no buyable price, so it counts as unpriced
+    private static final String LATEST_BASKET_PRICES_SQL = """
+            SELECT sl.city, sl.platform_id, sl.product_id, latest.selling_price
+            FROM sku_locations sl
+            CROSS JOIN LATERAL (
+                SELECT ps.selling_price, ps.availability
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = sl.id
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) latest
+            WHERE sl.is_active = true AND sl.product_id = ANY(?) AND latest.availability = 'IN_STOCK'
+            """;
+
+    // Session-level, so it must be taken and released on the same connection
+    private static final String TRY_RECOMPUTE_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('basket_price_index'))";
+    private static final String RELEASE_RECOMPUTE_LOCK_SQL = "SELECT pg_advisory_unlock(hashtext('basket_price_index'))";
+
+    private static final String LATEST_BEFORE_SQL = """
+            SELECT DISTINCT ON (basket, city, platform_id)
+                   basket, city, platform_id, day, basket_cost, items_priced, items_total, index_value,
+                   product_ids, prices
+            FROM basket_price_index
+            WHERE basket = ANY(?) AND day < ?
+            ORDER BY basket, city, platform_id, day DESC
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO basket_price_index
+                (basket, city, platform_id, day, basket_cost, items_priced, items_total, index_value,
+                 product_ids, prices, computed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (basket, city, platform_id, day) DO UPDATE
+                SET basket_cost = EXCLUDED.basket_cost, items_priced = EXCLUDED.items_priced,
+                    items_total = EXCLUDED.items_total, index_value = EXCLUDED.index_value,
+                    product_ids = EXCLUDED.product_ids, prices = EXCLUDED.prices,
+                    computed_at = EXCLUDED.computed_at
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT basket, city, platform_id, day, basket_cost, items_priced, items_total, index_value
+            FROM basket_price_index
+            WHERE basket = ? AND city = ? AND (?::bigint IS NULL OR platform_id = ?) AND day BETWEEN ? AND ?
+            ORDER BY platform_id, day
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachLatestPrice(Long[] productIds, LatestPriceSink sink) {
+        jdbcTemplate.query(LATEST_BASKET_PRICES_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", productIds));
+        }, rs -> {
+            sink.accept(rs.getString("city"), rs.getLong("platform_id"), rs.getLong("product_id"),
+                    rs.getDouble("selling_price"));
+        });
+    }
+
+    /**
+     * Runs the recompute while holding a cluster-wide advisory lock, so only one instance computes
+     * at a time. The lock lives on a connection held for the whole run; returns false without
+     * running when another instance holds it.
+     */
+    public boolean runWithRecomputeLock(Runnable recompute) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (!queryBoolean(statement, TRY_RECOMPUTE_LOCK_SQL)) {
+                    return false;
+                }
+                try {
+                    recompute.run();
+                } finally {
+                    queryBoolean(statement, RELEASE_RECOMPUTE_LOCK_SQL);
+                }
+                return true;
+            }
+        }));
+    }
+
+    // Newest stored day before the given one, per basket, city and platform
+    public List<BasketIndexRecord> findLatestBefore(List<String> baskets, LocalDate day) {
+        return jdbcTemplate.query(LATEST_BEFORE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", baskets.toArray()));
+            ps.setObject(2, day);
+        }, (rs, rowNum) -> toRecord(rs));
+    }
+
+    public int saveAll(List<BasketIndexRecord> records) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, records, 500, (ps, record) -> {
+            ps.setString(1, record.getBasket());
+            ps.setString(2, record.getCity());
+            ps.setLong(3, record.getPlatformId());
+            ps.setObject(4, record.getDay());
+            ps.setBigDecimal(5, record.getBasketCost());
+            ps.setInt(6, record.getItemsPriced());
+            ps.setInt(7, record.getItemsTotal());
+            ps.setBigDecimal(8, record.getIndexValue());
+            ps.setArray(9, ps.getConnection().createArrayOf("bigint",
+                    Arrays.stream(record.getProductIds()).boxed().toArray()));
+            ps.setArray(10, ps.getConnection().createArrayOf("numeric", record.getPrices()));
+        });
+        int saved = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                saved += Math.max(count, 0);
+            }
+        }
+        return saved;
+    }
+
+    public List<BasketIndexResponse> find(String basket, String city, Long platformId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> BasketIndexResponse.builder()
+                        .basket(rs.getString("basket"))
+                        .city(rs.getString("city"))
+                        .platformId(rs.getLong("platform_id"))
+                        .day(rs.getObject("day", LocalDate.class))
+                        .basketCost(rs.getBigDecimal("basket_cost"))
+                        .itemsPriced(rs.getInt("items_priced"))
+                        .itemsTotal(rs.getInt("items_total"))
+                        .indexValue(rs.getBigDecimal("index_value"))
+                        .build(),
+                basket, city, new SqlParameterValue(Types.BIGINT, platformId), new SqlParameterValue(Types.BIGINT, platformId),
+                from, to);
+    }
+
+    private static boolean queryBoolean(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static BasketIndexRecord toRecord(ResultSet rs) throws SQLException {
+        Array productIds = rs.getArray("product_ids");
+        Array prices = rs.getArray("prices");
+        return BasketIndexRecord.builder()
+                .basket(rs.getString("basket"))
+                .city(rs.getString("city"))
+                .platformId(rs.getLong("platform_id"))
+                .day(rs.getObject("day", LocalDate.class))
+                .basketCost(rs.getBigDecimal("basket_cost"))
+                .itemsPriced(rs.getInt("items_priced"))
+                .itemsTotal(rs.getInt("items_total"))
+                .indexValue(rs.getBigDecimal("index_value"))
+                .productIds(Arrays.stream((Long[]) productIds.getArray()).mapToLong(Long::longValue).toArray())
+                .prices((BigDecimal[]) prices.getArray())
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface LatestPriceSink {
+        void accept(String city, long platformId, long productId, double sellingPrice);
+    }
+}
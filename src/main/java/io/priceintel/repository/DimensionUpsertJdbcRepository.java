@@ -0,0 +1,164 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.UpsertResult;
+import io.priceintel.entity.Platform;
+import io.priceintel.entity.Product;
+import io.priceintel.enums.UpsertOutcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Get-or-create for products, platforms and SKU locations in one statement each. The existing
+ * row is read first, so the common case never touches the identity sequence; a missing row is
+ * inserted with ON CONFLICT DO NOTHING, so two writers racing on the same natural key never fail
+ * on the unique constraint. An empty result means the row was committed by another transaction
+ * after this statement's snapshot was taken, so the statement is re-run a couple of times before
+ * giving up.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DimensionUpsertJdbcRepository {
+
+    private static final String UPSERT_PRODUCT_SQL = """
+            WITH existing AS (
+                SELECT id, created_at FROM products
+                WHERE brand_name = ? AND product_name = ? AND pack_size = ?
+            ),
+            inserted AS (
+                INSERT INTO products (brand_name, product_name, pack_size, created_at)
+                SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM existing)
+                ON CONFLICT (brand_name, product_name, pack_size) DO NOTHING
+                RETURNING id, created_at
+            )
+            SELECT id, created_at, false AS created FROM existing
+            UNION ALL
+            SELECT id, created_at, true AS created FROM inserted
+            """;
+
+    /*
+     * Platform names match case-insensitively; the first spelling stored wins. No conflict target:
+     * with a unique index on lower(name) a racing spelling conflicts there rather than on name, and
+     * the empty result sends the statement round again to read the winner.
+     */
+    private static final String UPSERT_PLATFORM_SQL = """
+            WITH existing AS (
+                SELECT id, name, created_at FROM platforms
+                WHERE lower(name) = lower(?)
+                ORDER BY id
+                LIMIT 1
+            ),
+            inserted AS (
+                INSERT INTO platforms (name, created_at)
+                SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM existing)
+                ON CONFLICT DO NOTHING
+                RETURNING id, name, created_at
+            )
+            SELECT id, name, created_at, false AS created FROM existing
+            UNION ALL
+            SELECT id, name, created_at, true AS created FROM inserted
+            """;
+
+    /*
+     * An existing SKU location is reactivated and takes the new URL when either differs. The
+     * insert only runs when both parents exist, so a bad id yields no row instead of an FK
+     * violation that would abort the surrounding transaction.
+     */
+    private static final String UPSERT_SKU_LOCATION_SQL = """
+            WITH existing AS (
+                SELECT id, product_url, is_active FROM sku_locations
+                WHERE product_id = ? AND platform_id = ? AND city = ?
+            ),
+            updated AS (
+                UPDATE sku_locations sl SET product_url = ?, is_active = true
+                FROM existing e
+                WHERE sl.id = e.id AND (NOT e.is_active OR e.product_url <> ?)
+                RETURNING sl.id
+            ),
+            inserted AS (
+                INSERT INTO sku_locations (product_id, platform_id, city, product_url, is_active, created_at)
+                SELECT ?, ?, ?, ?, true, ?
+                WHERE NOT EXISTS (SELECT 1 FROM existing)
+                  AND EXISTS (SELECT 1 FROM products WHERE id = ?)
+                  AND EXISTS (SELECT 1 FROM platforms WHERE id = ?)
+                ON CONFLICT (product_id, platform_id, city) DO NOTHING
+                RETURNING id, created_at
+            )
+            SELECT e.id, e.is_active AS was_active, e.id IN (SELECT id FROM updated) AS updated, false AS created
+            FROM existing e
+            UNION ALL
+            SELECT id, true AS was_active, false AS updated, true AS created FROM inserted
+            """;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<UpsertResult<Product>> upsertProduct(String brandName, String productName, String packSize) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return firstRow(() -> jdbcTemplate.query(UPSERT_PRODUCT_SQL, (rs, rowNum) -> new UpsertResult<>(
+                        Product.builder()
+                                .id(rs.getLong("id"))
+                                .brandName(brandName)
+                                .productName(productName)
+                                .packSize(packSize)
+                                .createdAt(rs.getTimestamp("created_at").toInstant())
+                                .build(),
+                        rs.getBoolean("created") ? UpsertOutcome.CREATED : UpsertOutcome.EXISTING),
+                brandName, productName, packSize,
+                brandName, productName, packSize, now));
+    }
+
+    public Optional<UpsertResult<Platform>> upsertPlatform(String name) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return firstRow(() -> jdbcTemplate.query(UPSERT_PLATFORM_SQL, (rs, rowNum) -> new UpsertResult<>(
+                        Platform.builder()
+                                .id(rs.getLong("id"))
+                                .name(rs.getString("name"))
+                                .createdAt(rs.getTimestamp("created_at").toInstant())
+                                .build(),
+                        rs.getBoolean("created") ? UpsertOutcome.CREATED : UpsertOutcome.EXISTING),
+                name, name, now));
+    }
+
+    /**
+     * Returns the SKU location id; the city and URL must already be normalized. Empty when the
+     * product or platform does not exist.
+     */
+    public Optional<UpsertResult<Long>> upsertSkuLocation(Long productId, Long platformId, String city, String productUrl) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return firstRow(() -> jdbcTemplate.query(UPSERT_SKU_LOCATION_SQL, (rs, rowNum) -> {
+                    UpsertOutcome outcome;
+                    if (rs.getBoolean("created")) {
+                        outcome = UpsertOutcome.CREATED;
+                    } else if (!rs.getBoolean("was_active")) {
+                        outcome = UpsertOutcome.REACTIVATED;
+                    } else if (rs.getBoolean("updated")) {
+                        outcome = UpsertOutcome.UPDATED;
+                    } else {
+                        outcome = UpsertOutcome.EXISTING;
+                    }
+                    return new UpsertResult<>(rs.getLong("id"), outcome);
+                },
+                productId, platformId, city,
+                productUrl, productUrl,
+                productId, platformId, city, productUrl, now,
+                productId, platformId));
+    }
+
+    private static <T> Optional<T> firstRow(Supplier<List<T>> statement) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            List<T> rows = statement.get();
+            if (!rows.isEmpty()) {
+                return Optional.of(rows.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,64 @@
+package io.priceintel.repository;
+
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outlier prices held back from price_snapshots by the anomaly detector, kept for review.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceQuarantineJdbcRepository {
+
+    // Skipped when the SKU's latest quarantined row already holds the same values within the duplicate window
+    private static final String INSERT_UNLESS_DUPLICATE_SQL = """
+            INSERT INTO price_snapshot_quarantine
+                (sku_location_id, selling_price, discount, availability, crawl_status, captured_at,
+                 expected_price, deviation_score, quarantined_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?
+            WHERE NOT EXISTS (
+                SELECT 1
+                FROM (
+                    SELECT selling_price, discount, availability, crawl_status, captured_at
+                    FROM price_snapshot_quarantine
+                    WHERE sku_location_id = ?
+                    ORDER BY captured_at DESC, id DESC
+                    LIMIT 1
+                ) l
+                WHERE l.selling_price = ?
+                  AND l.discount IS NOT DISTINCT FROM ?
+                  AND l.availability = ?
+                  AND l.crawl_status = ?
+                  AND l.captured_at BETWEEN ? AND ?
+            )
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Empty when the row repeats the latest quarantined one
+    public Optional<Long> insertUnlessDuplicate(Long skuLocationId, BigDecimal sellingPrice, BigDecimal discount,
+                                                Availability availability, CrawlStatus crawlStatus, Instant capturedAt,
+                                                double expectedPrice, double deviationScore, Duration duplicateThreshold) {
+        SqlParameterValue nullableDiscount = new SqlParameterValue(Types.NUMERIC, discount);
+        List<Long> ids = jdbcTemplate.queryForList(INSERT_UNLESS_DUPLICATE_SQL, Long.class,
+                skuLocationId, sellingPrice, nullableDiscount, availability.name(), crawlStatus.name(),
+                Timestamp.from(capturedAt), BigDecimal.valueOf(expectedPrice), deviationScore,
+                Timestamp.from(Instant.now()),
+                skuLocationId, sellingPrice, nullableDiscount, availability.name(), crawlStatus.name(),
+                Timestamp.from(capturedAt.minus(duplicateThreshold)), Timestamp.from(capturedAt.plus(duplicateThreshold)));
+        return ids.stream().findFirst();
+    }
+}
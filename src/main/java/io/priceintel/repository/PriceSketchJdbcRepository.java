@@ -0,0 +1,143 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.DailyPriceSketchRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-SKU, per-UTC-day price sketches in price_daily_sketches, and the raw snapshot reads
+ * used to build them. Sketches are only stored for closed days and are deleted whenever a
+ * snapshot lands on a day that already has one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceSketchJdbcRepository {
+
+    private static final String FIRST_CAPTURED_AT_SQL =
+            "SELECT min(captured_at) FROM price_snapshots WHERE sku_location_id = ?";
+
+    private static final String FIND_DAILY_SKETCHES_SQL = """
+            SELECT day, sketch FROM price_daily_sketches
+            WHERE sku_location_id = ? AND day BETWEEN ? AND ?
+            """;
+
+    // One index range scan on (sku_location_id, captured_at) per [lo, hi) interval
+    private static final String PRICES_IN_INTERVALS_SQL = """
+            SELECT ps.id, ps.selling_price, ps.captured_at
+            FROM unnest(?::timestamptz[], ?::timestamptz[]) AS r(lo, hi)
+            JOIN price_snapshots ps
+              ON ps.sku_location_id = ? AND ps.captured_at >= r.lo AND ps.captured_at < r.hi
+            """;
+
+    /*
+     * Sketches may be built from a replica that lags the primary, so the write is skipped unless
+     * the primary holds exactly the snapshots the sketch was built from: the same count and no id
+     * above the highest one seen. Days without snapshots are stored too (count 0, empty sketch),
+     * so they are not re-read and re-written on every request.
+     */
+    private static final String INSERT_DAILY_SKETCH_SQL = """
+            INSERT INTO price_daily_sketches (sku_location_id, day, snapshot_count, max_snapshot_id, sketch, built_at)
+            SELECT ?, ?, ?, ?, ?, now()
+            WHERE (
+                SELECT count(*) = ? AND coalesce(max(ps.id), 0) <= ?
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = ? AND ps.captured_at >= ? AND ps.captured_at < ?
+            )
+            ON CONFLICT (sku_location_id, day) DO UPDATE
+                SET snapshot_count = EXCLUDED.snapshot_count, max_snapshot_id = EXCLUDED.max_snapshot_id,
+                    sketch = EXCLUDED.sketch, built_at = EXCLUDED.built_at
+            """;
+
+    private static final String DELETE_DAILY_SKETCH_SQL =
+            "DELETE FROM price_daily_sketches WHERE sku_location_id = ? AND day = ?";
+
+    private static final String DELETE_SKETCHES_TOUCHED_AFTER_SQL = """
+            DELETE FROM price_daily_sketches d
+            USING (
+                SELECT DISTINCT sku_location_id, (captured_at AT TIME ZONE 'UTC')::date AS day
+                FROM price_snapshots
+                WHERE id > ?
+            ) touched
+            WHERE d.sku_location_id = touched.sku_location_id AND d.day = touched.day
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Instant> findFirstCapturedAt(Long skuLocationId) {
+        Timestamp first = jdbcTemplate.queryForObject(FIRST_CAPTURED_AT_SQL, Timestamp.class, skuLocationId);
+        return Optional.ofNullable(first).map(Timestamp::toInstant);
+    }
+
+    public Map<LocalDate, byte[]> findDailySketches(Long skuLocationId, LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, byte[]> sketches = new HashMap<>();
+        jdbcTemplate.query(FIND_DAILY_SKETCHES_SQL, rs -> {
+            sketches.put(rs.getObject("day", LocalDate.class), rs.getBytes("sketch"));
+        }, skuLocationId, fromDay, toDay);
+        return sketches;
+    }
+
+    /**
+     * Streams (id, price, capturedAt) of the SKU's snapshots inside the given half-open
+     * intervals; starts and ends are matched by position.
+     */
+    public void forEachPriceInIntervals(Long skuLocationId, List<Instant> starts, List<Instant> ends, PriceSink sink) {
+        jdbcTemplate.query(PRICES_IN_INTERVALS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("timestamptz", toTimestamps(starts)));
+            ps.setArray(2, ps.getConnection().createArrayOf("timestamptz", toTimestamps(ends)));
+            ps.setLong(3, skuLocationId);
+        }, rs -> {
+            sink.accept(rs.getLong("id"), rs.getBigDecimal("selling_price"), rs.getTimestamp("captured_at").toInstant());
+        });
+    }
+
+    public int saveDailySketches(List<DailyPriceSketchRecord> records) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_DAILY_SKETCH_SQL, records, 500, (ps, record) -> {
+            Instant dayStart = record.getDay().atStartOfDay(ZoneOffset.UTC).toInstant();
+            ps.setLong(1, record.getSkuLocationId());
+            ps.setObject(2, record.getDay());
+            ps.setInt(3, record.getSnapshotCount());
+            ps.setLong(4, record.getMaxSnapshotId());
+            ps.setBytes(5, record.getSketch());
+            ps.setLong(6, record.getSnapshotCount());
+            ps.setLong(7, record.getMaxSnapshotId());
+            ps.setLong(8, record.getSkuLocationId());
+            ps.setTimestamp(9, Timestamp.from(dayStart));
+            ps.setTimestamp(10, Timestamp.from(dayStart.plusSeconds(86_400)));
+        });
+        int saved = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                saved += Math.max(count, 0);
+            }
+        }
+        return saved;
+    }
+
+    public int deleteDailySketch(Long skuLocationId, LocalDate day) {
+        return jdbcTemplate.update(DELETE_DAILY_SKETCH_SQL, skuLocationId, day);
+    }
+
+    public int deleteDailySketchesTouchedAfter(long afterSnapshotId) {
+        return jdbcTemplate.update(DELETE_SKETCHES_TOUCHED_AFTER_SQL, afterSnapshotId);
+    }
+
+    private static Timestamp[] toTimestamps(List<Instant> instants) {
+        return instants.stream().map(Timestamp::from).toArray(Timestamp[]::new);
+    }
+
+    @FunctionalInterface
+    public interface PriceSink {
+        void accept(long snapshotId, BigDecimal sellingPrice, Instant capturedAt);
+    }
+}
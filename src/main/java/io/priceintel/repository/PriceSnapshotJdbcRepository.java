@@ -0,0 +1,563 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.PriceSnapshotView;
+import io.priceintel.dto.RecordedSnapshot;
+import io.priceintel.dto.SnapshotExportCriteria;
+import io.priceintel.dto.SnapshotExportRow;
+import io.priceintel.dto.response.LatestPriceResponse;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Set-based snapshot queries. SKU id lists are bound as one PostgreSQL array parameter, so the
+ * statement shape (and its cached plan) is the same whatever the number of ids.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceSnapshotJdbcRepository {
+
+    // One index seek on (sku_location_id, captured_at DESC) per requested id
+    private static final String LATEST_FOR_SKU_IDS_SQL = """
+            SELECT latest.sku_location_id, latest.selling_price, latest.discount,
+                   latest.availability, latest.captured_at
+            FROM unnest(?::bigint[]) AS requested(sku_id)
+            CROSS JOIN LATERAL (
+                SELECT ps.sku_location_id, ps.selling_price, ps.discount, ps.availability, ps.captured_at
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = requested.sku_id
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) latest
+            """;
+
+    // Same seek bounded by captured_at <= asOf: each SKU's price as it stood at that instant
+    private static final String AS_OF_FOR_SKU_IDS_SQL = """
+            SELECT asof.sku_location_id, asof.selling_price, asof.discount, asof.availability, asof.captured_at
+            FROM unnest(?::bigint[]) AS requested(sku_id)
+            CROSS JOIN LATERAL (
+                SELECT ps.sku_location_id, ps.selling_price, ps.discount, ps.availability, ps.captured_at
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = requested.sku_id AND ps.captured_at <= ?
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) asof
+            """;
+
+    // SKU locations are included whatever their current status: is_active says nothing about the past
+    private static final String AS_OF_FOR_PRODUCT_SQL = """
+            SELECT asof.sku_location_id, asof.selling_price, asof.discount, asof.availability, asof.captured_at
+            FROM sku_locations sl
+            CROSS JOIN LATERAL (
+                SELECT ps.sku_location_id, ps.selling_price, ps.discount, ps.availability, ps.captured_at
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = sl.id AND ps.captured_at <= ?
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) asof
+            WHERE sl.product_id = ?
+            """;
+
+    private static final String LATEST_ACTIVE_OFFERS_SQL = """
+            SELECT sl.id AS sku_location_id, sl.product_id, sl.platform_id, sl.city,
+                   latest.selling_price, latest.discount, latest.availability, latest.captured_at
+            FROM sku_locations sl
+            CROSS JOIN LATERAL (
+                SELECT ps.selling_price, ps.discount, ps.availability, ps.captured_at
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = sl.id
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) latest
+            WHERE sl.is_active = true
+            """;
+
+    private static final String ACTIVE_OFFERS_RECORDED_AFTER_SQL = """
+            SELECT sl.id AS sku_location_id, sl.product_id, sl.platform_id, sl.city,
+                   ps.selling_price, ps.discount, ps.availability, ps.captured_at
+            FROM price_snapshots ps
+            JOIN sku_locations sl ON sl.id = ps.sku_location_id
+            WHERE ps.id > ? AND sl.is_active = true
+            ORDER BY ps.id
+            """;
+
+    // Newest snapshot per SKU among those recorded after the watermark (bulk catch-up after a backfill)
+    private static final String LATEST_ACTIVE_OFFERS_RECORDED_AFTER_SQL = """
+            SELECT DISTINCT ON (ps.sku_location_id)
+                   sl.id AS sku_location_id, sl.product_id, sl.platform_id, sl.city,
+                   ps.selling_price, ps.discount, ps.availability, ps.captured_at
+            FROM price_snapshots ps
+            JOIN sku_locations sl ON sl.id = ps.sku_location_id
+            WHERE ps.id > ? AND sl.is_active = true
+            ORDER BY ps.sku_location_id, ps.captured_at DESC, ps.id DESC
+            """;
+
+    /*
+     * Records a crawl unless it repeats the SKU's latest snapshot (same price, discount,
+     * availability and crawl status, captured within the duplicate window) in one round trip.
+     * The sku_location_id foreign key rejects unknown SKUs. Returns the inserted snapshot with
+     * the SKU's dimensions and previous state, or the latest snapshot when nothing was inserted.
+     */
+    private static final String INSERT_UNLESS_DUPLICATE_SQL = """
+            WITH latest AS (
+                SELECT id, selling_price, discount, availability, crawl_status, captured_at
+                FROM price_snapshots
+                WHERE sku_location_id = ?
+                ORDER BY captured_at DESC, id DESC
+                LIMIT 1
+            ),
+            inserted AS (
+                INSERT INTO price_snapshots (sku_location_id, selling_price, discount, availability, crawl_status, captured_at)
+                SELECT ?, ?, ?, ?, ?, ?
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM latest l
+                    WHERE l.selling_price = ?
+                      AND l.discount IS NOT DISTINCT FROM ?
+                      AND l.availability = ?
+                      AND l.crawl_status = ?
+                      AND l.captured_at BETWEEN ? AND ?
+                )
+                RETURNING id, sku_location_id
+            )
+            SELECT i.id AS snapshot_id, true AS inserted, sl.product_id, sl.platform_id, sl.city,
+                   l.selling_price AS previous_selling_price, l.availability AS previous_availability
+            FROM inserted i
+            JOIN sku_locations sl ON sl.id = i.sku_location_id
+            LEFT JOIN latest l ON true
+            UNION ALL
+            SELECT l.id, false, NULL, NULL, NULL, NULL, NULL
+            FROM latest l
+            WHERE NOT EXISTS (SELECT 1 FROM inserted)
+            """;
+
+    // The latest snapshot's id when the given row repeats it within the duplicate window
+    private static final String FIND_DUPLICATE_OF_LATEST_SQL = """
+            SELECT l.id
+            FROM (
+                SELECT id, selling_price, discount, availability, crawl_status, captured_at
+                FROM price_snapshots
+                WHERE sku_location_id = ?
+                ORDER BY captured_at DESC, id DESC
+                LIMIT 1
+            ) l
+            WHERE l.selling_price = ?
+              AND l.discount IS NOT DISTINCT FROM ?
+              AND l.availability = ?
+              AND l.crawl_status = ?
+              AND l.captured_at BETWEEN ? AND ?
+            """;
+
+    private static final String RECENT_PRICES_SQL = """
+            SELECT selling_price
+            FROM price_snapshots
+            WHERE sku_location_id = ?
+            ORDER BY captured_at DESC, id DESC
+            LIMIT ?
+            """;
+
+    /*
+     * Every snapshot of the product's active SKU locations in [start, end), plus each SKU's last
+     * snapshot before start (to forward-fill the first buckets), as one scan ordered by time, ties
+     * by id so the same snapshot closes a bucket on every call. %s is the optional city filter.
+     */
+    private static final String MATRIX_SQL = """
+            WITH skus AS (
+                SELECT id, platform_id, city FROM sku_locations
+                WHERE product_id = ? AND is_active = true %s
+            )
+            SELECT s.id AS sku_location_id, s.platform_id, s.city, seed.id AS snapshot_id,
+                   seed.selling_price, seed.availability, seed.captured_at
+            FROM skus s
+            CROSS JOIN LATERAL (
+                SELECT ps.id, ps.selling_price, ps.availability, ps.captured_at
+                FROM price_snapshots ps
+                WHERE ps.sku_location_id = s.id AND ps.captured_at < ?
+                ORDER BY ps.captured_at DESC, ps.id DESC
+                LIMIT 1
+            ) seed
+            UNION ALL
+            SELECT s.id, s.platform_id, s.city, ps.id, ps.selling_price, ps.availability, ps.captured_at
+            FROM skus s
+            JOIN price_snapshots ps ON ps.sku_location_id = s.id AND ps.captured_at >= ? AND ps.captured_at < ?
+            ORDER BY captured_at, snapshot_id
+            """;
+
+    // Unordered on purpose: ordering hundreds of millions of rows would force a sort on the server
+    private static final String EXPORT_SQL = """
+            SELECT ps.id AS snapshot_id, ps.sku_location_id, sl.product_id, sl.platform_id, sl.city,
+                   ps.selling_price, ps.discount, ps.availability, ps.crawl_status, %s AS captured_at
+            FROM price_snapshots ps
+            JOIN sku_locations sl ON sl.id = ps.sku_location_id
+            WHERE %s
+            """;
+
+    private static final String EXPORT_CAPTURED_AT_UTC =
+            "to_char(ps.captured_at AT TIME ZONE 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS.US\"Z\"')";
+
+    private static final int EXPORT_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecordedSnapshot insertUnlessDuplicate(Long skuLocationId, BigDecimal sellingPrice, BigDecimal discount,
+                                                  Availability availability, CrawlStatus crawlStatus,
+                                                  Instant capturedAt, Duration duplicateThreshold) {
+        Timestamp captured = Timestamp.from(capturedAt);
+        List<RecordedSnapshot> rows = jdbcTemplate.query(INSERT_UNLESS_DUPLICATE_SQL, ps -> {
+            ps.setLong(1, skuLocationId);
+            ps.setLong(2, skuLocationId);
+            ps.setBigDecimal(3, sellingPrice);
+            setDiscount(ps, 4, discount);
+            ps.setString(5, availability.name());
+            ps.setString(6, crawlStatus.name());
+            ps.setTimestamp(7, captured);
+            ps.setBigDecimal(8, sellingPrice);
+            setDiscount(ps, 9, discount);
+            ps.setString(10, availability.name());
+            ps.setString(11, crawlStatus.name());
+            ps.setTimestamp(12, Timestamp.from(capturedAt.minus(duplicateThreshold)));
+            ps.setTimestamp(13, Timestamp.from(capturedAt.plus(duplicateThreshold)));
+        }, (rs, rowNum) -> toRecordedSnapshot(rs));
+        return rows.get(0);
+    }
+
+    // The same check insertUnlessDuplicate makes, without inserting
+    public Optional<Long> findDuplicateOfLatest(Long skuLocationId, BigDecimal sellingPrice, BigDecimal discount,
+                                                Availability availability, CrawlStatus crawlStatus,
+                                                Instant capturedAt, Duration duplicateThreshold) {
+        List<Long> ids = jdbcTemplate.query(FIND_DUPLICATE_OF_LATEST_SQL, ps -> {
+            ps.setLong(1, skuLocationId);
+            ps.setBigDecimal(2, sellingPrice);
+            setDiscount(ps, 3, discount);
+            ps.setString(4, availability.name());
+            ps.setString(5, crawlStatus.name());
+            ps.setTimestamp(6, Timestamp.from(capturedAt.minus(duplicateThreshold)));
+            ps.setTimestamp(7, Timestamp.from(capturedAt.plus(duplicateThreshold)));
+        }, (rs, rowNum) -> rs.getLong(1));
+        return ids.stream().findFirst();
+    }
+
+    // Newest first
+    public List<BigDecimal> findRecentPrices(long skuLocationId, int limit) {
+        return jdbcTemplate.query(RECENT_PRICES_SQL, (rs, rowNum) -> rs.getBigDecimal(1), skuLocationId, limit);
+    }
+
+    public List<LatestPriceResponse> findLatestBySkuIds(List<Long> skuIds) {
+        return jdbcTemplate.query(
+                LATEST_FOR_SKU_IDS_SQL,
+                ps -> ps.setArray(1, toBigintArray(ps.getConnection(), skuIds)),
+                (rs, rowNum) -> toLatestPrice(rs)
+        );
+    }
+
+    public List<PriceSnapshotView> findAsOfBySkuIds(List<Long> skuIds, Instant asOf) {
+        return jdbcTemplate.query(
+                AS_OF_FOR_SKU_IDS_SQL,
+                ps -> {
+                    ps.setArray(1, toBigintArray(ps.getConnection(), skuIds));
+                    ps.setTimestamp(2, Timestamp.from(asOf));
+                },
+                (rs, rowNum) -> toSnapshotView(rs)
+        );
+    }
+
+    public List<PriceSnapshotView> findAsOfForProduct(Long productId, String city, Instant asOf) {
+        if (city != null) {
+            return jdbcTemplate.query(
+                    AS_OF_FOR_PRODUCT_SQL + " AND lower(sl.city) = lower(?)",
+                    (rs, rowNum) -> toSnapshotView(rs), Timestamp.from(asOf), productId, city);
+        }
+        return jdbcTemplate.query(
+                AS_OF_FOR_PRODUCT_SQL,
+                (rs, rowNum) -> toSnapshotView(rs), Timestamp.from(asOf), productId);
+    }
+
+    /**
+     * Streams the product's snapshots for the history matrix in capture order through a
+     * server-side cursor; must run inside a transaction for the fetch size to apply.
+     */
+    public void forEachSnapshotForMatrix(Long productId, String city, Instant start, Instant end, MatrixRowSink sink) {
+        jdbcTemplate.query(
+                MATRIX_SQL.formatted(city != null ? "AND lower(city) = lower(?)" : ""),
+                ps -> {
+                    int index = 1;
+                    ps.setLong(index++, productId);
+                    if (city != null) {
+                        ps.setString(index++, city);
+                    }
+                    ps.setTimestamp(index++, Timestamp.from(start));
+                    ps.setTimestamp(index++, Timestamp.from(start));
+                    ps.setTimestamp(index, Timestamp.from(end));
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                },
+                (RowCallbackHandler) rs -> sink.accept(
+                        rs.getLong("sku_location_id"),
+                        rs.getLong("platform_id"),
+                        rs.getString("city"),
+                        rs.getBigDecimal("selling_price"),
+                        Availability.valueOf(rs.getString("availability")),
+                        rs.getTimestamp("captured_at").toInstant())
+        );
+    }
+
+    /**
+     * Latest offer of every active SKU location whose product falls in the given partition
+     * (product_id mod partitions), so a full scan can be split across parallel workers. Each
+     * partition is read in its own read-only transaction so the fetch size streams it through a
+     * server-side cursor instead of loading it whole.
+     */
+    @Transactional(readOnly = true)
+    public void forEachLatestActiveOffer(int partitions, int partition, Consumer<CheapestOffer> sink) {
+        jdbcTemplate.query(
+                LATEST_ACTIVE_OFFERS_SQL + " AND sl.product_id % ? = ?",
+                ps -> {
+                    ps.setInt(1, partitions);
+                    ps.setInt(2, partition);
+                    ps.setFetchSize(5000);
+                },
+                (RowCallbackHandler) rs -> sink.accept(toOffer(rs))
+        );
+    }
+
+    /**
+     * Every snapshot of an active SKU location with an id above the watermark, oldest first.
+     */
+    public void forEachActiveOfferRecordedAfter(long afterSnapshotId, Consumer<CheapestOffer> sink) {
+        jdbcTemplate.query(
+                ACTIVE_OFFERS_RECORDED_AFTER_SQL,
+                ps -> {
+                    ps.setLong(1, afterSnapshotId);
+                    ps.setFetchSize(5000);
+                },
+                (RowCallbackHandler) rs -> sink.accept(toOffer(rs))
+        );
+    }
+
+    public void forEachLatestActiveOfferRecordedAfter(long afterSnapshotId, Consumer<CheapestOffer> sink) {
+        jdbcTemplate.query(
+                LATEST_ACTIVE_OFFERS_RECORDED_AFTER_SQL,
+                ps -> {
+                    ps.setLong(1, afterSnapshotId);
+                    ps.setFetchSize(5000);
+                },
+                (RowCallbackHandler) rs -> sink.accept(toOffer(rs))
+        );
+    }
+
+    // Only the location fields are populated
+    public List<CheapestOffer> findInactiveSkuLocations() {
+        return jdbcTemplate.query(
+                "SELECT id, product_id, city FROM sku_locations WHERE is_active = false",
+                (rs, rowNum) -> CheapestOffer.builder()
+                        .skuLocationId(rs.getLong("id"))
+                        .productId(rs.getLong("product_id"))
+                        .city(rs.getString("city"))
+                        .build());
+    }
+
+    public long findMaxSnapshotId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM price_snapshots", Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    /**
+     * Highest snapshot id and the next transaction id to be assigned, read from the same MVCC
+     * snapshot. Rows at or below the id may still belong to transactions running at that point;
+     * all of them have xids below the returned one.
+     */
+    public SnapshotWatermark findSnapshotWatermark() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0), pg_snapshot_xmax(pg_current_snapshot())::text::bigint FROM price_snapshots",
+                (rs, rowNum) -> new SnapshotWatermark(rs.getLong(1), rs.getLong(2)));
+    }
+
+    // True once every transaction with an xid below the given one has committed or rolled back
+    public boolean isXidHorizonPast(long xid) {
+        Boolean past = jdbcTemplate.queryForObject(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint >= ?", Boolean.class, xid);
+        return Boolean.TRUE.equals(past);
+    }
+
+    public List<CheapestOffer> findLatestActiveOffers(Long productId, String city) {
+        if (city != null) {
+            return jdbcTemplate.query(
+                    LATEST_ACTIVE_OFFERS_SQL + " AND sl.product_id = ? AND sl.city = ?",
+                    (rs, rowNum) -> toOffer(rs), productId, city);
+        }
+        return jdbcTemplate.query(
+                LATEST_ACTIVE_OFFERS_SQL + " AND sl.product_id = ?",
+                (rs, rowNum) -> toOffer(rs), productId);
+    }
+
+    /**
+     * Streams matching snapshots as CSV (with header) through COPY ... TO STDOUT, so rows go from
+     * the server socket to the output stream without being materialized. COPY cannot take bind
+     * parameters, so the filter values are rendered as literals. Returns the number of rows.
+     */
+    public long copySnapshotsAsCsv(SnapshotExportCriteria criteria, OutputStream out) {
+        String copySql = "COPY (" + EXPORT_SQL.formatted(EXPORT_CAPTURED_AT_UTC, exportWhereClause(criteria, null))
+                + ") TO STDOUT WITH (FORMAT csv, HEADER)";
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0L;
+    }
+
+    /**
+     * Streams matching snapshots through a server-side cursor. Must run inside a transaction,
+     * otherwise the driver ignores the fetch size and buffers the whole result.
+     */
+    public void forEachSnapshotForExport(SnapshotExportCriteria criteria, Consumer<SnapshotExportRow> sink) {
+        List<Object> params = new ArrayList<>();
+        String sql = EXPORT_SQL.formatted("ps.captured_at", exportWhereClause(criteria, params));
+        jdbcTemplate.query(
+                sql,
+                ps -> {
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                },
+                (RowCallbackHandler) rs -> sink.accept(toExportRow(rs))
+        );
+    }
+
+    // Binds into params when given, otherwise renders SQL literals (for COPY)
+    private static String exportWhereClause(SnapshotExportCriteria criteria, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("ps.captured_at >= " + bindOrLiteral(Timestamp.from(criteria.getFrom()),
+                "'" + criteria.getFrom() + "'::timestamptz", params));
+        conditions.add("ps.captured_at < " + bindOrLiteral(Timestamp.from(criteria.getTo()),
+                "'" + criteria.getTo() + "'::timestamptz", params));
+        if (criteria.getCity() != null) {
+            conditions.add("lower(sl.city) = lower(" + bindOrLiteral(criteria.getCity(),
+                    "'" + criteria.getCity().replace("'", "''") + "'", params) + ")");
+        }
+        if (criteria.getPlatformId() != null) {
+            conditions.add("sl.platform_id = " + bindOrLiteral(criteria.getPlatformId(),
+                    Long.toString(criteria.getPlatformId()), params));
+        }
+        if (criteria.getProductId() != null) {
+            conditions.add("sl.product_id = " + bindOrLiteral(criteria.getProductId(),
+                    Long.toString(criteria.getProductId()), params));
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private static String bindOrLiteral(Object value, String literal, List<Object> params) {
+        if (params == null) {
+            return literal;
+        }
+        params.add(value);
+        return "?";
+    }
+
+    static Array toBigintArray(Connection connection, List<Long> ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids.toArray(new Long[0]));
+    }
+
+    private static void setDiscount(PreparedStatement ps, int index, BigDecimal discount) throws SQLException {
+        if (discount == null) {
+            ps.setNull(index, Types.NUMERIC);
+        } else {
+            ps.setBigDecimal(index, discount);
+        }
+    }
+
+    private RecordedSnapshot toRecordedSnapshot(ResultSet rs) throws SQLException {
+        String previousAvailability = rs.getString("previous_availability");
+        return RecordedSnapshot.builder()
+                .snapshotId(rs.getLong("snapshot_id"))
+                .inserted(rs.getBoolean("inserted"))
+                .productId(rs.getObject("product_id", Long.class))
+                .platformId(rs.getObject("platform_id", Long.class))
+                .city(rs.getString("city"))
+                .previousSellingPrice(rs.getBigDecimal("previous_selling_price"))
+                .previousAvailability(previousAvailability != null ? Availability.valueOf(previousAvailability) : null)
+                .build();
+    }
+
+    private CheapestOffer toOffer(ResultSet rs) throws SQLException {
+        return CheapestOffer.builder()
+                .skuLocationId(rs.getLong("sku_location_id"))
+                .productId(rs.getLong("product_id"))
+                .platformId(rs.getLong("platform_id"))
+                .city(rs.getString("city"))
+                .sellingPrice(rs.getBigDecimal("selling_price"))
+                .discount(rs.getBigDecimal("discount"))
+                .availability(Availability.valueOf(rs.getString("availability")))
+                .capturedAt(rs.getTimestamp("captured_at").toInstant())
+                .build();
+    }
+
+    private SnapshotExportRow toExportRow(ResultSet rs) throws SQLException {
+        return SnapshotExportRow.builder()
+                .snapshotId(rs.getLong("snapshot_id"))
+                .skuLocationId(rs.getLong("sku_location_id"))
+                .productId(rs.getLong("product_id"))
+                .platformId(rs.getLong("platform_id"))
+                .city(rs.getString("city"))
+                .sellingPrice(rs.getBigDecimal("selling_price"))
+                .discount(rs.getBigDecimal("discount"))
+                .availability(Availability.valueOf(rs.getString("availability")))
+                .crawlStatus(CrawlStatus.valueOf(rs.getString("crawl_status")))
+                .capturedAt(rs.getTimestamp("captured_at").toInstant())
+                .build();
+    }
+
+    private PriceSnapshotView toSnapshotView(ResultSet rs) throws SQLException {
+        return new PriceSnapshotView(
+                rs.getLong("sku_location_id"),
+                rs.getBigDecimal("selling_price"),
+                rs.getBigDecimal("discount"),
+                Availability.valueOf(rs.getString("availability")),
+                rs.getTimestamp("captured_at").toInstant());
+    }
+
+    private LatestPriceResponse toLatestPrice(ResultSet rs) throws SQLException {
+        return LatestPriceResponse.builder()
+                .skuId(rs.getLong("sku_location_id"))
+                .sellingPrice(rs.getBigDecimal("selling_price"))
+                .discount(rs.getBigDecimal("discount"))
+                .availability(Availability.valueOf(rs.getString("availability")))
+                .capturedAt(rs.getTimestamp("captured_at").toInstant())
+                .build();
+    }
+
+    @FunctionalInterface
+    public interface MatrixRowSink {
+        void accept(long skuLocationId, long platformId, String city, BigDecimal sellingPrice,
+                    Availability availability, Instant capturedAt);
+    }
+
+    public record SnapshotWatermark(long snapshotId, long nextXid) {
+    }
+}
@@ -1,8 +1,13 @@
 package io.priceintel.repository;
 
+import io.priceintel.dto.PriceSnapshotView;
+import io.priceintel.dto.SkuVersion;
 import io.priceintel.entity.PriceSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
@@ -10,29 +15,78 @@ import java.util.List;
 import java.util.Optional;
 
 public interface PriceSnapshotRepository extends JpaRepository<PriceSnapshot, Long> {
-    //Get Full History For SKU
-    List<PriceSnapshot> findBySkuLocationIdOrderByCapturedAtDesc(Long skuLocationId);
+    //Get id + capturedAt of the latest snapshot and the highest id of any snapshot without loading the entity (ETag lookups)
+    @Query("""
+    SELECT new io.priceintel.dto.SkuVersion(ps.id, ps.capturedAt,
+        (SELECT max(h.id) FROM PriceSnapshot h WHERE h.skuLocation.id = :skuId))
+    FROM PriceSnapshot ps
+    WHERE ps.skuLocation.id = :skuId
+    ORDER BY ps.capturedAt DESC, ps.id DESC
+    LIMIT 1
+    """)
+    Optional<SkuVersion> findLatestVersion(@Param("skuId") Long skuId);
+
+    // Read paths below project straight into PriceSnapshotView: no managed entities, no flush before the query
+
     //Get Latest Price For SKU
-    Optional<PriceSnapshot> findTopBySkuLocationIdOrderByCapturedAtDesc(Long skuLocationId);
-    //Get History Between Dates
-    List<PriceSnapshot> findBySkuLocationIdAndCapturedAtBetweenOrderByCapturedAtAsc(
-            Long skuLocationId,
-            Instant start,
-            Instant end
-    );
+    @Query("""
+    SELECT new io.priceintel.dto.PriceSnapshotView(ps.skuLocation.id, ps.sellingPrice, ps.discount, ps.availability, ps.capturedAt)
+    FROM PriceSnapshot ps
+    WHERE ps.skuLocation.id = :skuId
+    ORDER BY ps.capturedAt DESC, ps.id DESC
+    LIMIT 1
+    """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    Optional<PriceSnapshotView> findLatestView(@Param("skuId") Long skuId);
+
+    //Get Full History For SKU, oldest first
+    @Query("""
+    SELECT new io.priceintel.dto.PriceSnapshotView(ps.skuLocation.id, ps.sellingPrice, ps.discount, ps.availability, ps.capturedAt)
+    FROM PriceSnapshot ps
+    WHERE ps.skuLocation.id = :skuId
+    ORDER BY ps.capturedAt ASC, ps.id ASC
+    """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    List<PriceSnapshotView> findHistoryViews(@Param("skuId") Long skuId);
+
+    //Get History Between Dates, oldest first
+    @Query("""
+    SELECT new io.priceintel.dto.PriceSnapshotView(ps.skuLocation.id, ps.sellingPrice, ps.discount, ps.availability, ps.capturedAt)
+    FROM PriceSnapshot ps
+    WHERE ps.skuLocation.id = :skuId
+    AND ps.capturedAt BETWEEN :start AND :end
+    ORDER BY ps.capturedAt ASC, ps.id ASC
+    """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    List<PriceSnapshotView> findHistoryViewsBetween(@Param("skuId") Long skuId,
+                                                    @Param("start") Instant start,
+                                                    @Param("end") Instant end);
 
     //Batch fetch latest snapshots for multiple SKU IDs (eliminates N+1 query)
     @Query("""
-    SELECT ps
+    SELECT new io.priceintel.dto.PriceSnapshotView(ps.skuLocation.id, ps.sellingPrice, ps.discount, ps.availability, ps.capturedAt)
     FROM PriceSnapshot ps
-    JOIN FETCH ps.skuLocation sl
-    WHERE sl.id IN :skuIds
+    WHERE ps.skuLocation.id IN :skuIds
     AND ps.capturedAt = (
         SELECT MAX(ps2.capturedAt)
         FROM PriceSnapshot ps2
-        WHERE ps2.skuLocation.id = sl.id
+        WHERE ps2.skuLocation.id = ps.skuLocation.id
     )
     """)
-    List<PriceSnapshot> findLatestSnapshotsForSkuIds(@Param("skuIds") List<Long> skuIds);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT")
+    })
+    List<PriceSnapshotView> findLatestViewsForSkuIds(@Param("skuIds") List<Long> skuIds);
 }
-
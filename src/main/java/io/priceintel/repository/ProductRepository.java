@@ -1,9 +1,18 @@
 package io.priceintel.repository;
 
+import io.priceintel.dto.ProductSummary;
 import io.priceintel.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByBrandNameAndProductNameAndPackSize(
@@ -17,5 +26,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             String productName,
             String packSize
     );
-}
 
+    // Keyset pagination on the primary key: constant cost per page regardless of depth
+    @Query("""
+            SELECT new io.priceintel.dto.ProductSummary(p.id, p.brandName, p.productName, p.packSize)
+            FROM Product p
+            WHERE p.id > :afterId
+            ORDER BY p.id
+            """)
+    List<ProductSummary> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("""
+            SELECT new io.priceintel.dto.ProductSummary(p.id, p.brandName, p.productName, p.packSize)
+            FROM Product p
+            WHERE p.id > :afterId
+            ORDER BY p.id
+            """)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductSummary> streamSummariesAfter(@Param("afterId") Long afterId);
+}
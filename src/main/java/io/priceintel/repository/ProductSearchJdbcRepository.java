@@ -0,0 +1,82 @@
+package io.priceintel.repository;
+
+import io.priceintel.dto.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database fallback for product search while the in-memory index loads. Matches and ranks like
+ * {@link io.priceintel.service.ProductSearchIndex}: every term must match the brand, name or pack
+ * size, terms shorter than three characters only at the start of a word, and products with more
+ * word-prefix matches come first, then by id. The term count decides the statement shape.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchJdbcRepository {
+
+    // Same cut-off as the index's trigram length
+    private static final int MIN_SUBSTRING_TERM_LENGTH = 3;
+
+    private static final String SEARCH_SQL = """
+            SELECT id, brand_name, product_name, pack_size
+            FROM products
+            WHERE true
+            """;
+
+    private static final String SUBSTRING_TERM_SQL = """
+            AND (lower(brand_name) LIKE ? OR lower(product_name) LIKE ? OR lower(pack_size) LIKE ?)
+            """;
+
+    // \m is the start of a word; terms are letters and digits only, so they are safe in the pattern
+    private static final String WORD_PREFIX_SQL =
+            "(lower(brand_name) ~ ('\\m' || ?) OR lower(product_name) ~ ('\\m' || ?) OR lower(pack_size) ~ ('\\m' || ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Terms must be lower-case letters and digits, as produced by the index tokenizer.
+     */
+    public List<ProductSummary> searchSummaries(List<String> terms, int limit) {
+        StringBuilder sql = new StringBuilder(SEARCH_SQL);
+        List<Object> args = new ArrayList<>(terms.size() * 6 + 1);
+        for (String term : terms) {
+            if (term.length() < MIN_SUBSTRING_TERM_LENGTH) {
+                sql.append("AND ").append(WORD_PREFIX_SQL).append('\n');
+                addThrice(args, term);
+            } else {
+                sql.append(SUBSTRING_TERM_SQL);
+                addThrice(args, "%" + term + "%");
+            }
+        }
+
+        // Short terms always match as a prefix, so only the longer ones change the rank
+        List<String> prefixMatches = new ArrayList<>();
+        for (String term : terms) {
+            if (term.length() >= MIN_SUBSTRING_TERM_LENGTH) {
+                prefixMatches.add("(CASE WHEN " + WORD_PREFIX_SQL + " THEN 1 ELSE 0 END)");
+                addThrice(args, term);
+            }
+        }
+        sql.append("ORDER BY ");
+        if (!prefixMatches.isEmpty()) {
+            sql.append(String.join(" + ", prefixMatches)).append(" DESC, ");
+        }
+        sql.append("id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new ProductSummary(
+                rs.getLong("id"),
+                rs.getString("brand_name"),
+                rs.getString("product_name"),
+                rs.getString("pack_size")), args.toArray());
+    }
+
+    private static void addThrice(List<Object> args, String value) {
+        args.add(value);
+        args.add(value);
+        args.add(value);
+    }
+}
@@ -0,0 +1,58 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.AlertMatch;
+import io.priceintel.event.AlertRuleChangedEvent;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.repository.AlertOutboxJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Evaluates alert rules inline with ingestion. Runs inside the recordPrice transaction, so
+ * outbox rows commit (or roll back) together with the snapshot that fired them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlertEvaluationService {
+
+    private final AlertRuleIndex alertRuleIndex;
+    private final AlertRuleService alertRuleService;
+    private final AlertOutboxJdbcRepository alertOutboxRepository;
+
+    @EventListener
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        List<AlertMatch> matches = alertRuleIndex.evaluate(event);
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        int written = alertOutboxRepository.insertAll(matches, event);
+        log.info("Fired {} alert(s) for skuLocationId={} snapshotId={} price={} (previous={})",
+                written, event.getSkuLocationId(), event.getSnapshotId(),
+                event.getSellingPrice(), event.getPreviousSellingPrice());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleChanged(AlertRuleChangedEvent event) {
+        if (event.isActive()) {
+            alertRuleIndex.add(event.getRule());
+        } else {
+            alertRuleIndex.remove(event.getRule());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRules() {
+        long startTime = System.currentTimeMillis();
+        int loaded = alertRuleService.loadActiveRules(alertRuleIndex::addAll);
+        log.info("Loaded {} active alert rule(s) into the index in {} ms (index size={})",
+                loaded, System.currentTimeMillis() - startTime, alertRuleIndex.size());
+    }
+}
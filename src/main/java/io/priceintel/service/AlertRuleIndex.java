@@ -0,0 +1,259 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.AlertMatch;
+import io.priceintel.dto.AlertRuleDefinition;
+import io.priceintel.enums.AlertRuleType;
+import io.priceintel.enums.Availability;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of active alert rules, keyed so that one snapshot only touches the rules it
+ * can trigger:
+ * <ul>
+ *   <li>PRICE_BELOW: per SKU, thresholds sorted ascending (in paise). A move from p to q fires
+ *       exactly the thresholds in (q, p], found with two binary searches.</li>
+ *   <li>PRICE_DROP_PERCENT: per product, drop percentages sorted ascending (in basis points). A
+ *       drop of d fires the prefix of rules with a percentage &lt;= d.</li>
+ *   <li>BACK_IN_STOCK: per SKU, fired on an OUT_OF_STOCK/UNKNOWN to IN_STOCK transition.</li>
+ * </ul>
+ * Rules fire on the transition only, which is what deduplicates them across repeated
+ * snapshots of an unchanged price. Per-key arrays are immutable and swapped atomically, so
+ * evaluation never locks; rule changes are rare compared to ingests.
+ */
+@Slf4j
+@Component
+public class AlertRuleIndex {
+
+    private static final long[] NO_LONGS = new long[0];
+    private static final String[] NO_CITIES = new String[0];
+
+    private final Map<Long, SortedRules> priceBelowBySku = new ConcurrentHashMap<>();
+    private final Map<Long, SortedRules> percentDropByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, SortedRules> backInStockBySku = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public int size() {
+        return size.get();
+    }
+
+    public void add(AlertRuleDefinition rule) {
+        addAll(List.of(rule));
+    }
+
+    /**
+     * Groups rules by index key and merges each group with one copy of the key's array, so
+     * bulk loads stay O(n log n) even for keys with many rules.
+     */
+    public void addAll(Collection<AlertRuleDefinition> rules) {
+        Map<Long, List<RuleEntry>> priceBelow = new HashMap<>();
+        Map<Long, List<RuleEntry>> percentDrop = new HashMap<>();
+        Map<Long, List<RuleEntry>> backInStock = new HashMap<>();
+
+        for (AlertRuleDefinition rule : rules) {
+            switch (rule.getRuleType()) {
+                case PRICE_BELOW -> priceBelow.computeIfAbsent(rule.getSkuLocationId(), k -> new ArrayList<>())
+                        .add(new RuleEntry(toPaise(rule.getThresholdPrice()), rule.getId(), null));
+                case PRICE_DROP_PERCENT -> percentDrop.computeIfAbsent(rule.getProductId(), k -> new ArrayList<>())
+                        .add(new RuleEntry(toBasisPoints(rule.getDropPercent()), rule.getId(), normalizeCity(rule.getCity())));
+                case BACK_IN_STOCK -> backInStock.computeIfAbsent(rule.getSkuLocationId(), k -> new ArrayList<>())
+                        .add(new RuleEntry(0, rule.getId(), null));
+            }
+        }
+
+        mergeInto(priceBelowBySku, priceBelow);
+        mergeInto(percentDropByProduct, percentDrop);
+        mergeInto(backInStockBySku, backInStock);
+    }
+
+    public void remove(AlertRuleDefinition rule) {
+        Map<Long, SortedRules> index = switch (rule.getRuleType()) {
+            case PRICE_BELOW -> priceBelowBySku;
+            case PRICE_DROP_PERCENT -> percentDropByProduct;
+            case BACK_IN_STOCK -> backInStockBySku;
+        };
+        Long key = rule.getRuleType() == AlertRuleType.PRICE_DROP_PERCENT ? rule.getProductId() : rule.getSkuLocationId();
+
+        index.computeIfPresent(key, (k, existing) -> {
+            SortedRules remaining = existing.without(rule.getId());
+            if (remaining.size() < existing.size()) {
+                size.decrementAndGet();
+            }
+            return remaining.size() == 0 ? null : remaining;
+        });
+    }
+
+    public List<AlertMatch> evaluate(PriceSnapshotRecordedEvent event) {
+        List<AlertMatch> matches = null;
+
+        BigDecimal price = event.getSellingPrice();
+        BigDecimal previousPrice = event.getPreviousSellingPrice();
+
+        SortedRules priceBelow = priceBelowBySku.get(event.getSkuLocationId());
+        if (priceBelow != null && price != null) {
+            long current = toPaise(price);
+            int from = priceBelow.upperBound(current);
+            int to = previousPrice != null ? priceBelow.upperBound(toPaise(previousPrice)) : priceBelow.size();
+            for (int i = from; i < to; i++) {
+                matches = append(matches, priceBelow.ruleIds[i], AlertRuleType.PRICE_BELOW);
+            }
+        }
+
+        if (event.getProductId() != null && price != null && previousPrice != null && price.compareTo(previousPrice) < 0) {
+            SortedRules percentDrop = percentDropByProduct.get(event.getProductId());
+            if (percentDrop != null) {
+                long dropBasisPoints = previousPrice.subtract(price)
+                        .multiply(BigDecimal.valueOf(10_000))
+                        .divide(previousPrice, 0, RoundingMode.FLOOR)
+                        .longValue();
+                String city = normalizeCity(event.getCity());
+                int to = percentDrop.upperBound(dropBasisPoints);
+                for (int i = 0; i < to; i++) {
+                    String ruleCity = percentDrop.cities[i];
+                    if (ruleCity == null || ruleCity.equals(city)) {
+                        matches = append(matches, percentDrop.ruleIds[i], AlertRuleType.PRICE_DROP_PERCENT);
+                    }
+                }
+            }
+        }
+
+        if (event.getAvailability() == Availability.IN_STOCK
+                && event.getPreviousAvailability() != null
+                && event.getPreviousAvailability() != Availability.IN_STOCK) {
+            SortedRules backInStock = backInStockBySku.get(event.getSkuLocationId());
+            if (backInStock != null) {
+                for (long ruleId : backInStock.ruleIds) {
+                    matches = append(matches, ruleId, AlertRuleType.BACK_IN_STOCK);
+                }
+            }
+        }
+
+        return matches != null ? matches : List.of();
+    }
+
+    private void mergeInto(Map<Long, SortedRules> index, Map<Long, List<RuleEntry>> additions) {
+        additions.forEach((key, entries) -> index.compute(key, (k, existing) -> {
+            SortedRules merged = (existing != null ? existing : SortedRules.EMPTY).with(entries);
+            size.addAndGet(merged.size() - (existing != null ? existing.size() : 0));
+            return merged;
+        }));
+    }
+
+    private static List<AlertMatch> append(List<AlertMatch> matches, long ruleId, AlertRuleType type) {
+        List<AlertMatch> result = matches != null ? matches : new ArrayList<>();
+        result.add(new AlertMatch(ruleId, type));
+        return result;
+    }
+
+    static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    static long toBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static String normalizeCity(String city) {
+        return city != null && !city.isBlank() ? city.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private record RuleEntry(long key, long ruleId, String city) {
+    }
+
+    /**
+     * Immutable parallel arrays sorted by key. Cities are only populated for product rules.
+     */
+    private static final class SortedRules {
+
+        static final SortedRules EMPTY = new SortedRules(NO_LONGS, NO_LONGS, NO_CITIES);
+
+        final long[] keys;
+        final long[] ruleIds;
+        final String[] cities;
+
+        SortedRules(long[] keys, long[] ruleIds, String[] cities) {
+            this.keys = keys;
+            this.ruleIds = ruleIds;
+            this.cities = cities;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        // Index of the first key strictly greater than value
+        int upperBound(long value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        SortedRules with(List<RuleEntry> additions) {
+            Set<Long> present = new HashSet<>();
+            List<RuleEntry> all = new ArrayList<>(keys.length + additions.size());
+            for (int i = 0; i < keys.length; i++) {
+                present.add(ruleIds[i]);
+                all.add(new RuleEntry(keys[i], ruleIds[i], cities[i]));
+            }
+            for (RuleEntry entry : additions) {
+                // Rules can arrive twice (startup load racing a create); keep the first
+                if (present.add(entry.ruleId())) {
+                    all.add(entry);
+                }
+            }
+            all.sort(Comparator.comparingLong(RuleEntry::key).thenComparingLong(RuleEntry::ruleId));
+
+            long[] newKeys = new long[all.size()];
+            long[] newRuleIds = new long[all.size()];
+            String[] newCities = new String[all.size()];
+            for (int i = 0; i < all.size(); i++) {
+                RuleEntry entry = all.get(i);
+                newKeys[i] = entry.key();
+                newRuleIds[i] = entry.ruleId();
+                newCities[i] = entry.city();
+            }
+            return new SortedRules(newKeys, newRuleIds, newCities);
+        }
+
+        SortedRules without(long ruleId) {
+            for (int i = 0; i < ruleIds.length; i++) {
+                if (ruleIds[i] == ruleId) {
+                    long[] newKeys = new long[keys.length - 1];
+                    long[] newRuleIds = new long[keys.length - 1];
+                    String[] newCities = new String[keys.length - 1];
+                    System.arraycopy(keys, 0, newKeys, 0, i);
+                    System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+                    System.arraycopy(ruleIds, 0, newRuleIds, 0, i);
+                    System.arraycopy(ruleIds, i + 1, newRuleIds, i, keys.length - i - 1);
+                    System.arraycopy(cities, 0, newCities, 0, i);
+                    System.arraycopy(cities, i + 1, newCities, i, keys.length - i - 1);
+                    return new SortedRules(newKeys, newRuleIds, newCities);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.AlertRuleDefinition;
+import io.priceintel.dto.request.CreateAlertRuleRequest;
+import io.priceintel.dto.response.AlertRuleResponse;
+import io.priceintel.entity.AlertRule;
+import io.priceintel.entity.Product;
+import io.priceintel.entity.SkuLocation;
+import io.priceintel.event.AlertRuleChangedEvent;
+import io.priceintel.exception.AlertRuleNotFoundException;
+import io.priceintel.exception.ProductNotFoundException;
+import io.priceintel.exception.SkuLocationNotFoundException;
+import io.priceintel.repository.AlertRuleRepository;
+import io.priceintel.repository.ProductRepository;
+import io.priceintel.repository.SkuLocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlertRuleService {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final SkuLocationRepository skuLocationRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public AlertRuleResponse createRule(CreateAlertRuleRequest request) {
+        log.debug("Creating alert rule: subscriber={}, type={}, skuLocationId={}, productId={}",
+                request.getSubscriber(), request.getRuleType(), request.getSkuLocationId(), request.getProductId());
+
+        validate(request);
+
+        AlertRule.AlertRuleBuilder builder = AlertRule.builder()
+                .subscriber(request.getSubscriber().trim())
+                .ruleType(request.getRuleType())
+                .isActive(true);
+
+        switch (request.getRuleType()) {
+            case PRICE_BELOW -> builder
+                    .skuLocation(findSkuLocation(request.getSkuLocationId()))
+                    .thresholdPrice(request.getThresholdPrice());
+            case BACK_IN_STOCK -> builder
+                    .skuLocation(findSkuLocation(request.getSkuLocationId()));
+            case PRICE_DROP_PERCENT -> builder
+                    .product(findProduct(request.getProductId()))
+                    .city(request.getCity() != null && !request.getCity().isBlank() ? request.getCity().trim() : null)
+                    .dropPercent(request.getDropPercent());
+        }
+
+        AlertRule saved = alertRuleRepository.save(builder.build());
+        log.info("Created alert rule id={} type={} subscriber={}", saved.getId(), saved.getRuleType(), saved.getSubscriber());
+
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(toDefinition(saved), true));
+        return toResponse(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public AlertRuleResponse getRule(Long id) {
+        return alertRuleRepository.findById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> {
+                    log.error("Alert rule not found: id={}", id);
+                    return new AlertRuleNotFoundException(id);
+                });
+    }
+
+    @Transactional
+    public void deactivateRule(Long id) {
+        AlertRule rule = alertRuleRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Alert rule not found: id={}", id);
+                    return new AlertRuleNotFoundException(id);
+                });
+
+        if (!rule.isActive()) {
+            log.debug("Alert rule id={} is already inactive", id);
+            return;
+        }
+
+        rule.setActive(false);
+        log.info("Deactivated alert rule id={}", id);
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(toDefinition(rule), false));
+    }
+
+    /**
+     * Streams every active rule as a projection and hands them to the sink in batches.
+     */
+    @Transactional(readOnly = true)
+    public int loadActiveRules(Consumer<List<AlertRuleDefinition>> sink) {
+        int loaded = 0;
+        try (Stream<AlertRuleDefinition> rules = alertRuleRepository.streamActiveDefinitions()) {
+            List<AlertRuleDefinition> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            Iterator<AlertRuleDefinition> iterator = rules.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    sink.accept(batch);
+                    loaded += batch.size();
+                    batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+                loaded += batch.size();
+            }
+        }
+        return loaded;
+    }
+
+    private void validate(CreateAlertRuleRequest request) {
+        if (request.getSubscriber() == null || request.getSubscriber().isBlank()) {
+            log.warn("Alert rule subscriber is missing");
+            throw new IllegalArgumentException("Subscriber is required");
+        }
+        if (request.getRuleType() == null) {
+            log.warn("Alert rule type is missing");
+            throw new IllegalArgumentException("Rule type is required");
+        }
+
+        switch (request.getRuleType()) {
+            case PRICE_BELOW -> {
+                requirePositive(request.getSkuLocationId(), "SKU location ID");
+                if (request.getThresholdPrice() == null || request.getThresholdPrice().signum() <= 0) {
+                    log.warn("Invalid thresholdPrice for PRICE_BELOW rule: {}", request.getThresholdPrice());
+                    throw new IllegalArgumentException("Threshold price must be positive");
+                }
+            }
+            case BACK_IN_STOCK -> requirePositive(request.getSkuLocationId(), "SKU location ID");
+            case PRICE_DROP_PERCENT -> {
+                requirePositive(request.getProductId(), "Product ID");
+                BigDecimal dropPercent = request.getDropPercent();
+                if (dropPercent == null || dropPercent.signum() <= 0 || dropPercent.compareTo(ONE_HUNDRED) >= 0) {
+                    log.warn("Invalid dropPercent for PRICE_DROP_PERCENT rule: {}", dropPercent);
+                    throw new IllegalArgumentException("Drop percent must be between 0 and 100 (exclusive)");
+                }
+            }
+        }
+    }
+
+    private void requirePositive(Long id, String name) {
+        if (id == null || id <= 0) {
+            log.warn("Invalid {}: {}", name, id);
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+
+    private SkuLocation findSkuLocation(Long skuLocationId) {
+        return skuLocationRepository.findById(skuLocationId)
+                .orElseThrow(() -> {
+                    log.error("SkuLocation not found: id={}", skuLocationId);
+                    return new SkuLocationNotFoundException(skuLocationId);
+                });
+    }
+
+    private Product findProduct(Long productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> {
+                    log.error("Product not found: id={}", productId);
+                    return new ProductNotFoundException(productId);
+                });
+    }
+
+    private AlertRuleDefinition toDefinition(AlertRule rule) {
+        return AlertRuleDefinition.builder()
+                .id(rule.getId())
+                .ruleType(rule.getRuleType())
+                .skuLocationId(rule.getSkuLocation() != null ? rule.getSkuLocation().getId() : null)
+                .productId(rule.getProduct() != null ? rule.getProduct().getId() : null)
+                .city(rule.getCity())
+                .thresholdPrice(rule.getThresholdPrice())
+                .dropPercent(rule.getDropPercent())
+                .build();
+    }
+
+    private AlertRuleResponse toResponse(AlertRule rule) {
+        return AlertRuleResponse.builder()
+                .id(rule.getId())
+                .subscriber(rule.getSubscriber())
+                .ruleType(rule.getRuleType())
+                .skuLocationId(rule.getSkuLocation() != null ? rule.getSkuLocation().getId() : null)
+                .productId(rule.getProduct() != null ? rule.getProduct().getId() : null)
+                .city(rule.getCity())
+                .thresholdPrice(rule.getThresholdPrice())
+                .dropPercent(rule.getDropPercent())
+                .active(rule.isActive())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.enums.Availability;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest offer per SKU location, grouped by (productId, city). Each group keeps its in-stock
+ * offers in a tree ordered like the comparison ranking (price, then newest capture) and
+ * publishes the head after every change, so reads are a map lookup and a volatile read.
+ */
+@Component
+public class CheapestOfferIndex {
+
+    static final Comparator<CheapestOffer> OFFER_ORDER = Comparator
+            .comparing(CheapestOffer::getSellingPrice)
+            .thenComparing(CheapestOffer::getCapturedAt, Comparator.reverseOrder())
+            .thenComparing(CheapestOffer::getSkuLocationId);
+
+    private final Map<Long, Map<String, OfferBook>> booksByProduct = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latest offer of a SKU location. Offers older than the one already held are
+     * ignored, so replaying startup rows and live events in any order converges. Offers of a
+     * removed SKU location are ignored until it is reactivated, so a rebuild row read before the
+     * deactivation cannot bring it back.
+     */
+    public void apply(CheapestOffer offer) {
+        if (offer.getSellingPrice() == null || offer.getProductId() == null || offer.getCity() == null) {
+            return;
+        }
+        book(offer.getProductId(), normalizeCity(offer.getCity())).apply(offer);
+    }
+
+    // Leaves a tombstone, so the SKU location stays out until reactivate
+    public void remove(Long skuLocationId, Long productId, String city) {
+        if (productId == null || city == null) {
+            return;
+        }
+        book(productId, normalizeCity(city)).remove(skuLocationId);
+    }
+
+    public void reactivate(Long skuLocationId, Long productId, String city) {
+        Map<String, OfferBook> books = booksByProduct.get(productId);
+        if (books == null || city == null) {
+            return;
+        }
+        OfferBook book = books.get(normalizeCity(city));
+        if (book != null) {
+            book.reactivate(skuLocationId);
+        }
+    }
+
+    public Optional<CheapestOffer> getCheapest(Long productId, String city) {
+        Map<String, OfferBook> books = booksByProduct.get(productId);
+        if (books == null) {
+            return Optional.empty();
+        }
+        if (city != null) {
+            OfferBook book = books.get(normalizeCity(city));
+            return book != null ? Optional.ofNullable(book.cheapest) : Optional.empty();
+        }
+        // Across cities: one head per city
+        CheapestOffer best = null;
+        for (OfferBook book : books.values()) {
+            CheapestOffer candidate = book.cheapest;
+            if (candidate != null && (best == null || OFFER_ORDER.compare(candidate, best) < 0)) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public int countInStock(Long productId, String city) {
+        Map<String, OfferBook> books = booksByProduct.get(productId);
+        if (books == null) {
+            return 0;
+        }
+        if (city != null) {
+            OfferBook book = books.get(normalizeCity(city));
+            return book != null ? book.inStockCount : 0;
+        }
+        return books.values().stream().mapToInt(book -> book.inStockCount).sum();
+    }
+
+    /**
+     * Copies the latest offer of every SKU location held, in stock or not (used for warm snapshots).
+     */
+    public List<CheapestOffer> snapshot() {
+        List<CheapestOffer> offers = new ArrayList<>();
+        for (Map<String, OfferBook> books : booksByProduct.values()) {
+            for (OfferBook book : books.values()) {
+                book.copyTo(offers);
+            }
+        }
+        return offers;
+    }
+
+    public void clear() {
+        booksByProduct.clear();
+    }
+
+    private OfferBook book(Long productId, String city) {
+        return booksByProduct
+                .computeIfAbsent(productId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(city, k -> new OfferBook());
+    }
+
+    static String normalizeCity(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class OfferBook {
+
+        private final Map<Long, CheapestOffer> latestBySku = new HashMap<>();
+        private final Set<Long> removedSkus = new HashSet<>();
+        private final TreeSet<CheapestOffer> inStock = new TreeSet<>(OFFER_ORDER);
+        private volatile CheapestOffer cheapest;
+        private volatile int inStockCount;
+
+        synchronized void apply(CheapestOffer offer) {
+            if (removedSkus.contains(offer.getSkuLocationId())) {
+                return;
+            }
+            CheapestOffer current = latestBySku.get(offer.getSkuLocationId());
+            if (current != null) {
+                if (offer.getCapturedAt().isBefore(current.getCapturedAt())) {
+                    return;
+                }
+                inStock.remove(current);
+            }
+            latestBySku.put(offer.getSkuLocationId(), offer);
+            if (offer.getAvailability() == Availability.IN_STOCK) {
+                inStock.add(offer);
+            }
+            publish();
+        }
+
+        synchronized void remove(Long skuLocationId) {
+            removedSkus.add(skuLocationId);
+            CheapestOffer current = latestBySku.remove(skuLocationId);
+            if (current != null) {
+                inStock.remove(current);
+                publish();
+            }
+        }
+
+        synchronized void reactivate(Long skuLocationId) {
+            removedSkus.remove(skuLocationId);
+        }
+
+        synchronized void copyTo(List<CheapestOffer> target) {
+            target.addAll(latestBySku.values());
+        }
+
+        private void publish() {
+            cheapest = inStock.isEmpty() ? null : inStock.first();
+            inStockCount = inStock.size();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.priceintel.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.cheapest-index")
+public class CheapestOfferIndexProperties {
+
+    private boolean enabled = true;
+
+    // Startup rebuild workers; each holds one background-pool connection, so warm-up caps them to what the pool can spare
+    private int rebuildParallelism = 4;
+}
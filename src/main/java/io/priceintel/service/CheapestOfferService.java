@@ -0,0 +1,263 @@
+package io.priceintel.service;
+
+import io.priceintel.datasource.ReadConsistencyContext;
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.response.CheapestOfferResponse;
+import io.priceintel.event.BackfillCompletedEvent;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.event.SkuLocationDeactivatedEvent;
+import io.priceintel.event.SkuLocationReactivatedEvent;
+import io.priceintel.exception.CheapestOfferNotFoundException;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the cheapest in-stock offer per product (and city) from {@link CheapestOfferIndex},
+ * keeping the index current from committed snapshots and SKU deactivations and reactivations.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheapestOfferService {
+
+    private final CheapestOfferIndex cheapestOfferIndex;
+    private final CheapestOfferIndexProperties properties;
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final ComparisonValidator comparisonValidator;
+
+    // Snapshots (and backfill imports, by the lowest id they can insert) that are committing or
+    // committed but not yet applied; the warm snapshot watermark stays below all of them
+    private final ConcurrentSkipListSet<Long> pendingSnapshotIds = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Long> pendingBackfillFloors = new ConcurrentSkipListSet<>();
+
+    private volatile boolean ready;
+
+    public CheapestOfferResponse getCheapestOffer(Long productId, String city) {
+        log.debug("Fetching cheapest offer for productId={}, city={}", productId, city);
+        comparisonValidator.validateProductId(productId);
+        String normalizedCity = city != null && !city.isBlank() ? CheapestOfferIndex.normalizeCity(city) : null;
+
+        CheapestOffer cheapest;
+        int inStockOffers;
+        if (ready) {
+            cheapest = cheapestOfferIndex.getCheapest(productId, normalizedCity).orElse(null);
+            inStockOffers = cheapestOfferIndex.countInStock(productId, normalizedCity);
+        } else {
+            // Index still rebuilding (or disabled): answer from the database
+            CheapestOfferIndex scratch = new CheapestOfferIndex();
+            priceSnapshotJdbcRepository.findLatestActiveOffers(productId, normalizedCity).forEach(scratch::apply);
+            cheapest = scratch.getCheapest(productId, normalizedCity).orElse(null);
+            inStockOffers = scratch.countInStock(productId, normalizedCity);
+        }
+
+        if (cheapest == null) {
+            log.error("No in-stock offer for productId={}, city={}", productId, normalizedCity);
+            throw new CheapestOfferNotFoundException(productId, normalizedCity);
+        }
+
+        return CheapestOfferResponse.builder()
+                .productId(productId)
+                .city(cheapest.getCity())
+                .skuLocationId(cheapest.getSkuLocationId())
+                .platformId(cheapest.getPlatformId())
+                .sellingPrice(cheapest.getSellingPrice())
+                .discount(cheapest.getDiscount())
+                .capturedAt(cheapest.getCapturedAt())
+                .inStockOffers(inStockOffers)
+                .build();
+    }
+
+    // Inside the ingest transaction, so the id is pending before its row can be seen as committed
+    @EventListener
+    public void onSnapshotRecording(PriceSnapshotRecordedEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingSnapshotIds.add(event.getSnapshotId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        try {
+            cheapestOfferIndex.apply(CheapestOffer.builder()
+                    .skuLocationId(event.getSkuLocationId())
+                    .productId(event.getProductId())
+                    .platformId(event.getPlatformId())
+                    .city(event.getCity())
+                    .sellingPrice(event.getSellingPrice())
+                    .discount(event.getDiscount())
+                    .availability(event.getAvailability())
+                    .capturedAt(event.getCapturedAt())
+                    .build());
+        } finally {
+            pendingSnapshotIds.remove(event.getSnapshotId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onSnapshotRolledBack(PriceSnapshotRecordedEvent event) {
+        pendingSnapshotIds.remove(event.getSnapshotId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSkuLocationDeactivated(SkuLocationDeactivatedEvent event) {
+        cheapestOfferIndex.remove(event.getSkuLocationId(), event.getProductId(), event.getCity());
+    }
+
+    // Its snapshots were ignored while it was inactive, so reload the latest one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSkuLocationReactivated(SkuLocationReactivatedEvent event) {
+        cheapestOfferIndex.reactivate(event.getSkuLocationId(), event.getProductId(), event.getCity());
+        if (!properties.isEnabled()) {
+            return;
+        }
+        priceSnapshotJdbcRepository.findLatestActiveOffers(event.getProductId(), event.getCity()).stream()
+                .filter(offer -> offer.getSkuLocationId().equals(event.getSkuLocationId()))
+                .forEach(cheapestOfferIndex::apply);
+    }
+
+    @EventListener
+    public void onBackfillCompleting(BackfillCompletedEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingBackfillFloors.add(event.getSnapshotWatermark() + 1);
+        }
+    }
+
+    // Backfilled rows skip the per-snapshot event; fold in the newest of them per SKU
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBackfillCompleted(BackfillCompletedEvent event) {
+        try {
+            applyBackfill(event);
+        } finally {
+            pendingBackfillFloors.remove(event.getSnapshotWatermark() + 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onBackfillRolledBack(BackfillCompletedEvent event) {
+        pendingBackfillFloors.remove(event.getSnapshotWatermark() + 1);
+    }
+
+    private void applyBackfill(BackfillCompletedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        AtomicInteger applied = new AtomicInteger();
+        priceSnapshotJdbcRepository.forEachLatestActiveOfferRecordedAfter(event.getSnapshotWatermark(), offer -> {
+            cheapestOfferIndex.apply(offer);
+            applied.incrementAndGet();
+        });
+        log.info("Applied {} backfilled SKU offer(s) from import {} to the cheapest-offer index in {} ms",
+                applied.get(), event.getImportId(), System.currentTimeMillis() - startTime);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Highest snapshot id up to which the index reflects every snapshot, given that all snapshots
+     * up to {@code committedUpTo} have committed: below any of them whose offer is still being applied.
+     */
+    public long appliedWatermark(long committedUpTo) {
+        long watermark = committedUpTo;
+        Long pendingSnapshot = pendingSnapshotIds.ceiling(Long.MIN_VALUE);
+        if (pendingSnapshot != null) {
+            watermark = Math.min(watermark, pendingSnapshot - 1);
+        }
+        Long pendingBackfill = pendingBackfillFloors.ceiling(Long.MIN_VALUE);
+        if (pendingBackfill != null) {
+            watermark = Math.min(watermark, pendingBackfill - 1);
+        }
+        return watermark;
+    }
+
+    /**
+     * Rebuilds the index with one worker per product partition, using at most {@code maxWorkers}
+     * of them (each holds a background-pool connection). Live events are applied while the
+     * rebuild runs; since the index keeps the newest offer per SKU and a tombstone per
+     * deactivated SKU, order does not matter and a failed rebuild can simply be run again.
+     */
+    public void rebuild(int maxWorkers) {
+        if (!properties.isEnabled()) {
+            log.info("Cheapest-offer index disabled; /cheapest is served from the database");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        int partitions = Math.max(1, Math.min(properties.getRebuildParallelism(), maxWorkers));
+        AtomicInteger loaded = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<CompletableFuture<Void>> workers = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                workers.add(CompletableFuture.runAsync(() -> {
+                    // The scan is a read-only transaction; keep it on the primary so no row committed
+                    // before startup is missed on a lagging replica
+                    ReadConsistencyContext.setRequiredLsn(ReadConsistencyContext.PRIMARY_ONLY);
+                    try {
+                        priceSnapshotJdbcRepository.forEachLatestActiveOffer(partitions, current, offer -> {
+                            cheapestOfferIndex.apply(offer);
+                            loaded.incrementAndGet();
+                        });
+                    } finally {
+                        ReadConsistencyContext.clear();
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+            ready = true;
+            log.info("Rebuilt cheapest-offer index from {} SKU location(s) in {} ms using {} worker(s)",
+                    loaded.get(), System.currentTimeMillis() - startTime, partitions);
+        } catch (RuntimeException e) {
+            log.error("Cheapest-offer index rebuild failed; /cheapest stays on the database", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Warm start: seeds the index from a saved snapshot, then applies only the snapshots recorded
+     * after its watermark and drops SKU locations deactivated since.
+     */
+    public void restore(List<CheapestOffer> offers, long afterSnapshotId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        offers.forEach(cheapestOfferIndex::apply);
+
+        AtomicInteger delta = new AtomicInteger();
+        priceSnapshotJdbcRepository.forEachActiveOfferRecordedAfter(afterSnapshotId, offer -> {
+            cheapestOfferIndex.apply(offer);
+            delta.incrementAndGet();
+        });
+        List<CheapestOffer> inactive = priceSnapshotJdbcRepository.findInactiveSkuLocations();
+        inactive.forEach(sku -> cheapestOfferIndex.remove(sku.getSkuLocationId(), sku.getProductId(), sku.getCity()));
+
+        ready = true;
+        log.info("Restored cheapest-offer index from {} saved offer(s) + {} newer snapshot(s), {} inactive SKU(s) removed, in {} ms",
+                offers.size(), delta.get(), inactive.size(), System.currentTimeMillis() - startTime);
+    }
+}
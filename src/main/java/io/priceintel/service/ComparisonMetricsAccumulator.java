@@ -0,0 +1,90 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.SkuComparisonItem;
+import io.priceintel.enums.Availability;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Single-pass comparison metrics. Items can be fed in any number of chunks, so large
+ * comparisons never need the full result set to compute cheapest/most expensive/best value.
+ */
+@Slf4j
+@Getter
+class ComparisonMetricsAccumulator {
+
+    private int count;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Long cheapestSkuId;
+    private Instant cheapestCapturedAt;
+    private Long mostExpensiveSkuId;
+    private Instant mostExpensiveCapturedAt;
+    // Best value = cheapest in-stock item
+    private BigDecimal bestValuePrice;
+    private Long bestValueSkuId;
+    private Instant bestValueCapturedAt;
+
+    // Equal prices go to the newest capture, matching rank order (price asc, capturedAt desc)
+    void accept(SkuComparisonItem item) {
+        BigDecimal price = item.getPrice();
+        Instant capturedAt = item.getCapturedAt();
+        count++;
+
+        int vsMin = minPrice == null ? -1 : price.compareTo(minPrice);
+        if (vsMin < 0 || (vsMin == 0 && isNewer(capturedAt, cheapestCapturedAt))) {
+            minPrice = price;
+            cheapestSkuId = item.getSkuId();
+            cheapestCapturedAt = capturedAt;
+        }
+
+        int vsMax = maxPrice == null ? 1 : price.compareTo(maxPrice);
+        if (vsMax > 0 || (vsMax == 0 && isNewer(capturedAt, mostExpensiveCapturedAt))) {
+            maxPrice = price;
+            mostExpensiveSkuId = item.getSkuId();
+            mostExpensiveCapturedAt = capturedAt;
+        }
+
+        if (item.getAvailability() == Availability.IN_STOCK) {
+            int vsBest = bestValuePrice == null ? -1 : price.compareTo(bestValuePrice);
+            if (vsBest < 0 || (vsBest == 0 && isNewer(capturedAt, bestValueCapturedAt))) {
+                bestValuePrice = price;
+                bestValueSkuId = item.getSkuId();
+                bestValueCapturedAt = capturedAt;
+            }
+        }
+    }
+
+    BigDecimal getPriceSpread() {
+        requireItems();
+        return maxPrice.subtract(minPrice);
+    }
+
+    BigDecimal getPercentageDifference() {
+        requireItems();
+        // Division by zero protection
+        if (minPrice.compareTo(BigDecimal.ZERO) == 0) {
+            log.debug("Min price is zero, setting percentageDifference to zero to avoid division by zero");
+            return BigDecimal.ZERO;
+        }
+        return getPriceSpread()
+                .divide(minPrice, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Same instant keeps the first item seen, like the stable sort in assignRankings
+    private static boolean isNewer(Instant capturedAt, Instant current) {
+        return capturedAt != null && (current == null || capturedAt.isAfter(current));
+    }
+
+    private void requireItems() {
+        if (minPrice == null || maxPrice == null) {
+            throw new IllegalStateException("Unexpected null price during comparison calculation");
+        }
+    }
+}
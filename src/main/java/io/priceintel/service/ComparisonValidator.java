@@ -12,6 +12,7 @@ public class ComparisonValidator {
 
     private static final int MAX_SKU_BATCH_SIZE = 2000;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LARGE_SKU_SET_SIZE = 100_000;
 
     public void validateProductId(Long productId) {
         if (productId == null || productId <= 0) {
@@ -39,6 +40,36 @@ public class ComparisonValidator {
         }
     }
 
+    /**
+     * Validates id sets for the POST comparison, which resolves prices in chunks and so
+     * accepts far more ids than the query-string variant.
+     */
+    public void validateLargeSkuIds(List<Long> skuIds) {
+        if (skuIds == null || skuIds.isEmpty()) {
+            log.warn("SKU IDs list is null or empty");
+            throw new IllegalArgumentException("SKU IDs list cannot be null or empty");
+        }
+
+        if (skuIds.size() < 2) {
+            log.warn("Insufficient SKU IDs provided for comparison: {}", skuIds.size());
+            throw new IllegalArgumentException("At least 2 SKU IDs are required for comparison");
+        }
+
+        if (skuIds.size() > MAX_LARGE_SKU_SET_SIZE) {
+            log.warn("SKU set size exceeds maximum: {} > {}", skuIds.size(), MAX_LARGE_SKU_SET_SIZE);
+            throw new IllegalArgumentException(
+                    String.format("SKU set size cannot exceed %d. Received: %d", MAX_LARGE_SKU_SET_SIZE, skuIds.size())
+            );
+        }
+
+        for (Long skuId : skuIds) {
+            if (skuId == null || skuId <= 0) {
+                log.warn("Invalid skuId in comparison set: {}", skuId);
+                throw new IllegalArgumentException("SKU IDs must be positive");
+            }
+        }
+    }
+
     public void validatePagination(Integer page, Integer size) {
         if (page != null && page < 0) {
             log.warn("Invalid page number: {}", page);
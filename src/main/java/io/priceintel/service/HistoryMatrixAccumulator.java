@@ -0,0 +1,116 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.response.HistoryMatrixColumn;
+import io.priceintel.enums.Availability;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets a time-ordered stream of snapshots from several SKUs onto one time axis. Each bucket
+ * keeps the last price captured in it; empty buckets are forward-filled from the previous one,
+ * and snapshots before the axis start only seed that fill.
+ */
+class HistoryMatrixAccumulator {
+
+    private final long startMillis;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int maxColumns;
+    private final Map<Long, Column> columns = new HashMap<>();
+
+    HistoryMatrixAccumulator(Instant start, long bucketMillis, int bucketCount, int maxColumns) {
+        this.startMillis = start.toEpochMilli();
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.maxColumns = maxColumns;
+    }
+
+    void accept(long skuId, long platformId, String city, BigDecimal sellingPrice, Availability availability, Instant capturedAt) {
+        Column column = columns.get(skuId);
+        if (column == null) {
+            if (columns.size() >= maxColumns) {
+                throw new IllegalArgumentException(
+                        String.format("History matrix cannot exceed %d SKUs; narrow it down with city", maxColumns));
+            }
+            column = new Column(skuId, platformId, city, bucketCount);
+            columns.put(skuId, column);
+        }
+
+        long offset = capturedAt.toEpochMilli() - startMillis;
+        if (offset < 0) {
+            column.seedPrice = sellingPrice;
+            column.seedAvailability = availability;
+            return;
+        }
+        long bucket = offset / bucketMillis;
+        if (bucket < bucketCount) {
+            // Rows arrive in capture order, so the last write is the bucket's closing price
+            column.prices[(int) bucket] = sellingPrice;
+            column.availability[(int) bucket] = availability;
+        }
+    }
+
+    List<Instant> bucketStarts() {
+        List<Instant> starts = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            starts.add(Instant.ofEpochMilli(startMillis + i * bucketMillis));
+        }
+        return starts;
+    }
+
+    List<HistoryMatrixColumn> toColumns() {
+        return columns.values().stream()
+                .sorted(Comparator.comparingLong((Column c) -> c.platformId)
+                        .thenComparing(c -> c.city)
+                        .thenComparingLong(c -> c.skuId))
+                .map(Column::toResponse)
+                .toList();
+    }
+
+    private static final class Column {
+
+        private final long skuId;
+        private final long platformId;
+        private final String city;
+        private final BigDecimal[] prices;
+        private final Availability[] availability;
+        private BigDecimal seedPrice;
+        private Availability seedAvailability;
+
+        private Column(long skuId, long platformId, String city, int bucketCount) {
+            this.skuId = skuId;
+            this.platformId = platformId;
+            this.city = city;
+            this.prices = new BigDecimal[bucketCount];
+            this.availability = new Availability[bucketCount];
+        }
+
+        private HistoryMatrixColumn toResponse() {
+            BigDecimal price = seedPrice;
+            Availability current = seedAvailability;
+            for (int i = 0; i < prices.length; i++) {
+                if (prices[i] != null) {
+                    price = prices[i];
+                    current = availability[i];
+                } else {
+                    prices[i] = price;
+                    availability[i] = current;
+                }
+            }
+            return HistoryMatrixColumn.builder()
+                    .skuId(skuId)
+                    .platformId(platformId)
+                    .city(city)
+                    .sellingPrice(Arrays.asList(prices))
+                    .availability(Arrays.asList(availability))
+                    .build();
+        }
+    }
+}
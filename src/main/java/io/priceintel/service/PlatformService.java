@@ -1,9 +1,11 @@
 package io.priceintel.service;
 
+import io.priceintel.dto.UpsertResult;
 import io.priceintel.entity.Platform;
+import io.priceintel.repository.DimensionUpsertJdbcRepository;
 import io.priceintel.repository.PlatformRepository;
-import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,28 +16,29 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class PlatformService {
 
+    private static final int LOCK_STRIPES = 16;
+    private static final long LOCK_MAX_WAIT_MS = 2_000;
+
     private final PlatformRepository platformRepository;
+    private final DimensionUpsertJdbcRepository dimensionUpsertJdbcRepository;
+    private final StripedLocks platformLocks = new StripedLocks(LOCK_STRIPES, LOCK_MAX_WAIT_MS);
 
     public Platform createPlatform(String name) {
         log.debug("Creating platform: name={}", name);
 
         String normalizedName = normalizeName(name);
 
-        Optional<Platform> existing = platformRepository.findByNameIgnoreCase(normalizedName);
-        if (existing.isPresent()) {
-            Platform platform = existing.get();
+        UpsertResult<Platform> result = platformLocks.withLock(normalizedName.toLowerCase(Locale.ROOT),
+                () -> dimensionUpsertJdbcRepository.upsertPlatform(normalizedName))
+                .orElseThrow(() -> new IllegalStateException("Platform upsert returned no row"));
+        Platform platform = result.getValue();
+
+        if (result.isCreated()) {
+            log.info("Created new platform with id={} name={}", platform.getId(), platform.getName());
+        } else {
             log.info("Returning existing platform with id={} name={}", platform.getId(), platform.getName());
-            return platform;
         }
-
-        Platform platform = Platform.builder()
-                .name(normalizedName)
-                .createdAt(Instant.now())
-                .build();
-
-        Platform savedPlatform = platformRepository.save(platform);
-        log.info("Created new platform with id={} name={}", savedPlatform.getId(), savedPlatform.getName());
-        return savedPlatform;
+        return platform;
     }
 
     public List<Platform> getAllPlatforms() {
@@ -0,0 +1,300 @@
+package io.priceintel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.priceintel.enums.AnomalyAction;
+import io.priceintel.event.PriceQuarantinedEvent;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Online outlier check for ingested prices against an EWMA mean and variance per SKU. State
+ * lives in primitive arrays (open addressing, 64 lock segments): 23 bytes per slot, so 38 to 77
+ * bytes per SKU as the tables run between 0.3 and 0.6 full, and a million SKUs take under 80 MB.
+ * <p>
+ * {@link #evaluate} is a read-only check made before a price is stored; the state only moves
+ * once the stored point commits ({@link #observe}). Outliers never feed the mean; a run of
+ * {@code levelShiftAfter} consecutive outliers at about the same price is taken as a genuine
+ * new price level and re-seeds the SKU. State is not persisted: the first time a SKU is evaluated
+ * after a restart, its last {@code seedSnapshots} stored prices are replayed, so it can be
+ * flagged straight away rather than after {@code minSamples} new snapshots.
+ */
+@Component
+public class PriceAnomalyDetector {
+
+    private static final int SEGMENT_COUNT = 64;
+    // Outliers within this fraction of the first one in a run count as the same new level
+    private static final double LEVEL_SHIFT_TOLERANCE = 0.1;
+
+    private final PriceAnomalyProperties properties;
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final Counter quarantined;
+    private final Counter monitored;
+    private final Counter levelShifts;
+
+    public PriceAnomalyDetector(PriceAnomalyProperties properties,
+                                PriceSnapshotJdbcRepository priceSnapshotJdbcRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.priceSnapshotJdbcRepository = priceSnapshotJdbcRepository;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+        this.quarantined = meterRegistry.counter("priceintel.anomaly.outliers", "outcome", "quarantined");
+        this.monitored = meterRegistry.counter("priceintel.anomaly.outliers", "outcome", "recorded");
+        this.levelShifts = meterRegistry.counter("priceintel.anomaly.outliers", "outcome", "level_shift");
+        meterRegistry.gauge("priceintel.anomaly.tracked_skus", this, PriceAnomalyDetector::size);
+    }
+
+    public Verdict evaluate(long skuLocationId, double price) {
+        if (!properties.isEnabled()) {
+            return Verdict.NORMAL;
+        }
+        Segment segment = segmentFor(skuLocationId);
+        if (!segment.contains(skuLocationId)) {
+            seedFromHistory(segment, skuLocationId);
+        }
+        Verdict verdict = segment.evaluate(skuLocationId, price, properties);
+        if (verdict.isOutlier()) {
+            if (verdict.isLevelShift()) {
+                levelShifts.increment();
+            } else if (verdict.isQuarantine()) {
+                quarantined.increment();
+            } else {
+                monitored.increment();
+            }
+        }
+        return verdict;
+    }
+
+    public void observe(long skuLocationId, double price) {
+        if (properties.isEnabled()) {
+            segmentFor(skuLocationId).observe(skuLocationId, price, properties);
+        }
+    }
+
+    // Read outside the segment lock; the caller holds the SKU's ingest lock, so no other thread replays it
+    private void seedFromHistory(Segment segment, long skuLocationId) {
+        if (properties.getSeedSnapshots() <= 0) {
+            return;
+        }
+        List<BigDecimal> newestFirst = priceSnapshotJdbcRepository.findRecentPrices(skuLocationId,
+                properties.getSeedSnapshots());
+        double[] oldestFirst = new double[newestFirst.size()];
+        for (int i = 0; i < oldestFirst.length; i++) {
+            oldestFirst[i] = newestFirst.get(oldestFirst.length - 1 - i).doubleValue();
+        }
+        segment.replay(skuLocationId, oldestFirst, properties);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        observe(event.getSkuLocationId(), event.getSellingPrice().doubleValue());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceQuarantined(PriceQuarantinedEvent event) {
+        observe(event.getSkuLocationId(), event.getSellingPrice().doubleValue());
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long skuLocationId) {
+        return segments[(int) (mix(skuLocationId) >>> 58)];
+    }
+
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    static boolean isOutlier(float mean, float variance, int count, double price, PriceAnomalyProperties properties) {
+        if (count < properties.getMinSamples()) {
+            return false;
+        }
+        double deviation = Math.abs(price - mean);
+        return deviation > properties.getZThreshold() * Math.sqrt(variance)
+                && deviation > properties.getMinRelativeDeviation() * Math.abs(mean);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Verdict {
+
+        static final Verdict NORMAL = new Verdict(false, false, false, Double.NaN, 0.0);
+
+        private final boolean outlier;
+        // The outlier completes a run and will be accepted as the SKU's new price level
+        private final boolean levelShift;
+        private final boolean quarantine;
+        private final double expectedPrice;
+        // Distance from the expected price in standard deviations
+        private final double deviationScore;
+    }
+
+    /**
+     * One lock-protected open-addressing table; slot i of every array belongs to keys[i].
+     */
+    private static final class Segment {
+
+        private static final int INITIAL_CAPACITY = 64;
+        private static final float MAX_LOAD = 0.6f;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private float[] means = new float[INITIAL_CAPACITY];
+        private float[] variances = new float[INITIAL_CAPACITY];
+        private float[] streakPrices = new float[INITIAL_CAPACITY];
+        private short[] counts = new short[INITIAL_CAPACITY];
+        private byte[] streaks = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        synchronized Verdict evaluate(long key, double price, PriceAnomalyProperties properties) {
+            int slot = find(key);
+            if (slot < 0 || !isOutlier(means[slot], variances[slot], counts[slot], price, properties)) {
+                return Verdict.NORMAL;
+            }
+            double stdDev = Math.sqrt(variances[slot]);
+            double score = stdDev > 0 ? Math.abs(price - means[slot]) / stdDev : Double.POSITIVE_INFINITY;
+            boolean levelShift = continuesStreak(slot, price) && streaks[slot] + 1 >= properties.getLevelShiftAfter();
+            boolean quarantine = !levelShift && properties.getAction() == AnomalyAction.QUARANTINE;
+            return new Verdict(true, levelShift, quarantine, means[slot], score);
+        }
+
+        synchronized void observe(long key, double price, PriceAnomalyProperties properties) {
+            int slot = findOrInsert(key);
+            int count = counts[slot];
+            if (count == 0) {
+                seed(slot, price);
+                return;
+            }
+
+            if (isOutlier(means[slot], variances[slot], count, price, properties)) {
+                if (!continuesStreak(slot, price)) {
+                    streaks[slot] = 0;
+                    streakPrices[slot] = (float) price;
+                }
+                streaks[slot]++;
+                if (streaks[slot] >= properties.getLevelShiftAfter()) {
+                    seed(slot, price);
+                }
+                return;
+            }
+
+            streaks[slot] = 0;
+            // Plain running mean while the SKU is young, EWMA once 1/n drops below alpha
+            double alpha = Math.max(properties.getAlpha(), 1.0 / (count + 1));
+            double diff = price - means[slot];
+            double increment = alpha * diff;
+            means[slot] = (float) (means[slot] + increment);
+            variances[slot] = (float) ((1 - alpha) * (variances[slot] + diff * increment));
+            if (count < Short.MAX_VALUE) {
+                counts[slot] = (short) (count + 1);
+            }
+        }
+
+        synchronized boolean contains(long key) {
+            return find(key) >= 0;
+        }
+
+        // Feeds stored history through observe, so outliers in it are kept out of the mean as well
+        synchronized void replay(long key, double[] oldestFirst, PriceAnomalyProperties properties) {
+            if (find(key) >= 0) {
+                return;
+            }
+            for (double price : oldestFirst) {
+                observe(key, price, properties);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private boolean continuesStreak(int slot, double price) {
+            return streaks[slot] > 0
+                    && Math.abs(price - streakPrices[slot]) <= LEVEL_SHIFT_TOLERANCE * Math.abs(streakPrices[slot]);
+        }
+
+        private void seed(int slot, double price) {
+            means[slot] = (float) price;
+            variances[slot] = 0f;
+            counts[slot] = 1;
+            streaks[slot] = 0;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int findOrInsert(long key) {
+            int slot = find(key);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (size + 1 > keys.length * MAX_LOAD) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            slot = (int) mix(key) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            float[] oldMeans = means;
+            float[] oldVariances = variances;
+            float[] oldStreakPrices = streakPrices;
+            short[] oldCounts = counts;
+            byte[] oldStreaks = streaks;
+
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            means = new float[capacity];
+            variances = new float[capacity];
+            streakPrices = new float[capacity];
+            counts = new short[capacity];
+            streaks = new byte[capacity];
+
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) {
+                    continue;
+                }
+                int slot = (int) mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                means[slot] = oldMeans[i];
+                variances[slot] = oldVariances[i];
+                streakPrices[slot] = oldStreakPrices[i];
+                counts[slot] = oldCounts[i];
+                streaks[slot] = oldStreaks[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.priceintel.service;
+
+import io.priceintel.enums.AnomalyAction;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.anomaly")
+public class PriceAnomalyProperties {
+
+    private boolean enabled = true;
+
+    private AnomalyAction action = AnomalyAction.QUARANTINE;
+
+    // EWMA weight of the newest price; 0.1 follows roughly the last 20 snapshots
+    private double alpha = 0.1;
+
+    // Snapshots a SKU needs before it can be flagged
+    private int minSamples = 5;
+
+    // Stored prices replayed when a SKU is first evaluated after startup; 0 starts every SKU empty
+    private int seedSnapshots = 20;
+
+    // A price is an outlier only when it is both this many standard deviations from the mean...
+    private double zThreshold = 6.0;
+
+    // ...and this far from the mean relative to it, so a real 40% sale on a flat price is not flagged
+    private double minRelativeDeviation = 0.5;
+
+    // This many consecutive outliers at about the same price are taken as a genuine new price level
+    private int levelShiftAfter = 5;
+}
@@ -0,0 +1,100 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.response.PriceHistoryMatrixResponse;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Aligned price history of all SKUs of a product, for charts comparing platforms: one ordered
+ * scan, bucketed and forward-filled on the server into a columnar matrix, instead of one
+ * /history call per SKU aligned on the client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryMatrixService {
+
+    private static final Duration DEFAULT_BUCKET = Duration.ofHours(1);
+    private static final Duration MIN_BUCKET = Duration.ofMinutes(1);
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(7);
+    // At most 300k cells: the matrix is built in memory and rendered as one JSON document
+    private static final int MAX_BUCKETS = 3_000;
+    private static final int MAX_COLUMNS = 100;
+
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final ComparisonValidator comparisonValidator;
+    private final PriceQueryValidator validator;
+
+    // Read-only transaction: the scan streams through a server-side cursor
+    @Transactional(readOnly = true)
+    public PriceHistoryMatrixResponse getHistoryMatrix(Long productId, String city, String bucket, Instant start, Instant end) {
+        long startTime = System.currentTimeMillis();
+        log.info("Fetching history matrix for productId={}, city={}, bucket={}, start={}, end={}",
+                productId, city, bucket, start, end);
+
+        comparisonValidator.validateProductId(productId);
+        validator.validateDateRange(start, end);
+        Duration bucketSize = parseBucket(bucket);
+
+        // Nothing is captured in the future, so the axis stops at now
+        Instant now = Instant.now();
+        Instant rangeEnd = end != null && end.isBefore(now) ? end : now;
+        Instant rangeStart = start != null ? start : rangeEnd.minus(DEFAULT_RANGE);
+        if (!rangeStart.isBefore(rangeEnd)) {
+            throw new IllegalArgumentException("History matrix start must be in the past");
+        }
+        // Axis aligned to bucket boundaries, so repeated calls share timestamps
+        long bucketMillis = bucketSize.toMillis();
+        Instant axisStart = Instant.ofEpochMilli(Math.floorDiv(rangeStart.toEpochMilli(), bucketMillis) * bucketMillis);
+        long buckets = Math.max(1, (rangeEnd.toEpochMilli() - axisStart.toEpochMilli() + bucketMillis - 1) / bucketMillis);
+        if (buckets > MAX_BUCKETS) {
+            log.warn("History matrix too large: {} buckets of {}", buckets, bucketSize);
+            throw new IllegalArgumentException(
+                    String.format("History matrix cannot exceed %d buckets. Requested: %d", MAX_BUCKETS, buckets));
+        }
+        Instant axisEnd = axisStart.plusMillis(buckets * bucketMillis);
+
+        String cityFilter = city != null && !city.isBlank() ? city.trim() : null;
+        HistoryMatrixAccumulator matrix = new HistoryMatrixAccumulator(axisStart, bucketMillis, (int) buckets, MAX_COLUMNS);
+        // The last bucket may run past the range; it only holds what was captured before the range end
+        priceSnapshotJdbcRepository.forEachSnapshotForMatrix(productId, cityFilter, axisStart, rangeEnd, matrix::accept);
+
+        PriceHistoryMatrixResponse response = PriceHistoryMatrixResponse.builder()
+                .productId(productId)
+                .city(cityFilter)
+                .bucketSeconds(bucketSize.toSeconds())
+                .start(axisStart)
+                .end(axisEnd)
+                .bucketCount((int) buckets)
+                .bucketStart(matrix.bucketStarts())
+                .columns(matrix.toColumns())
+                .build();
+
+        log.info("History matrix for productId={} built in {} ms: {} SKU(s) x {} bucket(s)",
+                productId, System.currentTimeMillis() - startTime, response.getColumns().size(), buckets);
+        return response;
+    }
+
+    private static Duration parseBucket(String bucket) {
+        if (bucket == null || bucket.isBlank()) {
+            return DEFAULT_BUCKET;
+        }
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(bucket.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid bucket '" + bucket + "'; use e.g. 15m, 1h or 1d");
+        }
+        if (duration.compareTo(MIN_BUCKET) < 0) {
+            throw new IllegalArgumentException("Bucket must be at least " + MIN_BUCKET.toMinutes() + " minute");
+        }
+        return duration;
+    }
+}
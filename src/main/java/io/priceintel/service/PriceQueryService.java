@@ -1,41 +1,52 @@
 package io.priceintel.service;
 
+import io.priceintel.dto.BatchLatestPriceItem;
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.PricePoint;
+import io.priceintel.dto.PriceSnapshotView;
 import io.priceintel.dto.SkuComparisonItem;
+import io.priceintel.dto.response.CityComparisonResponse;
 import io.priceintel.dto.response.LatestPriceResponse;
 import io.priceintel.dto.response.PriceHistoryResponse;
-import io.priceintel.dto.PricePoint;
 import io.priceintel.dto.response.PriceStatsResponse;
+import io.priceintel.dto.response.ProductCityComparisonResponse;
 import io.priceintel.dto.response.SkuComparisonResponse;
-import io.priceintel.entity.PriceSnapshot;
 import io.priceintel.entity.SkuLocation;
 import io.priceintel.enums.Availability;
 import io.priceintel.enums.ComparisonSortType;
 import io.priceintel.exception.PriceSnapshotNotFoundException;
 import io.priceintel.repository.SkuLocationRepository;
+import io.priceintel.stats.PriceStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PriceQueryService {
 
+    private static final int BATCH_LOOKUP_CHUNK_SIZE = 1000;
+
     private final PriceSnapshotService priceSnapshotService;
     private final PriceSnapshotMapper priceSnapshotMapper;
     private final PriceQueryValidator validator;
     private final SkuLocationRepository skuLocationRepository;
     private final ComparisonValidator comparisonValidator;
+    private final PriceStatsService priceStatsService;
 
     @Transactional(readOnly = true)
     public LatestPriceResponse getLatestPrice(Long skuId) {
@@ -43,7 +54,7 @@ public class PriceQueryService {
 
         validator.validateSkuId(skuId);
 
-        PriceSnapshot snapshot = priceSnapshotService.getLatestSnapshot(skuId)
+        PriceSnapshotView snapshot = priceSnapshotService.getLatestSnapshot(skuId)
                 .orElseThrow(() -> {
                     log.warn("No price snapshot found for skuId={}", skuId);
                     return new PriceSnapshotNotFoundException(skuId);
@@ -57,6 +68,57 @@ public class PriceQueryService {
         return response;
     }
 
+    public void validateBatchSkuIds(List<Long> skuIds) {
+        validator.validateBatchSkuIds(skuIds);
+    }
+
+    /**
+     * Resolves latest prices for a large id set in fixed-size chunks, one read-only transaction
+     * each, handing every chunk to the sink in request order (duplicates removed) so the caller
+     * can stream it. Ids without a snapshot come back as found=false.
+     */
+    public void streamLatestPrices(List<Long> skuIds, Consumer<List<BatchLatestPriceItem>> sink) {
+        long startTime = System.currentTimeMillis();
+        log.info("Batch latest price lookup for {} SKU IDs", skuIds != null ? skuIds.size() : 0);
+
+        validator.validateBatchSkuIds(skuIds);
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(skuIds));
+
+        int found = 0;
+        for (int from = 0; from < distinctIds.size(); from += BATCH_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BATCH_LOOKUP_CHUNK_SIZE, distinctIds.size()));
+
+            Map<Long, LatestPriceResponse> latestBySku = new HashMap<>();
+            for (LatestPriceResponse latest : priceSnapshotService.getLatestPrices(chunk)) {
+                latestBySku.put(latest.getSkuId(), latest);
+            }
+            found += latestBySku.size();
+
+            List<BatchLatestPriceItem> items = new ArrayList<>(chunk.size());
+            for (Long skuId : chunk) {
+                items.add(toBatchItem(skuId, latestBySku.get(skuId)));
+            }
+            sink.accept(items);
+        }
+
+        log.info("Batch latest price lookup completed in {} ms: requested={}, distinct={}, found={}",
+                System.currentTimeMillis() - startTime, skuIds.size(), distinctIds.size(), found);
+    }
+
+    private BatchLatestPriceItem toBatchItem(Long skuId, LatestPriceResponse latest) {
+        if (latest == null) {
+            return BatchLatestPriceItem.builder().skuId(skuId).found(false).build();
+        }
+        return BatchLatestPriceItem.builder()
+                .skuId(skuId)
+                .found(true)
+                .sellingPrice(latest.getSellingPrice())
+                .discount(latest.getDiscount())
+                .availability(latest.getAvailability())
+                .capturedAt(latest.getCapturedAt())
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public PriceHistoryResponse getHistory(Long skuId, Instant start, Instant end, Integer limit) {
         log.info("Fetching price history for skuId={}, start={}, end={}, limit={}", skuId, start, end, limit);
@@ -67,7 +129,7 @@ public class PriceQueryService {
         validator.validateLimit(limit);
 
         // Fetch snapshots based on date range
-        List<PriceSnapshot> snapshots = fetchSnapshots(skuId, start, end);
+        List<PriceSnapshotView> snapshots = fetchSnapshots(skuId, start, end);
 
         log.debug("Fetched {} snapshots for skuId={}", snapshots.size(), skuId);
 
@@ -96,23 +158,15 @@ public class PriceQueryService {
         return response;
     }
 
-    private List<PriceSnapshot> fetchSnapshots(Long skuId, Instant start, Instant end) {
-        List<PriceSnapshot> snapshots;
-
+    private List<PriceSnapshotView> fetchSnapshots(Long skuId, Instant start, Instant end) {
+        // Both queries return chronological order (oldest → newest)
         if (start != null && end != null) {
             log.debug("Fetching history between start={} and end={} for skuId={}", start, end, skuId);
-            snapshots = priceSnapshotService.getHistoryBetween(skuId, start, end);
-            // getHistoryBetween returns ASC order (oldest → newest) - no reversal needed
-        } else {
-            log.debug("Fetching full history for skuId={}", skuId);
-            snapshots = priceSnapshotService.getHistory(skuId);
-            // getHistory returns DESC order (newest → oldest) - reverse to get chronological order
-            List<PriceSnapshot> mutableList = new ArrayList<>(snapshots);
-            Collections.reverse(mutableList);
-            snapshots = mutableList;
+            return priceSnapshotService.getHistoryBetween(skuId, start, end);
         }
 
-        return snapshots;
+        log.debug("Fetching full history for skuId={}", skuId);
+        return priceSnapshotService.getHistory(skuId);
     }
 
     private List<PricePoint> applyLimit(List<PricePoint> pricePoints, Integer limit) {
@@ -125,107 +179,40 @@ public class PriceQueryService {
         return pricePoints.subList(pricePoints.size() - limit, pricePoints.size());
     }
 
+    // Read-only: closed days built on the fly are written back to price_daily_sketches in the background
     @Transactional(readOnly = true)
     public PriceStatsResponse getStats(Long skuId, Instant start, Instant end) {
         log.info("Fetching price statistics for skuId={}, start={}, end={}", skuId, start, end);
 
-        // Validate inputs
         validator.validateSkuId(skuId);
         validator.validateDateRange(start, end);
 
-        // Fetch snapshots based on date range
-        List<PriceSnapshot> snapshots;
-        if (start != null && end != null) {
-            log.debug("Fetching history between start={} and end={} for stats calculation", start, end);
-            snapshots = priceSnapshotService.getHistoryBetween(skuId, start, end);
-        } else {
-            log.debug("Fetching full history for stats calculation");
-            snapshots = priceSnapshotService.getHistory(skuId);
-        }
+        PriceStatsResponse response = priceStatsService.getStats(skuId, start, end);
 
-        // Check if we have data
-        if (snapshots.isEmpty()) {
-            log.warn("No price snapshots found for skuId={} to calculate stats", skuId);
-            throw new PriceSnapshotNotFoundException(skuId);
-        }
-
-        // Single-pass calculation with null safety
-        BigDecimal minPrice = null;
-        BigDecimal maxPrice = null;
-        BigDecimal totalPrice = BigDecimal.ZERO;
-        Instant lowestSeenAt = null;
-        Instant highestSeenAt = null;
-        int validRecordCount = 0;
-
-        for (PriceSnapshot snapshot : snapshots) {
-            BigDecimal sellingPrice = snapshot.getSellingPrice();
-
-            // Defensive null check
-            if (sellingPrice == null) {
-                continue;
-            }
-
-            validRecordCount++;
-            totalPrice = totalPrice.add(sellingPrice);
-
-            // Track min price and timestamp
-            if (minPrice == null || sellingPrice.compareTo(minPrice) < 0) {
-                minPrice = sellingPrice;
-                lowestSeenAt = snapshot.getCapturedAt();
-            }
-
-            // Track max price and timestamp
-            if (maxPrice == null || sellingPrice.compareTo(maxPrice) > 0) {
-                maxPrice = sellingPrice;
-                highestSeenAt = snapshot.getCapturedAt();
-            }
-        }
-
-        // Verify we have valid price data
-        if (validRecordCount == 0) {
-            log.warn("No valid price snapshots found for skuId={} to calculate stats", skuId);
-            throw new PriceSnapshotNotFoundException(skuId);
-        }
-
-        // Calculate average price
-        BigDecimal averagePrice = totalPrice.divide(
-                BigDecimal.valueOf(validRecordCount),
-                2,
-                RoundingMode.HALF_UP
-        );
-
-        log.debug("Stats calculated - min={}, max={}, avg={}, validRecords={}",
-                minPrice, maxPrice, averagePrice, validRecordCount);
-
-        // Build response
-        PriceStatsResponse response = PriceStatsResponse.builder()
-                .skuId(skuId)
-                .minPrice(minPrice)
-                .maxPrice(maxPrice)
-                .averagePrice(averagePrice)
-                .lowestSeenAt(lowestSeenAt)
-                .highestSeenAt(highestSeenAt)
-                .totalRecords(validRecordCount)
-                .build();
-
-        log.info("Successfully calculated stats for skuId={}, minPrice={}, maxPrice={}, avgPrice={}, totalRecords={}",
-                skuId, response.getMinPrice(), response.getMaxPrice(), response.getAveragePrice(), response.getTotalRecords());
+        log.info("Successfully calculated stats for skuId={}, minPrice={}, maxPrice={}, avgPrice={}, p50={}, totalRecords={}",
+                skuId, response.getMinPrice(), response.getMaxPrice(), response.getAveragePrice(),
+                response.getP50Price(), response.getTotalRecords());
 
         return response;
     }
 
+    /**
+     * Compares the latest prices of the given SKUs or, with {@code asOf}, each SKU's price as it
+     * stood at that instant (one bounded index seek per SKU, in a single statement).
+     */
     @Transactional(readOnly = true)
-    public SkuComparisonResponse compareSkus(List<Long> skuIds, Boolean inStockOnly, ComparisonSortType sortType) {
+    public SkuComparisonResponse compareSkus(List<Long> skuIds, Boolean inStockOnly, ComparisonSortType sortType, Instant asOf) {
         long startTime = System.currentTimeMillis();
-        log.info("Comparing {} SKUs with filters: inStockOnly={}, sortType={}",
-                skuIds != null ? skuIds.size() : 0, inStockOnly, sortType);
+        log.info("Comparing {} SKUs with filters: inStockOnly={}, sortType={}, asOf={}",
+                skuIds != null ? skuIds.size() : 0, inStockOnly, sortType, asOf);
 
         // 1. Validate input using ComparisonValidator
         comparisonValidator.validateSkuIds(skuIds);
+        validator.validateAsOf(asOf);
 
         // 2. Collect valid comparison items
         assert skuIds != null;
-        List<SkuComparisonItem> validItems = collectValidComparisonItems(skuIds);
+        List<SkuComparisonItem> validItems = collectValidComparisonItems(skuIds, asOf);
 
         // 3. Build and return comparison response
         SkuComparisonResponse response = buildComparisonResponse(validItems, inStockOnly, sortType, null, null);
@@ -236,16 +223,88 @@ public class PriceQueryService {
         return response;
     }
 
+    /**
+     * Compares an arbitrarily large SKU set. Latest prices are resolved one chunk at a time
+     * through the array lookup and folded into the comparison metrics as they arrive, so no
+     * managed entities are held and the IN-list size stays bounded regardless of input size.
+     */
     @Transactional(readOnly = true)
-    public SkuComparisonResponse compareProduct(Long productId, String city, Boolean inStockOnly, ComparisonSortType sortType, Integer page, Integer size) {
+    public SkuComparisonResponse compareLargeSkuSet(List<Long> skuIds, Boolean inStockOnly, ComparisonSortType sortType,
+                                                    Integer page, Integer size) {
         long startTime = System.currentTimeMillis();
-        log.info("Comparing product prices for productId={}, city={}, inStockOnly={}, sortType={}, page={}, size={}",
-                productId, city, inStockOnly, sortType, page, size);
+        log.info("Comparing large SKU set of {} ids: inStockOnly={}, sortType={}, page={}, size={}",
+                skuIds != null ? skuIds.size() : 0, inStockOnly, sortType, page, size);
+
+        comparisonValidator.validateLargeSkuIds(skuIds);
+        comparisonValidator.validatePagination(page, size);
+        comparisonValidator.validateSortType(sortType);
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(skuIds));
+        boolean inStock = Boolean.TRUE.equals(inStockOnly);
+
+        List<SkuComparisonItem> items = new ArrayList<>();
+        ComparisonMetricsAccumulator metrics = new ComparisonMetricsAccumulator();
+        for (int from = 0; from < distinctIds.size(); from += BATCH_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BATCH_LOOKUP_CHUNK_SIZE, distinctIds.size()));
+
+            for (LatestPriceResponse latest : priceSnapshotService.getLatestPrices(chunk)) {
+                if (latest.getSellingPrice() == null) {
+                    log.debug("Null selling price for skuId={}, skipping", latest.getSkuId());
+                    continue;
+                }
+                if (inStock && latest.getAvailability() != Availability.IN_STOCK) {
+                    continue;
+                }
+
+                SkuComparisonItem item = SkuComparisonItem.builder()
+                        .skuId(latest.getSkuId())
+                        .price(latest.getSellingPrice())
+                        .availability(latest.getAvailability())
+                        .capturedAt(latest.getCapturedAt())
+                        .build();
+                items.add(item);
+                metrics.accept(item);
+            }
+        }
+
+        if (items.size() < 2) {
+            log.warn("Insufficient {}SKU snapshots for comparison. Required: 2, Found: {}", inStock ? "in-stock " : "", items.size());
+            throw new IllegalArgumentException(
+                    String.format("At least 2 %sSKU snapshots required for comparison. Found: %d",
+                            inStock ? "in-stock " : "valid ", items.size())
+            );
+        }
+
+        // Large sets are always paginated so the response stays bounded
+        SkuComparisonResponse response = buildComparisonResponse(items, metrics, sortType,
+                page != null ? page : 0, size != null ? size : 100);
+
+        log.info("Large SKU set comparison completed in {} ms: requested={}, distinct={}, compared={}",
+                System.currentTimeMillis() - startTime, skuIds.size(), distinctIds.size(), items.size());
+
+        return response;
+    }
+
+    /**
+     * Compares a product across its active SKU locations or, with {@code asOf}, across every SKU
+     * location that had a price at that instant, each at the price it had then.
+     */
+    @Transactional(readOnly = true)
+    public SkuComparisonResponse compareProduct(Long productId, String city, Boolean inStockOnly, ComparisonSortType sortType,
+                                                Integer page, Integer size, Instant asOf) {
+        long startTime = System.currentTimeMillis();
+        log.info("Comparing product prices for productId={}, city={}, inStockOnly={}, sortType={}, page={}, size={}, asOf={}",
+                productId, city, inStockOnly, sortType, page, size, asOf);
 
         // 1. Validate inputs
         comparisonValidator.validateProductId(productId);
         comparisonValidator.validatePagination(page, size);
         comparisonValidator.validateSortType(sortType);
+        validator.validateAsOf(asOf);
+
+        if (asOf != null) {
+            return compareProductAsOf(productId, city, inStockOnly, sortType, page, size, asOf, startTime);
+        }
 
         // 2. Fetch SKU locations
         List<SkuLocation> skuLocations;
@@ -279,7 +338,7 @@ public class PriceQueryService {
 
         // 6. Batch fetch latest snapshots (eliminates N+1 query)
         log.debug("Batch fetching latest snapshots for {} SKUs", skuIds.size());
-        List<PriceSnapshot> snapshots = priceSnapshotService.getLatestSnapshotsForSkuIds(skuIds);
+        List<PriceSnapshotView> snapshots = priceSnapshotService.getLatestSnapshotsForSkuIds(skuIds);
         log.debug("Fetched {} snapshots out of {} SKUs", snapshots.size(), skuIds.size());
 
         // 7. Convert snapshots to comparison items
@@ -294,6 +353,103 @@ public class PriceQueryService {
         return response;
     }
 
+    private SkuComparisonResponse compareProductAsOf(Long productId, String city, Boolean inStockOnly, ComparisonSortType sortType,
+                                                    Integer page, Integer size, Instant asOf, long startTime) {
+        String cityFilter = city != null && !city.trim().isEmpty() ? city.trim() : null;
+        List<PriceSnapshotView> snapshots = priceSnapshotService.getProductSnapshotsAsOf(productId, cityFilter, asOf);
+
+        if (snapshots.isEmpty()) {
+            String errorMsg = cityFilter != null
+                    ? String.format("No SKU locations with a price at %s found for productId=%d in city=%s", asOf, productId, cityFilter)
+                    : String.format("No SKU locations with a price at %s found for productId=%d", asOf, productId);
+            log.warn(errorMsg);
+            throw new IllegalArgumentException(errorMsg);
+        }
+        log.debug("Fetched {} as-of snapshots for productId={} at {}", snapshots.size(), productId, asOf);
+
+        // Same SKU-count bounds as the latest-price path
+        comparisonValidator.validateSkuIds(snapshots.stream().map(PriceSnapshotView::getSkuId).distinct().toList());
+
+        List<SkuComparisonItem> validItems = convertSnapshotsToComparisonItems(snapshots);
+        SkuComparisonResponse response = buildComparisonResponse(validItems, inStockOnly, sortType, page, size);
+
+        log.info("As-of product comparison completed in {} ms", System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    /**
+     * Compares a product within every city it is sold in. Latest prices of all its active SKU
+     * locations are fetched in one statement and grouped by city, then each city's block is built
+     * on the request thread: a product is sold in tens of cities, not enough to pay for a hand-off
+     * to the common pool. Cities with a single SKU still get a block (cheapest = that SKU).
+     */
+    public ProductCityComparisonResponse compareProductByCity(Long productId, Boolean inStockOnly, ComparisonSortType sortType,
+                                                              Integer page, Integer size) {
+        long startTime = System.currentTimeMillis();
+        log.info("Comparing product prices by city for productId={}, inStockOnly={}, sortType={}, page={}, size={}",
+                productId, inStockOnly, sortType, page, size);
+
+        comparisonValidator.validateProductId(productId);
+        comparisonValidator.validatePagination(page, size);
+        comparisonValidator.validateSortType(sortType);
+        boolean inStock = Boolean.TRUE.equals(inStockOnly);
+
+        Map<String, List<SkuComparisonItem>> itemsByCity = new TreeMap<>();
+        for (CheapestOffer offer : priceSnapshotService.getLatestOffersForProduct(productId)) {
+            if (offer.getSellingPrice() == null || (inStock && offer.getAvailability() != Availability.IN_STOCK)) {
+                continue;
+            }
+            itemsByCity.computeIfAbsent(offer.getCity().trim().toLowerCase(Locale.ROOT), c -> new ArrayList<>())
+                    .add(SkuComparisonItem.builder()
+                            .skuId(offer.getSkuLocationId())
+                            .price(offer.getSellingPrice())
+                            .availability(offer.getAvailability())
+                            .capturedAt(offer.getCapturedAt())
+                            .build());
+        }
+
+        if (itemsByCity.isEmpty()) {
+            String errorMsg = String.format("No active %sSKU snapshots found for productId=%d", inStock ? "in-stock " : "", productId);
+            log.warn(errorMsg);
+            throw new IllegalArgumentException(errorMsg);
+        }
+
+        List<CityComparisonResponse> cities = itemsByCity.entrySet().stream()
+                .map(entry -> {
+                    ComparisonMetricsAccumulator metrics = new ComparisonMetricsAccumulator();
+                    entry.getValue().forEach(metrics::accept);
+                    return CityComparisonResponse.builder()
+                            .city(entry.getKey())
+                            .comparison(buildComparisonResponse(entry.getValue(), metrics, sortType, page, size))
+                            .build();
+                })
+                .toList();
+
+        // Overall cheapest across every city; ties go to the newest capture, then the first city in name order
+        ComparisonMetricsAccumulator overall = new ComparisonMetricsAccumulator();
+        Map<Long, String> cityBySkuId = new HashMap<>();
+        int totalCompared = 0;
+        for (Map.Entry<String, List<SkuComparisonItem>> entry : itemsByCity.entrySet()) {
+            totalCompared += entry.getValue().size();
+            for (SkuComparisonItem item : entry.getValue()) {
+                overall.accept(item);
+                cityBySkuId.put(item.getSkuId(), entry.getKey());
+            }
+        }
+
+        log.info("Product comparison by city completed in {} ms: productId={}, cities={}, compared={}",
+                System.currentTimeMillis() - startTime, productId, cities.size(), totalCompared);
+
+        return ProductCityComparisonResponse.builder()
+                .productId(productId)
+                .totalCities(cities.size())
+                .totalCompared(totalCompared)
+                .cheapestSkuId(overall.getCheapestSkuId())
+                .cheapestCity(cityBySkuId.get(overall.getCheapestSkuId()))
+                .cities(cities)
+                .build();
+    }
+
     private List<SkuComparisonItem> filterInStockItems(List<SkuComparisonItem> items) {
         List<SkuComparisonItem> inStockItems = items.stream()
                 .filter(item -> item.getAvailability() == Availability.IN_STOCK)
@@ -323,16 +479,31 @@ public class PriceQueryService {
             validItems = filterInStockItems(validItems);
         }
 
+        // 2. Calculate comparison metrics AFTER filtering
+        ComparisonMetricsAccumulator metrics = new ComparisonMetricsAccumulator();
+        validItems.forEach(metrics::accept);
+
+        return buildComparisonResponse(validItems, metrics, sortType, page, size);
+    }
+
+    private SkuComparisonResponse buildComparisonResponse(
+            List<SkuComparisonItem> validItems,
+            ComparisonMetricsAccumulator metrics,
+            ComparisonSortType sortType,
+            Integer page,
+            Integer size
+    ) {
         int totalItems = validItems.size();
+        log.debug("Processing comparison for {} valid SKUs", totalItems);
 
-        // 2. Assign rankings based on price (cheapest = rank 1) BEFORE sorting
+        // 3. Assign rankings based on price (cheapest = rank 1) BEFORE sorting
         validItems = assignRankings(validItems);
 
-        // 3. Calculate comparison metrics AFTER filtering
-        ComparisonMetrics metrics = calculateComparisonMetrics(validItems);
-
-        // 4. Find best value (cheapest in stock)
-        Long bestValueSkuId = findBestValueSkuId(validItems);
+        // 4. Best value (cheapest in stock) was tracked alongside the other metrics
+        Long bestValueSkuId = metrics.getBestValueSkuId();
+        log.debug("Comparison calculated - cheapest={} ({}), mostExpensive={} ({}), bestValue={}",
+                metrics.getCheapestSkuId(), metrics.getMinPrice(), metrics.getMostExpensiveSkuId(),
+                metrics.getMaxPrice(), bestValueSkuId);
 
         // 5. Default sortType if null
         sortType = (sortType != null) ? sortType : ComparisonSortType.PRICE_ASC;
@@ -360,11 +531,11 @@ public class PriceQueryService {
         // 8. Build response
         SkuComparisonResponse response = SkuComparisonResponse.builder()
                 .totalCompared(paginatedItems.size())
-                .cheapestSkuId(metrics.cheapestSkuId)
-                .mostExpensiveSkuId(metrics.mostExpensiveSkuId)
+                .cheapestSkuId(metrics.getCheapestSkuId())
+                .mostExpensiveSkuId(metrics.getMostExpensiveSkuId())
                 .bestValueSkuId(bestValueSkuId)
-                .priceSpread(metrics.priceSpread)
-                .percentageDifference(metrics.percentageDifference)
+                .priceSpread(metrics.getPriceSpread())
+                .percentageDifference(metrics.getPercentageDifference())
                 .results(paginatedItems)
                 .page(effectivePage)
                 .size(effectiveSize)
@@ -372,29 +543,30 @@ public class PriceQueryService {
                 .totalItems(page != null ? totalItems : null)
                 .build();
 
-        log.info("Comparison completed: totalItems={}, returnedItems={}, page={}, size={}, cheapest={} ({}), mostExpensive={} ({}), bestValue={}, spread={}, diff={}%",
+        // Debug: callers log their own completion, and the by-city comparison builds one block per city
+        log.debug("Comparison completed: totalItems={}, returnedItems={}, page={}, size={}, cheapest={} ({}), mostExpensive={} ({}), bestValue={}, spread={}, diff={}%",
                 totalItems, paginatedItems.size(), effectivePage, effectiveSize,
-                metrics.cheapestSkuId, metrics.minPrice, metrics.mostExpensiveSkuId, metrics.maxPrice,
-                bestValueSkuId, metrics.priceSpread, metrics.percentageDifference);
+                metrics.getCheapestSkuId(), metrics.getMinPrice(), metrics.getMostExpensiveSkuId(), metrics.getMaxPrice(),
+                bestValueSkuId, metrics.getPriceSpread(), metrics.getPercentageDifference());
 
         return response;
     }
 
-    private List<SkuComparisonItem> convertSnapshotsToComparisonItems(List<PriceSnapshot> snapshots) {
+    private List<SkuComparisonItem> convertSnapshotsToComparisonItems(List<PriceSnapshotView> snapshots) {
         List<SkuComparisonItem> items = new ArrayList<>();
 
-        for (PriceSnapshot snapshot : snapshots) {
+        for (PriceSnapshotView snapshot : snapshots) {
             BigDecimal sellingPrice = snapshot.getSellingPrice();
 
             // Skip if selling price is null
             if (sellingPrice == null) {
-                log.debug("Null selling price for skuId={}, skipping", snapshot.getSkuLocation().getId());
+                log.debug("Null selling price for skuId={}, skipping", snapshot.getSkuId());
                 continue;
             }
 
             // Build comparison item
             SkuComparisonItem item = SkuComparisonItem.builder()
-                    .skuId(snapshot.getSkuLocation().getId())
+                    .skuId(snapshot.getSkuId())
                     .price(sellingPrice)
                     .availability(snapshot.getAvailability())
                     .capturedAt(snapshot.getCapturedAt())
@@ -434,21 +606,6 @@ public class PriceQueryService {
         return rankedItems;
     }
 
-    private Long findBestValueSkuId(List<SkuComparisonItem> items) {
-        Optional<SkuComparisonItem> bestValue = items.stream()
-                .filter(item -> item.getAvailability() == Availability.IN_STOCK)
-                .min(Comparator.comparing(SkuComparisonItem::getPrice));
-
-        if (bestValue.isPresent()) {
-            log.debug("Best value SKU (cheapest in-stock): skuId={}, price={}",
-                    bestValue.get().getSkuId(), bestValue.get().getPrice());
-            return bestValue.get().getSkuId();
-        }
-
-        log.debug("No in-stock items available, bestValueSkuId set to null");
-        return null;
-    }
-
     private List<SkuComparisonItem> applySorting(List<SkuComparisonItem> items, ComparisonSortType sortType) {
         Comparator<SkuComparisonItem> comparator = getComparator(sortType);
         List<SkuComparisonItem> sortedItems = new ArrayList<>(items);
@@ -490,7 +647,7 @@ public class PriceQueryService {
         return new ArrayList<>(items.subList(startIndex, endIndex));
     }
 
-    private List<SkuComparisonItem> collectValidComparisonItems(List<Long> skuIds) {
+    private List<SkuComparisonItem> collectValidComparisonItems(List<Long> skuIds, Instant asOf) {
         log.debug("Batch fetching latest snapshots for {} SKU IDs", skuIds.size());
 
         // Validate each SKU ID first
@@ -509,82 +666,13 @@ public class PriceQueryService {
             throw new IllegalArgumentException("No valid SKU IDs provided");
         }
 
-        // Batch fetch all latest snapshots in ONE query (eliminates N+1)
-        List<PriceSnapshot> snapshots = priceSnapshotService.getLatestSnapshotsForSkuIds(validSkuIds);
+        // Batch fetch all latest (or as-of) snapshots in ONE query (eliminates N+1)
+        List<PriceSnapshotView> snapshots = asOf != null
+                ? priceSnapshotService.getSnapshotsAsOf(validSkuIds, asOf)
+                : priceSnapshotService.getLatestSnapshotsForSkuIds(validSkuIds);
         log.debug("Fetched {} snapshots out of {} valid SKU IDs", snapshots.size(), validSkuIds.size());
 
         // Convert to comparison items
         return convertSnapshotsToComparisonItems(snapshots);
     }
-
-    private ComparisonMetrics calculateComparisonMetrics(List<SkuComparisonItem> validItems) {
-        log.debug("Processing comparison for {} valid SKUs", validItems.size());
-
-        BigDecimal minPrice = null;
-        BigDecimal maxPrice = null;
-        Long cheapestSkuId = null;
-        Long mostExpensiveSkuId = null;
-
-        // Find min and max prices in single pass
-        for (SkuComparisonItem item : validItems) {
-            BigDecimal price = item.getPrice();
-
-            // Track minimum
-            if (minPrice == null || price.compareTo(minPrice) < 0) {
-                minPrice = price;
-                cheapestSkuId = item.getSkuId();
-            }
-
-            // Track maximum
-            if (maxPrice == null || price.compareTo(maxPrice) > 0) {
-                maxPrice = price;
-                mostExpensiveSkuId = item.getSkuId();
-            }
-        }
-
-        // Defensive null check
-        if (minPrice == null || maxPrice == null) {
-            throw new IllegalStateException("Unexpected null price during comparison calculation");
-        }
-
-        // Calculate price spread
-        BigDecimal priceSpread = maxPrice.subtract(minPrice);
-
-        // Calculate percentage difference with division by zero protection
-        BigDecimal percentageDifference;
-        if (minPrice.compareTo(BigDecimal.ZERO) == 0) {
-            log.debug("Min price is zero, setting percentageDifference to zero to avoid division by zero");
-            percentageDifference = BigDecimal.ZERO;
-        } else {
-            percentageDifference = priceSpread
-                    .divide(minPrice, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
-        }
-
-        log.debug("Comparison calculated - cheapest={} ({}), mostExpensive={} ({}), spread={}, diff={}%",
-                cheapestSkuId, minPrice, mostExpensiveSkuId, maxPrice, priceSpread, percentageDifference);
-
-        return new ComparisonMetrics(minPrice, maxPrice, cheapestSkuId, mostExpensiveSkuId, priceSpread, percentageDifference);
-    }
-
-    private static class ComparisonMetrics {
-        private final BigDecimal minPrice;
-        private final BigDecimal maxPrice;
-        private final Long cheapestSkuId;
-        private final Long mostExpensiveSkuId;
-        private final BigDecimal priceSpread;
-        private final BigDecimal percentageDifference;
-
-        public ComparisonMetrics(BigDecimal minPrice, BigDecimal maxPrice, Long cheapestSkuId,
-                                 Long mostExpensiveSkuId, BigDecimal priceSpread, BigDecimal percentageDifference) {
-            this.minPrice = minPrice;
-            this.maxPrice = maxPrice;
-            this.cheapestSkuId = cheapestSkuId;
-            this.mostExpensiveSkuId = mostExpensiveSkuId;
-            this.priceSpread = priceSpread;
-            this.percentageDifference = percentageDifference;
-        }
-    }
 }
-
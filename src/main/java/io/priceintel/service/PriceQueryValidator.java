@@ -4,11 +4,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.List;
 
 @Slf4j
 @Component
 public class PriceQueryValidator {
 
+    private static final int MAX_BATCH_LOOKUP_SIZE = 50000;
+
     public void validateSkuId(Long skuId) {
         if (skuId == null || skuId <= 0) {
             log.warn("Invalid skuId: {}", skuId);
@@ -30,11 +33,35 @@ public class PriceQueryValidator {
         }
     }
 
+    public void validateAsOf(Instant asOf) {
+        if (asOf != null && asOf.isAfter(Instant.now())) {
+            log.warn("Invalid asOf in the future: {}", asOf);
+            throw new IllegalArgumentException("asOf cannot be in the future");
+        }
+    }
+
     public void validateLimit(Integer limit) {
         if (limit != null && limit <= 0) {
             log.warn("Invalid limit: {}", limit);
             throw new IllegalArgumentException("Limit must be a positive number");
         }
     }
-}
 
+    public void validateBatchSkuIds(List<Long> skuIds) {
+        if (skuIds == null || skuIds.isEmpty()) {
+            log.warn("Batch SKU IDs list is null or empty");
+            throw new IllegalArgumentException("SKU IDs list cannot be null or empty");
+        }
+
+        if (skuIds.size() > MAX_BATCH_LOOKUP_SIZE) {
+            log.warn("Batch lookup size exceeds maximum: {} > {}", skuIds.size(), MAX_BATCH_LOOKUP_SIZE);
+            throw new IllegalArgumentException(
+                    String.format("Batch lookup size cannot exceed %d. Received: %d", MAX_BATCH_LOOKUP_SIZE, skuIds.size())
+            );
+        }
+
+        for (Long skuId : skuIds) {
+            validateSkuId(skuId);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.priceintel.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.priceintel.dto.SkuVersion;
+import io.priceintel.enums.ResponseEncoding;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.exception.PriceSnapshotNotFoundException;
+import io.priceintel.repository.PriceSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-SKU version (latest snapshot id + capturedAt, highest snapshot id for history) and
+ * pre-serialized bodies for hot SKUs, least recently used SKUs and variants evicted first.
+ * Lets the latest/history endpoints answer If-None-Match with 304 before loading any entity,
+ * and serve unchanged responses without re-querying or re-serializing.
+ */
+@Slf4j
+@Service
+public class PriceResponseCache {
+
+    private final PriceSnapshotRepository priceSnapshotRepository;
+    private final PriceQueryValidator validator;
+    private final PriceResponseCacheProperties properties;
+    private final Map<ResponseEncoding, ObjectMapper> objectMappers = new EnumMap<>(ResponseEncoding.class);
+
+    private final Map<Long, SkuEntry> entries = new ConcurrentHashMap<>();
+
+    public PriceResponseCache(PriceSnapshotRepository priceSnapshotRepository,
+                              PriceQueryValidator validator,
+                              PriceResponseCacheProperties properties,
+                              ObjectMapper objectMapper,
+                              MappingJackson2CborHttpMessageConverter cborConverter,
+                              MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.priceSnapshotRepository = priceSnapshotRepository;
+        this.validator = validator;
+        this.properties = properties;
+        this.objectMappers.put(ResponseEncoding.JSON, objectMapper);
+        this.objectMappers.put(ResponseEncoding.CBOR, cborConverter.getObjectMapper());
+        this.objectMappers.put(ResponseEncoding.SMILE, smileConverter.getObjectMapper());
+    }
+
+    @Transactional(readOnly = true)
+    public SkuVersion getVersion(Long skuId) {
+        validator.validateSkuId(skuId);
+
+        SkuEntry entry = entries.get(skuId);
+        if (entry != null && !entry.isExpired(properties.getVersionTtlMs())) {
+            entry.touch();
+            return entry.version;
+        }
+
+        SkuVersion version = priceSnapshotRepository.findLatestVersion(skuId)
+                .orElseThrow(() -> {
+                    log.warn("No price snapshot found for skuId={}", skuId);
+                    return new PriceSnapshotNotFoundException(skuId);
+                });
+
+        // Keep already rendered bodies when the revalidated version is unchanged
+        entries.compute(skuId, (id, existing) -> existing != null && existing.version.equals(version)
+                ? existing.refreshed()
+                : new SkuEntry(version, properties.getMaxVariantsPerSku()));
+        evictIfFull();
+        return version;
+    }
+
+    public byte[] getOrRender(Long skuId, SkuVersion version, String view, ResponseEncoding encoding,
+                              Supplier<Object> loader) {
+        String variant = encoding + ":" + view;
+        SkuEntry entry = entries.get(skuId);
+        if (entry != null && entry.version.equals(version)) {
+            byte[] cached = entry.getBody(variant);
+            if (cached != null) {
+                log.debug("Serving pre-serialized response for skuId={}, variant={}", skuId, variant);
+                return cached;
+            }
+        }
+
+        byte[] body = serialize(loader.get(), encoding);
+
+        // Only cache under the version the caller validated against; a concurrent ingest may have moved on
+        SkuEntry current = entries.get(skuId);
+        if (current != null && current.version.equals(version)) {
+            current.putBody(variant, body);
+        }
+        return body;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        SkuVersion recorded = new SkuVersion(event.getSnapshotId(), event.getCapturedAt(), event.getSnapshotId());
+
+        entries.computeIfPresent(event.getSkuLocationId(), (id, existing) -> {
+            // An older (backfilled) snapshot keeps the latest snapshot but still moves the history id,
+            // so history ETags stop matching right away instead of after the next revalidation
+            SkuVersion version = existing.version.isOlderThan(recorded)
+                    ? recorded.withHistoryId(existing.version.getHistoryId())
+                    : existing.version.withHistoryId(recorded.getSnapshotId());
+            return new SkuEntry(version, properties.getMaxVariantsPerSku());
+        });
+        log.debug("Invalidated cached responses for skuId={}", event.getSkuLocationId());
+    }
+
+    private byte[] serialize(Object response, ResponseEncoding encoding) {
+        try {
+            return objectMappers.get(encoding).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    // Drops the least recently used SKUs, plus some slack so a full cache does not sort on every miss
+    private void evictIfFull() {
+        int overflow = entries.size() - properties.getMaxSkus();
+        if (overflow <= 0) {
+            return;
+        }
+
+        int toEvict = overflow + properties.getMaxSkus() / 20;
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccessNanos))
+                .limit(toEvict)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private static class SkuEntry {
+        private final SkuVersion version;
+        // Access-ordered, capped: arbitrary start/end/limit combinations must not grow one entry without bound
+        private final Map<String, byte[]> bodies;
+        private final long validatedAtMillis;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        SkuEntry(SkuVersion version, int maxVariants) {
+            this(version, new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                    return size() > maxVariants;
+                }
+            });
+        }
+
+        private SkuEntry(SkuVersion version, Map<String, byte[]> bodies) {
+            this.version = version;
+            this.bodies = bodies;
+            this.validatedAtMillis = System.currentTimeMillis();
+        }
+
+        SkuEntry refreshed() {
+            return new SkuEntry(version, bodies);
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - validatedAtMillis > ttlMillis;
+        }
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+
+        byte[] getBody(String variant) {
+            touch();
+            synchronized (bodies) {
+                return bodies.get(variant);
+            }
+        }
+
+        void putBody(String variant, byte[] body) {
+            synchronized (bodies) {
+                bodies.put(variant, body);
+            }
+        }
+    }
+}
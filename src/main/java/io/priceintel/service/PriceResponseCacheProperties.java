@@ -0,0 +1,19 @@
+package io.priceintel.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.response-cache")
+public class PriceResponseCacheProperties {
+
+    private int maxSkus = 10000;
+
+    // Rendered bodies kept per SKU (encoding x view x range/limit), least recently used dropped first
+    private int maxVariantsPerSku = 8;
+
+    // Local ingests invalidate immediately; this bounds staleness for writes made on other nodes
+    private long versionTtlMs = 2000;
+}
@@ -1,14 +1,22 @@
 package io.priceintel.service;
 
 import io.priceintel.dto.response.LatestPriceResponse;
+import io.priceintel.dto.response.PriceHistoryColumnsResponse;
+import io.priceintel.dto.response.PriceHistoryResponse;
 import io.priceintel.dto.PricePoint;
-import io.priceintel.entity.PriceSnapshot;
+import io.priceintel.dto.PriceSnapshotView;
+import io.priceintel.enums.Availability;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class PriceSnapshotMapper {
 
-    public PricePoint toPricePoint(PriceSnapshot snapshot) {
+    public PricePoint toPricePoint(PriceSnapshotView snapshot) {
         return PricePoint.builder()
                 .sellingPrice(snapshot.getSellingPrice())
                 .discount(snapshot.getDiscount())
@@ -17,7 +25,7 @@ public class PriceSnapshotMapper {
                 .build();
     }
 
-    public LatestPriceResponse toLatestPriceResponse(Long skuId, PriceSnapshot snapshot) {
+    public LatestPriceResponse toLatestPriceResponse(Long skuId, PriceSnapshotView snapshot) {
         return LatestPriceResponse.builder()
                 .skuId(skuId)
                 .sellingPrice(snapshot.getSellingPrice())
@@ -26,5 +34,28 @@ public class PriceSnapshotMapper {
                 .capturedAt(snapshot.getCapturedAt())
                 .build();
     }
-}
 
+    public PriceHistoryColumnsResponse toColumns(PriceHistoryResponse history) {
+        int size = history.getHistory().size();
+        List<Instant> capturedAt = new ArrayList<>(size);
+        List<BigDecimal> sellingPrice = new ArrayList<>(size);
+        List<BigDecimal> discount = new ArrayList<>(size);
+        List<Availability> availability = new ArrayList<>(size);
+
+        for (PricePoint point : history.getHistory()) {
+            capturedAt.add(point.getCapturedAt());
+            sellingPrice.add(point.getSellingPrice());
+            discount.add(point.getDiscount());
+            availability.add(point.getAvailability());
+        }
+
+        return PriceHistoryColumnsResponse.builder()
+                .skuId(history.getSkuId())
+                .count(history.getCount())
+                .capturedAt(capturedAt)
+                .sellingPrice(sellingPrice)
+                .discount(discount)
+                .availability(availability)
+                .build();
+    }
+}
@@ -1,19 +1,27 @@
 package io.priceintel.service;
 
-import io.priceintel.entity.PriceSnapshot;
-import io.priceintel.entity.SkuLocation;
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.PriceSnapshotView;
+import io.priceintel.dto.RecordedSnapshot;
+import io.priceintel.dto.response.LatestPriceResponse;
 import io.priceintel.enums.Availability;
 import io.priceintel.enums.CrawlStatus;
+import io.priceintel.event.PriceQuarantinedEvent;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
 import io.priceintel.exception.SkuLocationNotFoundException;
+import io.priceintel.repository.PriceQuarantineJdbcRepository;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
 import io.priceintel.repository.PriceSnapshotRepository;
-import io.priceintel.repository.SkuLocationRepository;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,12 +31,20 @@ import org.springframework.transaction.annotation.Transactional;
 public class PriceSnapshotService {
 
     private static final Duration DUPLICATE_THRESHOLD = Duration.ofMinutes(30);
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+    // Stripes are held until commit, so use enough of them that unrelated SKUs rarely share one
+    private static final int SKU_LOCK_STRIPES = 1024;
+    private static final long SKU_LOCK_MAX_WAIT_MS = 5_000;
 
     private final PriceSnapshotRepository priceSnapshotRepository;
-    private final SkuLocationRepository skuLocationRepository;
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final PriceQuarantineJdbcRepository priceQuarantineJdbcRepository;
+    private final PriceAnomalyDetector priceAnomalyDetector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StripedLocks skuLocks = new StripedLocks(SKU_LOCK_STRIPES, SKU_LOCK_MAX_WAIT_MS);
 
     @Transactional
-    public PriceSnapshot recordPrice(
+    public RecordedSnapshot recordPrice(
             Long skuLocationId,
             BigDecimal sellingPrice,
             BigDecimal discount,
@@ -41,57 +57,130 @@ public class PriceSnapshotService {
 
         validateInputs(skuLocationId, sellingPrice, discount, availability, crawlStatus, capturedAt);
 
-        SkuLocation skuLocation = skuLocationRepository.findById(skuLocationId)
-                .orElseThrow(() -> {
-                    log.error("SKU location not found: skuLocationId={}", skuLocationId);
-                    return new SkuLocationNotFoundException(skuLocationId);
-                });
+        // One writer per SKU until commit: the next recordPrice for this SKU sees our snapshot as
+        // the latest, so two concurrent identical crawls cannot both pass the duplicate check
+        return skuLocks.lockUntilTransactionEnds(skuLocationId, () ->
+                recordLocked(skuLocationId, sellingPrice, discount, availability, crawlStatus, capturedAt));
+    }
 
-        Optional<PriceSnapshot> latestSnapshot = priceSnapshotRepository
-                .findTopBySkuLocationIdOrderByCapturedAtDesc(skuLocationId);
+    private RecordedSnapshot recordLocked(Long skuLocationId, BigDecimal sellingPrice, BigDecimal discount,
+                                          Availability availability, CrawlStatus crawlStatus, Instant capturedAt) {
+        PriceAnomalyDetector.Verdict verdict = priceAnomalyDetector.evaluate(skuLocationId, sellingPrice.doubleValue());
+        if (verdict.isQuarantine()) {
+            // A repeat of the latest stored snapshot is a duplicate, however it scores now
+            Optional<Long> duplicateId = priceSnapshotJdbcRepository.findDuplicateOfLatest(
+                    skuLocationId, sellingPrice, discount, availability, crawlStatus, capturedAt, DUPLICATE_THRESHOLD);
+            if (duplicateId.isPresent()) {
+                log.info("Duplicate price snapshot detected for skuLocationId={}, returning existing snapshot id={}",
+                        skuLocationId, duplicateId.get());
+                return RecordedSnapshot.builder()
+                        .snapshotId(duplicateId.get())
+                        .inserted(false)
+                        .build();
+            }
+            return quarantine(skuLocationId, sellingPrice, discount, availability, crawlStatus, capturedAt, verdict);
+        }
+        if (verdict.isLevelShift()) {
+            log.info("Price level shift for skuLocationId={}: sellingPrice={}, previous expected price={}",
+                    skuLocationId, sellingPrice, verdict.getExpectedPrice());
+        } else if (verdict.isOutlier()) {
+            log.warn("Outlier price recorded for skuLocationId={}: sellingPrice={}, expected={}, deviation={} sd",
+                    skuLocationId, sellingPrice, verdict.getExpectedPrice(), verdict.getDeviationScore());
+        }
+
+        RecordedSnapshot recorded;
+        try {
+            recorded = priceSnapshotJdbcRepository.insertUnlessDuplicate(
+                    skuLocationId, sellingPrice, discount, availability, crawlStatus, capturedAt, DUPLICATE_THRESHOLD);
+        } catch (DataIntegrityViolationException e) {
+            throw translateMissingSkuLocation(e, skuLocationId);
+        }
 
-        if (latestSnapshot.isPresent() && isDuplicate(latestSnapshot.get(), sellingPrice, discount, availability, crawlStatus, capturedAt)) {
+        if (!recorded.isInserted()) {
             log.info("Duplicate price snapshot detected for skuLocationId={}, returning existing snapshot id={}",
-                    skuLocationId, latestSnapshot.get().getId());
-            return latestSnapshot.get();
+                    skuLocationId, recorded.getSnapshotId());
+            return recorded;
         }
 
-        PriceSnapshot priceSnapshot = PriceSnapshot.builder()
-                .skuLocation(skuLocation)
+        log.info("Recorded new price snapshot: id={}, skuLocationId={}, sellingPrice={}, availability={}",
+                recorded.getSnapshotId(), skuLocationId, sellingPrice, availability);
+
+        eventPublisher.publishEvent(PriceSnapshotRecordedEvent.builder()
+                .snapshotId(recorded.getSnapshotId())
+                .skuLocationId(skuLocationId)
+                .productId(recorded.getProductId())
+                .platformId(recorded.getPlatformId())
+                .city(recorded.getCity())
                 .sellingPrice(sellingPrice)
                 .discount(discount)
                 .availability(availability)
                 .crawlStatus(crawlStatus)
                 .capturedAt(capturedAt)
+                .previousSellingPrice(recorded.getPreviousSellingPrice())
+                .previousAvailability(recorded.getPreviousAvailability())
+                .build());
+        return recorded;
+    }
+
+    // Held back from price_snapshots, so it reaches neither reads, alerts nor streams
+    private RecordedSnapshot quarantine(Long skuLocationId, BigDecimal sellingPrice, BigDecimal discount,
+                                        Availability availability, CrawlStatus crawlStatus, Instant capturedAt,
+                                        PriceAnomalyDetector.Verdict verdict) {
+        Optional<Long> quarantineId;
+        try {
+            quarantineId = priceQuarantineJdbcRepository.insertUnlessDuplicate(skuLocationId, sellingPrice, discount,
+                    availability, crawlStatus, capturedAt, verdict.getExpectedPrice(), verdict.getDeviationScore(),
+                    DUPLICATE_THRESHOLD);
+        } catch (DataIntegrityViolationException e) {
+            throw translateMissingSkuLocation(e, skuLocationId);
+        }
+
+        // A crawler repeating the same glitch row neither grows the table nor counts towards a level shift
+        if (quarantineId.isEmpty()) {
+            log.debug("Duplicate quarantined price for skuLocationId={}: sellingPrice={}", skuLocationId, sellingPrice);
+            return RecordedSnapshot.builder()
+                    .quarantined(true)
+                    .build();
+        }
+
+        log.warn("Quarantined outlier price for skuLocationId={}: sellingPrice={}, expected={}, deviation={} sd, quarantineId={}",
+                skuLocationId, sellingPrice, verdict.getExpectedPrice(), verdict.getDeviationScore(), quarantineId.get());
+        eventPublisher.publishEvent(new PriceQuarantinedEvent(
+                quarantineId.get(), skuLocationId, sellingPrice, capturedAt, verdict.getExpectedPrice()));
+        return RecordedSnapshot.builder()
+                .quarantined(true)
                 .build();
+    }
 
-        PriceSnapshot saved = priceSnapshotRepository.save(priceSnapshot);
-        log.info("Recorded new price snapshot: id={}, skuLocationId={}, sellingPrice={}, availability={}",
-                saved.getId(), skuLocationId, sellingPrice, availability);
-        return saved;
+    private RuntimeException translateMissingSkuLocation(DataIntegrityViolationException e, Long skuLocationId) {
+        if (e.getMostSpecificCause() instanceof SQLException sqlException
+                && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+            log.error("SKU location not found: skuLocationId={}", skuLocationId);
+            return new SkuLocationNotFoundException(skuLocationId);
+        }
+        return e;
     }
 
-    public Optional<PriceSnapshot> getLatestSnapshot(Long skuLocationId) {
-        return priceSnapshotRepository.findTopBySkuLocationIdOrderByCapturedAtDesc(skuLocationId);
+    public Optional<PriceSnapshotView> getLatestSnapshot(Long skuLocationId) {
+        return priceSnapshotRepository.findLatestView(skuLocationId);
     }
 
-    public List<PriceSnapshot> getHistory(Long skuLocationId) {
-        return priceSnapshotRepository.findBySkuLocationIdOrderByCapturedAtDesc(skuLocationId);
+    // Oldest first
+    public List<PriceSnapshotView> getHistory(Long skuLocationId) {
+        return priceSnapshotRepository.findHistoryViews(skuLocationId);
     }
 
-    public List<PriceSnapshot> getHistoryBetween(Long skuLocationId, Instant start, Instant end) {
+    public List<PriceSnapshotView> getHistoryBetween(Long skuLocationId, Instant start, Instant end) {
         if (start == null || end == null) {
             throw new IllegalArgumentException("Start and end timestamps cannot be null");
         }
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start timestamp must be before end timestamp");
         }
-        return priceSnapshotRepository.findBySkuLocationIdAndCapturedAtBetweenOrderByCapturedAtAsc(
-                skuLocationId, start, end
-        );
+        return priceSnapshotRepository.findHistoryViewsBetween(skuLocationId, start, end);
     }
 
-    public List<PriceSnapshot> getLatestSnapshotsForSkuIds(List<Long> skuIds) {
+    public List<PriceSnapshotView> getLatestSnapshotsForSkuIds(List<Long> skuIds) {
         log.debug("Fetching latest snapshots for {} SKU IDs", skuIds != null ? skuIds.size() : 0);
 
         if (skuIds == null || skuIds.isEmpty()) {
@@ -99,12 +188,34 @@ public class PriceSnapshotService {
             throw new IllegalArgumentException("SKU IDs list cannot be null or empty");
         }
 
-        List<PriceSnapshot> snapshots = priceSnapshotRepository.findLatestSnapshotsForSkuIds(skuIds);
+        List<PriceSnapshotView> snapshots = priceSnapshotRepository.findLatestViewsForSkuIds(skuIds);
         log.debug("Fetched {} latest snapshots for {} SKU IDs", snapshots.size(), skuIds.size());
 
         return snapshots;
     }
 
+    @Transactional(readOnly = true)
+    public List<LatestPriceResponse> getLatestPrices(List<Long> skuIds) {
+        List<LatestPriceResponse> latestPrices = priceSnapshotJdbcRepository.findLatestBySkuIds(skuIds);
+        log.debug("Fetched {} latest prices for {} SKU IDs", latestPrices.size(), skuIds.size());
+        return latestPrices;
+    }
+
+    // Each SKU's snapshot as it stood at asOf; SKUs without one by then are left out
+    public List<PriceSnapshotView> getSnapshotsAsOf(List<Long> skuIds, Instant asOf) {
+        return priceSnapshotJdbcRepository.findAsOfBySkuIds(skuIds, asOf);
+    }
+
+    public List<PriceSnapshotView> getProductSnapshotsAsOf(Long productId, String city, Instant asOf) {
+        return priceSnapshotJdbcRepository.findAsOfForProduct(productId, city, asOf);
+    }
+
+    // Latest snapshot of every active SKU location of the product, in one statement
+    @Transactional(readOnly = true)
+    public List<CheapestOffer> getLatestOffersForProduct(Long productId) {
+        return priceSnapshotJdbcRepository.findLatestActiveOffers(productId, null);
+    }
+
     private void validateInputs(
             Long skuLocationId,
             BigDecimal sellingPrice,
@@ -142,35 +253,4 @@ public class PriceSnapshotService {
             throw new IllegalArgumentException("Captured at timestamp cannot be null");
         }
     }
-
-
-    private boolean isDuplicate(
-            PriceSnapshot latest,
-            BigDecimal sellingPrice,
-            BigDecimal discount,
-            Availability availability,
-            CrawlStatus crawlStatus,
-            Instant capturedAt
-    ) {
-        boolean priceMatches = latest.getSellingPrice().compareTo(sellingPrice) == 0;
-        boolean discountMatches = areDiscountsEqual(latest.getDiscount(), discount);
-        boolean availabilityMatches = latest.getAvailability() == availability;
-        boolean crawlStatusMatches = latest.getCrawlStatus() == crawlStatus;
-        boolean withinTimeWindow = Duration.between(latest.getCapturedAt(), capturedAt)
-                .abs()
-                .compareTo(DUPLICATE_THRESHOLD) <= 0;
-
-        return priceMatches && discountMatches && availabilityMatches && crawlStatusMatches && withinTimeWindow;
-    }
-
-    private boolean areDiscountsEqual(BigDecimal discount1, BigDecimal discount2) {
-        if (discount1 == null && discount2 == null) {
-            return true;
-        }
-        if (discount1 == null || discount2 == null) {
-            return false;
-        }
-        return discount1.compareTo(discount2) == 0;
-    }
 }
-
@@ -0,0 +1,255 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.ProductSummary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over brand name, product name and pack size. Every query term
+ * must match some token of the product: terms of three or more characters match anywhere in a
+ * token (trigram postings, verified), shorter terms match token prefixes (sorted token
+ * dictionary). Results rank products with more prefix matches first, then by id.
+ * Products are immutable once created, so the index only ever grows.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductSummary> products = new HashMap<>();
+    private final Map<String, PostingList> trigramPostings = new HashMap<>();
+    private final NavigableMap<String, PostingList> tokenPostings = new TreeMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductSummary> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(products.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(ProductSummary product) {
+        addAll(List.of(product));
+    }
+
+    public void addAll(Collection<ProductSummary> batch) {
+        lock.writeLock().lock();
+        try {
+            for (ProductSummary product : batch) {
+                if (products.putIfAbsent(product.getId(), product) != null) {
+                    continue;
+                }
+                for (String token : tokensOf(product)) {
+                    tokenPostings.computeIfAbsent(token, k -> new PostingList()).add(product.getId());
+                    for (String gram : trigramsOf(token)) {
+                        trigramPostings.computeIfAbsent(gram, k -> new PostingList()).add(product.getId());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductSummary> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            for (String term : terms) {
+                long[] matches = term.length() >= GRAM ? trigramCandidates(term) : prefixCandidates(term);
+                candidates = candidates == null ? matches : intersect(candidates, matches);
+                if (candidates.length == 0) {
+                    return List.of();
+                }
+            }
+
+            List<ScoredProduct> scored = new ArrayList<>();
+            for (long id : candidates) {
+                ProductSummary product = products.get(id);
+                Set<String> tokens = tokensOf(product);
+                int prefixMatches = 0;
+                boolean allMatch = true;
+                for (String term : terms) {
+                    boolean prefix = tokens.stream().anyMatch(token -> token.startsWith(term));
+                    if (prefix) {
+                        prefixMatches++;
+                    } else if (term.length() < GRAM || tokens.stream().noneMatch(token -> token.contains(term))) {
+                        // Trigram co-occurrence across different tokens is only a candidate
+                        allMatch = false;
+                        break;
+                    }
+                }
+                if (allMatch) {
+                    scored.add(new ScoredProduct(product, prefixMatches));
+                }
+            }
+
+            return scored.stream()
+                    .sorted(Comparator.comparingInt(ScoredProduct::prefixMatches).reversed()
+                            .thenComparing(scoredProduct -> scoredProduct.product().getId()))
+                    .limit(limit)
+                    .map(ScoredProduct::product)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] trigramCandidates(String term) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : trigramsOf(term)) {
+            PostingList postings = trigramPostings.get(gram);
+            if (postings == null) {
+                return new long[0];
+            }
+            lists.add(postings);
+        }
+        // Intersect starting from the rarest trigram
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i).toArray());
+        }
+        return result;
+    }
+
+    private long[] prefixCandidates(String term) {
+        Set<Long> ids = new HashSet<>();
+        for (PostingList postings : tokenPostings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            postings.addTo(ids);
+        }
+        long[] result = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            result[i++] = id;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static Set<String> tokensOf(ProductSummary product) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(product.getBrandName()));
+        tokens.addAll(tokenize(product.getProductName()));
+        tokens.addAll(tokenize(product.getPackSize()));
+        return tokens;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static List<String> trigramsOf(String token) {
+        if (token.length() < GRAM) {
+            return List.of();
+        }
+        List<String> grams = new ArrayList<>(token.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record ScoredProduct(ProductSummary product, int prefixMatches) {
+    }
+
+    /**
+     * Sorted, duplicate-free product ids. Ids arrive mostly ascending (new products get
+     * larger ids), so adds are almost always appends.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        void addTo(Set<Long> target) {
+            for (int i = 0; i < size; i++) {
+                target.add(ids[i]);
+            }
+        }
+    }
+}
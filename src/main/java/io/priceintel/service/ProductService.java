@@ -1,52 +1,169 @@
 package io.priceintel.service;
 
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.dto.UpsertResult;
+import io.priceintel.dto.response.ProductPageResponse;
 import io.priceintel.entity.Product;
+import io.priceintel.event.ProductCreatedEvent;
+import io.priceintel.repository.DimensionUpsertJdbcRepository;
 import io.priceintel.repository.ProductRepository;
-import java.time.Instant;
+import io.priceintel.repository.ProductSearchJdbcRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int INDEX_LOAD_BATCH_SIZE = 10_000;
+    private static final int LOCK_STRIPES = 64;
+    private static final long LOCK_MAX_WAIT_MS = 2_000;
+
     private final ProductRepository productRepository;
+    private final DimensionUpsertJdbcRepository dimensionUpsertJdbcRepository;
+    private final ProductSearchJdbcRepository productSearchJdbcRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final StripedLocks productLocks = new StripedLocks(LOCK_STRIPES, LOCK_MAX_WAIT_MS);
+
+    private volatile boolean searchIndexReady;
+
+    public Product createProduct(String rawBrandName, String rawProductName, String rawPackSize) {
+        log.debug("Creating product: brandName={}, productName={}, packSize={}", rawBrandName, rawProductName, rawPackSize);
 
-    public Product createProduct(String brandName, String productName, String packSize) {
-        log.debug("Creating product: brandName={}, productName={}, packSize={}", brandName, productName, packSize);
+        // Trimmed like the backfill import does, so both paths resolve the same natural key
+        String brandName = rawBrandName.trim();
+        String productName = rawProductName.trim();
+        String packSize = rawPackSize != null ? rawPackSize.trim() : null;
 
-        Optional<Product> existingProduct = productRepository
-                .findByBrandNameAndProductNameAndPackSize(brandName, productName, packSize);
+        UpsertResult<Product> result = productLocks.withLock(Arrays.asList(brandName, productName, packSize),
+                () -> dimensionUpsertJdbcRepository.upsertProduct(brandName, productName, packSize))
+                .orElseThrow(() -> new IllegalStateException("Product upsert returned no row"));
+        Product product = result.getValue();
 
-        if (existingProduct.isPresent()) {
-            Product product = existingProduct.get();
+        if (!result.isCreated()) {
             log.info("Returning existing product with id={}", product.getId());
             return product;
         }
 
-        Product product = Product.builder()
-                .brandName(brandName)
-                .productName(productName)
-                .packSize(packSize)
-                .createdAt(Instant.now())
-                .build();
-
-        Product savedProduct = productRepository.save(product);
         log.info("Created new product with id={} brandName={} productName={}",
-                savedProduct.getId(), savedProduct.getBrandName(), savedProduct.getProductName());
-        return savedProduct;
+                product.getId(), product.getBrandName(), product.getProductName());
+
+        eventPublisher.publishEvent(new ProductCreatedEvent(new ProductSummary(product.getId(),
+                product.getBrandName(), product.getProductName(), product.getPackSize())));
+        return product;
     }
 
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public ProductPageResponse listProducts(Long afterId, Integer size) {
+        log.debug("Listing products: afterId={}, size={}", afterId, size);
+
+        if (afterId != null && afterId < 0) {
+            log.warn("Invalid afterId: {}", afterId);
+            throw new IllegalArgumentException("afterId cannot be negative");
+        }
+        int pageSize = resolveLimit(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE, "Page size");
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<ProductSummary> rows = productRepository.findSummariesAfter(afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return ProductPageResponse.builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSummary> searchProducts(String query, Integer limit) {
+        log.debug("Searching products: query={}, limit={}", query, limit);
+
+        if (query == null || query.isBlank()) {
+            log.warn("Empty product search query");
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        int maxResults = resolveLimit(limit, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT, "Limit");
+
+        if (searchIndexReady) {
+            return productSearchIndex.search(query, maxResults);
+        }
+
+        // Index still loading: same terms in the database, each one must match
+        List<String> terms = ProductSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return productSearchJdbcRepository.searchSummaries(terms, maxResults);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        productSearchIndex.add(event.getProduct());
+    }
+
+    public boolean isSearchIndexReady() {
+        return searchIndexReady;
+    }
+
+    /**
+     * Streams products into the search index. With a non-empty warm snapshot only products
+     * with a larger id are read; products never change once created.
+     */
+    @Transactional(readOnly = true)
+    public void loadSearchIndex(List<ProductSummary> saved) {
+        long startTime = System.currentTimeMillis();
+        productSearchIndex.addAll(saved);
+        long afterId = saved.stream().mapToLong(ProductSummary::getId).max().orElse(0L);
+
+        try (Stream<ProductSummary> summaries = productRepository.streamSummariesAfter(afterId)) {
+            List<ProductSummary> batch = new ArrayList<>(INDEX_LOAD_BATCH_SIZE);
+            Iterator<ProductSummary> iterator = summaries.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == INDEX_LOAD_BATCH_SIZE) {
+                    productSearchIndex.addAll(batch);
+                    batch = new ArrayList<>(INDEX_LOAD_BATCH_SIZE);
+                }
+            }
+            productSearchIndex.addAll(batch);
+        }
+        searchIndexReady = true;
+        log.info("Loaded {} product(s) into the search index ({} from warm snapshot) in {} ms",
+                productSearchIndex.size(), saved.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private int resolveLimit(Integer requested, int defaultValue, int max, String name) {
+        if (requested == null) {
+            return defaultValue;
+        }
+        if (requested <= 0 || requested > max) {
+            log.warn("Invalid {}: {}", name, requested);
+            throw new IllegalArgumentException(String.format("%s must be between 1 and %d", name, max));
+        }
+        return requested;
     }
 }
 
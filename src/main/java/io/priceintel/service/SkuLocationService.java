@@ -1,17 +1,22 @@
 package io.priceintel.service;
 
-import io.priceintel.entity.Platform;
-import io.priceintel.entity.Product;
+import io.priceintel.dto.UpsertResult;
 import io.priceintel.entity.SkuLocation;
+import io.priceintel.event.SkuLocationDeactivatedEvent;
+import io.priceintel.event.SkuLocationReactivatedEvent;
 import io.priceintel.exception.PlatformNotFoundException;
 import io.priceintel.exception.ProductNotFoundException;
+import io.priceintel.exception.SkuLocationNotFoundException;
+import io.priceintel.repository.DimensionUpsertJdbcRepository;
 import io.priceintel.repository.PlatformRepository;
 import io.priceintel.repository.ProductRepository;
 import io.priceintel.repository.SkuLocationRepository;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +25,15 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class SkuLocationService {
 
+    private static final int LOCK_STRIPES = 64;
+    private static final long LOCK_MAX_WAIT_MS = 2_000;
+
     private final SkuLocationRepository skuLocationRepository;
     private final ProductRepository productRepository;
     private final PlatformRepository platformRepository;
+    private final DimensionUpsertJdbcRepository dimensionUpsertJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StripedLocks skuLocationLocks = new StripedLocks(LOCK_STRIPES, LOCK_MAX_WAIT_MS);
 
     @Transactional
     public SkuLocation createOrGetSkuLocation(
@@ -37,59 +48,64 @@ public class SkuLocationService {
         String normalizedCity = normalizeCity(city);
         String normalizedProductUrl = normalizeProductUrl(productUrl);
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> {
-                    log.error("Product not found: productId={}", productId);
-                    return new ProductNotFoundException(productId);
-                });
-
-        Platform platform = platformRepository.findById(platformId)
-                .orElseThrow(() -> {
-                    log.error("Platform not found: platformId={}", platformId);
-                    return new PlatformNotFoundException(platformId);
-                });
-
-        Optional<SkuLocation> existing = skuLocationRepository
-                .findByProductIdAndPlatformIdAndCity(productId, platformId, normalizedCity);
-
-        if (existing.isPresent()) {
-            SkuLocation skuLocation = existing.get();
-            boolean needsUpdate = false;
-
-            if (!skuLocation.isActive()) {
-                log.info("Reactivating inactive SKU location: id={}", skuLocation.getId());
-                skuLocation.setActive(true);
-                needsUpdate = true;
-            }
-
-            if (!normalizedProductUrl.equals(skuLocation.getProductUrl())) {
-                log.info("Updating product URL for SKU location: id={}", skuLocation.getId());
-                skuLocation.setProductUrl(normalizedProductUrl);
-                needsUpdate = true;
+        UpsertResult<Long> result = skuLocationLocks.withLock(Arrays.asList(productId, platformId, normalizedCity),
+                () -> dimensionUpsertJdbcRepository.upsertSkuLocation(productId, platformId, normalizedCity, normalizedProductUrl))
+                .orElseThrow(() -> missingParent(productId, platformId));
+
+        Long id = result.getValue();
+        switch (result.getOutcome()) {
+            case CREATED -> log.info("Created new SKU location: id={}, productId={}, platformId={}, city={}",
+                    id, productId, platformId, normalizedCity);
+            case REACTIVATED -> {
+                log.info("Reactivated inactive SKU location: id={}", id);
+                eventPublisher.publishEvent(new SkuLocationReactivatedEvent(id, productId, normalizedCity));
             }
-
-            if (needsUpdate) {
-                SkuLocation updated = skuLocationRepository.save(skuLocation);
-                log.info("Updated SKU location: id={}", updated.getId());
-                return updated;
-            }
-
-            log.info("Returning existing SKU location: id={}", skuLocation.getId());
-            return skuLocation;
+            case UPDATED -> log.info("Updated product URL for SKU location: id={}", id);
+            case EXISTING -> log.info("Returning existing SKU location: id={}", id);
         }
 
-        SkuLocation skuLocation = SkuLocation.builder()
-                .product(product)
-                .platform(platform)
+        return SkuLocation.builder()
+                .id(id)
+                .product(productRepository.getReferenceById(productId))
+                .platform(platformRepository.getReferenceById(platformId))
                 .city(normalizedCity)
                 .productUrl(normalizedProductUrl)
                 .isActive(true)
                 .build();
+    }
+
+    private RuntimeException missingParent(Long productId, Long platformId) {
+        if (!productRepository.existsById(productId)) {
+            log.error("Product not found: productId={}", productId);
+            return new ProductNotFoundException(productId);
+        }
+        if (!platformRepository.existsById(platformId)) {
+            log.error("Platform not found: platformId={}", platformId);
+            return new PlatformNotFoundException(platformId);
+        }
+        return new IllegalStateException("SKU location upsert returned no row");
+    }
+
+    @Transactional
+    public void deactivateSkuLocation(Long id) {
+        log.debug("Deactivating SKU location: id={}", id);
+
+        SkuLocation skuLocation = skuLocationRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("SKU location not found: id={}", id);
+                    return new SkuLocationNotFoundException(id);
+                });
+
+        if (!skuLocation.isActive()) {
+            log.info("SKU location already inactive: id={}", id);
+            return;
+        }
+
+        skuLocation.setActive(false);
+        log.info("Deactivated SKU location: id={}", id);
 
-        SkuLocation saved = skuLocationRepository.save(skuLocation);
-        log.info("Created new SKU location: id={}, productId={}, platformId={}, city={}",
-                saved.getId(), productId, platformId, normalizedCity);
-        return saved;
+        eventPublisher.publishEvent(new SkuLocationDeactivatedEvent(
+                skuLocation.getId(), skuLocation.getProduct().getId(), skuLocation.getCity()));
     }
 
     public Optional<SkuLocation> getById(Long id) {
@@ -0,0 +1,102 @@
+package io.priceintel.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.priceintel.dto.SnapshotExportCriteria;
+import io.priceintel.dto.SnapshotExportRow;
+import io.priceintel.enums.ExportFormat;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Bulk export of price snapshots. Rows are streamed from the database straight to the output
+ * stream (COPY for CSV, a server-side cursor for NDJSON), so heap use does not grow with the range.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotExportService {
+
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    public void validate(SnapshotExportCriteria criteria) {
+        if (criteria.getFrom() == null || criteria.getTo() == null) {
+            log.warn("Invalid export range: from={}, to={}", criteria.getFrom(), criteria.getTo());
+            throw new IllegalArgumentException("Both from and to must be provided");
+        }
+        if (!criteria.getFrom().isBefore(criteria.getTo())) {
+            log.warn("Invalid export range: from={} is not before to={}", criteria.getFrom(), criteria.getTo());
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (criteria.getCity() != null && criteria.getCity().isBlank()) {
+            log.warn("Invalid export city: blank");
+            throw new IllegalArgumentException("city cannot be blank");
+        }
+        if (criteria.getPlatformId() != null && criteria.getPlatformId() <= 0) {
+            log.warn("Invalid export platformId={}", criteria.getPlatformId());
+            throw new IllegalArgumentException("platformId must be a positive number");
+        }
+        if (criteria.getProductId() != null && criteria.getProductId() <= 0) {
+            log.warn("Invalid export productId={}", criteria.getProductId());
+            throw new IllegalArgumentException("productId must be a positive number");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long export(SnapshotExportCriteria criteria, ExportFormat format, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        log.info("Exporting snapshots as {}: from={}, to={}, city={}, platformId={}, productId={}",
+                format, criteria.getFrom(), criteria.getTo(), criteria.getCity(), criteria.getPlatformId(),
+                criteria.getProductId());
+
+        long rows = format == ExportFormat.CSV
+                ? priceSnapshotJdbcRepository.copySnapshotsAsCsv(criteria, out)
+                : writeNdjson(criteria, out);
+
+        log.info("Exported {} snapshot(s) as {} in {} ms", rows, format, System.currentTimeMillis() - startTime);
+        return rows;
+    }
+
+    private long writeNdjson(SnapshotExportCriteria criteria, OutputStream out) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the newline writeRow adds; the default separator would indent every line by a space
+            generator.setRootValueSeparator(null);
+            priceSnapshotJdbcRepository.forEachSnapshotForExport(criteria, row -> {
+                try {
+                    writeRow(generator, row);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return rows[0];
+    }
+
+    private void writeRow(JsonGenerator generator, SnapshotExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("snapshotId", row.getSnapshotId());
+        generator.writeNumberField("skuLocationId", row.getSkuLocationId());
+        generator.writeNumberField("productId", row.getProductId());
+        generator.writeNumberField("platformId", row.getPlatformId());
+        generator.writeStringField("city", row.getCity());
+        generator.writeNumberField("sellingPrice", row.getSellingPrice());
+        generator.writeNumberField("discount", row.getDiscount());
+        generator.writeStringField("availability", row.getAvailability().name());
+        generator.writeStringField("crawlStatus", row.getCrawlStatus().name());
+        generator.writeStringField("capturedAt", row.getCapturedAt().toString());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
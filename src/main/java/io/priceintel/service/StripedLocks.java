@@ -0,0 +1,98 @@
+package io.priceintel.service;
+
+import io.priceintel.exception.LockStripeBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of locks picked by key hash, so callers working on the same natural key inside this
+ * JVM take turns without keeping a lock object per key.
+ * <p>
+ * {@link #withLock} guards the dimension get-or-create upserts, which are race-free in SQL on their
+ * own; the stripe only stops local workers from piling onto the same unique-index entry, so a
+ * caller that cannot get its stripe within {@code maxWaitMs} proceeds unlocked.
+ * <p>
+ * {@link #lockUntilTransactionEnds} guards snapshot inserts, whose duplicate check is not safe
+ * without it, so a busy stripe fails the caller with a retryable {@link LockStripeBusyException}.
+ * The stripe is released in {@code afterCompletion} by a synchronization registered after the
+ * action returns, so the after-commit listeners of events the action published run first and
+ * per-key work also publishes in lock order.
+ */
+@Slf4j
+final class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long maxWaitMs;
+
+    StripedLocks(int stripeCount, long maxWaitMs) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    <T> T withLock(Object key, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(key);
+        boolean locked = tryLock(lock);
+        if (!locked) {
+            log.warn("Lock stripe busy for {} ms, continuing unlocked: key={}", maxWaitMs, key);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (locked) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs the action holding the key's stripe and keeps it until the current transaction
+     * completes, so the next caller on the same key starts after this transaction's writes are
+     * visible to it.
+     */
+    <T> T lockUntilTransactionEnds(Object key, Supplier<T> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No transaction to hold the lock stripe for");
+        }
+        ReentrantLock lock = stripeFor(key);
+        if (!tryLock(lock)) {
+            log.warn("Lock stripe busy for {} ms, rejecting: key={}", maxWaitMs, key);
+            throw new LockStripeBusyException(key);
+        }
+        try {
+            return action.get();
+        } finally {
+            // Synchronizations of equal order run in registration order, so this one goes last
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    ReentrantLock stripeFor(Object key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+}
@@ -0,0 +1,221 @@
+package io.priceintel.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * KLL quantile sketch (Karnin, Lang, Liberty 2016). Items live in levels; an item on level h
+ * stands for 2^h inputs. When the sketch outgrows its capacity the lowest full level is sorted
+ * and every other item is promoted, halving it. Level capacities shrink geometrically towards
+ * level 0, so the sketch holds O(k) items whatever the input size, and two sketches merge by
+ * concatenating levels and compacting again.
+ * <p>
+ * Until the first compaction every input is retained and quantiles are exact. After it, the
+ * rank of a returned quantile is within {@link #normalizedRankError(int)} of the requested
+ * rank (99% confidence, the bound published for this compaction scheme).
+ */
+final class KllSketch {
+
+    static final int DEFAULT_K = 200;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private long n;
+    // Alternates the surviving half per compaction, which keeps promotion unbiased without randomness
+    private int compactions;
+
+    KllSketch(int k) {
+        if (k < MIN_LEVEL_CAPACITY || k > 0xFFFF) {
+            throw new IllegalArgumentException("k must be between " + MIN_LEVEL_CAPACITY + " and 65535");
+        }
+        this.k = k;
+        addLevel();
+    }
+
+    static double normalizedRankError(int k) {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    int getK() {
+        return k;
+    }
+
+    long getN() {
+        return n;
+    }
+
+    boolean isEmpty() {
+        return n == 0;
+    }
+
+    boolean isExact() {
+        return levels.size() == 1;
+    }
+
+    double getRankError() {
+        return isExact() ? 0.0 : normalizedRankError(k);
+    }
+
+    void update(double value) {
+        append(0, value);
+        n++;
+        compress();
+    }
+
+    void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with different k: " + k + " vs " + other.k);
+        }
+        for (int level = 0; level < other.levels.size(); level++) {
+            double[] items = other.levels.get(level);
+            int size = other.sizes.get(level);
+            for (int i = 0; i < size; i++) {
+                append(level, items[i]);
+            }
+        }
+        n += other.n;
+        compress();
+    }
+
+    /**
+     * Smallest retained value whose weighted rank reaches {@code rank} (0..1).
+     */
+    double getQuantile(double rank) {
+        if (n == 0) {
+            throw new IllegalStateException("Sketch is empty");
+        }
+        if (rank < 0.0 || rank > 1.0) {
+            throw new IllegalArgumentException("Rank must be between 0 and 1");
+        }
+
+        int retained = retainedItems();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int index = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            for (int i = 0; i < sizes.get(level); i++) {
+                values[index] = items[i];
+                weights[index] = 1L << level;
+                index++;
+            }
+        }
+
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double target = Math.max(1.0, Math.ceil(rank * n));
+        long cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return values[order[retained - 1]];
+    }
+
+    int retainedItems() {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeShort(k);
+        out.writeLong(n);
+        out.writeInt(compactions);
+        out.writeByte(levels.size());
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            int size = sizes.get(level);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeDouble(items[i]);
+            }
+        }
+    }
+
+    static KllSketch readFrom(DataInput in) throws IOException {
+        KllSketch sketch = new KllSketch(in.readUnsignedShort());
+        sketch.n = in.readLong();
+        sketch.compactions = in.readInt();
+        int levelCount = in.readUnsignedByte();
+        for (int level = 0; level < levelCount; level++) {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.append(level, in.readDouble());
+            }
+        }
+        return sketch;
+    }
+
+    private void append(int level, double value) {
+        while (levels.size() <= level) {
+            addLevel();
+        }
+        double[] items = levels.get(level);
+        int size = sizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, Math.max(MIN_LEVEL_CAPACITY, items.length * 2));
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes.set(level, size + 1);
+    }
+
+    private void addLevel() {
+        levels.add(new double[MIN_LEVEL_CAPACITY]);
+        sizes.add(0);
+    }
+
+    private int levelCapacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            total += levelCapacity(level);
+        }
+        return total;
+    }
+
+    private void compress() {
+        while (retainedItems() > totalCapacity()) {
+            for (int level = 0; level < levels.size(); level++) {
+                if (sizes.get(level) >= levelCapacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Sorts the level and promotes every other item; an odd item out stays behind
+    private void compact(int level) {
+        double[] items = levels.get(level);
+        int size = sizes.get(level);
+        Arrays.sort(items, 0, size);
+
+        int leftover = size % 2;
+        int offset = compactions++ & 1;
+        for (int i = leftover + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        sizes.set(level, leftover);
+    }
+}
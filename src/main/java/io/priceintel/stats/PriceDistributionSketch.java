@@ -0,0 +1,83 @@
+package io.priceintel.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Moments plus a KLL sketch of the selling prices of one SKU over some span of time (one UTC
+ * day when stored). Mergeable, and small enough to keep per SKU per day: at most a few
+ * hundred doubles however many snapshots the day had.
+ */
+final class PriceDistributionSketch {
+
+    // 2 added the exact decimal sum to the moments
+    private static final int FORMAT_VERSION = 2;
+
+    private final PriceMoments moments;
+    private final KllSketch quantiles;
+
+    PriceDistributionSketch(int k) {
+        this(new PriceMoments(), new KllSketch(k));
+    }
+
+    private PriceDistributionSketch(PriceMoments moments, KllSketch quantiles) {
+        this.moments = moments;
+        this.quantiles = quantiles;
+    }
+
+    void add(BigDecimal price, Instant capturedAt) {
+        moments.add(price, capturedAt);
+        quantiles.update(price.doubleValue());
+    }
+
+    void add(double price, Instant capturedAt) {
+        add(BigDecimal.valueOf(price), capturedAt);
+    }
+
+    void merge(PriceDistributionSketch other) {
+        moments.merge(other.moments);
+        quantiles.merge(other.quantiles);
+    }
+
+    boolean isEmpty() {
+        return moments.getCount() == 0;
+    }
+
+    PriceMoments getMoments() {
+        return moments;
+    }
+
+    KllSketch getQuantiles() {
+        return quantiles;
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + quantiles.retainedItems() * Double.BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            moments.writeTo(out);
+            quantiles.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static PriceDistributionSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported price sketch format version " + version);
+            }
+            return new PriceDistributionSketch(PriceMoments.readFrom(in), KllSketch.readFrom(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
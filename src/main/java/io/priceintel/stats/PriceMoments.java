@@ -0,0 +1,150 @@
+package io.priceintel.stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+/**
+ * Count, mean and sum of squared deviations (Welford), plus exact min/max with when they were
+ * seen and the exact decimal sum (for the average). Two accumulators combine with Chan's
+ * parallel update, so per-day moments merge into the moments of any range of days without
+ * revisiting the prices.
+ */
+final class PriceMoments {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private Instant minAt;
+    private Instant maxAt;
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    void add(BigDecimal exactPrice, Instant capturedAt) {
+        double price = exactPrice.doubleValue();
+        sum = sum.add(exactPrice);
+        count++;
+        double delta = price - mean;
+        mean += delta / count;
+        m2 += delta * (price - mean);
+        trackExtremes(price, capturedAt, price, capturedAt);
+    }
+
+    void merge(PriceMoments other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            minAt = other.minAt;
+            maxAt = other.maxAt;
+            sum = other.sum;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        sum = sum.add(other.sum);
+        trackExtremes(other.min, other.minAt, other.max, other.maxAt);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getMean() {
+        return mean;
+    }
+
+    BigDecimal getSum() {
+        return sum;
+    }
+
+    double getMin() {
+        return min;
+    }
+
+    double getMax() {
+        return max;
+    }
+
+    Instant getMinAt() {
+        return minAt;
+    }
+
+    Instant getMaxAt() {
+        return maxAt;
+    }
+
+    // Population standard deviation: the snapshots in range are the whole population
+    double getStdDev() {
+        return count > 0 ? Math.sqrt(Math.max(0.0, m2 / count)) : Double.NaN;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        writeInstant(out, minAt);
+        writeInstant(out, maxAt);
+        byte[] unscaled = sum.unscaledValue().toByteArray();
+        out.writeInt(sum.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    static PriceMoments readFrom(DataInput in) throws IOException {
+        PriceMoments moments = new PriceMoments();
+        moments.count = in.readLong();
+        moments.mean = in.readDouble();
+        moments.m2 = in.readDouble();
+        moments.min = in.readDouble();
+        moments.max = in.readDouble();
+        moments.minAt = readInstant(in);
+        moments.maxAt = readInstant(in);
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        moments.sum = new BigDecimal(new BigInteger(unscaled), scale);
+        return moments;
+    }
+
+    private static void writeInstant(DataOutput out, Instant instant) throws IOException {
+        out.writeLong(instant != null ? instant.getEpochSecond() : Long.MIN_VALUE);
+        out.writeInt(instant != null ? instant.getNano() : 0);
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return seconds != Long.MIN_VALUE ? Instant.ofEpochSecond(seconds, nanos) : null;
+    }
+
+    // Equal extremes resolve to the most recent sighting
+    private void trackExtremes(double low, Instant lowAt, double high, Instant highAt) {
+        if (Double.isNaN(min) || low < min || (low == min && isLater(lowAt, minAt))) {
+            min = low;
+            minAt = lowAt;
+        }
+        if (Double.isNaN(max) || high > max || (high == max && isLater(highAt, maxAt))) {
+            max = high;
+            maxAt = highAt;
+        }
+    }
+
+    private static boolean isLater(Instant candidate, Instant current) {
+        return candidate != null && (current == null || candidate.isAfter(current));
+    }
+}
@@ -0,0 +1,17 @@
+package io.priceintel.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.stats")
+public class PriceStatsProperties {
+
+    // KLL accuracy parameter: rank error ~1.3% at 200, each day sketch holds at most ~3k items
+    private int sketchK = KllSketch.DEFAULT_K;
+
+    // When false, closed days are rebuilt from snapshots on every request instead of being stored
+    private boolean storeDailySketches = true;
+}
@@ -0,0 +1,284 @@
+package io.priceintel.stats;
+
+import io.priceintel.dto.DailyPriceSketchRecord;
+import io.priceintel.dto.response.PriceStatsResponse;
+import io.priceintel.event.BackfillCompletedEvent;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.exception.PriceSnapshotNotFoundException;
+import io.priceintel.repository.PriceSketchJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price distribution of a SKU over any window, merged from per-day sketches. Every closed UTC
+ * day fully inside the window is read from price_daily_sketches (and built from its snapshots
+ * the first time it is asked for); only the partial days at the edges of the window and the
+ * current day are read row by row. A request therefore costs O(days) once the days exist.
+ * <p>
+ * Reads only, so requests can run read-only on a replica: days built on the fly are handed to a
+ * single background writer that stores them on the primary, and only if the primary still has
+ * exactly the snapshots they were built from.
+ * <p>
+ * Min, max, average and standard deviation are exact; percentiles come from the merged KLL sketch
+ * and are exact until it first compacts, then within the reported rank error.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceStatsService {
+
+    // Upper bound for an open-ended window; snapshots are never captured this far ahead
+    private static final Instant FAR_FUTURE = Instant.parse("9999-01-01T00:00:00Z");
+    // Write-backs queued beyond this are dropped; the days are simply rebuilt on a later request
+    private static final int WRITE_BACK_QUEUE_SIZE = 1_000;
+
+    private final PriceSketchJdbcRepository priceSketchJdbcRepository;
+    private final PriceStatsProperties properties;
+    private final ExecutorService sketchWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(WRITE_BACK_QUEUE_SIZE),
+            Thread.ofPlatform().name("price-sketch-writer").daemon().factory(),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    /**
+     * Both bounds are inclusive; without them the whole history of the SKU is summarized.
+     */
+    public PriceStatsResponse getStats(Long skuId, Instant start, Instant end) {
+        long startTime = System.currentTimeMillis();
+
+        Instant from;
+        Instant toExclusive;
+        if (start != null) {
+            from = start;
+            // Snapshot timestamps have microsecond precision
+            toExclusive = end.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        } else {
+            Instant first = priceSketchJdbcRepository.findFirstCapturedAt(skuId).orElseThrow(() -> {
+                log.warn("No price snapshots found for skuId={} to calculate stats", skuId);
+                return new PriceSnapshotNotFoundException(skuId);
+            });
+            from = dayStart(dayOf(first));
+            toExclusive = FAR_FUTURE;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate firstFullDay = dayStart(dayOf(from)).equals(from) ? dayOf(from) : dayOf(from).plusDays(1);
+        LocalDate lastFullDay = dayOf(toExclusive).minusDays(1);
+        if (!lastFullDay.isBefore(today)) {
+            lastFullDay = today.minusDays(1);
+        }
+
+        PriceDistributionSketch total = new PriceDistributionSketch(properties.getSketchK());
+        Map<LocalDate, DayBuilder> builtDays = new HashMap<>();
+        List<Instant> starts = new ArrayList<>();
+        List<Instant> ends = new ArrayList<>();
+        int storedDays = 0;
+
+        if (firstFullDay.isAfter(lastFullDay)) {
+            starts.add(from);
+            ends.add(toExclusive);
+        } else {
+            Map<LocalDate, PriceDistributionSketch> stored = properties.isStoreDailySketches()
+                    ? loadStoredDays(skuId, firstFullDay, lastFullDay)
+                    : Map.of();
+            stored.values().forEach(total::merge);
+            storedDays = stored.size();
+
+            addInterval(starts, ends, from, dayStart(firstFullDay));
+            // Days without a stored sketch are read raw, adjacent ones as a single interval
+            LocalDate gapStart = null;
+            for (LocalDate day = firstFullDay; !day.isAfter(lastFullDay); day = day.plusDays(1)) {
+                if (stored.containsKey(day)) {
+                    if (gapStart != null) {
+                        addInterval(starts, ends, dayStart(gapStart), dayStart(day));
+                        gapStart = null;
+                    }
+                } else {
+                    builtDays.put(day, new DayBuilder(properties.getSketchK()));
+                    if (gapStart == null) {
+                        gapStart = day;
+                    }
+                }
+            }
+            if (gapStart != null) {
+                addInterval(starts, ends, dayStart(gapStart), dayStart(lastFullDay.plusDays(1)));
+            }
+            addInterval(starts, ends, dayStart(lastFullDay.plusDays(1)), toExclusive);
+        }
+
+        PriceDistributionSketch partial = new PriceDistributionSketch(properties.getSketchK());
+        long[] rawRows = new long[1];
+        if (!starts.isEmpty()) {
+            priceSketchJdbcRepository.forEachPriceInIntervals(skuId, starts, ends, (snapshotId, price, capturedAt) -> {
+                if (price == null) {
+                    return;
+                }
+                rawRows[0]++;
+                DayBuilder day = builtDays.get(dayOf(capturedAt));
+                if (day != null) {
+                    day.add(snapshotId, price, capturedAt);
+                } else {
+                    partial.add(price, capturedAt);
+                }
+            });
+        }
+        builtDays.values().forEach(day -> total.merge(day.sketch));
+        total.merge(partial);
+
+        if (total.isEmpty()) {
+            log.warn("No price snapshots found for skuId={} to calculate stats", skuId);
+            throw new PriceSnapshotNotFoundException(skuId);
+        }
+
+        storeBuiltDaysLater(skuId, builtDays);
+
+        PriceStatsResponse response = toResponse(skuId, total);
+        log.info("Calculated stats for skuId={} from {} stored day(s), {} rebuilt day(s) and {} raw row(s) in {} ms",
+                skuId, storedDays, builtDays.size(), rawRows[0], System.currentTimeMillis() - startTime);
+        return response;
+    }
+
+    // A snapshot landing on a closed day makes that day's stored sketch stale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        LocalDate day = dayOf(event.getCapturedAt());
+        if (properties.isStoreDailySketches() && day.isBefore(LocalDate.now(ZoneOffset.UTC))) {
+            priceSketchJdbcRepository.deleteDailySketch(event.getSkuLocationId(), day);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBackfillCompleted(BackfillCompletedEvent event) {
+        if (!properties.isStoreDailySketches()) {
+            return;
+        }
+        int removed = priceSketchJdbcRepository.deleteDailySketchesTouchedAfter(event.getSnapshotWatermark());
+        log.info("Dropped {} daily price sketch(es) invalidated by backfill import {}", removed, event.getImportId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sketchWriter.shutdown();
+    }
+
+    // Sketches built with another k or an older format cannot be merged; they are rebuilt and overwritten
+    private Map<LocalDate, PriceDistributionSketch> loadStoredDays(Long skuId, LocalDate fromDay, LocalDate toDay) {
+        Map<LocalDate, PriceDistributionSketch> days = new HashMap<>();
+        priceSketchJdbcRepository.findDailySketches(skuId, fromDay, toDay).forEach((day, bytes) -> {
+            PriceDistributionSketch sketch;
+            try {
+                sketch = PriceDistributionSketch.fromBytes(bytes);
+            } catch (UncheckedIOException e) {
+                log.debug("Rebuilding unreadable price sketch for skuId={}, day={}: {}", skuId, day, e.getMessage());
+                return;
+            }
+            if (sketch.getQuantiles().getK() == properties.getSketchK()) {
+                days.put(day, sketch);
+            }
+        });
+        return days;
+    }
+
+    // Off the request thread and outside its (read-only) transaction, so the write goes to the primary
+    private void storeBuiltDaysLater(Long skuId, Map<LocalDate, DayBuilder> builtDays) {
+        if (!properties.isStoreDailySketches() || builtDays.isEmpty()) {
+            return;
+        }
+        sketchWriter.execute(() -> storeBuiltDays(skuId, builtDays));
+    }
+
+    private void storeBuiltDays(Long skuId, Map<LocalDate, DayBuilder> builtDays) {
+        List<DailyPriceSketchRecord> records = new ArrayList<>(builtDays.size());
+        builtDays.forEach((day, builder) -> records.add(DailyPriceSketchRecord.builder()
+                .skuLocationId(skuId)
+                .day(day)
+                .snapshotCount((int) builder.sketch.getMoments().getCount())
+                .maxSnapshotId(builder.maxSnapshotId)
+                .sketch(builder.sketch.toBytes())
+                .build()));
+        try {
+            int saved = priceSketchJdbcRepository.saveDailySketches(records);
+            log.debug("Stored {} of {} daily price sketch(es) for skuId={}", saved, records.size(), skuId);
+        } catch (DataAccessException e) {
+            // The answer is already computed; the days are simply rebuilt next time
+            log.warn("Failed to store daily price sketches for skuId={}", skuId, e);
+        }
+    }
+
+    private PriceStatsResponse toResponse(Long skuId, PriceDistributionSketch sketch) {
+        PriceMoments moments = sketch.getMoments();
+        KllSketch quantiles = sketch.getQuantiles();
+        double stdDev = moments.getStdDev();
+
+        return PriceStatsResponse.builder()
+                .skuId(skuId)
+                .minPrice(price(moments.getMin()))
+                .maxPrice(price(moments.getMax()))
+                .averagePrice(moments.getSum().divide(BigDecimal.valueOf(moments.getCount()), 2, RoundingMode.HALF_UP))
+                .lowestSeenAt(moments.getMinAt())
+                .highestSeenAt(moments.getMaxAt())
+                .totalRecords((int) moments.getCount())
+                .p10Price(price(quantiles.getQuantile(0.10)))
+                .p50Price(price(quantiles.getQuantile(0.50)))
+                .p90Price(price(quantiles.getQuantile(0.90)))
+                .priceStdDev(price(stdDev))
+                .coefficientOfVariation(moments.getMean() > 0
+                        ? BigDecimal.valueOf(stdDev / moments.getMean()).setScale(4, RoundingMode.HALF_UP)
+                        : null)
+                .quantileRankError(quantiles.getRankError())
+                .build();
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static void addInterval(List<Instant> starts, List<Instant> ends, Instant start, Instant end) {
+        if (start.isBefore(end)) {
+            starts.add(start);
+            ends.add(end);
+        }
+    }
+
+    private static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant dayStart(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static final class DayBuilder {
+
+        private final PriceDistributionSketch sketch;
+        private long maxSnapshotId;
+
+        private DayBuilder(int k) {
+            this.sketch = new PriceDistributionSketch(k);
+        }
+
+        private void add(long snapshotId, BigDecimal price, Instant capturedAt) {
+            sketch.add(price, capturedAt);
+            maxSnapshotId = Math.max(maxSnapshotId, snapshotId);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.priceintel.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.priceintel.dto.response.LatestPriceResponse;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.exception.StreamCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed price changes out to open SSE streams. Subscriptions are indexed by SKU and
+ * by product, so publishing touches only the streams interested in the changed SKU. The
+ * publishing thread only ever does non-blocking offers into per-stream bounded buffers; a
+ * stream whose buffer overflows is dropped rather than allowed to slow down ingestion.
+ */
+@Slf4j
+@Service
+public class PriceStreamHub {
+
+    private final PriceStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter droppedStreams;
+
+    private final Map<Long, Set<PriceStreamSubscription>> bySku = new ConcurrentHashMap<>();
+    private final Map<Long, Set<PriceStreamSubscription>> byProduct = new ConcurrentHashMap<>();
+    private final Map<Long, PriceStreamSubscription> open = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public PriceStreamHub(PriceStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.droppedStreams = meterRegistry.counter("priceintel.stream.dropped");
+        meterRegistry.gauge("priceintel.stream.open", open, Map::size);
+    }
+
+    public SseEmitter subscribeToSkus(Collection<Long> skuIds) {
+        if (skuIds == null || skuIds.isEmpty()) {
+            throw new IllegalArgumentException("SKU IDs list cannot be null or empty");
+        }
+        Set<Long> distinctIds = Set.copyOf(skuIds);
+        if (distinctIds.size() > properties.getMaxSkusPerStream()) {
+            throw new IllegalArgumentException(String.format(
+                    "A stream can follow at most %d SKUs. Received: %d", properties.getMaxSkusPerStream(), distinctIds.size()));
+        }
+        return register(distinctIds, null, null);
+    }
+
+    public SseEmitter subscribeToProduct(Long productId, String city) {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Product ID must be positive");
+        }
+        String normalizedCity = city != null && !city.trim().isEmpty() ? city.trim() : null;
+        return register(null, productId, normalizedCity);
+    }
+
+    private SseEmitter register(Set<Long> skuIds, Long productId, String city) {
+        if (open.size() >= properties.getMaxStreams()) {
+            throw new StreamCapacityExceededException(properties.getMaxStreams());
+        }
+
+        long id = nextId.incrementAndGet();
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+        PriceStreamSubscription subscription = new PriceStreamSubscription(
+                id, skuIds, productId, city, emitter, properties.getBufferSize(), () -> unsubscribe(id));
+
+        emitter.onCompletion(() -> unsubscribe(id));
+        emitter.onTimeout(() -> unsubscribe(id));
+        emitter.onError(e -> unsubscribe(id));
+
+        open.put(id, subscription);
+        if (skuIds != null) {
+            for (Long skuId : skuIds) {
+                bySku.computeIfAbsent(skuId, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+            }
+        } else {
+            byProduct.computeIfAbsent(productId, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        subscription.start();
+
+        log.debug("Opened price stream {} for skus={}, productId={}, city={}", id, skuIds, productId, city);
+        return emitter;
+    }
+
+    private void unsubscribe(long id) {
+        PriceStreamSubscription subscription = open.remove(id);
+        if (subscription == null) {
+            return;
+        }
+        subscription.close();
+
+        if (subscription.getSkuIds() != null) {
+            for (Long skuId : subscription.getSkuIds()) {
+                removeFromIndex(bySku, skuId, subscription);
+            }
+        } else {
+            removeFromIndex(byProduct, subscription.getProductId(), subscription);
+        }
+        log.debug("Closed price stream {}", id);
+    }
+
+    private static void removeFromIndex(Map<Long, Set<PriceStreamSubscription>> index, Long key,
+                                        PriceStreamSubscription subscription) {
+        index.computeIfPresent(key, (k, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSnapshotRecorded(PriceSnapshotRecordedEvent event) {
+        Set<PriceStreamSubscription> skuSubscribers = bySku.get(event.getSkuLocationId());
+        Set<PriceStreamSubscription> productSubscribers = event.getProductId() != null
+                ? byProduct.get(event.getProductId())
+                : null;
+        if (skuSubscribers == null && productSubscribers == null) {
+            return;
+        }
+
+        PriceStreamMessage message = toMessage(event);
+        if (message == null) {
+            return;
+        }
+
+        if (skuSubscribers != null) {
+            for (PriceStreamSubscription subscription : skuSubscribers) {
+                deliver(subscription, message);
+            }
+        }
+        if (productSubscribers != null) {
+            for (PriceStreamSubscription subscription : productSubscribers) {
+                if (subscription.matchesCity(event.getCity())) {
+                    deliver(subscription, message);
+                }
+            }
+        }
+    }
+
+    private void deliver(PriceStreamSubscription subscription, PriceStreamMessage message) {
+        if (!subscription.offer(message) && !subscription.isClosed()) {
+            log.warn("Dropping slow price stream {}: buffer of {} events is full", subscription.getId(), properties.getBufferSize());
+            droppedStreams.increment();
+            subscription.drop();
+        }
+    }
+
+    private PriceStreamMessage toMessage(PriceSnapshotRecordedEvent event) {
+        LatestPriceResponse payload = LatestPriceResponse.builder()
+                .skuId(event.getSkuLocationId())
+                .sellingPrice(event.getSellingPrice())
+                .discount(event.getDiscount())
+                .availability(event.getAvailability())
+                .capturedAt(event.getCapturedAt())
+                .build();
+        try {
+            return new PriceStreamMessage(event.getSnapshotId(), objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize price change for skuId={}", event.getSkuLocationId(), e);
+            return null;
+        }
+    }
+
+    // Heartbeats keep proxies from closing idle streams and surface dead clients as write errors
+    @Scheduled(fixedDelayString = "${priceintel.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (PriceStreamSubscription subscription : open.values()) {
+            deliver(subscription, PriceStreamMessage.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List<Long> ids = List.copyOf(open.keySet());
+        ids.forEach(this::unsubscribe);
+        log.info("Closed {} price stream(s) on shutdown", ids.size());
+    }
+}
@@ -0,0 +1,19 @@
+package io.priceintel.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One queued SSE frame. The payload is serialized once per change and shared by every
+ * subscriber's buffer.
+ */
+@Getter
+@AllArgsConstructor
+class PriceStreamMessage {
+
+    static final PriceStreamMessage HEARTBEAT = new PriceStreamMessage(null, null);
+    static final PriceStreamMessage DROPPED = new PriceStreamMessage(null, null);
+
+    private final Long snapshotId;
+    private final String json;
+}
@@ -0,0 +1,23 @@
+package io.priceintel.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.stream")
+public class PriceStreamProperties {
+
+    // Events queued per connection before it is considered a slow consumer and dropped
+    private int bufferSize = 256;
+
+    private int maxSkusPerStream = 1000;
+
+    private int maxStreams = 50000;
+
+    private long heartbeatIntervalMs = 15000;
+
+    // Clients are expected to reconnect (with Last-Event-ID) after this
+    private long timeoutMs = 1_800_000;
+}
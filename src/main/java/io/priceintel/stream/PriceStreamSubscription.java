@@ -0,0 +1,123 @@
+package io.priceintel.stream;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single open stream: a bounded buffer filled by the publishing thread and drained by a
+ * dedicated virtual thread that does the (possibly slow) socket writes.
+ */
+@Slf4j
+class PriceStreamSubscription {
+
+    @Getter
+    private final long id;
+    @Getter
+    private final Set<Long> skuIds;
+    @Getter
+    private final Long productId;
+    private final String city;
+
+    private final SseEmitter emitter;
+    private final Runnable onTerminated;
+    private final BlockingQueue<PriceStreamMessage> buffer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread writer;
+
+    PriceStreamSubscription(long id, Set<Long> skuIds, Long productId, String city,
+                            SseEmitter emitter, int bufferSize, Runnable onTerminated) {
+        this.id = id;
+        this.skuIds = skuIds;
+        this.productId = productId;
+        this.city = city;
+        this.emitter = emitter;
+        this.onTerminated = onTerminated;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    boolean matchesCity(String eventCity) {
+        return city == null || city.equalsIgnoreCase(eventCity);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Never blocks the publisher. Returns false when the buffer is full, in which case the
+     * subscriber is too slow to keep up and should be dropped.
+     */
+    boolean offer(PriceStreamMessage message) {
+        return !closed.get() && buffer.offer(message);
+    }
+
+    void start() {
+        writer = Thread.ofVirtual().name("price-stream-", id).start(this::drain);
+    }
+
+    /**
+     * Discards everything still buffered and tells the client it fell behind; the writer then
+     * completes the stream so the client can reconnect and resync from /latest.
+     */
+    void drop() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            buffer.offer(PriceStreamMessage.DROPPED);
+        }
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            Thread current = writer;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                PriceStreamMessage message = buffer.take();
+                if (message == PriceStreamMessage.DROPPED) {
+                    emitter.send(SseEmitter.event().name("dropped").data("slow consumer"));
+                    terminate();
+                    return;
+                }
+                if (closed.get()) {
+                    // Closed or dropped while this message was being taken: nothing more will be written,
+                    // so end the stream here rather than leave the emitter open
+                    terminate();
+                    return;
+                }
+                if (message == PriceStreamMessage.HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(message.getSnapshotId()))
+                            .name("price")
+                            .data(message.getJson()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already timed out; the container completes the emitter itself
+            log.debug("Price stream {} closed while writing: {}", id, e.getMessage());
+            onTerminated.run();
+        }
+    }
+
+    private void terminate() {
+        emitter.complete();
+        onTerminated.run();
+    }
+}
@@ -0,0 +1,26 @@
+package io.priceintel.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "priceintel.warmup")
+public class CacheWarmupProperties {
+
+    private boolean snapshotEnabled = true;
+
+    private String snapshotPath = "var/warm-snapshot.bin";
+
+    private long snapshotIntervalMs = 300_000;
+
+    // Older snapshots are ignored; catching up would cost more than a full rebuild
+    private long maxSnapshotAgeMs = 21_600_000;
+
+    // How long a snapshot write waits for transactions running when its watermark was read; skipped after that
+    private long watermarkSettleTimeoutMs = 5_000;
+
+    // How often a failed warm-up retries the models that did not load
+    private long retryIntervalMs = 30_000;
+}
@@ -0,0 +1,272 @@
+package io.priceintel.warmup;
+
+import io.priceintel.datasource.ConnectionPoolProperties;
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import io.priceintel.repository.PriceSnapshotJdbcRepository.SnapshotWatermark;
+import io.priceintel.service.CheapestOfferIndex;
+import io.priceintel.service.CheapestOfferService;
+import io.priceintel.service.ProductSearchIndex;
+import io.priceintel.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Warms the in-memory read models (cheapest-offer index with SKU topology, product search index)
+ * before the application reports ready. Readiness is only published after ApplicationReadyEvent
+ * listeners return, so load balancers keep traffic away until warm-up has finished.
+ * <p>
+ * The warmed state is periodically written to a local binary snapshot; on restart it is loaded
+ * and only the delta since its watermark is read from Postgres. A model that fails to load (for
+ * example on a background-pool connection timeout) is retried on a schedule instead of staying
+ * cold until the next restart.
+ * <p>
+ * Dimension lookups (platform, product, SKU location) are not warmed: ingest resolves them with
+ * one upsert statement each and no in-memory cache of them exists to fill.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheWarmupService {
+
+    private static final long WATERMARK_POLL_MS = 50;
+    // Background-pool connections the offer rebuild must leave free: the search index load streams
+    // on one, and a running basket recompute holds its lock connection plus one for reads
+    private static final int RESERVED_BACKGROUND_CONNECTIONS = 3;
+
+    private final CacheWarmupProperties properties;
+    private final ConnectionPoolProperties connectionPoolProperties;
+    private final CheapestOfferService cheapestOfferService;
+    private final CheapestOfferIndex cheapestOfferIndex;
+    private final ProductService productService;
+    private final ProductSearchIndex productSearchIndex;
+    private final PriceSnapshotJdbcRepository priceSnapshotJdbcRepository;
+
+    // Retries and snapshot writes can run for a rebuild or a settle timeout; kept off the shared
+    // scheduler thread, which also runs the replica lag check and SSE heartbeats. A tick that finds
+    // it busy is dropped
+    private final ExecutorService maintenanceExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            Thread.ofPlatform().name("cache-warmup").daemon().factory());
+
+    private final AtomicBoolean warming = new AtomicBoolean();
+    private volatile boolean warmed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Optional<WarmSnapshot> saved = readSnapshot();
+        if (!warming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            warm(saved);
+        } finally {
+            warming.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${priceintel.warmup.retry-interval-ms:30000}",
+            initialDelayString = "${priceintel.warmup.retry-interval-ms:30000}")
+    public void scheduleRetry() {
+        if (!warmed) {
+            runInBackground(this::retryWarmUp, "warm-up retry");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${priceintel.warmup.snapshot-interval-ms:300000}",
+            initialDelayString = "${priceintel.warmup.snapshot-interval-ms:300000}")
+    public void scheduleSnapshotWrite() {
+        if (properties.isSnapshotEnabled() && warmed) {
+            runInBackground(this::writeSnapshot, "warm snapshot write");
+        }
+    }
+
+    private void runInBackground(Runnable task, String name) {
+        try {
+            maintenanceExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping {}: the cache warm-up thread is busy", name);
+        }
+    }
+
+    /**
+     * Retries whatever the startup warm-up failed to load (typically a connection timeout),
+     * from the database; reads keep falling back to Postgres meanwhile.
+     */
+    private void retryWarmUp() {
+        if (warmed || !warming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            log.info("Retrying cache warm-up: offers ready={}, search index ready={}",
+                    isOffersReady(), productService.isSearchIndexReady());
+            warm(Optional.empty());
+        } finally {
+            warming.set(false);
+        }
+    }
+
+    private void warm(Optional<WarmSnapshot> saved) {
+        long startTime = System.currentTimeMillis();
+        List<CheapestOffer> savedOffers = saved.map(WarmSnapshot::getOffers).orElse(List.of());
+        List<ProductSummary> savedProducts = saved.map(WarmSnapshot::getProducts).orElse(List.of());
+        int rebuildWorkers = connectionPoolProperties.getBackground().getMaximumPoolSize() - RESERVED_BACKGROUND_CONNECTIONS;
+
+        // The offer rebuild splits itself across product partitions; the catalog loads alongside it.
+        // Own threads rather than the common pool, which parallel streams elsewhere also use.
+        // Both models tolerate being loaded again, so a retry only reruns the ones not ready yet.
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(2);
+            if (!isOffersReady()) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    if (saved.isPresent()) {
+                        cheapestOfferService.restore(savedOffers, saved.get().getSnapshotWatermark());
+                    } else {
+                        cheapestOfferService.rebuild(rebuildWorkers);
+                    }
+                }, executor));
+            }
+            if (!productService.isSearchIndexReady()) {
+                tasks.add(CompletableFuture.runAsync(() -> productService.loadSearchIndex(savedProducts), executor));
+            }
+
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (RuntimeException e) {
+            // Every read path falls back to Postgres until its model is ready
+            log.error("Cache warm-up failed after {} ms; serving reads from the database", System.currentTimeMillis() - startTime, e);
+        } finally {
+            executor.shutdown();
+        }
+
+        if (isOffersReady() && productService.isSearchIndexReady()) {
+            warmed = true;
+            log.info("Cache warm-up finished in {} ms ({} start)",
+                    System.currentTimeMillis() - startTime, saved.isPresent() ? "snapshot" : "database");
+        } else {
+            log.warn("Cache warm-up incomplete (offers ready={}, search index ready={}); retrying in {} ms",
+                    isOffersReady(), productService.isSearchIndexReady(), properties.getRetryIntervalMs());
+        }
+    }
+
+    // A disabled offer index has nothing to load
+    private boolean isOffersReady() {
+        return !cheapestOfferService.isEnabled() || cheapestOfferService.isReady();
+    }
+
+    private void writeSnapshot() {
+        long startTime = System.currentTimeMillis();
+        try {
+            // Ids at or below MAX(id) can belong to transactions still running when it is read; wait
+            // until all of those have committed. A committed snapshot reaches the index only in its
+            // after-commit listener, so the watermark is then lowered below any still being applied,
+            // and the index captured afterwards holds every offer at or below it
+            SnapshotWatermark snapshotWatermark = priceSnapshotJdbcRepository.findSnapshotWatermark();
+            if (!awaitXidHorizon(snapshotWatermark.nextXid())) {
+                log.warn("Skipping warm snapshot: transactions older than xid {} still running after {} ms",
+                        snapshotWatermark.nextXid(), properties.getWatermarkSettleTimeoutMs());
+                return;
+            }
+            long watermark = cheapestOfferService.appliedWatermark(snapshotWatermark.snapshotId());
+            List<CheapestOffer> offers = cheapestOfferService.isReady() ? cheapestOfferIndex.snapshot() : List.of();
+            List<ProductSummary> products = productService.isSearchIndexReady() ? productSearchIndex.snapshot() : List.of();
+
+            Path path = Path.of(properties.getSnapshotPath());
+            WarmSnapshotCodec.write(new WarmSnapshot(Instant.now(), watermark, offers, products), path);
+            log.info("Wrote warm snapshot {} ({} offers, {} products, {} bytes, watermark={}) in {} ms",
+                    path, offers.size(), products.size(), Files.size(path), watermark,
+                    System.currentTimeMillis() - startTime);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write warm snapshot: {}", e.getMessage());
+        }
+    }
+
+    private boolean awaitXidHorizon(long xid) {
+        long deadline = System.currentTimeMillis() + properties.getWatermarkSettleTimeoutMs();
+        while (!priceSnapshotJdbcRepository.isXidHorizonPast(xid)) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(WATERMARK_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void writeSnapshotOnShutdown() {
+        // Stop a running retry or scheduled write first, so only this write touches the file
+        maintenanceExecutor.shutdownNow();
+        try {
+            if (!maintenanceExecutor.awaitTermination(properties.getWatermarkSettleTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                log.warn("Cache warm-up thread still busy at shutdown; skipping the warm snapshot");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (properties.isSnapshotEnabled() && warmed) {
+            writeSnapshot();
+        }
+    }
+
+    private Optional<WarmSnapshot> readSnapshot() {
+        if (!properties.isSnapshotEnabled()) {
+            return Optional.empty();
+        }
+
+        Path path = Path.of(properties.getSnapshotPath());
+        if (!Files.isRegularFile(path)) {
+            log.info("No warm snapshot at {}; warming from the database", path);
+            return Optional.empty();
+        }
+
+        try {
+            WarmSnapshot snapshot = WarmSnapshotCodec.read(path);
+            Duration age = Duration.between(snapshot.getWrittenAt(), Instant.now());
+            if (age.toMillis() > properties.getMaxSnapshotAgeMs()) {
+                log.info("Ignoring warm snapshot {} written {} ago", path, age);
+                return Optional.empty();
+            }
+            // Offers only count when the index was ready at write time; otherwise rebuild them in full
+            if (snapshot.getOffers().isEmpty()) {
+                log.info("Warm snapshot {} has no offers; rebuilding offers from the database", path);
+                return Optional.empty();
+            }
+            log.info("Loaded warm snapshot {} ({} offers, {} products, watermark={}, age={})",
+                    path, snapshot.getOffers().size(), snapshot.getProducts().size(), snapshot.getSnapshotWatermark(), age);
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable warm snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
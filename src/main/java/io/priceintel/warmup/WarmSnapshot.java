@@ -0,0 +1,23 @@
+package io.priceintel.warmup;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.ProductSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Warmed in-memory state as saved to disk: the latest offer (with topology) of every active SKU
+ * location and the product catalog, plus the price_snapshots id it is current up to.
+ */
+@Getter
+@AllArgsConstructor
+public class WarmSnapshot {
+
+    private final Instant writtenAt;
+    private final long snapshotWatermark;
+    private final List<CheapestOffer> offers;
+    private final List<ProductSummary> products;
+}
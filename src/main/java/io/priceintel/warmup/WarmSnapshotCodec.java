@@ -0,0 +1,166 @@
+package io.priceintel.warmup;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.enums.Availability;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact binary format for {@link WarmSnapshot}: gzip'd DataOutput with a city dictionary,
+ * decimals as (scale, unscaled) and enums as ordinals. Files are written to a temporary sibling
+ * and moved into place, so a crash never leaves a truncated snapshot behind.
+ */
+final class WarmSnapshotCodec {
+
+    private static final int MAGIC = 0x50495753;
+    private static final int FORMAT_VERSION = 1;
+    private static final Availability[] AVAILABILITIES = Availability.values();
+
+    private WarmSnapshotCodec() {
+    }
+
+    static void write(WarmSnapshot snapshot, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                write(snapshot, file);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static WarmSnapshot read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path)) {
+            return read(file);
+        }
+    }
+
+    static void write(WarmSnapshot snapshot, OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(target), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.getWrittenAt().toEpochMilli());
+        out.writeLong(snapshot.getSnapshotWatermark());
+
+        Map<String, Integer> cityIds = new HashMap<>();
+        List<String> cities = new ArrayList<>();
+        for (CheapestOffer offer : snapshot.getOffers()) {
+            if (cityIds.putIfAbsent(offer.getCity(), cities.size()) == null) {
+                cities.add(offer.getCity());
+            }
+        }
+        out.writeInt(cities.size());
+        for (String city : cities) {
+            out.writeUTF(city);
+        }
+
+        out.writeInt(snapshot.getOffers().size());
+        for (CheapestOffer offer : snapshot.getOffers()) {
+            out.writeLong(offer.getSkuLocationId());
+            out.writeLong(offer.getProductId());
+            out.writeLong(offer.getPlatformId());
+            out.writeInt(cityIds.get(offer.getCity()));
+            writeDecimal(out, offer.getSellingPrice());
+            writeDecimal(out, offer.getDiscount());
+            out.writeByte(offer.getAvailability().ordinal());
+            out.writeLong(offer.getCapturedAt().getEpochSecond());
+            out.writeInt(offer.getCapturedAt().getNano());
+        }
+
+        out.writeInt(snapshot.getProducts().size());
+        for (ProductSummary product : snapshot.getProducts()) {
+            out.writeLong(product.getId());
+            out.writeUTF(product.getBrandName());
+            out.writeUTF(product.getProductName());
+            out.writeUTF(product.getPackSize());
+        }
+        out.flush();
+        out.close();
+    }
+
+    static WarmSnapshot read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source), 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a warm snapshot file");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported warm snapshot version " + version);
+        }
+        Instant writtenAt = Instant.ofEpochMilli(in.readLong());
+        long watermark = in.readLong();
+
+        String[] cities = new String[in.readInt()];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = in.readUTF();
+        }
+
+        int offerCount = in.readInt();
+        List<CheapestOffer> offers = new ArrayList<>(offerCount);
+        for (int i = 0; i < offerCount; i++) {
+            offers.add(CheapestOffer.builder()
+                    .skuLocationId(in.readLong())
+                    .productId(in.readLong())
+                    .platformId(in.readLong())
+                    .city(cities[in.readInt()])
+                    .sellingPrice(readDecimal(in))
+                    .discount(readDecimal(in))
+                    .availability(AVAILABILITIES[in.readByte()])
+                    .capturedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()))
+                    .build());
+        }
+
+        int productCount = in.readInt();
+        List<ProductSummary> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(new ProductSummary(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF()));
+        }
+
+        return new WarmSnapshot(writtenAt, watermark, offers, products);
+    }
+
+    // Scale byte -1 marks null; unscaled values are length-prefixed two's complement
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        out.writeByte(value.scale());
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        if (scale == -1) {
+            return null;
+        }
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
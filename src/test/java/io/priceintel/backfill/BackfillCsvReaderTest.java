@@ -0,0 +1,31 @@
+package io.priceintel.backfill;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackfillCsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsEmptyFieldsAndMixedLineEndings() throws IOException {
+        BackfillCsvReader reader = new BackfillCsvReader(new StringReader(
+                "a,b,c\r\n\"Amul, \"\"Gold\"\"\",,\"two\nlines\"\n\nx,y,z"));
+
+        assertThat(reader.next()).containsExactly("a", "b", "c");
+        assertThat(reader.next()).containsExactly("Amul, \"Gold\"", "", "two\nlines");
+        assertThat(reader.next()).containsExactly("x", "y", "z");
+        assertThat(reader.getRecordNumber()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() throws IOException {
+        BackfillCsvReader reader = new BackfillCsvReader(new StringReader("\"open,field\n"));
+
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package io.priceintel.backfill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end backfill throughput against the configured Postgres: 2M generated rows over 2,000
+ * SKUs, rolled back afterwards. Not part of the normal build; run with
+ * {@code mvn test -Dtest=BackfillImportBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BackfillImportBenchmark {
+
+    private static final int ROWS = 2_000_000;
+    private static final int SKUS = 2_000;
+
+    @Autowired
+    private BackfillImportService backfillImportService;
+
+    @Test
+    void importTwoMillionRows() throws IOException {
+        BackfillProgress progress = backfillImportService.start();
+
+        long start = System.nanoTime();
+        backfillImportService.importCsv(progress, new GeneratedCsv(ROWS, SKUS));
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        System.out.printf("Backfilled %,d rows in %,d ms: %,d rows/s (inserted %,d, duplicates %,d)%n",
+                ROWS, millis, ROWS * 1000L / millis, progress.getRowsInserted(), progress.getDuplicatesSkipped());
+        assertThat(progress.getPhase()).isEqualTo(BackfillPhase.COMPLETED);
+        assertThat(progress.getRowsStaged().get()).isEqualTo(ROWS);
+    }
+
+    /**
+     * Generates the CSV on the fly, so the benchmark itself needs no memory for the input. Every
+     * SKU gets a row per 10 minutes; the price changes every fourth row, so most rows are duplicates.
+     */
+    private static final class GeneratedCsv extends InputStream {
+
+        private static final Instant START = Instant.parse("2023-01-01T00:00:00Z");
+
+        private final int rows;
+        private final int skus;
+        private int row = -1;
+        private byte[] line = (String.join(",", BackfillImportService.COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private GeneratedCsv(int rows, int skus) {
+            this.rows = rows;
+            this.skus = skus;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (++row == rows) {
+                    return -1;
+                }
+                line = nextLine().getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                int b = read();
+                if (b < 0) {
+                    return count == 0 ? -1 : count;
+                }
+                buffer[offset + count++] = (byte) b;
+            }
+            return count;
+        }
+
+        private String nextLine() {
+            int sku = row % skus;
+            int step = row / skus;
+            return "benchmark-platform,Benchmark Brand,Product " + sku + ",1kg,bangalore,https://example.com/" + sku
+                    + "," + (100 + (step / 4) % 50) + ".00,,IN_STOCK,SUCCESS," + START.plusSeconds(600L * step) + "\n";
+        }
+    }
+}
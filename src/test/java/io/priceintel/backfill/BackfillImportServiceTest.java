@@ -0,0 +1,58 @@
+package io.priceintel.backfill;
+
+import io.priceintel.repository.BackfillJdbcRepository;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BackfillImportServiceTest {
+
+    @Test
+    void rejectsShortRowsAgainstTheWidestColumnReadAndTrimsNames() throws Exception {
+        ByteArrayOutputStream staged = new ByteArrayOutputStream();
+        ByteArrayOutputStream keys = new ByteArrayOutputStream();
+        BackfillJdbcRepository backfillJdbcRepository = mock(BackfillJdbcRepository.class);
+        when(backfillJdbcRepository.copyIntoStaging(any())).thenAnswer(invocation -> {
+            invocation.<BackfillJdbcRepository.CopyWriter>getArgument(0).write(staged);
+            return 0L;
+        });
+        BackfillDimensionService backfillDimensionService = mock(BackfillDimensionService.class);
+        when(backfillDimensionService.resolve(any())).thenAnswer(invocation -> {
+            invocation.<BackfillJdbcRepository.CopyWriter>getArgument(0).write(keys);
+            return new BackfillJdbcRepository.ResolvedSkuKeys(Map.of(1, 10L), List.of());
+        });
+        when(backfillJdbcRepository.mergeStagedSnapshots()).thenReturn(1L);
+        BackfillImportService service = new BackfillImportService(backfillJdbcRepository, backfillDimensionService,
+                mock(PriceSnapshotJdbcRepository.class), new BackfillProperties(), mock(ApplicationEventPublisher.class));
+
+        // Two extra columns, with captured_at last: a row of 11 fields passes a fixed 11-column check
+        // but has no captured_at
+        String csv = "source,platform_name,brand_name,product_name,pack_size,city,product_url,"
+                + "selling_price,discount,availability,crawl_status,note,captured_at\n"
+                + "feed,Blinkit, Amul , Gold Milk ,500ml ,Bangalore,https://example.com/1,"
+                + "32.00,,IN_STOCK,SUCCESS,,2025-01-01T00:00:00Z\n"
+                + "feed,Blinkit,Amul,Gold Milk,500ml,Bangalore,https://example.com/1,32.00,,IN_STOCK,SUCCESS\n";
+
+        BackfillProgress progress = service.start();
+        service.importCsv(progress, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(progress.getPhase()).isEqualTo(BackfillPhase.COMPLETED);
+        assertThat(progress.getRowsStaged()).hasValue(1);
+        assertThat(progress.getRowsRejected()).hasValue(1);
+        assertThat(progress.getRejections()).containsExactly("record 3: expected 13 columns, found 11");
+        assertThat(progress.getSkuLocations()).isEqualTo(1);
+        assertThat(keys.toString(StandardCharsets.UTF_8))
+                .isEqualTo("1,\"Blinkit\",\"Amul\",\"Gold Milk\",\"500ml\",\"bangalore\",\"https://example.com/1\"\n");
+    }
+}
@@ -0,0 +1,42 @@
+package io.priceintel.backfill;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class BackfillMergeSqlTest {
+
+    // Far outside any real data. The test platform, product and SKU location are committed by the
+    // resolve transaction and survive the rollback; only the snapshots are rolled back
+    private static final Instant START = Instant.parse("2003-01-01T00:00:00Z");
+
+    @Autowired
+    private BackfillImportService backfillImportService;
+
+    @Test
+    void unchangedPriceKeepsARowPerWindowAfterTheLastKeptOne() throws IOException {
+        // Every 15 minutes for 90 minutes: kept at 0, 45 and 90 like live ingest, the price change at 105 too
+        StringBuilder csv = new StringBuilder(String.join(",", BackfillImportService.COLUMNS)).append('\n');
+        for (int step = 0; step <= 7; step++) {
+            String price = step == 7 ? "95.00" : "100.00";
+            csv.append("merge-test-platform,Merge Test Brand,Merge Test Product,1kg,mergecity,https://example.com/merge,")
+                    .append(price).append(",,IN_STOCK,SUCCESS,").append(START.plusSeconds(900L * step)).append('\n');
+        }
+
+        BackfillProgress progress = backfillImportService.importCsv(backfillImportService.start(),
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(progress.getRowsInserted()).isEqualTo(4);
+        assertThat(progress.getDuplicatesSkipped()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,110 @@
+package io.priceintel.basket;
+
+import io.priceintel.repository.BasketIndexJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One full basket index recompute over 100k active SKUs (1,000 products x 5 platforms x 20
+ * cities, three snapshots each) against the configured Postgres, rolled back afterwards. Checks
+ * it fits in one crawl cycle ({@code max-compute-ms}). Not part of the normal build; run with
+ * {@code mvn test -Dtest=BasketIndexBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BasketIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int PLATFORMS = 5;
+    private static final int CITIES = 20;
+    private static final int BASKETS = 10;
+
+    @Autowired
+    private BasketIndexJdbcRepository basketIndexJdbcRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recomputeOneHundredThousandSkus() {
+        long seedStart = System.nanoTime();
+        List<Long> productIds = seed();
+        long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+
+        BasketIndexProperties properties = new BasketIndexProperties();
+        properties.setBaskets(baskets(productIds));
+        BasketIndexService service = new BasketIndexService(properties, basketIndexJdbcRepository);
+
+        long start = System.nanoTime();
+        service.recompute();
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM basket_price_index WHERE basket LIKE 'bench-%' AND day = ?",
+                Integer.class, LocalDate.now(ZoneOffset.UTC));
+        System.out.printf("Recomputed %d basket(s) over %,d SKUs in %,d ms (budget %,d ms, seeding took %,d ms)%n",
+                BASKETS, PRODUCTS * PLATFORMS * CITIES, millis, properties.getMaxComputeMs(), seedMillis);
+        assertThat(rows).isEqualTo(BASKETS * PLATFORMS * CITIES);
+        assertThat(millis).isLessThan(properties.getMaxComputeMs());
+    }
+
+    // Every tenth snapshot is out of stock, so some SKUs count as unpriced
+    private List<Long> seed() {
+        jdbcTemplate.update("""
+                INSERT INTO products (brand_name, product_name, pack_size, created_at)
+                SELECT 'bench-brand', 'bench-product-' || g, '1kg', now() FROM generate_series(1, ?) g
+                """, PRODUCTS);
+        jdbcTemplate.update("""
+                INSERT INTO platforms (name, created_at)
+                SELECT 'bench-platform-' || g, now() FROM generate_series(1, ?) g
+                """, PLATFORMS);
+        jdbcTemplate.update("""
+                INSERT INTO sku_locations (product_id, platform_id, city, product_url, is_active, created_at)
+                SELECT p.id, pl.id, 'bench-city-' || c, 'https://example.com/' || p.id || '/' || pl.id || '/' || c, true, now()
+                FROM products p
+                CROSS JOIN platforms pl
+                CROSS JOIN generate_series(1, ?) c
+                WHERE p.brand_name = 'bench-brand' AND pl.name LIKE 'bench-platform-%'
+                """, CITIES);
+        jdbcTemplate.update("""
+                INSERT INTO price_snapshots (sku_location_id, selling_price, availability, crawl_status, captured_at)
+                SELECT sl.id, 20 + (sl.id + s) % 200,
+                       CASE WHEN (sl.id + s) % 10 = 0 THEN 'OUT_OF_STOCK' ELSE 'IN_STOCK' END, 'SUCCESS',
+                       now() - s * interval '10 minutes'
+                FROM sku_locations sl
+                CROSS JOIN generate_series(0, 2) s
+                WHERE sl.city LIKE 'bench-city-%'
+                """);
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE brand_name = 'bench-brand' ORDER BY id", Long.class);
+    }
+
+    private static List<BasketIndexProperties.Basket> baskets(List<Long> productIds) {
+        List<BasketIndexProperties.Basket> baskets = new ArrayList<>();
+        int perBasket = productIds.size() / BASKETS;
+        for (int b = 0; b < BASKETS; b++) {
+            BasketIndexProperties.Basket basket = new BasketIndexProperties.Basket();
+            basket.setName("bench-" + b);
+            for (Long productId : productIds.subList(b * perBasket, (b + 1) * perBasket)) {
+                BasketIndexProperties.Item item = new BasketIndexProperties.Item();
+                item.setProductId(productId);
+                item.setQuantity(BigDecimal.valueOf(1 + productId % 3));
+                basket.getItems().add(item);
+            }
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+}
@@ -0,0 +1,107 @@
+package io.priceintel.basket;
+
+import io.priceintel.dto.BasketIndexRecord;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BasketIndexComputationTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void pricesTheBasketPerCityAndPlatformAtBase100() {
+        BasketIndexComputation computation = new BasketIndexComputation(List.of(basket("staples", 1, 2, 2, 1)));
+        computation.addPrice("pune", 10, 1, 50.0);
+        computation.addPrice("pune", 10, 2, 30.0);
+        computation.addPrice("pune", 20, 1, 55.0);
+        computation.addPrice("delhi", 10, 2, 28.0);
+        computation.addPrice("delhi", 10, 99, 1.0);
+
+        List<BasketIndexRecord> records = computation.compute(ForkJoinPool.commonPool(), DAY_1);
+
+        assertThat(records).hasSize(3);
+        BasketIndexRecord punePlatform10 = find(records, "pune", 10);
+        assertThat(punePlatform10.getBasketCost()).isEqualByComparingTo("130.00");
+        assertThat(punePlatform10.getItemsPriced()).isEqualTo(2);
+        assertThat(punePlatform10.getItemsTotal()).isEqualTo(2);
+        assertThat(punePlatform10.getIndexValue()).isEqualByComparingTo("100");
+        assertThat(find(records, "pune", 20).getItemsPriced()).isEqualTo(1);
+        assertThat(find(records, "delhi", 10).getBasketCost()).isEqualByComparingTo("28.00");
+    }
+
+    @Test
+    void chainLinksOnItemsPricedOnBothDays() {
+        List<BasketIndexProperties.Basket> baskets = List.of(basket("staples", 1, 1, 2, 1, 3, 1));
+
+        BasketIndexComputation first = new BasketIndexComputation(baskets);
+        first.addPrice("pune", 10, 1, 100.0);
+        first.addPrice("pune", 10, 2, 100.0);
+        BasketIndexRecord day1 = first.compute(ForkJoinPool.commonPool(), DAY_1).get(0);
+
+        BasketIndexComputation second = new BasketIndexComputation(baskets);
+        second.addPrice("pune", 10, 1, 110.0);
+        second.addPrice("pune", 10, 2, 100.0);
+        // Newly listed item raises the cost but not the index
+        second.addPrice("pune", 10, 3, 500.0);
+        second.addPrevious(day1);
+        BasketIndexRecord day2 = second.compute(ForkJoinPool.commonPool(), DAY_2).get(0);
+
+        assertThat(day2.getBasketCost()).isEqualByComparingTo("710.00");
+        assertThat(day2.getItemsPriced()).isEqualTo(3);
+        assertThat(day2.getIndexValue()).isEqualByComparingTo("105.0000");
+        assertThat(day2.getProductIds()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void splitsLargeBasketsAcrossManyCities() {
+        int products = 1_000;
+        int[] items = new int[products * 2];
+        for (int i = 0; i < products; i++) {
+            items[2 * i] = i + 1;
+            items[2 * i + 1] = 1;
+        }
+        BasketIndexComputation computation = new BasketIndexComputation(List.of(basket("all", items)));
+        for (int city = 0; city < 50; city++) {
+            for (int platform = 1; platform <= 2; platform++) {
+                for (int product = 1; product <= products; product++) {
+                    computation.addPrice("city-" + city, platform, product, platform);
+                }
+            }
+        }
+
+        List<BasketIndexRecord> records = computation.compute(new ForkJoinPool(4), DAY_1);
+
+        assertThat(records).hasSize(100);
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.getItemsPriced()).isEqualTo(products);
+            assertThat(record.getBasketCost()).isEqualByComparingTo(BigDecimal.valueOf(products * record.getPlatformId()));
+        });
+    }
+
+    private static BasketIndexRecord find(List<BasketIndexRecord> records, String city, long platformId) {
+        return records.stream()
+                .filter(r -> r.getCity().equals(city) && r.getPlatformId() == platformId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // productId, quantity pairs
+    private static BasketIndexProperties.Basket basket(String name, int... items) {
+        BasketIndexProperties.Basket basket = new BasketIndexProperties.Basket();
+        basket.setName(name);
+        for (int i = 0; i < items.length; i += 2) {
+            BasketIndexProperties.Item item = new BasketIndexProperties.Item();
+            item.setProductId((long) items[i]);
+            item.setQuantity(BigDecimal.valueOf(items[i + 1]));
+            basket.getItems().add(item);
+        }
+        return basket;
+    }
+}
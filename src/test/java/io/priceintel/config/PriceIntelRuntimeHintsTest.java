@@ -0,0 +1,27 @@
+package io.priceintel.config;
+
+import io.priceintel.crawler.dto.IngestionRequest;
+import io.priceintel.dto.response.ProductPageResponse;
+import io.priceintel.entity.PriceSnapshot;
+import io.priceintel.enums.Availability;
+import io.priceintel.exception.ApiErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceIntelRuntimeHintsTest {
+
+    @Test
+    void registersBindingHintsForEntitiesAndDtos() {
+        RuntimeHints hints = new RuntimeHints();
+        new PriceIntelRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(PriceSnapshot.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Availability.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ProductPageResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(IngestionRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ApiErrorResponse.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,69 @@
+package io.priceintel.observability;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlStatementCountingDataSourceTest {
+
+    @Test
+    void countsStatementsAndRowsInsideOpenScope() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement query = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(query);
+        when(query.executeQuery()).thenReturn(resultSet);
+        when(query.executeUpdate()).thenReturn(3);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        DataSource dataSource = new SqlStatementCountingDataSource(target);
+
+        try (SqlStatementScope scope = SqlStatementTracker.open("test")) {
+            try (Connection conn = dataSource.getConnection()) {
+                PreparedStatement select = conn.prepareStatement("select 1");
+                ResultSet rs = select.executeQuery();
+                while (rs.next()) {
+                    // drain
+                }
+                conn.prepareStatement("update x").executeUpdate();
+            }
+
+            assertThat(scope.getStats().getStatementCount()).isEqualTo(2);
+            assertThat(scope.getStats().getRowCount()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void nestedScopesBothReceiveStatements() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        DataSource dataSource = new SqlStatementCountingDataSource(target);
+
+        try (SqlStatementScope outer = SqlStatementTracker.open("outer")) {
+            dataSource.getConnection().prepareStatement("select 1").execute();
+
+            try (SqlStatementScope inner = SqlStatementTracker.open("inner")) {
+                dataSource.getConnection().prepareStatement("select 2").execute();
+                assertThat(inner.getStats().getStatementCount()).isEqualTo(1);
+            }
+
+            assertThat(outer.getStats().getStatementCount()).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.AlertRuleDefinition;
+import io.priceintel.enums.AlertRuleType;
+import io.priceintel.enums.Availability;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluation throughput with 1M active rules. Not part of the normal build; run with
+ * {@code mvn test -Dtest=AlertRuleIndexBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AlertRuleIndexBenchmark {
+
+    private static final int RULES = 1_000_000;
+    private static final int SKUS = 100_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int EVENTS = 2_000_000;
+
+    @Test
+    void evaluateWithOneMillionRules() {
+        SplittableRandom random = new SplittableRandom(42);
+        AlertRuleIndex index = new AlertRuleIndex();
+
+        long loadStart = System.nanoTime();
+        List<AlertRuleDefinition> batch = new ArrayList<>();
+        for (long id = 1; id <= RULES; id++) {
+            int kind = random.nextInt(10);
+            AlertRuleDefinition.AlertRuleDefinitionBuilder rule = AlertRuleDefinition.builder().id(id);
+            if (kind < 7) {
+                rule.ruleType(AlertRuleType.PRICE_BELOW)
+                        .skuLocationId((long) random.nextInt(SKUS))
+                        .thresholdPrice(BigDecimal.valueOf(random.nextInt(10_000, 50_000), 2));
+            } else if (kind < 9) {
+                rule.ruleType(AlertRuleType.PRICE_DROP_PERCENT)
+                        .productId((long) random.nextInt(PRODUCTS))
+                        .city(random.nextBoolean() ? "Bangalore" : null)
+                        .dropPercent(BigDecimal.valueOf(random.nextInt(1, 50)));
+            } else {
+                rule.ruleType(AlertRuleType.BACK_IN_STOCK).skuLocationId((long) random.nextInt(SKUS));
+            }
+            batch.add(rule.build());
+            if (batch.size() == 10_000) {
+                index.addAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        index.addAll(batch);
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+        assertThat(index.size()).isEqualTo(RULES);
+
+        PriceSnapshotRecordedEvent[] events = new PriceSnapshotRecordedEvent[10_000];
+        for (int i = 0; i < events.length; i++) {
+            long sku = random.nextInt(SKUS);
+            events[i] = PriceSnapshotRecordedEvent.builder()
+                    .snapshotId((long) i)
+                    .skuLocationId(sku)
+                    .productId(sku % PRODUCTS)
+                    .city(random.nextBoolean() ? "Bangalore" : "Mumbai")
+                    .sellingPrice(BigDecimal.valueOf(random.nextInt(10_000, 50_000), 2))
+                    .previousSellingPrice(BigDecimal.valueOf(random.nextInt(10_000, 50_000), 2))
+                    .availability(Availability.IN_STOCK)
+                    .previousAvailability(random.nextInt(10) == 0 ? Availability.OUT_OF_STOCK : Availability.IN_STOCK)
+                    .capturedAt(Instant.now())
+                    .build();
+        }
+
+        // Warm-up
+        for (int i = 0; i < EVENTS / 4; i++) {
+            index.evaluate(events[i % events.length]);
+        }
+
+        long fired = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            fired += index.evaluate(events[i % events.length]).size();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.printf("Alert index: %,d rules loaded in %,d ms; %,d evaluations in %,d ms (%,.0f evals/sec, %.2f alerts/eval)%n",
+                RULES, loadMillis, EVENTS, elapsedNanos / 1_000_000,
+                EVENTS / (elapsedNanos / 1e9), (double) fired / EVENTS);
+    }
+}
@@ -0,0 +1,95 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.AlertMatch;
+import io.priceintel.dto.AlertRuleDefinition;
+import io.priceintel.enums.AlertRuleType;
+import io.priceintel.enums.Availability;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertRuleIndexTest {
+
+    @Test
+    void priceBelowFiresOnlyForThresholdsCrossedByTheMove() {
+        AlertRuleIndex index = new AlertRuleIndex();
+        index.addAll(List.of(
+                priceBelow(1L, 7L, "240.00"),
+                priceBelow(2L, 7L, "250.00"),
+                priceBelow(3L, 7L, "200.00"),
+                priceBelow(4L, 8L, "500.00")));
+
+        // 260 -> 245 crosses 250 only
+        assertThat(ruleIds(index.evaluate(event(7L, "245.00", "260.00", Availability.IN_STOCK, Availability.IN_STOCK))))
+                .containsExactly(2L);
+        // Staying below the thresholds does not fire again
+        assertThat(index.evaluate(event(7L, "230.00", "230.00", Availability.IN_STOCK, Availability.IN_STOCK)))
+                .isEmpty();
+        // First snapshot fires every threshold above the price
+        assertThat(ruleIds(index.evaluate(event(7L, "239.00", null, Availability.IN_STOCK, null))))
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void percentDropFiltersByCityAndBackInStockFiresOnTransition() {
+        AlertRuleIndex index = new AlertRuleIndex();
+        index.addAll(List.of(
+                percentDrop(10L, 100L, null, "10"),
+                percentDrop(11L, 100L, "Bangalore", "5"),
+                percentDrop(12L, 100L, "Mumbai", "5"),
+                percentDrop(13L, 100L, null, "20"),
+                AlertRuleDefinition.builder().id(14L).ruleType(AlertRuleType.BACK_IN_STOCK).skuLocationId(7L).build()));
+
+        // 200 -> 178 is an 11% drop in bangalore, and the SKU came back in stock
+        List<AlertMatch> matches = index.evaluate(event(7L, "178.00", "200.00", Availability.IN_STOCK, Availability.OUT_OF_STOCK));
+
+        assertThat(ruleIds(matches)).containsExactlyInAnyOrder(10L, 11L, 14L);
+        assertThat(index.size()).isEqualTo(5);
+
+        index.remove(percentDrop(10L, 100L, null, "10"));
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    private static List<Long> ruleIds(List<AlertMatch> matches) {
+        return matches.stream().map(AlertMatch::getRuleId).toList();
+    }
+
+    private static AlertRuleDefinition priceBelow(Long id, Long skuId, String threshold) {
+        return AlertRuleDefinition.builder()
+                .id(id)
+                .ruleType(AlertRuleType.PRICE_BELOW)
+                .skuLocationId(skuId)
+                .thresholdPrice(new BigDecimal(threshold))
+                .build();
+    }
+
+    private static AlertRuleDefinition percentDrop(Long id, Long productId, String city, String percent) {
+        return AlertRuleDefinition.builder()
+                .id(id)
+                .ruleType(AlertRuleType.PRICE_DROP_PERCENT)
+                .productId(productId)
+                .city(city)
+                .dropPercent(new BigDecimal(percent))
+                .build();
+    }
+
+    static PriceSnapshotRecordedEvent event(Long skuId, String price, String previousPrice,
+                                            Availability availability, Availability previousAvailability) {
+        return PriceSnapshotRecordedEvent.builder()
+                .snapshotId(1L)
+                .skuLocationId(skuId)
+                .productId(100L)
+                .city("bangalore")
+                .sellingPrice(new BigDecimal(price))
+                .previousSellingPrice(previousPrice != null ? new BigDecimal(previousPrice) : null)
+                .availability(availability)
+                .previousAvailability(previousAvailability)
+                .capturedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.enums.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheapestOfferIndexTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void tracksCheapestInStockOfferThroughUpdatesAndRemovals() {
+        CheapestOfferIndex index = new CheapestOfferIndex();
+        index.apply(offer(1L, "bangalore", "100.00", Availability.IN_STOCK, T0));
+        index.apply(offer(2L, "bangalore", "90.00", Availability.IN_STOCK, T0));
+        index.apply(offer(3L, "mumbai", "80.00", Availability.IN_STOCK, T0));
+
+        assertThat(index.getCheapest(7L, "Bangalore")).get().extracting(CheapestOffer::getSkuLocationId).isEqualTo(2L);
+        assertThat(index.getCheapest(7L, null)).get().extracting(CheapestOffer::getSkuLocationId).isEqualTo(3L);
+
+        // SKU 2 goes out of stock; an older, cheaper row arriving late is ignored
+        index.apply(offer(2L, "bangalore", "85.00", Availability.OUT_OF_STOCK, T0.plusSeconds(60)));
+        index.apply(offer(2L, "bangalore", "10.00", Availability.IN_STOCK, T0.minusSeconds(60)));
+        assertThat(index.getCheapest(7L, "bangalore")).get().extracting(CheapestOffer::getSkuLocationId).isEqualTo(1L);
+        assertThat(index.countInStock(7L, "bangalore")).isEqualTo(1);
+
+        index.remove(1L, 7L, "bangalore");
+        assertThat(index.getCheapest(7L, "bangalore")).isEmpty();
+    }
+
+    @Test
+    void removedSkuStaysOutUntilReactivated() {
+        CheapestOfferIndex index = new CheapestOfferIndex();
+        index.apply(offer(1L, "bangalore", "100.00", Availability.IN_STOCK, T0));
+
+        // A rebuild row read before the deactivation lands after it
+        index.remove(1L, 7L, "bangalore");
+        index.apply(offer(1L, "bangalore", "100.00", Availability.IN_STOCK, T0));
+        index.remove(2L, 7L, "bangalore");
+        index.apply(offer(2L, "bangalore", "90.00", Availability.IN_STOCK, T0));
+        assertThat(index.getCheapest(7L, "bangalore")).isEmpty();
+
+        index.reactivate(1L, 7L, "Bangalore");
+        index.apply(offer(1L, "bangalore", "95.00", Availability.IN_STOCK, T0.plusSeconds(60)));
+        index.apply(offer(2L, "bangalore", "90.00", Availability.IN_STOCK, T0.plusSeconds(60)));
+        assertThat(index.getCheapest(7L, "bangalore")).get().extracting(CheapestOffer::getSkuLocationId).isEqualTo(1L);
+    }
+
+    private static CheapestOffer offer(Long skuId, String city, String price, Availability availability, Instant capturedAt) {
+        return CheapestOffer.builder()
+                .skuLocationId(skuId)
+                .productId(7L)
+                .platformId(skuId)
+                .city(city)
+                .sellingPrice(new BigDecimal(price))
+                .availability(availability)
+                .capturedAt(capturedAt)
+                .build();
+    }
+}
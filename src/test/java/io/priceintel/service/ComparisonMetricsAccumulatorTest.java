@@ -0,0 +1,45 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.SkuComparisonItem;
+import io.priceintel.enums.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComparisonMetricsAccumulatorTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void tracksMetricsAcrossChunksAndPrefersNewestCaptureOnTies() {
+        ComparisonMetricsAccumulator metrics = new ComparisonMetricsAccumulator();
+
+        // First chunk
+        metrics.accept(item(1L, "100.00", Availability.OUT_OF_STOCK, NOW));
+        metrics.accept(item(2L, "150.00", Availability.IN_STOCK, NOW));
+        // Second chunk: ties the minimum with a newer capture, and the best value
+        metrics.accept(item(3L, "100.00", Availability.OUT_OF_STOCK, NOW.plusSeconds(60)));
+        metrics.accept(item(4L, "120.00", Availability.IN_STOCK, NOW));
+        metrics.accept(item(5L, "120.00", Availability.IN_STOCK, NOW.plusSeconds(60)));
+
+        // Ties go to the newer capture, the same item assignRankings puts first
+        assertThat(metrics.getCount()).isEqualTo(5);
+        assertThat(metrics.getCheapestSkuId()).isEqualTo(3L);
+        assertThat(metrics.getMostExpensiveSkuId()).isEqualTo(2L);
+        assertThat(metrics.getBestValueSkuId()).isEqualTo(5L);
+        assertThat(metrics.getPriceSpread()).isEqualByComparingTo("50.00");
+        assertThat(metrics.getPercentageDifference()).isEqualByComparingTo("50.00");
+    }
+
+    private static SkuComparisonItem item(Long skuId, String price, Availability availability, Instant capturedAt) {
+        return SkuComparisonItem.builder()
+                .skuId(skuId)
+                .price(new BigDecimal(price))
+                .availability(availability)
+                .capturedAt(capturedAt)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.response.HistoryMatrixColumn;
+import io.priceintel.enums.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryMatrixAccumulatorTest {
+
+    private static final Instant START = Instant.parse("2026-03-01T00:00:00Z");
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    void bucketsAndForwardFillsEachSkuOnTheSameAxis() {
+        HistoryMatrixAccumulator matrix = new HistoryMatrixAccumulator(START, HOUR, 4, 10);
+        // Time-ordered, as the scan delivers them
+        matrix.accept(2, 20, "pune", price(90), Availability.IN_STOCK, START.minusSeconds(600));
+        matrix.accept(1, 10, "pune", price(100), Availability.IN_STOCK, START.plusSeconds(60));
+        matrix.accept(1, 10, "pune", price(95), Availability.OUT_OF_STOCK, START.plusSeconds(1800));
+        matrix.accept(2, 20, "pune", price(92), Availability.IN_STOCK, START.plusSeconds(2 * 3600 + 5));
+
+        List<HistoryMatrixColumn> columns = matrix.toColumns();
+
+        assertThat(matrix.bucketStarts()).containsExactly(
+                START, START.plusSeconds(3600), START.plusSeconds(7200), START.plusSeconds(10800));
+        assertThat(columns).extracting(HistoryMatrixColumn::getSkuId).containsExactly(1L, 2L);
+        assertThat(columns.get(0).getSellingPrice()).containsExactly(price(95), price(95), price(95), price(95));
+        assertThat(columns.get(0).getAvailability()).containsOnly(Availability.OUT_OF_STOCK);
+        // Seeded from before the axis, then moves in bucket 2
+        assertThat(columns.get(1).getSellingPrice()).containsExactly(price(90), price(90), price(92), price(92));
+    }
+
+    @Test
+    void leavesBucketsBeforeTheFirstSnapshotEmpty() {
+        HistoryMatrixAccumulator matrix = new HistoryMatrixAccumulator(START, HOUR, 3, 10);
+        matrix.accept(1, 10, "pune", price(100), Availability.IN_STOCK, START.plusSeconds(3600));
+
+        assertThat(matrix.toColumns().get(0).getSellingPrice()).isEqualTo(Arrays.asList(null, price(100), price(100)));
+    }
+
+    @Test
+    void rejectsMoreSkusThanAllowed() {
+        HistoryMatrixAccumulator matrix = new HistoryMatrixAccumulator(START, HOUR, 3, 1);
+        matrix.accept(1, 10, "pune", price(100), Availability.IN_STOCK, START);
+
+        assertThatThrownBy(() -> matrix.accept(2, 10, "delhi", price(100), Availability.IN_STOCK, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BigDecimal price(int value) {
+        return BigDecimal.valueOf(value);
+    }
+}
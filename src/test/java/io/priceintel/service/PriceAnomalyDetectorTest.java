@@ -0,0 +1,117 @@
+package io.priceintel.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.priceintel.enums.AnomalyAction;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceAnomalyDetectorTest {
+
+    private final PriceAnomalyProperties properties = new PriceAnomalyProperties();
+    private final PriceSnapshotJdbcRepository repository = mock(PriceSnapshotJdbcRepository.class);
+    private final PriceAnomalyDetector detector =
+            new PriceAnomalyDetector(properties, repository, new SimpleMeterRegistry());
+
+    @Test
+    void quarantinesAPriceFarOffTheSkusHistory() {
+        observe(1L, 100, 101, 99, 100, 102, 98, 100);
+
+        PriceAnomalyDetector.Verdict verdict = detector.evaluate(1L, 10_000);
+
+        assertThat(verdict.isOutlier()).isTrue();
+        assertThat(verdict.isQuarantine()).isTrue();
+        assertThat(verdict.getExpectedPrice()).isBetween(99.0, 101.0);
+        assertThat(detector.evaluate(1L, 103).isOutlier()).isFalse();
+    }
+
+    @Test
+    void neverFlagsBeforeMinSamplesOrARealisticSale() {
+        observe(2L, 100, 100, 100);
+        assertThat(detector.evaluate(2L, 10_000).isOutlier()).isFalse();
+
+        // Flat history has zero variance; a 40% sale is still below the relative floor
+        observe(2L, 100, 100, 100);
+        assertThat(detector.evaluate(2L, 60).isOutlier()).isFalse();
+        assertThat(detector.evaluate(2L, 40).isOutlier()).isTrue();
+    }
+
+    @Test
+    void acceptsARepeatedOutlierAsANewPriceLevel() {
+        observe(3L, 100, 100, 100, 100, 100);
+
+        for (int i = 1; i < properties.getLevelShiftAfter(); i++) {
+            PriceAnomalyDetector.Verdict verdict = detector.evaluate(3L, 500);
+            assertThat(verdict.isQuarantine()).isTrue();
+            detector.observe(3L, 500);
+        }
+        PriceAnomalyDetector.Verdict shift = detector.evaluate(3L, 505);
+        assertThat(shift.isLevelShift()).isTrue();
+        assertThat(shift.isQuarantine()).isFalse();
+
+        detector.observe(3L, 505);
+        assertThat(detector.evaluate(3L, 500).isOutlier()).isFalse();
+    }
+
+    @Test
+    void monitorModeFlagsWithoutQuarantining() {
+        properties.setAction(AnomalyAction.MONITOR);
+        observe(4L, 50, 50, 51, 49, 50);
+
+        PriceAnomalyDetector.Verdict verdict = detector.evaluate(4L, 5_000);
+
+        assertThat(verdict.isOutlier()).isTrue();
+        assertThat(verdict.isQuarantine()).isFalse();
+    }
+
+    @Test
+    void keepsStateForManySkusAcrossResizes() {
+        for (long sku = 1; sku <= 50_000; sku++) {
+            observe(sku, 10, 10, 10, 10, 10);
+        }
+
+        assertThat(detector.size()).isEqualTo(50_000);
+        assertThat(detector.evaluate(12_345L, 1_000).isQuarantine()).isTrue();
+        assertThat(detector.evaluate(12_345L, 10).isOutlier()).isFalse();
+    }
+
+    @Test
+    void seedsAnUnseenSkuFromItsStoredHistory() {
+        // Newest first, as stored; the 900 glitch among them is kept out of the mean
+        when(repository.findRecentPrices(5L, properties.getSeedSnapshots()))
+                .thenReturn(prices("100", "101", "900", "99", "100", "102", "98", "100"));
+
+        PriceAnomalyDetector.Verdict verdict = detector.evaluate(5L, 10_000);
+
+        assertThat(verdict.isQuarantine()).isTrue();
+        assertThat(verdict.getExpectedPrice()).isBetween(99.0, 101.0);
+        assertThat(detector.evaluate(5L, 100).isOutlier()).isFalse();
+        verify(repository, times(1)).findRecentPrices(5L, properties.getSeedSnapshots());
+    }
+
+    @Test
+    void skuWithTooLittleHistoryIsNotFlaggedAfterSeeding() {
+        when(repository.findRecentPrices(6L, properties.getSeedSnapshots())).thenReturn(prices("100", "100"));
+
+        assertThat(detector.evaluate(6L, 10_000).isOutlier()).isFalse();
+    }
+
+    private static List<BigDecimal> prices(String... values) {
+        return Arrays.stream(values).map(BigDecimal::new).toList();
+    }
+
+    private void observe(long skuLocationId, double... prices) {
+        for (double price : prices) {
+            detector.observe(skuLocationId, price);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.response.HistoryMatrixColumn;
+import io.priceintel.dto.response.PriceHistoryMatrixResponse;
+import io.priceintel.entity.Platform;
+import io.priceintel.entity.PriceSnapshot;
+import io.priceintel.entity.Product;
+import io.priceintel.entity.SkuLocation;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.observability.SqlStatementScope;
+import io.priceintel.observability.SqlStatementTracker;
+import io.priceintel.repository.PlatformRepository;
+import io.priceintel.repository.PriceSnapshotRepository;
+import io.priceintel.repository.ProductRepository;
+import io.priceintel.repository.SkuLocationRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class PriceHistoryMatrixSqlTest {
+
+    // Far outside any real data; with 1h buckets the axis is 00:00, 01:00 and 02:00
+    private static final Instant START = Instant.parse("2002-01-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2002-01-01T02:30:00Z");
+
+    @Autowired
+    private PriceHistoryMatrixService priceHistoryMatrixService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformRepository platformRepository;
+    @Autowired
+    private SkuLocationRepository skuLocationRepository;
+    @Autowired
+    private PriceSnapshotRepository priceSnapshotRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+    private SkuLocation seeded;
+    private SkuLocation lateStarter;
+
+    @BeforeEach
+    void seed() {
+        product = productRepository.save(Product.builder()
+                .brandName("Matrix Test Brand")
+                .productName("Matrix Test Product")
+                .packSize("1kg")
+                .createdAt(Instant.now())
+                .build());
+
+        seeded = sku("matrix-test-platform-1", "MatrixCity");
+        snapshot(seeded, "90", START.minusSeconds(600));
+        // Same capture time: the later insert (higher id) closes the bucket
+        snapshot(seeded, "100", START.plusSeconds(4200));
+        snapshot(seeded, "101", START.plusSeconds(4200));
+        // Inside the last bucket but after the requested end
+        snapshot(seeded, "500", END.plusSeconds(600));
+
+        lateStarter = sku("matrix-test-platform-2", "MatrixCity");
+        snapshot(lateStarter, "200", START.plusSeconds(1800));
+
+        SkuLocation elsewhere = sku("matrix-test-platform-3", "OtherMatrixCity");
+        snapshot(elsewhere, "300", START.plusSeconds(1800));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void seedsFiltersByCityAndStopsAtTheRequestedEndInOneStatement() {
+        try (SqlStatementScope scope = SqlStatementTracker.open("historyMatrix")) {
+            PriceHistoryMatrixResponse response =
+                    priceHistoryMatrixService.getHistoryMatrix(product.getId(), "matrixcity", "1h", START, END);
+
+            assertThat(response.getBucketCount()).isEqualTo(3);
+            assertThat(response.getColumns()).extracting(HistoryMatrixColumn::getSkuId)
+                    .containsExactlyInAnyOrder(seeded.getId(), lateStarter.getId());
+            assertThat(column(response, seeded).getSellingPrice())
+                    .usingElementComparator(BigDecimal::compareTo)
+                    .containsExactly(new BigDecimal("90"), new BigDecimal("101"), new BigDecimal("101"));
+            assertThat(column(response, lateStarter).getSellingPrice())
+                    .usingElementComparator(BigDecimal::compareTo)
+                    .containsExactly(new BigDecimal("200"), new BigDecimal("200"), new BigDecimal("200"));
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    private static HistoryMatrixColumn column(PriceHistoryMatrixResponse response, SkuLocation sku) {
+        return response.getColumns().stream().filter(c -> c.getSkuId().equals(sku.getId())).findFirst().orElseThrow();
+    }
+
+    private SkuLocation sku(String platformName, String city) {
+        Platform platform = platformRepository.save(Platform.builder()
+                .name(platformName)
+                .createdAt(Instant.now())
+                .build());
+        return skuLocationRepository.save(SkuLocation.builder()
+                .product(product)
+                .platform(platform)
+                .city(city)
+                .productUrl("https://example.com/" + platformName)
+                .isActive(true)
+                .build());
+    }
+
+    private void snapshot(SkuLocation sku, String price, Instant capturedAt) {
+        priceSnapshotRepository.save(PriceSnapshot.builder()
+                .skuLocation(sku)
+                .sellingPrice(new BigDecimal(price))
+                .availability(Availability.IN_STOCK)
+                .crawlStatus(CrawlStatus.SUCCESS)
+                .capturedAt(capturedAt)
+                .build());
+    }
+}
@@ -0,0 +1,181 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.response.CityComparisonResponse;
+import io.priceintel.entity.Platform;
+import io.priceintel.entity.PriceSnapshot;
+import io.priceintel.entity.Product;
+import io.priceintel.entity.SkuLocation;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.observability.SqlStatementScope;
+import io.priceintel.observability.SqlStatementTracker;
+import io.priceintel.repository.PlatformRepository;
+import io.priceintel.repository.PriceSnapshotRepository;
+import io.priceintel.repository.ProductRepository;
+import io.priceintel.repository.SkuLocationRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class PriceQueryServiceSqlBudgetTest {
+
+    @Autowired
+    private PriceQueryService priceQueryService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformRepository platformRepository;
+    @Autowired
+    private SkuLocationRepository skuLocationRepository;
+    @Autowired
+    private PriceSnapshotRepository priceSnapshotRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+    private List<Long> skuIds;
+
+    @BeforeEach
+    void seed() {
+        product = productRepository.save(Product.builder()
+                .brandName("Budget Test Brand")
+                .productName("Budget Test Product")
+                .packSize("1kg")
+                .createdAt(Instant.now())
+                .build());
+
+        skuIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Platform platform = platformRepository.save(Platform.builder()
+                    .name("budget-test-platform-" + i)
+                    .createdAt(Instant.now())
+                    .build());
+
+            SkuLocation sku = skuLocationRepository.save(SkuLocation.builder()
+                    .product(product)
+                    .platform(platform)
+                    .city("budgetcity")
+                    .productUrl("https://example.com/" + i)
+                    .isActive(true)
+                    .build());
+            skuIds.add(sku.getId());
+
+            for (int j = 0; j < 3; j++) {
+                priceSnapshotRepository.save(PriceSnapshot.builder()
+                        .skuLocation(sku)
+                        .sellingPrice(BigDecimal.valueOf(100 + i * 10 + j))
+                        .availability(Availability.IN_STOCK)
+                        .crawlStatus(CrawlStatus.SUCCESS)
+                        .capturedAt(Instant.now().minusSeconds(3600L * j))
+                        .build());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void compareProductIssuesAtMostTwoQueries() {
+        try (SqlStatementScope scope = SqlStatementTracker.open("compareProduct")) {
+            priceQueryService.compareProduct(product.getId(), "budgetcity", false, null, null, null, null);
+
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    void compareSkusIssuesOneQuery() {
+        try (SqlStatementScope scope = SqlStatementTracker.open("compareSkus")) {
+            priceQueryService.compareSkus(skuIds, false, null, null);
+
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void asOfComparisonsIssueOneQueryEach() {
+        // Between the j=1 (an hour ago) and j=2 (two hours ago) snapshots, so each SKU is at its j=2 price
+        Instant ninetyMinutesAgo = Instant.now().minusSeconds(5400);
+
+        try (SqlStatementScope scope = SqlStatementTracker.open("compareSkusAsOf")) {
+            var response = priceQueryService.compareSkus(skuIds, false, null, ninetyMinutesAgo);
+
+            assertThat(response.getTotalCompared()).isEqualTo(skuIds.size());
+            assertThat(response.getResults()).allSatisfy(item -> {
+                assertThat(item.getCapturedAt()).isBefore(ninetyMinutesAgo);
+                assertThat(item.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(100 + skuIds.indexOf(item.getSkuId()) * 10 + 2));
+            });
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+        try (SqlStatementScope scope = SqlStatementTracker.open("compareProductAsOf")) {
+            var response = priceQueryService.compareProduct(product.getId(), "BudgetCity", false, null, null, null, ninetyMinutesAgo);
+
+            assertThat(response.getTotalCompared()).isEqualTo(skuIds.size());
+            assertThat(response.getResults()).allSatisfy(item -> assertThat(item.getPrice())
+                    .isEqualByComparingTo(BigDecimal.valueOf(100 + skuIds.indexOf(item.getSkuId()) * 10 + 2)));
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void compareProductByCityIssuesOneQuery() {
+        Platform platform = platformRepository.save(Platform.builder()
+                .name("budget-test-platform-other")
+                .createdAt(Instant.now())
+                .build());
+        Long cheapestSkuId = seedSku(platform, "OtherCity", new BigDecimal("50"), Availability.IN_STOCK);
+        seedSku(platform, "SoldOutCity", new BigDecimal("10"), Availability.OUT_OF_STOCK);
+        entityManager.flush();
+        entityManager.clear();
+
+        try (SqlStatementScope scope = SqlStatementTracker.open("compareProductByCity")) {
+            var response = priceQueryService.compareProductByCity(product.getId(), true, null, null, null);
+
+            assertThat(response.getCities()).extracting(CityComparisonResponse::getCity).containsExactly("budgetcity", "othercity");
+            assertThat(response.getTotalCompared()).isEqualTo(skuIds.size() + 1);
+            assertThat(response.getCheapestSkuId()).isEqualTo(cheapestSkuId);
+            assertThat(response.getCheapestCity()).isEqualTo("othercity");
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void latestPriceIssuesOneQuery() {
+        try (SqlStatementScope scope = SqlStatementTracker.open("getLatestPrice")) {
+            priceQueryService.getLatestPrice(skuIds.get(0));
+
+            assertThat(scope.getStats().getStatementCount()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    private Long seedSku(Platform platform, String city, BigDecimal price, Availability availability) {
+        SkuLocation sku = skuLocationRepository.save(SkuLocation.builder()
+                .product(product)
+                .platform(platform)
+                .city(city)
+                .productUrl("https://example.com/" + city)
+                .isActive(true)
+                .build());
+        priceSnapshotRepository.save(PriceSnapshot.builder()
+                .skuLocation(sku)
+                .sellingPrice(price)
+                .availability(availability)
+                .crawlStatus(CrawlStatus.SUCCESS)
+                .capturedAt(Instant.now())
+                .build());
+        return sku.getId();
+    }
+}
@@ -0,0 +1,91 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.response.CityComparisonResponse;
+import io.priceintel.dto.response.ProductCityComparisonResponse;
+import io.priceintel.enums.Availability;
+import io.priceintel.repository.SkuLocationRepository;
+import io.priceintel.stats.PriceStatsService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceQueryServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final long PRODUCT_ID = 7L;
+
+    private final PriceSnapshotService priceSnapshotService = mock(PriceSnapshotService.class);
+    private final PriceQueryService service = new PriceQueryService(priceSnapshotService, mock(PriceSnapshotMapper.class),
+            new PriceQueryValidator(), mock(SkuLocationRepository.class), new ComparisonValidator(),
+            mock(PriceStatsService.class));
+
+    @Test
+    void groupsOffersByNormalizedCityAndFindsTheCheapestCity() {
+        when(priceSnapshotService.getLatestOffersForProduct(PRODUCT_ID)).thenReturn(List.of(
+                offer(1L, "Pune", "120.00", Availability.IN_STOCK),
+                offer(2L, " pune ", "110.00", Availability.IN_STOCK),
+                offer(3L, "Delhi", "95.00", Availability.OUT_OF_STOCK),
+                offer(4L, "Delhi", "105.00", Availability.IN_STOCK),
+                offer(5L, "Goa", "130.00", Availability.IN_STOCK)));
+
+        ProductCityComparisonResponse response = service.compareProductByCity(PRODUCT_ID, false, null, null, null);
+
+        assertThat(response.getTotalCities()).isEqualTo(3);
+        assertThat(response.getTotalCompared()).isEqualTo(5);
+        assertThat(response.getCities()).extracting(CityComparisonResponse::getCity).containsExactly("delhi", "goa", "pune");
+        assertThat(city(response, "pune").getComparison().getCheapestSkuId()).isEqualTo(2L);
+        assertThat(city(response, "goa").getComparison().getCheapestSkuId()).isEqualTo(5L);
+        assertThat(response.getCheapestSkuId()).isEqualTo(3L);
+        assertThat(response.getCheapestCity()).isEqualTo("delhi");
+    }
+
+    @Test
+    void inStockOnlyDropsOutOfStockOffersAndCitiesLeftWithout() {
+        when(priceSnapshotService.getLatestOffersForProduct(PRODUCT_ID)).thenReturn(List.of(
+                offer(1L, "Pune", "120.00", Availability.IN_STOCK),
+                offer(2L, "Delhi", "95.00", Availability.OUT_OF_STOCK),
+                offer(3L, "Goa", "90.00", Availability.OUT_OF_STOCK),
+                offer(4L, "Goa", "100.00", Availability.IN_STOCK)));
+
+        ProductCityComparisonResponse response = service.compareProductByCity(PRODUCT_ID, true, null, null, null);
+
+        assertThat(response.getCities()).extracting(CityComparisonResponse::getCity).containsExactly("goa", "pune");
+        assertThat(response.getTotalCompared()).isEqualTo(2);
+        assertThat(response.getCheapestSkuId()).isEqualTo(4L);
+        assertThat(response.getCheapestCity()).isEqualTo("goa");
+    }
+
+    @Test
+    void rejectsAProductWithNoOfferLeft() {
+        when(priceSnapshotService.getLatestOffersForProduct(PRODUCT_ID)).thenReturn(List.of(
+                offer(1L, "Pune", "120.00", Availability.OUT_OF_STOCK)));
+
+        assertThatThrownBy(() -> service.compareProductByCity(PRODUCT_ID, true, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("in-stock");
+    }
+
+    private static CityComparisonResponse city(ProductCityComparisonResponse response, String city) {
+        return response.getCities().stream().filter(c -> c.getCity().equals(city)).findFirst().orElseThrow();
+    }
+
+    private static CheapestOffer offer(Long skuId, String city, String price, Availability availability) {
+        return CheapestOffer.builder()
+                .skuLocationId(skuId)
+                .productId(PRODUCT_ID)
+                .platformId(skuId)
+                .city(city)
+                .sellingPrice(new BigDecimal(price))
+                .availability(availability)
+                .capturedAt(T0.plusSeconds(skuId))
+                .build();
+    }
+}
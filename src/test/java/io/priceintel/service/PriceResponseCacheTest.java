@@ -0,0 +1,96 @@
+package io.priceintel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.priceintel.dto.SkuVersion;
+import io.priceintel.enums.ResponseEncoding;
+import io.priceintel.event.PriceSnapshotRecordedEvent;
+import io.priceintel.repository.PriceSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceResponseCacheTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void outOfOrderSnapshotInvalidatesHistoryETag() {
+        PriceSnapshotRepository repository = mock(PriceSnapshotRepository.class);
+        when(repository.findLatestVersion(1L)).thenReturn(Optional.of(new SkuVersion(10L, T0, 10L)));
+        PriceResponseCache cache = newCache(repository, new PriceResponseCacheProperties());
+
+        SkuVersion before = cache.getVersion(1L);
+        String historyETag = before.toHistoryETag();
+        assertThat(notModified(historyETag, cache.getVersion(1L).toHistoryETag())).isTrue();
+
+        // Backfilled row, captured before the latest one: latest stays, history does not
+        cache.onSnapshotRecorded(recorded(1L, 11L, T0.minusSeconds(3600)));
+
+        SkuVersion after = cache.getVersion(1L);
+        assertThat(after.toETag()).isEqualTo(before.toETag());
+        assertThat(notModified(historyETag, after.toHistoryETag())).isFalse();
+
+        // Same answer once the version is revalidated against the database
+        when(repository.findLatestVersion(1L)).thenReturn(Optional.of(new SkuVersion(10L, T0, 11L)));
+        PriceResponseCache restarted = newCache(repository, new PriceResponseCacheProperties());
+        assertThat(notModified(historyETag, restarted.getVersion(1L).toHistoryETag())).isFalse();
+    }
+
+    @Test
+    void capsRenderedVariantsPerSku() {
+        PriceSnapshotRepository repository = mock(PriceSnapshotRepository.class);
+        when(repository.findLatestVersion(1L)).thenReturn(Optional.of(new SkuVersion(10L, T0, 10L)));
+        PriceResponseCacheProperties properties = new PriceResponseCacheProperties();
+        properties.setMaxVariantsPerSku(2);
+        PriceResponseCache cache = newCache(repository, properties);
+        SkuVersion version = cache.getVersion(1L);
+        AtomicInteger renders = new AtomicInteger();
+
+        cache.getOrRender(1L, version, "latest", ResponseEncoding.JSON, () -> render(renders));
+        cache.getOrRender(1L, version, "history:a", ResponseEncoding.JSON, () -> render(renders));
+        cache.getOrRender(1L, version, "latest", ResponseEncoding.JSON, () -> render(renders));
+        assertThat(renders).hasValue(2);
+
+        // A third variant pushes out the least recently used one (history:a), not the hot one
+        cache.getOrRender(1L, version, "history:b", ResponseEncoding.JSON, () -> render(renders));
+        cache.getOrRender(1L, version, "latest", ResponseEncoding.JSON, () -> render(renders));
+        assertThat(renders).hasValue(3);
+        cache.getOrRender(1L, version, "history:a", ResponseEncoding.JSON, () -> render(renders));
+        assertThat(renders).hasValue(4);
+    }
+
+    private static boolean notModified(String ifNoneMatch, String currentETag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/skus/1/history");
+        request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse()).checkNotModified(currentETag);
+    }
+
+    private static Object render(AtomicInteger renders) {
+        return Map.of("render", renders.incrementAndGet());
+    }
+
+    private static PriceResponseCache newCache(PriceSnapshotRepository repository, PriceResponseCacheProperties properties) {
+        return new PriceResponseCache(repository, new PriceQueryValidator(), properties, new ObjectMapper(),
+                new MappingJackson2CborHttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter());
+    }
+
+    private static PriceSnapshotRecordedEvent recorded(Long skuId, Long snapshotId, Instant capturedAt) {
+        return PriceSnapshotRecordedEvent.builder()
+                .snapshotId(snapshotId)
+                .skuLocationId(skuId)
+                .capturedAt(capturedAt)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.RecordedSnapshot;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.repository.PriceQuarantineJdbcRepository;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import io.priceintel.repository.PriceSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PriceSnapshotServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final BigDecimal GLITCH = new BigDecimal("9999.00");
+
+    private final PriceSnapshotJdbcRepository snapshotRepository = mock(PriceSnapshotJdbcRepository.class);
+    private final PriceQuarantineJdbcRepository quarantineRepository = mock(PriceQuarantineJdbcRepository.class);
+    private final PriceAnomalyDetector detector = mock(PriceAnomalyDetector.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PriceSnapshotService service = new PriceSnapshotService(mock(PriceSnapshotRepository.class),
+            snapshotRepository, quarantineRepository, detector, eventPublisher);
+
+    @BeforeEach
+    void flagEverythingForQuarantine() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(detector.evaluate(anyLong(), anyDouble()))
+                .thenReturn(new PriceAnomalyDetector.Verdict(true, false, true, 100.0, 50.0));
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void repeatOfTheLatestSnapshotIsADuplicateNotAQuarantine() {
+        when(snapshotRepository.findDuplicateOfLatest(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.of(7L));
+
+        RecordedSnapshot recorded = record();
+
+        assertThat(recorded.getSnapshotId()).isEqualTo(7L);
+        assertThat(recorded.isInserted()).isFalse();
+        assertThat(recorded.isQuarantined()).isFalse();
+        verifyNoInteractions(quarantineRepository, eventPublisher);
+    }
+
+    @Test
+    void repeatedGlitchRowIsQuarantinedOnce() {
+        when(snapshotRepository.findDuplicateOfLatest(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(quarantineRepository.insertUnlessDuplicate(any(), any(), any(), any(), any(), any(),
+                anyDouble(), anyDouble(), any())).thenReturn(Optional.empty());
+
+        RecordedSnapshot recorded = record();
+
+        assertThat(recorded.isQuarantined()).isTrue();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private RecordedSnapshot record() {
+        return service.recordPrice(1L, GLITCH, null, Availability.IN_STOCK, CrawlStatus.SUCCESS, T0);
+    }
+}
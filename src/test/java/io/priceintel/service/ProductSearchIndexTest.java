@@ -0,0 +1,36 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.ProductSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void matchesPrefixesAndInfixesAcrossFields() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.addAll(List.of(
+                new ProductSummary(1L, "Amul", "Taaza Toned Milk", "1 L"),
+                new ProductSummary(2L, "Nandini", "Toned Milk", "500 ml"),
+                new ProductSummary(3L, "Amul", "Butter", "100 g"),
+                new ProductSummary(4L, "Mother Dairy", "Buttermilk", "200 ml")));
+        index.add(new ProductSummary(5L, "Amul", "Masti Buttermilk", "1 L"));
+
+        assertThat(ids(index.search("amul milk", 10))).containsExactly(1L, 5L);
+        // "butter" is a prefix of Butter/Buttermilk; "ermil" only matches inside a token
+        assertThat(ids(index.search("butter", 10))).containsExactly(3L, 4L, 5L);
+        assertThat(ids(index.search("ermil", 10))).containsExactly(4L, 5L);
+        // Short terms match token prefixes only
+        assertThat(ids(index.search("am l", 10))).containsExactly(1L, 5L);
+        // Trigrams that co-occur in different tokens are not a match
+        assertThat(index.search("tedmi", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    private static List<Long> ids(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::getId).toList();
+    }
+}
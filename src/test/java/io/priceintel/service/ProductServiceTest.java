@@ -0,0 +1,37 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.repository.DimensionUpsertJdbcRepository;
+import io.priceintel.repository.ProductRepository;
+import io.priceintel.repository.ProductSearchJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductServiceTest {
+
+    private final ProductSearchJdbcRepository productSearchJdbcRepository = mock(ProductSearchJdbcRepository.class);
+    private final ProductService service = new ProductService(mock(ProductRepository.class),
+            mock(DimensionUpsertJdbcRepository.class), productSearchJdbcRepository, new ProductSearchIndex(),
+            mock(ApplicationEventPublisher.class));
+
+    @Test
+    void searchesTheDatabaseTermByTermWhileTheIndexLoads() {
+        ProductSummary taaza = new ProductSummary(1L, "Amul", "Taaza Milk", "1 L");
+        when(productSearchJdbcRepository.searchSummaries(List.of("amul", "milk"), 20)).thenReturn(List.of(taaza));
+
+        assertThat(service.searchProducts("  Amul  MILK% ", null)).containsExactly(taaza);
+    }
+
+    @Test
+    void skipsTheDatabaseWhenTheQueryHasNoTerms() {
+        assertThat(service.searchProducts("%_%", null)).isEmpty();
+        verifyNoInteractions(productSearchJdbcRepository);
+    }
+}
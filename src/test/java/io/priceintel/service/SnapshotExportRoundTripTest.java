@@ -0,0 +1,176 @@
+package io.priceintel.service;
+
+import io.priceintel.dto.SnapshotExportCriteria;
+import io.priceintel.entity.Platform;
+import io.priceintel.entity.PriceSnapshot;
+import io.priceintel.entity.Product;
+import io.priceintel.entity.SkuLocation;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.enums.ExportFormat;
+import io.priceintel.repository.PlatformRepository;
+import io.priceintel.repository.PriceSnapshotRepository;
+import io.priceintel.repository.ProductRepository;
+import io.priceintel.repository.SkuLocationRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SnapshotExportRoundTripTest {
+
+    // Far outside any real data so the range only matches the seeded rows
+    private static final Instant T0 = Instant.parse("2001-01-01T00:00:00.123456Z");
+    private static final String CITY = "Navi Mumbai, \"East\"";
+
+    @Autowired
+    private SnapshotExportService snapshotExportService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformRepository platformRepository;
+    @Autowired
+    private SkuLocationRepository skuLocationRepository;
+    @Autowired
+    private PriceSnapshotRepository priceSnapshotRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+    private final List<PriceSnapshot> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        product = productRepository.save(Product.builder()
+                .brandName("Export Test Brand")
+                .productName("Export Test Product")
+                .packSize("500g")
+                .createdAt(Instant.now())
+                .build());
+        Platform platform = platformRepository.save(Platform.builder()
+                .name("export-test-platform")
+                .createdAt(Instant.now())
+                .build());
+        SkuLocation sku = skuLocationRepository.save(SkuLocation.builder()
+                .product(product)
+                .platform(platform)
+                .city(CITY)
+                .productUrl("https://example.com/export")
+                .isActive(true)
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            seeded.add(priceSnapshotRepository.save(PriceSnapshot.builder()
+                    .skuLocation(sku)
+                    .sellingPrice(new BigDecimal("101.50").add(BigDecimal.valueOf(i)))
+                    .discount(i == 1 ? null : new BigDecimal("5.25"))
+                    .availability(i == 2 ? Availability.OUT_OF_STOCK : Availability.IN_STOCK)
+                    .crawlStatus(CrawlStatus.SUCCESS)
+                    .capturedAt(T0.plusSeconds(60L * i))
+                    .build()));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvRoundTripsEverySeededRow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = snapshotExportService.export(criteria(), ExportFormat.CSV, out);
+
+        List<List<String>> records = parseCsv(out.toString(StandardCharsets.UTF_8));
+        assertThat(exported).isEqualTo(seeded.size());
+        assertThat(records.get(0)).containsExactly("snapshot_id", "sku_location_id", "product_id", "platform_id",
+                "city", "selling_price", "discount", "availability", "crawl_status", "captured_at");
+        assertThat(records).hasSize(seeded.size() + 1);
+
+        List<List<String>> rows = new ArrayList<>(records.subList(1, records.size()));
+        rows.sort((a, b) -> Long.compare(Long.parseLong(a.get(0)), Long.parseLong(b.get(0))));
+        for (int i = 0; i < seeded.size(); i++) {
+            PriceSnapshot expected = seeded.get(i);
+            List<String> actual = rows.get(i);
+            assertThat(Long.parseLong(actual.get(0))).isEqualTo(expected.getId());
+            assertThat(Long.parseLong(actual.get(2))).isEqualTo(product.getId());
+            assertThat(actual.get(4)).isEqualTo(CITY);
+            assertThat(new BigDecimal(actual.get(5))).isEqualByComparingTo(expected.getSellingPrice());
+            if (expected.getDiscount() == null) {
+                assertThat(actual.get(6)).isEmpty();
+            } else {
+                assertThat(new BigDecimal(actual.get(6))).isEqualByComparingTo(expected.getDiscount());
+            }
+            assertThat(actual.get(7)).isEqualTo(expected.getAvailability().name());
+            assertThat(actual.get(8)).isEqualTo(expected.getCrawlStatus().name());
+            assertThat(Instant.parse(actual.get(9))).isEqualTo(expected.getCapturedAt());
+        }
+    }
+
+    @Test
+    void ndjsonExportsTheSameRowsAsCsv() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        long csvRows = snapshotExportService.export(criteria(), ExportFormat.CSV, csv);
+        long ndjsonRows = snapshotExportService.export(criteria(), ExportFormat.NDJSON, ndjson);
+
+        assertThat(ndjsonRows).isEqualTo(csvRows).isEqualTo(seeded.size());
+        assertThat(ndjson.toString(StandardCharsets.UTF_8).split("\n"))
+                .hasSize(seeded.size())
+                .allSatisfy(line -> assertThat(line).startsWith("{\"snapshotId\":"));
+    }
+
+    private SnapshotExportCriteria criteria() {
+        return SnapshotExportCriteria.builder()
+                .from(T0)
+                .to(T0.plusSeconds(3600))
+                .productId(product.getId())
+                .build();
+    }
+
+    // RFC 4180 as written by COPY ... (FORMAT csv): quoted fields may hold commas, quotes and newlines
+    private static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,87 @@
+package io.priceintel.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.priceintel.dto.SnapshotExportCriteria;
+import io.priceintel.dto.SnapshotExportRow;
+import io.priceintel.enums.Availability;
+import io.priceintel.enums.CrawlStatus;
+import io.priceintel.enums.ExportFormat;
+import io.priceintel.repository.PriceSnapshotJdbcRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SnapshotExportServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void ndjsonRoundTripsEveryRowOnItsOwnLine() throws Exception {
+        List<SnapshotExportRow> rows = List.of(
+                row(1L, "Navi Mumbai, \"East\"", "101.50", "5.25", T0),
+                row(2L, "Bangalore", "99.00", null, T0.plusMillis(1)));
+
+        PriceSnapshotJdbcRepository repository = mock(PriceSnapshotJdbcRepository.class);
+        doAnswer(invocation -> {
+            Consumer<SnapshotExportRow> sink = invocation.getArgument(1);
+            rows.forEach(sink);
+            return null;
+        }).when(repository).forEachSnapshotForExport(any(), any());
+        ObjectMapper objectMapper = new ObjectMapper();
+        SnapshotExportService service = new SnapshotExportService(repository, objectMapper);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = service.export(criteria(), ExportFormat.NDJSON, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2).allSatisfy(line -> assertThat(line).startsWith("{"));
+
+        for (int i = 0; i < rows.size(); i++) {
+            SnapshotExportRow expected = rows.get(i);
+            JsonNode actual = objectMapper.readTree(lines[i]);
+            assertThat(actual.get("snapshotId").asLong()).isEqualTo(expected.getSnapshotId());
+            assertThat(actual.get("city").asText()).isEqualTo(expected.getCity());
+            assertThat(actual.get("sellingPrice").decimalValue()).isEqualByComparingTo(expected.getSellingPrice());
+            if (expected.getDiscount() == null) {
+                assertThat(actual.get("discount").isNull()).isTrue();
+            } else {
+                assertThat(actual.get("discount").decimalValue()).isEqualByComparingTo(expected.getDiscount());
+            }
+            assertThat(actual.get("availability").asText()).isEqualTo(expected.getAvailability().name());
+            assertThat(Instant.parse(actual.get("capturedAt").asText())).isEqualTo(expected.getCapturedAt());
+        }
+    }
+
+    private static SnapshotExportCriteria criteria() {
+        return SnapshotExportCriteria.builder().from(T0).to(T0.plusSeconds(60)).build();
+    }
+
+    private static SnapshotExportRow row(Long id, String city, String price, String discount, Instant capturedAt) {
+        return SnapshotExportRow.builder()
+                .snapshotId(id)
+                .skuLocationId(10L)
+                .productId(20L)
+                .platformId(30L)
+                .city(city)
+                .sellingPrice(new BigDecimal(price))
+                .discount(discount != null ? new BigDecimal(discount) : null)
+                .availability(Availability.IN_STOCK)
+                .crawlStatus(CrawlStatus.SUCCESS)
+                .capturedAt(capturedAt)
+                .build();
+    }
+}
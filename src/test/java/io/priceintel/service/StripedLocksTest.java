@@ -0,0 +1,200 @@
+package io.priceintel.service;
+
+import io.priceintel.exception.LockStripeBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedLocksTest {
+
+    @Test
+    void serializesCallersOnTheSameKey() throws Exception {
+        StripedLocks locks = new StripedLocks(8, 5_000);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = executor.invokeAll(Collections.nCopies(200, () ->
+                    locks.withLock(List.of("amul", "milk", "1 L"), () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        Thread.onSpinWait();
+                        return inside.decrementAndGet();
+                    })));
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(maxInside.get()).isEqualTo(1);
+    }
+
+    @Test
+    void proceedsUnlockedWhenTheStripeStaysBusy() throws Exception {
+        StripedLocks locks = new StripedLocks(1, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> locks.withLock("a", () -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        held.await(5, TimeUnit.SECONDS);
+
+        assertThat(locks.withLock("b", () -> "done")).isEqualTo("done");
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void holdsTheStripeUntilTheTransactionCompletes() {
+        StripedLocks locks = new StripedLocks(16, 1_000);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.lockUntilTransactionEnds(42L, () -> locks.lockUntilTransactionEnds(42L, () -> null));
+            assertThat(locks.stripeFor(42L).getHoldCount()).isEqualTo(2);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+            assertThat(locks.stripeFor(42L).isLocked()).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rejectsTheTransactionWhenTheStripeStaysBusy() throws Exception {
+        StripedLocks locks = new StripedLocks(1, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> locks.withLock("a", () -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        held.await(5, TimeUnit.SECONDS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> locks.lockUntilTransactionEnds("b", () -> "done"))
+                    .isInstanceOf(LockStripeBusyException.class);
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    void releasesTheStripeAfterTheAfterCommitListeners() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ListenerConfig.class)) {
+            StripedLocks locks = context.getBean(StripedLocks.class);
+            StripeProbe probe = context.getBean(StripeProbe.class);
+
+            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                    locks.lockUntilTransactionEnds(42L, () -> {
+                        context.publishEvent(new KeyRecorded(42L));
+                        return null;
+                    }));
+
+            assertThat(probe.lockedDuringListener).isTrue();
+            assertThat(locks.stripeFor(42L).isLocked()).isFalse();
+        }
+    }
+
+    record KeyRecorded(Object key) {
+    }
+
+    static class StripeProbe {
+
+        private final StripedLocks locks;
+        private volatile Boolean lockedDuringListener;
+
+        StripeProbe(StripedLocks locks) {
+            this.locks = locks;
+        }
+
+        @TransactionalEventListener
+        public void onKeyRecorded(KeyRecorded event) {
+            lockedDuringListener = locks.stripeFor(event.key()).isLocked();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class ListenerConfig {
+
+        @Bean
+        StripedLocks stripedLocks() {
+            return new StripedLocks(16, 1_000);
+        }
+
+        @Bean
+        StripeProbe stripeProbe(StripedLocks stripedLocks) {
+            return new StripeProbe(stripedLocks);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+    }
+
+    // Only drives the synchronization callbacks; there is no resource behind the transaction
+    static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
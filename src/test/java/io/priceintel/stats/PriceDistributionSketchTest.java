@@ -0,0 +1,123 @@
+package io.priceintel.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PriceDistributionSketchTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T00:00:00Z");
+
+    @Test
+    void isExactUntilTheFirstCompaction() {
+        PriceDistributionSketch sketch = new PriceDistributionSketch(200);
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i, T0.plusSeconds(i));
+        }
+
+        KllSketch quantiles = sketch.getQuantiles();
+        assertThat(quantiles.isExact()).isTrue();
+        assertThat(quantiles.getRankError()).isZero();
+        assertThat(quantiles.getQuantile(0.10)).isEqualTo(10.0);
+        assertThat(quantiles.getQuantile(0.50)).isEqualTo(50.0);
+        assertThat(quantiles.getQuantile(0.90)).isEqualTo(90.0);
+    }
+
+    @Test
+    void mergedDaySketchesStayWithinTheStatedRankError() {
+        Random random = new Random(7);
+        int days = 365;
+        int perDay = 96;
+        double[] all = new double[days * perDay];
+        PriceDistributionSketch merged = new PriceDistributionSketch(200);
+
+        for (int day = 0; day < days; day++) {
+            PriceDistributionSketch daySketch = new PriceDistributionSketch(200);
+            for (int i = 0; i < perDay; i++) {
+                double price = Math.round((100 + 20 * random.nextGaussian()) * 100) / 100.0;
+                all[day * perDay + i] = price;
+                daySketch.add(price, T0.plusSeconds(day * 86_400L + i * 900L));
+            }
+            merged.merge(PriceDistributionSketch.fromBytes(daySketch.toBytes()));
+        }
+        Arrays.sort(all);
+
+        KllSketch quantiles = merged.getQuantiles();
+        assertThat(quantiles.getN()).isEqualTo(all.length);
+        assertThat(quantiles.retainedItems()).isLessThan(1_000);
+        for (double rank : new double[]{0.10, 0.50, 0.90}) {
+            double estimate = quantiles.getQuantile(rank);
+            double actualRank = (double) lowerBound(all, estimate) / all.length;
+            assertThat(actualRank).isCloseTo(rank, within(quantiles.getRankError()));
+        }
+    }
+
+    @Test
+    void mergedMomentsMatchSinglePass() {
+        PriceMoments single = new PriceMoments();
+        PriceMoments left = new PriceMoments();
+        PriceMoments right = new PriceMoments();
+        String[] prices = {"99.50", "101.00", "98.00", "120.00", "98.00", "100.25", "98.00"};
+        for (int i = 0; i < prices.length; i++) {
+            Instant at = T0.plusSeconds(i * 60L);
+            single.add(new BigDecimal(prices[i]), at);
+            (i < 3 ? left : right).add(new BigDecimal(prices[i]), at);
+        }
+        left.merge(right);
+
+        assertThat(left.getCount()).isEqualTo(single.getCount());
+        assertThat(left.getMean()).isCloseTo(single.getMean(), within(1e-9));
+        assertThat(left.getStdDev()).isCloseTo(single.getStdDev(), within(1e-9));
+        assertThat(left.getMin()).isEqualTo(98.0);
+        assertThat(left.getMax()).isEqualTo(120.0);
+        // 98.0 was seen three times; ties resolve to the most recent sighting
+        assertThat(single.getMinAt()).isEqualTo(T0.plusSeconds(6 * 60L));
+        assertThat(left.getMinAt()).isEqualTo(T0.plusSeconds(6 * 60L));
+    }
+
+    @Test
+    void decimalSumSurvivesMergeAndSerialization() {
+        PriceDistributionSketch left = new PriceDistributionSketch(200);
+        PriceDistributionSketch right = new PriceDistributionSketch(200);
+        // 0.1 has no exact double; a thousand of them must still sum to exactly 100.00
+        for (int i = 0; i < 1_000; i++) {
+            (i % 2 == 0 ? left : right).add(new BigDecimal("0.10"), T0.plusSeconds(i));
+        }
+        left.merge(right);
+
+        PriceMoments moments = PriceDistributionSketch.fromBytes(left.toBytes()).getMoments();
+        assertThat(moments.getCount()).isEqualTo(1_000);
+        assertThat(moments.getSum()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void storedEmptyDayMergesAsNothing() {
+        // Days without snapshots are stored as empty sketches and merged like any other day
+        PriceDistributionSketch emptyDay = PriceDistributionSketch.fromBytes(new PriceDistributionSketch(200).toBytes());
+        PriceDistributionSketch total = new PriceDistributionSketch(200);
+        total.add(new BigDecimal("42.50"), T0);
+        total.merge(emptyDay);
+
+        assertThat(emptyDay.isEmpty()).isTrue();
+        assertThat(total.getMoments().getCount()).isEqualTo(1);
+        assertThat(total.getMoments().getMin()).isEqualTo(42.5);
+        assertThat(total.getQuantiles().getQuantile(0.5)).isEqualTo(42.5);
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,35 @@
+package io.priceintel.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceStreamSubscriptionTest {
+
+    @Test
+    void bufferIsBoundedAndDroppedSubscriptionRejectsFurtherEvents() {
+        PriceStreamSubscription subscription = new PriceStreamSubscription(
+                1L, Set.of(1L), null, null, new SseEmitter(), 2, () -> { });
+
+        assertThat(subscription.offer(new PriceStreamMessage(1L, "{}"))).isTrue();
+        assertThat(subscription.offer(new PriceStreamMessage(2L, "{}"))).isTrue();
+        assertThat(subscription.offer(new PriceStreamMessage(3L, "{}"))).isFalse();
+
+        subscription.drop();
+
+        assertThat(subscription.isClosed()).isTrue();
+        assertThat(subscription.offer(new PriceStreamMessage(4L, "{}"))).isFalse();
+    }
+
+    @Test
+    void productSubscriptionMatchesCityIgnoringCase() {
+        PriceStreamSubscription subscription = new PriceStreamSubscription(
+                1L, null, 10L, "Bangalore", new SseEmitter(), 2, () -> { });
+
+        assertThat(subscription.matchesCity("bangalore")).isTrue();
+        assertThat(subscription.matchesCity("Mumbai")).isFalse();
+    }
+}
@@ -0,0 +1,61 @@
+package io.priceintel.warmup;
+
+import io.priceintel.dto.CheapestOffer;
+import io.priceintel.dto.ProductSummary;
+import io.priceintel.enums.Availability;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WarmSnapshotCodecTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsOffersAndProducts() throws IOException {
+        Instant capturedAt = Instant.parse("2026-01-01T10:15:30.123456789Z");
+        CheapestOffer withDiscount = CheapestOffer.builder()
+                .skuLocationId(1L).productId(7L).platformId(2L).city("bangalore")
+                .sellingPrice(new BigDecimal("99.50")).discount(new BigDecimal("5.00"))
+                .availability(Availability.IN_STOCK).capturedAt(capturedAt)
+                .build();
+        CheapestOffer withoutDiscount = CheapestOffer.builder()
+                .skuLocationId(2L).productId(7L).platformId(3L).city("bangalore")
+                .sellingPrice(new BigDecimal("120")).discount(null)
+                .availability(Availability.OUT_OF_STOCK).capturedAt(capturedAt)
+                .build();
+        ProductSummary product = new ProductSummary(7L, "Amul", "Taaza Milk", "500 ml");
+
+        Instant writtenAt = Instant.parse("2026-01-01T10:20:00Z");
+        Path path = dir.resolve("nested").resolve("warm.bin");
+        WarmSnapshotCodec.write(new WarmSnapshot(writtenAt, 42L, List.of(withDiscount, withoutDiscount), List.of(product)), path);
+        WarmSnapshot read = WarmSnapshotCodec.read(path);
+
+        assertThat(read.getWrittenAt()).isEqualTo(writtenAt);
+        assertThat(read.getSnapshotWatermark()).isEqualTo(42L);
+        assertThat(read.getOffers()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(withDiscount, withoutDiscount);
+        assertThat(read.getProducts()).usingRecursiveFieldByFieldElementComparator().containsExactly(product);
+        try (var files = Files.list(path.getParent())) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path path = dir.resolve("garbage.bin");
+        Files.writeString(path, "not a snapshot");
+
+        assertThatThrownBy(() -> WarmSnapshotCodec.read(path)).isInstanceOf(IOException.class);
+    }
+}